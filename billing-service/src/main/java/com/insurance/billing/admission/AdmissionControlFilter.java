@@ -0,0 +1,80 @@
+package com.insurance.billing.admission;
+
+import com.insurance.billing.admission.AdmissionController.Decision;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Puts every API request through {@link AdmissionController} before it reaches a controller.
+ * Requests that are shed or find no free slot in time get a 429 with Retry-After, without
+ * holding a request thread for longer than the class's maximum wait.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_CLASS_HEADER = "X-Request-Class";
+
+    private final AdmissionController admissionController;
+    private final String retryAfterSeconds;
+    private final Map<RequestClass, Timer> waitTimers = new EnumMap<>(RequestClass.class);
+
+    public AdmissionControlFilter(AdmissionController admissionController, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.admissionController = admissionController;
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+        for (RequestClass requestClass : RequestClass.values()) {
+            waitTimers.put(requestClass, Timer.builder("billing.admission.wait")
+                    .description("Time admitted requests waited for a slot")
+                    .tag("class", requestClass.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RequestClass requestClass = admissionController.classify(request.getMethod(), path);
+
+        long arrived = System.nanoTime();
+        Decision decision;
+        try {
+            decision = admissionController.admit(requestClass);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            decision = Decision.REJECTED;
+        }
+        if (!decision.admitted()) {
+            reject(response, requestClass, decision);
+            return;
+        }
+
+        long admitted = System.nanoTime();
+        waitTimers.get(requestClass).record(Duration.ofNanos(admitted - arrived));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            admissionController.release(requestClass, System.nanoTime() - admitted);
+        }
+    }
+
+    private void reject(HttpServletResponse response, RequestClass requestClass, Decision decision) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setHeader(REQUEST_CLASS_HEADER, requestClass.name());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + (decision == Decision.SHED ? "load_shed" : "capacity_exceeded")
+                + "\",\"requestClass\":\"" + requestClass.name() + "\"}");
+    }
+}
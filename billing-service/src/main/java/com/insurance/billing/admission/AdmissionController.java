@@ -0,0 +1,210 @@
+package com.insurance.billing.admission;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission decisions for the request classes. Each class has a concurrency limit and a
+ * maximum time to wait for a slot. Independently of capacity, lower classes are shed outright
+ * while the smoothed latency of CRITICAL requests is above its target: BATCH as soon as the
+ * target is breached, STANDARD once it is exceeded by {@code standardShedFactor}.
+ * <p>
+ * Critical latency is averaged per window and smoothed across windows, so a window with no
+ * critical traffic pulls the average down and shedding ends on its own once load drops.
+ */
+@Slf4j
+public class AdmissionController {
+
+    public enum Decision {
+        ADMITTED, REJECTED, SHED;
+
+        public boolean admitted() {
+            return this == ADMITTED;
+        }
+    }
+
+    /**
+     * Limits of one request class; patterns are Ant-style paths, optionally prefixed with an
+     * HTTP method ({@code "POST /api/billing/payments"}).
+     */
+    public record LaneSettings(RequestClass requestClass, List<String> patterns, int maxConcurrent, Duration maxWait) {
+    }
+
+    private record Route(String method, String pattern, RequestClass requestClass) {
+    }
+
+    public static final class Lane {
+        private final Semaphore permits;
+        private final int maxConcurrent;
+        private final long maxWaitNanos;
+        private final AtomicLong admitted = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong shed = new AtomicLong();
+
+        private Lane(int maxConcurrent, Duration maxWait) {
+            this.permits = new Semaphore(maxConcurrent, true);
+            this.maxConcurrent = maxConcurrent;
+            this.maxWaitNanos = maxWait.toNanos();
+        }
+
+        public int inFlight() {
+            return maxConcurrent - permits.availablePermits();
+        }
+
+        public int queued() {
+            return permits.getQueueLength();
+        }
+
+        public long admitted() {
+            return admitted.get();
+        }
+
+        public long rejected() {
+            return rejected.get();
+        }
+
+        public long shed() {
+            return shed.get();
+        }
+    }
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    private final Map<RequestClass, Lane> lanes = new EnumMap<>(RequestClass.class);
+    private final List<Route> routes = new ArrayList<>();
+    private final long latencyTargetNanos;
+    private final double standardShedFactor;
+    private final long windowNanos;
+    private final double smoothing;
+    private final LongSupplier nanoClock;
+
+    private long windowStart;
+    private long windowLatencyNanos;
+    private long windowSamples;
+    private volatile double criticalLatencyNanos;
+
+    public AdmissionController(List<LaneSettings> settings, Duration latencyTarget, double standardShedFactor,
+                               Duration window, double smoothing, LongSupplier nanoClock) {
+        for (LaneSettings lane : settings) {
+            lanes.put(lane.requestClass(), new Lane(lane.maxConcurrent(), lane.maxWait()));
+            for (String pattern : lane.patterns()) {
+                String trimmed = pattern.trim();
+                int space = trimmed.indexOf(' ');
+                routes.add(space < 0
+                        ? new Route(null, trimmed, lane.requestClass())
+                        : new Route(trimmed.substring(0, space), trimmed.substring(space + 1).trim(), lane.requestClass()));
+            }
+        }
+        for (RequestClass requestClass : RequestClass.values()) {
+            if (!lanes.containsKey(requestClass)) {
+                throw new IllegalArgumentException("No admission settings for " + requestClass);
+            }
+        }
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.standardShedFactor = standardShedFactor;
+        this.windowNanos = window.toNanos();
+        this.smoothing = smoothing;
+        this.nanoClock = nanoClock;
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    /**
+     * Class of a request; the first matching pattern wins, in CRITICAL, STANDARD, BATCH order.
+     */
+    public RequestClass classify(String method, String path) {
+        for (RequestClass requestClass : RequestClass.values()) {
+            for (Route route : routes) {
+                if (route.requestClass() == requestClass
+                        && (route.method() == null || route.method().equalsIgnoreCase(method))
+                        && PATHS.match(route.pattern(), path)) {
+                    return requestClass;
+                }
+            }
+        }
+        return RequestClass.STANDARD;
+    }
+
+    /**
+     * Take a slot for the request, waiting up to the class's maximum wait. An admitted request
+     * must be paired with {@link #release}.
+     */
+    public Decision admit(RequestClass requestClass) throws InterruptedException {
+        Lane lane = lanes.get(requestClass);
+        if (isShedding(requestClass)) {
+            lane.shed.incrementAndGet();
+            return Decision.SHED;
+        }
+        if (!lane.permits.tryAcquire(lane.maxWaitNanos, TimeUnit.NANOSECONDS)) {
+            lane.rejected.incrementAndGet();
+            return Decision.REJECTED;
+        }
+        lane.admitted.incrementAndGet();
+        return Decision.ADMITTED;
+    }
+
+    public void release(RequestClass requestClass, long latencyNanos) {
+        lanes.get(requestClass).permits.release();
+        if (requestClass == RequestClass.CRITICAL) {
+            recordCriticalLatency(latencyNanos);
+        }
+    }
+
+    public boolean isShedding(RequestClass requestClass) {
+        return switch (requestClass) {
+            case CRITICAL -> false;
+            case STANDARD -> criticalLatencyNanos() > latencyTargetNanos * standardShedFactor;
+            case BATCH -> criticalLatencyNanos() > latencyTargetNanos;
+        };
+    }
+
+    /**
+     * Smoothed CRITICAL latency, in nanoseconds, as of the last completed window.
+     */
+    public double criticalLatencyNanos() {
+        roll(nanoClock.getAsLong());
+        return criticalLatencyNanos;
+    }
+
+    public Lane lane(RequestClass requestClass) {
+        return lanes.get(requestClass);
+    }
+
+    private synchronized void recordCriticalLatency(long latencyNanos) {
+        roll(nanoClock.getAsLong());
+        windowLatencyNanos += latencyNanos;
+        windowSamples++;
+    }
+
+    private synchronized void roll(long now) {
+        if (now - windowStart < windowNanos) {
+            return;
+        }
+        long windows = (now - windowStart) / windowNanos;
+        double average = windowSamples > 0 ? (double) windowLatencyNanos / windowSamples : 0;
+        boolean wasShedding = criticalLatencyNanos > latencyTargetNanos;
+        double smoothed = smoothing * average + (1 - smoothing) * criticalLatencyNanos;
+        // Windows that passed without any critical request count as idle
+        for (long idle = 1; idle < windows && smoothed > 0; idle++) {
+            smoothed *= 1 - smoothing;
+        }
+        criticalLatencyNanos = smoothed;
+        windowStart += windows * windowNanos;
+        windowLatencyNanos = 0;
+        windowSamples = 0;
+        if (wasShedding != smoothed > latencyTargetNanos) {
+            log.warn("Critical request latency {} ms is {} the {} ms target; batch requests {}",
+                    Math.round(smoothed / 1_000_000), wasShedding ? "back under" : "above",
+                    TimeUnit.NANOSECONDS.toMillis(latencyTargetNanos), wasShedding ? "admitted again" : "shed");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.insurance.billing.admission;
+
+/**
+ * Priority classes for inbound requests, highest first. Each class gets its own concurrency
+ * limit, so a burst in one class cannot take the request threads the others need.
+ */
+public enum RequestClass {
+    /** Payment submission, status updates and single-policy lookups on the payment path */
+    CRITICAL,
+    /** Everything not classified otherwise */
+    STANDARD,
+    /** Reports, listings and bulk submissions; the first to be shed under load */
+    BATCH
+}
@@ -0,0 +1,90 @@
+package com.insurance.billing.client;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.insurance.shared.client.PolicyClient;
+import com.insurance.shared.dto.PolicyDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Near cache in front of the local policy store, which falls back to policy-service.
+ * Entries expire after a fixed TTL, are bounded by size, and are invalidated when policy
+ * change events arrive. Concurrent misses for the same policyId share a single load.
+ */
+@Slf4j
+@Primary
+@Component
+public class CachedPolicyClient implements PolicyClient {
+
+    static final String CACHE_NAME = "policy.near-cache";
+
+    private final PolicyClient delegate;
+    private final LoadingCache<String, PolicyDto> cache;
+
+    public CachedPolicyClient(@Qualifier("local") PolicyClient delegate,
+                              MeterRegistry meterRegistry,
+                              @Value("${policy.cache.maximum-size:50000}") long maximumSize,
+                              @Value("${policy.cache.ttl:10m}") Duration ttl) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(new PolicyLoader());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public Optional<PolicyDto> getPolicy(String policyId) {
+        return Optional.ofNullable(cache.get(policyId));
+    }
+
+    @Override
+    public boolean existsById(String policyId) {
+        if (cache.getIfPresent(policyId) != null) {
+            return true;
+        }
+        return delegate.existsById(policyId);
+    }
+
+    @Override
+    public Map<String, PolicyDto> getPolicies(Collection<String> policyIds) {
+        return cache.getAll(policyIds);
+    }
+
+    public void invalidate(String policyId) {
+        log.debug("Invalidating cached policy {}", policyId);
+        cache.invalidate(policyId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // Misses (404 or remote errors) are left out so that nothing is cached for them
+    private class PolicyLoader implements CacheLoader<String, PolicyDto> {
+
+        @Override
+        public PolicyDto load(String policyId) {
+            return delegate.getPolicy(policyId).orElse(null);
+        }
+
+        @Override
+        public Map<String, PolicyDto> loadAll(Set<? extends String> policyIds) {
+            return delegate.getPolicies(Set.copyOf(policyIds));
+        }
+    }
+}
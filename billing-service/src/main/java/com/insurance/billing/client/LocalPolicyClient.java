@@ -0,0 +1,61 @@
+package com.insurance.billing.client;
+
+import com.insurance.billing.projection.LocalPolicyStore;
+import com.insurance.shared.client.PolicyClient;
+import com.insurance.shared.dto.PolicyDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serves policies from the local policy store and asks policy-service only for the ones it
+ * does not hold yet, such as policies created since the store last caught up, or holds
+ * past the store's maximum age. What policy-service returns for those is written back to
+ * the store, so each policy costs at most one remote read per maximum age.
+ */
+@Component
+@Qualifier("local")
+public class LocalPolicyClient implements PolicyClient {
+
+    private final LocalPolicyStore policyStore;
+    private final PolicyClient remote;
+
+    public LocalPolicyClient(LocalPolicyStore policyStore, @Qualifier("remote") PolicyClient remote) {
+        this.policyStore = policyStore;
+        this.remote = remote;
+    }
+
+    @Override
+    public Optional<PolicyDto> getPolicy(String policyId) {
+        return policyStore.get(policyId).or(() -> {
+            Optional<PolicyDto> policy = remote.getPolicy(policyId);
+            policyStore.refresh(policyId, policy.orElse(null));
+            return policy;
+        });
+    }
+
+    @Override
+    public boolean existsById(String policyId) {
+        return policyStore.contains(policyId) || remote.existsById(policyId);
+    }
+
+    @Override
+    public Map<String, PolicyDto> getPolicies(Collection<String> policyIds) {
+        Map<String, PolicyDto> policies = new HashMap<>(policyStore.getAll(policyIds));
+        List<String> missing = policyIds.stream()
+                .filter(policyId -> !policies.containsKey(policyId))
+                .distinct()
+                .toList();
+        if (!missing.isEmpty()) {
+            Map<String, PolicyDto> fetched = remote.getPolicies(missing);
+            missing.forEach(policyId -> policyStore.refresh(policyId, fetched.get(policyId)));
+            policies.putAll(fetched);
+        }
+        return policies;
+    }
+}
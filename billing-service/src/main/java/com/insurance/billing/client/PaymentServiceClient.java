@@ -0,0 +1,92 @@
+package com.insurance.billing.client;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.insurance.shared.dto.PaymentDto;
+import com.insurance.shared.dto.PaymentRequestDto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calls payment-service on behalf of billing jobs, over the shared pooled RestTemplate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentServiceClient {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final ParameterizedTypeReference<Map<String, Object>> RESULT_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<List<PaymentDto>> PAYMENT_LIST_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final RestTemplate restTemplate;
+
+    @Value("${payment.service.url}")
+    private String paymentServiceUrl;
+
+    public record RetryResult(boolean succeeded, String message) {
+    }
+
+    /**
+     * Ask payment-service to retry a failed payment. The idempotency key identifies the
+     * retry attempt; payment-service answers a repeated call for the same attempt with the
+     * outcome it recorded instead of attempting the payment again.
+     *
+     * @throws RestClientException if payment-service cannot be reached or rejects the call
+     */
+    public RetryResult retryPayment(String paymentId, String idempotencyKey) {
+        String url = paymentServiceUrl + "/api/payments/{paymentId}/retry";
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        try {
+            Map<String, Object> body = restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(headers),
+                    RESULT_TYPE, paymentId).getBody();
+            if (body == null) {
+                return new RetryResult(false, "Empty response from payment-service");
+            }
+            boolean succeeded = "COMPLETED".equals(String.valueOf(body.get("status")));
+            Object message = body.getOrDefault("message", body.get("status"));
+            return new RetryResult(succeeded, message != null ? message.toString() : null);
+        } catch (HttpClientErrorException.NotFound e) {
+            log.warn("Payment {} not found in payment-service", paymentId);
+            return new RetryResult(false, "Payment not found");
+        }
+    }
+
+    /**
+     * Submit payments to payment-service in one call.
+     *
+     * @return processed payments in request order
+     * @throws RestClientException if payment-service cannot be reached, rejects the call or
+     *                             does not answer for every payment
+     */
+    public List<PaymentDto> submitPayments(List<PaymentRequestDto> requests) {
+        String url = paymentServiceUrl + "/api/payments/batch";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        List<PaymentDto> processed = restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(requests, headers),
+                PAYMENT_LIST_TYPE).getBody();
+        if (processed == null || processed.size() != requests.size()) {
+            throw new RestClientException("payment-service answered for " + (processed == null ? 0 : processed.size())
+                    + " of " + requests.size() + " payments");
+        }
+        return processed;
+    }
+}
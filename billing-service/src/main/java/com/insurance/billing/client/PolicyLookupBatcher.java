@@ -0,0 +1,103 @@
+package com.insurance.billing.client;
+
+import com.insurance.shared.dto.PolicyDto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Collects single-policy lookups issued within a short window and resolves them with
+ * one bulk request. A batch is sent when the window elapses or it reaches the maximum size,
+ * and duplicate ids within a batch share one future.
+ */
+@Slf4j
+class PolicyLookupBatcher implements AutoCloseable {
+
+    private final Function<Set<String>, Map<String, PolicyDto>> batchLoader;
+    private final int maxBatchSize;
+    private final Duration window;
+    private final ScheduledExecutorService executor;
+
+    private Map<String, CompletableFuture<Optional<PolicyDto>>> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    PolicyLookupBatcher(Function<Set<String>, Map<String, PolicyDto>> batchLoader,
+                        int maxBatchSize, Duration window, int dispatchThreads) {
+        this.batchLoader = batchLoader;
+        this.maxBatchSize = maxBatchSize;
+        this.window = window;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "policy-lookup-batcher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    CompletableFuture<Optional<PolicyDto>> submit(String policyId) {
+        Map<String, CompletableFuture<Optional<PolicyDto>>> fullBatch = null;
+        CompletableFuture<Optional<PolicyDto>> future;
+        synchronized (this) {
+            future = pending.get(policyId);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(policyId, future);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = takePending();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                executor.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            Map<String, CompletableFuture<Optional<PolicyDto>>> batch = fullBatch;
+            executor.execute(() -> dispatch(batch));
+        }
+        return future;
+    }
+
+    private void flush() {
+        Map<String, CompletableFuture<Optional<PolicyDto>>> batch;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    private Map<String, CompletableFuture<Optional<PolicyDto>>> takePending() {
+        Map<String, CompletableFuture<Optional<PolicyDto>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<String, CompletableFuture<Optional<PolicyDto>>> batch) {
+        log.debug("Dispatching batched lookup for {} policies", batch.size());
+        try {
+            Map<String, PolicyDto> result = batchLoader.apply(batch.keySet());
+            batch.forEach((policyId, future) -> future.complete(Optional.ofNullable(result.get(policyId))));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
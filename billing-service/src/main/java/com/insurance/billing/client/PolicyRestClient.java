@@ -1,19 +1,46 @@
 package com.insurance.billing.client;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.insurance.shared.client.PolicyClient;
+import com.insurance.shared.dto.ChangedPoliciesDto;
 import com.insurance.shared.dto.PolicyDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j; // For logging
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value; // For injecting properties
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException; // More general exception
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j // Added for logging
 @Component
+@Qualifier("remote")
+@ConditionalOnProperty(name = "policy.client.type", havingValue = "rest", matchIfMissing = true)
 @RequiredArgsConstructor // This handles constructor injection for final fields
 public class PolicyRestClient implements PolicyClient {
 
@@ -22,8 +49,73 @@ public class PolicyRestClient implements PolicyClient {
     @Value("${policy.service.url}") // Inject the property value
     private String policyServiceUrl;
 
+    @Value("${policy.client.batch-get.max-size:500}")
+    private int batchGetMaxSize;
+
+    @Value("${policy.client.batching.enabled:true}")
+    private boolean batchingEnabled;
+
+    @Value("${policy.client.batching.window:5ms}")
+    private Duration batchingWindow;
+
+    @Value("${policy.client.batching.max-size:100}")
+    private int batchingMaxSize;
+
+    @Value("${policy.client.batching.dispatch-threads:4}")
+    private int batchingDispatchThreads;
+
+    @Value("${policy.client.batching.timeout:5s}")
+    private Duration batchingTimeout;
+
+    @Value("${policy.client.conditional.maximum-size:50000}")
+    private long conditionalMaximumSize;
+
+    @Value("${policy.client.conditional.ttl:10m}")
+    private Duration conditionalTtl;
+
+    private PolicyLookupBatcher lookupBatcher;
+
+    // Last copy fetched of each policy. The next lookup sends its version instead of asking
+    // for the whole policy: as If-None-Match on a single GET, or to batch-get/changed.
+    private Cache<String, PolicyDto> lastFetched;
+
+    @PostConstruct
+    void startBatcher() {
+        if (batchingEnabled) {
+            lookupBatcher = new PolicyLookupBatcher(this::getPolicies, batchingMaxSize, batchingWindow,
+                    batchingDispatchThreads);
+        }
+        if (conditionalMaximumSize > 0) {
+            lastFetched = Caffeine.newBuilder()
+                    .maximumSize(conditionalMaximumSize)
+                    .expireAfterWrite(conditionalTtl)
+                    .build();
+        }
+    }
+
+    @PreDestroy
+    void stopBatcher() {
+        if (lookupBatcher != null) {
+            lookupBatcher.close();
+        }
+    }
+
     @Override
     public Optional<PolicyDto> getPolicy(String policyId) {
+        if (lookupBatcher != null) {
+            // getPolicies revalidates the copies it already holds
+            return getPolicyBatched(policyId);
+        }
+        PolicyDto known = knownVersion(policyId);
+        if (known != null) {
+            return revalidate(policyId, known);
+        }
+        Optional<PolicyDto> policy = fetchPolicy(policyId);
+        policy.ifPresent(this::remember);
+        return policy;
+    }
+
+    private Optional<PolicyDto> fetchPolicy(String policyId) {
         String url = policyServiceUrl + "/api/policies/" + policyId; // Use a local variable for clarity
         try {
             log.debug("Fetching policy with ID: {} from URL: {}", policyId, url);
@@ -50,4 +142,140 @@ public class PolicyRestClient implements PolicyClient {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<String, PolicyDto> getPolicies(Collection<String> policyIds) {
+        Map<String, PolicyDto> policies = new HashMap<>();
+        Map<String, PolicyDto> known = new LinkedHashMap<>();
+        List<String> ids = new ArrayList<>();
+        for (String policyId : new LinkedHashSet<>(policyIds)) {
+            PolicyDto copy = knownVersion(policyId);
+            if (copy != null) {
+                known.put(policyId, copy);
+            } else {
+                ids.add(policyId);
+            }
+        }
+        ids.addAll(revalidateAll(known, policies));
+        String url = policyServiceUrl + "/api/policies/batch-get";
+        for (int from = 0; from < ids.size(); from += batchGetMaxSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + batchGetMaxSize, ids.size()));
+            try {
+                log.debug("Fetching {} policies from URL: {}", chunk.size(), url);
+                PolicyDto[] result = restTemplate.postForObject(url, chunk, PolicyDto[].class);
+                if (result != null) {
+                    for (PolicyDto policy : result) {
+                        policies.put(policy.getId(), policy);
+                        remember(policy);
+                    }
+                }
+            } catch (RestClientException e) {
+                log.error("Error fetching {} policies from URL: {}. Message: {}", chunk.size(), url, e.getMessage());
+            }
+        }
+        return policies;
+    }
+
+    /**
+     * Sends the versions held to batch-get/changed, so only policies changed since come back.
+     * Unchanged copies are put into policies as they are; missing ones are forgotten.
+     *
+     * @return ids that could not be revalidated and need a full fetch, e.g. because
+     *         policy-service predates the endpoint
+     */
+    private List<String> revalidateAll(Map<String, PolicyDto> known, Map<String, PolicyDto> policies) {
+        String url = policyServiceUrl + "/api/policies/batch-get/changed";
+        List<String> ids = new ArrayList<>(known.keySet());
+        List<String> unresolved = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchGetMaxSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + batchGetMaxSize, ids.size()));
+            Map<String, Long> versions = new LinkedHashMap<>();
+            chunk.forEach(id -> versions.put(id, known.get(id).getVersion()));
+            ChangedPoliciesDto result;
+            try {
+                log.debug("Revalidating {} policies at URL: {}", chunk.size(), url);
+                result = restTemplate.postForObject(url, versions, ChangedPoliciesDto.class);
+            } catch (RestClientException e) {
+                log.warn("Error revalidating {} policies at URL: {}; fetching them instead. Message: {}",
+                        chunk.size(), url, e.getMessage());
+                unresolved.addAll(chunk);
+                continue;
+            }
+            if (result == null) {
+                unresolved.addAll(chunk);
+                continue;
+            }
+            Map<String, PolicyDto> changed = new HashMap<>();
+            if (result.getChanged() != null) {
+                result.getChanged().forEach(policy -> changed.put(policy.getId(), policy));
+            }
+            Set<String> missing = result.getMissing() != null ? new HashSet<>(result.getMissing()) : Set.of();
+            for (String id : chunk) {
+                if (missing.contains(id)) {
+                    lastFetched.invalidate(id);
+                } else if (changed.containsKey(id)) {
+                    policies.put(id, changed.get(id));
+                    remember(changed.get(id));
+                } else {
+                    policies.put(id, known.get(id));
+                }
+            }
+        }
+        return unresolved;
+    }
+
+    /**
+     * Conditional GET for a policy fetched before, used when lookups are not batched.
+     * On 304 the copy already held is returned without the body being sent again.
+     */
+    private Optional<PolicyDto> revalidate(String policyId, PolicyDto known) {
+        String url = policyServiceUrl + "/api/policies/" + policyId;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch("\"" + known.getVersion() + "\"");
+        try {
+            ResponseEntity<PolicyDto> response = restTemplate.exchange(url, HttpMethod.GET,
+                    new HttpEntity<>(headers), PolicyDto.class);
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                log.debug("Policy {} not modified since version {}", policyId, known.getVersion());
+                return Optional.of(known);
+            }
+            PolicyDto policy = response.getBody();
+            if (policy == null) {
+                lastFetched.invalidate(policyId);
+                return Optional.empty();
+            }
+            remember(policy);
+            return Optional.of(policy);
+        } catch (HttpClientErrorException.NotFound e) {
+            log.warn("Policy not found for ID: {} at URL: {}. Status: {}", policyId, url, e.getStatusCode());
+            lastFetched.invalidate(policyId);
+            return Optional.empty();
+        } catch (RestClientException e) {
+            log.error("Error revalidating policy with ID: {} from URL: {}. Message: {}", policyId, url, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private PolicyDto knownVersion(String policyId) {
+        PolicyDto known = lastFetched != null ? lastFetched.getIfPresent(policyId) : null;
+        return known != null && known.getVersion() != null ? known : null;
+    }
+
+    private void remember(PolicyDto policy) {
+        if (lastFetched != null && policy.getId() != null) {
+            lastFetched.put(policy.getId(), policy);
+        }
+    }
+
+    private Optional<PolicyDto> getPolicyBatched(String policyId) {
+        try {
+            return lookupBatcher.submit(policyId).get(batchingTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Error fetching policy with ID: {} through batched lookup. Message: {}", policyId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.insurance.billing.client;
+
+import com.insurance.shared.client.PolicyClient;
+import com.insurance.shared.dto.PolicyDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Non-blocking policy-service client. The reactive methods can be composed directly;
+ * the {@link PolicyClient} methods block with a bounded timeout.
+ */
+@Slf4j
+@Component
+@Qualifier("remote")
+@ConditionalOnProperty(name = "policy.client.type", havingValue = "webclient")
+public class PolicyWebClient implements PolicyClient {
+
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final int batchGetMaxSize;
+
+    public PolicyWebClient(WebClient policyServiceWebClient,
+                           @Value("${http.client.response-timeout:5s}") Duration timeout,
+                           @Value("${policy.client.batch-get.max-size:500}") int batchGetMaxSize) {
+        this.webClient = policyServiceWebClient;
+        this.timeout = timeout;
+        this.batchGetMaxSize = batchGetMaxSize;
+    }
+
+    public Mono<PolicyDto> fetchPolicy(String policyId) {
+        return webClient.get()
+                .uri("/api/policies/{id}", policyId)
+                .retrieve()
+                .bodyToMono(PolicyDto.class)
+                .timeout(timeout)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> {
+                    log.warn("Policy not found for ID: {}. Status: {}", policyId, e.getStatusCode());
+                    return Mono.empty();
+                });
+    }
+
+    public Flux<PolicyDto> fetchPolicies(Collection<String> policyIds) {
+        List<String> ids = List.copyOf(new LinkedHashSet<>(policyIds));
+        return Flux.fromIterable(ids)
+                .buffer(batchGetMaxSize)
+                .concatMap(chunk -> webClient.post()
+                        .uri("/api/policies/batch-get")
+                        .bodyValue(chunk)
+                        .retrieve()
+                        .bodyToFlux(PolicyDto.class)
+                        .timeout(timeout)
+                        .onErrorResume(e -> {
+                            log.error("Error fetching {} policies. Message: {}", chunk.size(), e.getMessage());
+                            return Flux.empty();
+                        }));
+    }
+
+    @Override
+    public Optional<PolicyDto> getPolicy(String policyId) {
+        try {
+            return fetchPolicy(policyId).blockOptional(timeout);
+        } catch (RuntimeException e) {
+            log.error("Error fetching policy with ID: {}. Message: {}", policyId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean existsById(String policyId) {
+        try {
+            Boolean result = webClient.get()
+                    .uri("/api/policies/{id}/exists", policyId)
+                    .retrieve()
+                    .bodyToMono(Boolean.class)
+                    .block(timeout);
+            return Boolean.TRUE.equals(result);
+        } catch (RuntimeException e) {
+            log.error("Error checking existence for policy ID: {}. Message: {}", policyId, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public Map<String, PolicyDto> getPolicies(Collection<String> policyIds) {
+        Map<String, PolicyDto> policies = fetchPolicies(policyIds)
+                .collectMap(PolicyDto::getId, Function.identity())
+                .block();
+        return policies != null ? policies : Map.of();
+    }
+}
@@ -0,0 +1,102 @@
+package com.insurance.billing.config;
+
+import com.insurance.billing.admission.AdmissionControlFilter;
+import com.insurance.billing.admission.AdmissionController;
+import com.insurance.billing.admission.AdmissionController.LaneSettings;
+import com.insurance.billing.admission.RequestClass;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the billing API: per-class concurrency limits and latency-driven
+ * shedding of lower classes, so payment-path requests keep their request threads during
+ * reporting and bulk-load peaks. Limits should stay below the Tomcat thread count
+ * (server.tomcat.threads.max) so a saturated class can never take every thread.
+ */
+@Configuration
+@ConditionalOnProperty(name = "billing.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public AdmissionController admissionController(
+            @Value("${billing.admission.critical.patterns}") List<String> criticalPatterns,
+            @Value("${billing.admission.critical.max-concurrent:150}") int criticalMaxConcurrent,
+            @Value("${billing.admission.critical.max-wait:500ms}") Duration criticalMaxWait,
+            @Value("${billing.admission.batch.patterns}") List<String> batchPatterns,
+            @Value("${billing.admission.batch.max-concurrent:16}") int batchMaxConcurrent,
+            @Value("${billing.admission.batch.max-wait:0ms}") Duration batchMaxWait,
+            @Value("${billing.admission.standard.max-concurrent:50}") int standardMaxConcurrent,
+            @Value("${billing.admission.standard.max-wait:100ms}") Duration standardMaxWait,
+            @Value("${billing.admission.latency-target:250ms}") Duration latencyTarget,
+            @Value("${billing.admission.standard-shed-factor:2.0}") double standardShedFactor,
+            @Value("${billing.admission.latency-window:1s}") Duration latencyWindow,
+            @Value("${billing.admission.latency-smoothing:0.3}") double latencySmoothing) {
+        return new AdmissionController(List.of(
+                new LaneSettings(RequestClass.CRITICAL, criticalPatterns, criticalMaxConcurrent, criticalMaxWait),
+                new LaneSettings(RequestClass.STANDARD, List.of(), standardMaxConcurrent, standardMaxWait),
+                new LaneSettings(RequestClass.BATCH, batchPatterns, batchMaxConcurrent, batchMaxWait)),
+                latencyTarget, standardShedFactor, latencyWindow, latencySmoothing, System::nanoTime);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            AdmissionController admissionController,
+            MeterRegistry meterRegistry,
+            @Value("${billing.admission.retry-after:1s}") Duration retryAfter) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(admissionController, retryAfter, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        // Ahead of security and everything else, so rejected requests cost as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder admissionMetrics(AdmissionController admissionController) {
+        return registry -> {
+            for (RequestClass requestClass : RequestClass.values()) {
+                AdmissionController.Lane lane = admissionController.lane(requestClass);
+                String name = requestClass.name();
+                Gauge.builder("billing.admission.in_flight", lane, AdmissionController.Lane::inFlight)
+                        .description("Requests of this class currently being served")
+                        .tag("class", name)
+                        .register(registry);
+                Gauge.builder("billing.admission.queued", lane, AdmissionController.Lane::queued)
+                        .description("Requests of this class waiting for a slot")
+                        .tag("class", name)
+                        .register(registry);
+                Gauge.builder("billing.admission.shedding", admissionController,
+                                controller -> controller.isShedding(requestClass) ? 1 : 0)
+                        .description("1 while requests of this class are shed")
+                        .tag("class", name)
+                        .register(registry);
+                FunctionCounter.builder("billing.admission.requests", lane, AdmissionController.Lane::admitted)
+                        .tag("class", name).tag("outcome", "admitted")
+                        .register(registry);
+                FunctionCounter.builder("billing.admission.requests", lane, AdmissionController.Lane::rejected)
+                        .tag("class", name).tag("outcome", "rejected")
+                        .register(registry);
+                FunctionCounter.builder("billing.admission.requests", lane, AdmissionController.Lane::shed)
+                        .tag("class", name).tag("outcome", "shed")
+                        .register(registry);
+            }
+            Gauge.builder("billing.admission.critical_latency", admissionController,
+                            controller -> controller.criticalLatencyNanos() / TimeUnit.SECONDS.toNanos(1))
+                    .description("Smoothed latency of critical requests that drives shedding")
+                    .baseUnit("seconds")
+                    .register(registry);
+        };
+    }
+}
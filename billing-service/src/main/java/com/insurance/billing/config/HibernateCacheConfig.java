@@ -0,0 +1,64 @@
+package com.insurance.billing.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Caffeine-backed JCache regions for Hibernate's second-level and query caches, holding
+ * read-mostly reference data. Updates made through this node evict explicitly; the TTL
+ * bounds how long other nodes can serve a value changed elsewhere.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String GRACE_PERIOD_CONFIG_REGION = "grace-period-configs";
+    public static final String GRACE_PERIOD_QUERY_REGION = "grace-period-config-queries";
+
+    // Hibernate's default regions; the timestamps region must outlive every cached query result
+    static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${billing.reference-cache.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${billing.reference-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("billing-hibernate"), getClass().getClassLoader());
+        for (String region : new String[] {
+                GRACE_PERIOD_CONFIG_REGION, GRACE_PERIOD_QUERY_REGION, DEFAULT_QUERY_RESULTS_REGION}) {
+            cacheManager.createCache(region, regionConfiguration(true));
+        }
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, regionConfiguration(false));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> regionConfiguration(boolean expiring) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(true);
+        if (expiring) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,37 @@
+package com.insurance.billing.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.support.converter.RecordMessageConverter;
+import org.springframework.kafka.support.converter.StringJsonMessageConverter;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Records are consumed as strings and converted to the listener's parameter type,
+     * so producers do not need to send Java type headers.
+     */
+    @Bean
+    public RecordMessageConverter kafkaMessageConverter(ObjectMapper objectMapper) {
+        return new StringJsonMessageConverter(objectMapper);
+    }
+
+    /**
+     * Same consumer settings as the default factory, but hands listeners whole poll results
+     * so they can apply them with one batched write.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchListenerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> kafkaConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+        factory.setBatchListener(true);
+        return factory;
+    }
+}
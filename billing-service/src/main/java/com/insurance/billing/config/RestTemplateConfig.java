@@ -1,18 +1,126 @@
 package com.insurance.billing.config; // Or your appropriate config package
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Pooled Apache HttpClient behind the RestTemplate used for inter-service calls.
+ * Every stage of a call is time-bound (waiting for a pooled connection, connecting,
+ * waiting for the response), so a slow downstream service fails fast instead of
+ * holding request threads.
+ * <p>
+ * With {@code http.client.binary-media-type} set (Smile or CBOR), calls that would accept
+ * JSON ask for that type first and JSON second, so a service that can't produce it still
+ * answers in JSON.
+ */
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${http.client.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${http.client.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${http.client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${http.client.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Value("${http.client.response-timeout:5s}")
+    private Duration responseTimeout;
+
+    @Value("${http.client.connection-request-timeout:1s}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${http.client.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    @Value("${http.client.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${http.client.connection-ttl:5m}")
+    private Duration connectionTtl;
+
+    @Value("${http.client.binary-media-type:}")
+    private String binaryMediaType;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpClientConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(connectionTtl))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .evictExpiredConnections()
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        // You can customize the RestTemplate here if needed
-        // e.g., builder.setConnectTimeout(Duration.ofSeconds(5))
-        //          .setReadTimeout(Duration.ofSeconds(5))
-        return builder.build();
+    public MeterBinder httpClientPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "inter-service");
+    }
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient httpClient) {
+        RestTemplateBuilder configured = builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient));
+        if (StringUtils.hasText(binaryMediaType)) {
+            configured = configured.additionalInterceptors(preferring(MediaType.parseMediaType(binaryMediaType)));
+        }
+        return configured.build();
+    }
+
+    // Only rewrites requests whose response type the binary converter can read
+    public static ClientHttpRequestInterceptor preferring(MediaType binary) {
+        List<MediaType> accept = List.of(binary, new MediaType("application", "json", 0.9));
+        return (request, body, execution) -> {
+            if (request.getHeaders().getAccept().contains(binary)) {
+                request.getHeaders().setAccept(accept);
+            }
+            return execution.execute(request, body);
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.insurance.billing.config;
+
+import com.insurance.billing.repository.SyntheticDataJdbcRepository;
+import com.insurance.shared.synthetic.SyntheticPortfolio;
+import com.insurance.shared.synthetic.SyntheticPortfolio.Installment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Loads the billings and payment history of the synthetic portfolio that policy-service's
+ * perf profile loads, for performance work. Policies that already have billings are
+ * skipped, so an interrupted load can simply be restarted. Runs before the due-date index
+ * and delinquency projection rebuild, so both start from the loaded data.
+ */
+@Slf4j
+@Component
+@Profile("perf")
+public class SyntheticDataLoader implements CommandLineRunner {
+
+    private final SyntheticDataJdbcRepository syntheticDataJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int policies;
+    private final long seed;
+    private final String asOf;
+    private final int batchSize;
+
+    public SyntheticDataLoader(SyntheticDataJdbcRepository syntheticDataJdbcRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${synthetic.policies:100000}") int policies,
+                               @Value("${synthetic.seed:42}") long seed,
+                               @Value("${synthetic.as-of:}") String asOf,
+                               @Value("${synthetic.batch-size:5000}") int batchSize) {
+        this.syntheticDataJdbcRepository = syntheticDataJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.policies = policies;
+        this.seed = seed;
+        this.asOf = asOf;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(String... args) {
+        LocalDate day = asOf.isBlank() ? LocalDate.now() : LocalDate.parse(asOf);
+        SyntheticPortfolio portfolio = new SyntheticPortfolio(seed, policies, day);
+        long started = System.nanoTime();
+        long billings = 0;
+        long payments = 0;
+        for (int from = 0; from < policies; from += batchSize) {
+            int to = Math.min(from + batchSize, policies);
+            Set<String> billed = syntheticDataJdbcRepository.findBilledPolicyIds(IntStream.range(from, to)
+                    .mapToObj(SyntheticPortfolio::policyId)
+                    .toList());
+            List<Installment> batch = new ArrayList<>();
+            for (int index = from; index < to; index++) {
+                if (!billed.contains(SyntheticPortfolio.policyId(index))) {
+                    batch.addAll(portfolio.billingHistory(index));
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> syntheticDataJdbcRepository.insertAll(batch));
+            billings += batch.size();
+            payments += batch.stream().mapToInt(installment -> installment.attempts().size()).sum();
+        }
+        log.info("Synthetic portfolio (seed {}, as of {}): {} billings and {} payments for {} policies inserted in {} ms",
+                seed, day, billings, payments, policies, (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,92 @@
+package com.insurance.billing.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking client for policy-service, used when policy.client.type=webclient.
+ * Shares the pool sizing, timeouts and binary media type preference of the blocking
+ * client configuration.
+ */
+@Configuration
+@ConditionalOnProperty(name = "policy.client.type", havingValue = "webclient")
+public class WebClientConfig {
+
+    @Value("${http.client.max-connections-per-route:50}")
+    private int maxConnections;
+
+    @Value("${http.client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${http.client.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Value("${http.client.response-timeout:5s}")
+    private Duration responseTimeout;
+
+    @Value("${http.client.connection-request-timeout:1s}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${http.client.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    @Value("${http.client.connection-ttl:5m}")
+    private Duration connectionTtl;
+
+    @Value("${http.client.binary-media-type:}")
+    private String binaryMediaType;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider policyConnectionProvider() {
+        return ConnectionProvider.builder("policy-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(connectionRequestTimeout)
+                .maxIdleTime(idleEviction)
+                .maxLifeTime(connectionTtl)
+                .evictInBackground(idleEviction)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient policyServiceWebClient(WebClient.Builder builder,
+                                           ConnectionProvider policyConnectionProvider,
+                                           MappingJackson2SmileHttpMessageConverter smileConverter,
+                                           MappingJackson2CborHttpMessageConverter cborConverter,
+                                           @Value("${policy.service.url}") String policyServiceUrl) {
+        HttpClient httpClient = HttpClient.create(policyConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new ReadTimeoutHandler(readTimeout.toMillis(), TimeUnit.MILLISECONDS)));
+        // Decode binary responses with the same mapper settings as the blocking client
+        builder.codecs(codecs -> {
+            codecs.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileConverter.getObjectMapper()));
+            codecs.customCodecs().register(new Jackson2CborDecoder(cborConverter.getObjectMapper()));
+        });
+        if (StringUtils.hasText(binaryMediaType)) {
+            builder.defaultHeader(HttpHeaders.ACCEPT, binaryMediaType + ", application/json;q=0.9");
+        }
+        return builder
+                .baseUrl(policyServiceUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -2,12 +2,21 @@ package com.insurance.billing.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.insurance.shared.dto.BillingDto;
+import com.insurance.shared.dto.CursorPage;
+import com.insurance.shared.dto.DelinquentPolicyDto;
+import com.insurance.shared.dto.PaymentBatchResultDto;
 import com.insurance.shared.dto.PaymentDto;
 import com.insurance.shared.dto.PaymentRequestDto;
+import com.insurance.shared.enums.BillingStatus;
 import com.insurance.billing.service.BillingService;
 
 import java.time.LocalDateTime;
@@ -21,8 +30,14 @@ import jakarta.validation.Valid;
 @Slf4j
 @RequiredArgsConstructor
 public class BillingController {
+    private static final int MAX_DUE_WINDOW_DAYS = 366;
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
+
     private final BillingService billingService;
 
+    @Value("${billing.payments.batch.max-size:10000}")
+    private int maxPaymentBatchSize;
+
     @GetMapping("/hello")
     public ResponseEntity<Map<String, Object>> hello() {
         log.info("Hello endpoint called at {}", LocalDateTime.now());
@@ -57,19 +72,27 @@ public class BillingController {
     }
 
     @GetMapping("/due")
-    public ResponseEntity<Map<String, Object>> getDuePremiums() {
-        log.info("Getting due premiums");
+    public ResponseEntity<Map<String, Object>> getDuePremiums(@RequestParam(defaultValue = "30") int days) {
+        log.info("Getting premiums due in the next {} days", days);
 
-        Map<String, Object> result = billingService.getDuePremiums();
+        if (days < 0 || days > MAX_DUE_WINDOW_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<String, Object> result = billingService.getDuePremiums(days);
         return ResponseEntity.ok(result);
     }
 
     @GetMapping("/delinquent")
-    public ResponseEntity<List<Map<String, Object>>> getDelinquentPolicies() {
-        log.info("Getting delinquent policies");
-
-        List<Map<String, Object>> delinquentPolicies = billingService.getDelinquentPolicies();
-        return ResponseEntity.ok(delinquentPolicies);
+    public ResponseEntity<Page<DelinquentPolicyDto>> getDelinquentPolicies(
+            @RequestParam(required = false) BillingStatus status,
+            @PageableDefault(size = 50, sort = "daysOverdue", direction = Sort.Direction.DESC) Pageable pageable) {
+        log.info("Getting delinquent policies with status {} and page {}", status, pageable);
+
+        try {
+            return ResponseEntity.ok(billingService.getDelinquentPolicies(status, pageable));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{policyId}/calculate")
@@ -87,7 +110,11 @@ public class BillingController {
         log.info("Updating billing status for policy {} with: {}", policyId, statusUpdate);
 
         String paymentStatus = (String) statusUpdate.get("paymentStatus");
-        billingService.updatePolicyBillingStatus(policyId, paymentStatus);
+        try {
+            billingService.updatePolicyBillingStatus(policyId, paymentStatus);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
 
         return ResponseEntity.ok(Map.of(
                 "policyId", policyId,
@@ -107,8 +134,54 @@ public class BillingController {
         return ResponseEntity.ok(billingService.getBillingsByPolicy(policyId));
     }
 
+    @GetMapping("/customer/{customerId}/page")
+    public ResponseEntity<CursorPage<BillingDto>> getBillingsPageByCustomer(
+            @PathVariable String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("Fetching billings page for customer: {}", customerId);
+
+        if (limit < 1 || limit > MAX_CURSOR_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(billingService.getBillingsByCustomer(customerId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/policy/{policyId}/page")
+    public ResponseEntity<CursorPage<BillingDto>> getBillingsPageByPolicy(
+            @PathVariable String policyId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_CURSOR_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(billingService.getBillingsByPolicy(policyId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping("/payments")
     public ResponseEntity<PaymentDto> submitPayment(@Valid @RequestBody PaymentRequestDto request) {
-        return ResponseEntity.ok(billingService.processPayment(request));
+        try {
+            return ResponseEntity.ok(billingService.processPayment(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/payments:batch")
+    public ResponseEntity<PaymentBatchResultDto> submitPayments(@RequestBody List<PaymentRequestDto> requests) {
+        log.info("Submitting batch of {} payments", requests.size());
+
+        if (requests.isEmpty() || requests.size() > maxPaymentBatchSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(billingService.processPayments(requests));
     }
 }
\ No newline at end of file
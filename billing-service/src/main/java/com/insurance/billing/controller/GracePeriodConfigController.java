@@ -0,0 +1,48 @@
+package com.insurance.billing.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.insurance.shared.dto.GracePeriodConfigDto;
+import com.insurance.billing.service.GracePeriodService;
+
+import java.util.List;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/billing/grace-period-configs")
+@Slf4j
+@RequiredArgsConstructor
+public class GracePeriodConfigController {
+
+    private final GracePeriodService gracePeriodService;
+
+    @GetMapping
+    public ResponseEntity<List<GracePeriodConfigDto>> getAllConfigs() {
+        return ResponseEntity.ok(gracePeriodService.getAllConfigs());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<GracePeriodConfigDto> getConfig(@PathVariable String id) {
+        return gracePeriodService.getConfig(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<GracePeriodConfigDto> updateConfig(@PathVariable String id,
+                                                             @Valid @RequestBody GracePeriodConfigDto request) {
+        log.info("Updating grace period config {}", id);
+        return gracePeriodService.updateGracePeriodDays(id, request.getGracePeriodDays())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> evictCache() {
+        gracePeriodService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+}
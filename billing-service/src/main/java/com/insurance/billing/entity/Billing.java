@@ -1,5 +1,6 @@
 package com.insurance.billing.entity;
 
+import com.insurance.billing.projection.BillingDueDateListener;
 import com.insurance.shared.enums.BillingStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "billings")
+@EntityListeners(BillingDueDateListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -35,6 +37,8 @@ public class Billing {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDate gracePeriodEnd;
+    // Sweep date of the last delinquency transition; the sweeper moves a billing once per day
+    private LocalDate lastSweptOn;
 
     @PrePersist
     protected void onCreate() {
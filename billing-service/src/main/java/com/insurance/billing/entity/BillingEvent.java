@@ -1,5 +1,7 @@
 package com.insurance.billing.entity;
 
+import com.insurance.billing.eventstore.TimeOrderedIds;
+import com.insurance.billing.eventstore.codec.PayloadConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -31,12 +33,21 @@ public class BillingEvent {
     @Column(nullable = false)
     private LocalDateTime occurredAt;
     
-    @Column(columnDefinition = "TEXT")
+    @Convert(converter = PayloadConverter.class)
+    @Column(name = "payload_data", columnDefinition = "BLOB")
     private String payload;
     
-    @Column(columnDefinition = "TEXT")
+    @Convert(converter = PayloadConverter.class)
+    @Column(name = "metadata_data", columnDefinition = "BLOB")
     private String metadata;
     
+    // Text columns of rows written before payload encoding; read until the backfill rewrites them
+    @Column(name = "payload", columnDefinition = "TEXT", insertable = false, updatable = false)
+    private String legacyPayload;
+    
+    @Column(name = "metadata", columnDefinition = "TEXT", insertable = false, updatable = false)
+    private String legacyMetadata;
+    
     public enum EventType {
         BILLING_CREATED, PAYMENT_DUE, PAYMENT_SUCCESS, PAYMENT_FAILED,
         RETRY_SCHEDULED, GRACE_PERIOD_STARTED, DELINQUENT, REMINDER_SENT
@@ -44,8 +55,21 @@ public class BillingEvent {
     
     @PrePersist
     protected void onCreate() {
+        if (id == null) {
+            id = TimeOrderedIds.next();
+        }
         if (occurredAt == null) {
             occurredAt = LocalDateTime.now();
         }
     }
+    
+    @PostLoad
+    protected void onLoad() {
+        if (payload == null) {
+            payload = legacyPayload;
+        }
+        if (metadata == null) {
+            metadata = legacyMetadata;
+        }
+    }
 }
\ No newline at end of file
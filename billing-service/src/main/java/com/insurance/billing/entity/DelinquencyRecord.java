@@ -0,0 +1,46 @@
+package com.insurance.billing.entity;
+
+import com.insurance.shared.enums.BillingStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One row per policy with unpaid billings past their due date. Maintained incrementally by
+ * the delinquency projector; days overdue are derived from oldestDueDate at read time.
+ */
+@Entity
+@Table(name = "delinquency_projection")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DelinquencyRecord {
+    @Id
+    private String policyId;
+
+    private String customerId;
+
+    @Enumerated(EnumType.STRING)
+    private BillingStatus status;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal amountOverdue;
+
+    private LocalDate oldestDueDate;
+    private LocalDate lastPaymentDate;
+    private LocalDate gracePeriodExpiry;
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,16 +1,22 @@
 package com.insurance.billing.entity;
 
+import com.insurance.billing.config.HibernateCacheConfig;
 import com.insurance.shared.enums.CustomerTier;
+import com.insurance.shared.enums.PaymentFrequency;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "grace_period_configs")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.GRACE_PERIOD_CONFIG_REGION)
 @Data
 @Builder
 @NoArgsConstructor
@@ -39,10 +45,6 @@ public class GracePeriodConfig {
     @Column(name = "customer_tier")
     private CustomerTier customerTier;
 
-    public enum PaymentFrequency {
-        MONTHLY, QUARTERLY, SEMI_ANNUAL, ANNUAL
-    }
-    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
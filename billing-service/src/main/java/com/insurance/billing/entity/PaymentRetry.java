@@ -38,6 +38,13 @@ public class PaymentRetry {
     
     private String failureReason;
     
+    // Node holding the retry while IN_PROGRESS, and when its claim lapses
+    @Column(name = "lease_owner")
+    private String leaseOwner;
+    
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
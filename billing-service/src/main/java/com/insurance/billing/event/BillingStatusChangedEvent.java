@@ -0,0 +1,10 @@
+package com.insurance.billing.event;
+
+import java.util.Set;
+
+/**
+ * Published after billings of the given policies changed status, so read models
+ * derived from billings can refresh just those policies.
+ */
+public record BillingStatusChangedEvent(Set<String> policyIds) {
+}
@@ -0,0 +1,10 @@
+package com.insurance.billing.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Published after a successful payment has been applied to a billing.
+ */
+public record PaymentAppliedEvent(String policyId, String billingId, BigDecimal amount, LocalDate paymentDate) {
+}
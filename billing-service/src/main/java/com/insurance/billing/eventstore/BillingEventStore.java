@@ -0,0 +1,183 @@
+package com.insurance.billing.eventstore;
+
+import com.insurance.billing.entity.BillingEvent;
+import com.insurance.billing.eventstore.codec.PayloadCodecs;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only store for billing events.
+ * <p>
+ * {@link #append} queues an event for the background writer, which drains the queue into
+ * group commits: one JDBC batch and one transaction per batch. {@link #appendAll} writes
+ * immediately and joins the caller's transaction, for callers that must record events
+ * atomically with their own changes.
+ * <p>
+ * Payload and metadata are written encoded by {@link PayloadCodecs} into the BLOB columns;
+ * the legacy text columns are only read.
+ */
+@Slf4j
+@Component
+public class BillingEventStore {
+
+    static final String INSERT_SQL = "INSERT INTO billing_events"
+            + " (id, billing_id, policy_id, event_type, occurred_at, payload_data, metadata_data)"
+            + " VALUES (:id, :billingId, :policyId, :eventType, :occurredAt, :payloadData, :metadataData)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PayloadCodecs codecs;
+    private final int maxBatchSize;
+    private final Duration linger;
+    private final BlockingQueue<PendingAppend> queue;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public BillingEventStore(NamedParameterJdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             PayloadCodecs codecs,
+                             @Value("${billing.event-store.batch-size:500}") int maxBatchSize,
+                             @Value("${billing.event-store.linger:10ms}") Duration linger,
+                             @Value("${billing.event-store.queue-capacity:50000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.codecs = codecs;
+        this.maxBatchSize = maxBatchSize;
+        this.linger = linger;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    private record PendingAppend(BillingEvent event, CompletableFuture<Void> written) {
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "billing-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Queue an event for the next group commit. Blocks while the queue is full.
+     *
+     * @return future completed once the batch holding the event has committed
+     */
+    public CompletableFuture<Void> append(BillingEvent event) {
+        prepare(event);
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        try {
+            queue.put(new PendingAppend(event, written));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            written.completeExceptionally(e);
+        }
+        return written;
+    }
+
+    /**
+     * Write events now as one JDBC batch, inside the caller's transaction if there is one.
+     */
+    public void appendAll(Collection<BillingEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        events.forEach(BillingEventStore::prepare);
+        jdbcTemplate.batchUpdate(INSERT_SQL, events.stream()
+                .map(this::toParameters)
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAppend first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + linger.toNanos();
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) == 0) {
+                        if (remaining <= 0) {
+                            break;
+                        }
+                        PendingAppend next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Shutdown requested; keep draining what is already queued
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingAppend> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL,
+                    batch.stream()
+                            .map(pending -> toParameters(pending.event()))
+                            .toArray(SqlParameterSource[]::new)));
+            batch.forEach(pending -> pending.written().complete(null));
+        } catch (RuntimeException e) {
+            log.error("Failed to write batch of {} billing events: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> pending.written().completeExceptionally(e));
+        }
+    }
+
+    private static void prepare(BillingEvent event) {
+        if (event.getId() == null) {
+            event.setId(TimeOrderedIds.next());
+        }
+        if (event.getOccurredAt() == null) {
+            event.setOccurredAt(LocalDateTime.now());
+        }
+    }
+
+    private SqlParameterSource toParameters(BillingEvent event) {
+        return new MapSqlParameterSource()
+                .addValue("id", event.getId())
+                .addValue("billingId", event.getBillingId())
+                .addValue("policyId", event.getPolicyId())
+                .addValue("eventType", event.getEventType().name())
+                .addValue("occurredAt", Timestamp.valueOf(event.getOccurredAt()))
+                .addValue("payloadData", codecs.encode(event.getPayload()), Types.BLOB)
+                .addValue("metadataData", codecs.encode(event.getMetadata()), Types.BLOB);
+    }
+}
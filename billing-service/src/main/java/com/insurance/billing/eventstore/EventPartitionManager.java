@@ -0,0 +1,154 @@
+package com.insurance.billing.eventstore;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly RANGE COLUMNS partitions of billing_events on MariaDB: creates
+ * partitions ahead of time by splitting p_future, and drops partitions past the retention
+ * window, optionally exchanging them into a standalone archive table first.
+ * <p>
+ * Each step is planned from the current state of the table and of any archive table an
+ * interrupted run left behind, so a run can be repeated after failing half way: the archive
+ * table is only created and unpartitioned if that has not happened yet, and a partition whose
+ * rows are already in its archive table is dropped without being exchanged back.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "billing.event-store.partitions.enabled", havingValue = "true")
+public class EventPartitionManager {
+
+    static final String TABLE = "billing_events";
+    static final String FUTURE_PARTITION = "p_future";
+
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("p(\\d{4})(\\d{2})");
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final boolean archive;
+
+    public EventPartitionManager(JdbcTemplate jdbcTemplate,
+                                 @Value("${billing.event-store.partitions.months-ahead:3}") int monthsAhead,
+                                 @Value("${billing.event-store.partitions.retention-months:24}") int retentionMonths,
+                                 @Value("${billing.event-store.partitions.archive:true}") boolean archive) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archive = archive;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintain();
+    }
+
+    /**
+     * An archive table that already exists when its partition is due to be archived.
+     */
+    public record ArchiveTable(boolean partitioned, boolean empty) {
+    }
+
+    @Scheduled(cron = "${billing.event-store.partitions.cron:0 30 0 * * *}")
+    public void maintain() {
+        List<String> existing = partitionsOf(TABLE);
+        Map<String, ArchiveTable> archives = archive ? findArchiveTables() : Map.of();
+        for (String statement : plan(Set.copyOf(existing), archives, LocalDate.now())) {
+            log.info("Event partition maintenance: {}", statement);
+            jdbcTemplate.execute(statement);
+        }
+    }
+
+    private List<String> partitionsOf(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS"
+                        + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                String.class, table);
+    }
+
+    private Map<String, ArchiveTable> findArchiveTables() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT TABLE_NAME FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME LIKE ?",
+                String.class, TABLE + "\\_archive\\_%");
+        Map<String, ArchiveTable> archives = new HashMap<>();
+        for (String name : names) {
+            boolean empty = jdbcTemplate.queryForList("SELECT 1 FROM " + name + " LIMIT 1").isEmpty();
+            archives.put(name, new ArchiveTable(!partitionsOf(name).isEmpty(), empty));
+        }
+        return archives;
+    }
+
+    /**
+     * DDL needed to bring the partition set in line with today's date, with no archive
+     * tables left by earlier runs.
+     */
+    public List<String> plan(Set<String> existing, LocalDate today) {
+        return plan(existing, Map.of(), today);
+    }
+
+    /**
+     * DDL needed to bring the partition set in line with today's date.
+     *
+     * @param archives archive tables that already exist, by table name
+     */
+    public List<String> plan(Set<String> existing, Map<String, ArchiveTable> archives, LocalDate today) {
+        List<String> statements = new ArrayList<>();
+        YearMonth current = YearMonth.from(today);
+
+        for (int ahead = 0; ahead <= monthsAhead; ahead++) {
+            YearMonth month = current.plusMonths(ahead);
+            String name = month.format(PARTITION_NAME);
+            if (!existing.contains(name) && existing.contains(FUTURE_PARTITION)) {
+                statements.add("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+                        + "PARTITION " + name + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'), "
+                        + "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+            }
+        }
+
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        existing.stream()
+                .map(MONTHLY_PARTITION::matcher)
+                .filter(Matcher::matches)
+                .filter(matcher -> YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                        .isBefore(oldestKept))
+                .map(Matcher::group)
+                .sorted()
+                .forEach(name -> {
+                    if (archive) {
+                        String archiveTable = TABLE + "_archive_" + name;
+                        ArchiveTable found = archives.get(archiveTable);
+                        if (found == null) {
+                            statements.add("CREATE TABLE IF NOT EXISTS " + archiveTable + " LIKE " + TABLE);
+                        }
+                        if (found == null || found.partitioned()) {
+                            statements.add("ALTER TABLE " + archiveTable + " REMOVE PARTITIONING");
+                        }
+                        // A non-empty archive table already holds this partition's rows
+                        if (found == null || found.partitioned() || found.empty()) {
+                            statements.add("ALTER TABLE " + TABLE + " EXCHANGE PARTITION " + name
+                                    + " WITH TABLE " + archiveTable);
+                        }
+                    }
+                    statements.add("ALTER TABLE " + TABLE + " DROP PARTITION " + name);
+                });
+        return statements;
+    }
+}
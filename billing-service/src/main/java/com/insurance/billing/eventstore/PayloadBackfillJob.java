@@ -0,0 +1,113 @@
+package com.insurance.billing.eventstore;
+
+import com.insurance.billing.eventstore.codec.PayloadCodecs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Moves billing events written before payload encoding off the TEXT columns: each chunk
+ * encodes payload and metadata into the BLOB columns and clears the text, in its own
+ * transaction. Walks the table in id order; after a restart it starts from the beginning,
+ * but converted rows no longer match and are skipped by the index scan.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "billing.event-store.payload-backfill.enabled", havingValue = "true")
+public class PayloadBackfillJob {
+
+    static final String SELECT_SQL = "SELECT id, occurred_at, payload, metadata FROM billing_events"
+            + " WHERE id > :after AND payload_data IS NULL AND metadata_data IS NULL"
+            + " AND (payload IS NOT NULL OR metadata IS NOT NULL)"
+            + " ORDER BY id LIMIT :limit";
+
+    static final String UPDATE_SQL = "UPDATE billing_events"
+            + " SET payload_data = :payloadData, metadata_data = :metadataData, payload = NULL, metadata = NULL"
+            + " WHERE id = :id AND occurred_at = :occurredAt AND payload_data IS NULL AND metadata_data IS NULL";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PayloadCodecs codecs;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+
+    private String lastId = "";
+    private boolean finished;
+
+    public PayloadBackfillJob(NamedParameterJdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              PayloadCodecs codecs,
+                              @Value("${billing.event-store.payload-backfill.chunk-size:1000}") int chunkSize,
+                              @Value("${billing.event-store.payload-backfill.max-chunks-per-run:50}") int maxChunksPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.codecs = codecs;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    private record LegacyRow(String id, Timestamp occurredAt, String payload, String metadata) {
+    }
+
+    @Scheduled(fixedDelayString = "${billing.event-store.payload-backfill.interval:PT1M}")
+    public synchronized void run() {
+        if (finished) {
+            return;
+        }
+        int converted = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            int rows = backfillChunk();
+            if (rows < 0) {
+                finished = true;
+                log.info("Billing event payload backfill complete");
+                break;
+            }
+            converted += rows;
+        }
+        if (converted > 0) {
+            log.info("Encoded payloads of {} legacy billing events", converted);
+        }
+    }
+
+    /**
+     * Convert the next chunk of legacy rows.
+     *
+     * @return rows converted, or -1 once no legacy rows remain
+     */
+    public synchronized int backfillChunk() {
+        Integer converted = transactionTemplate.execute(status -> {
+            List<LegacyRow> rows = jdbcTemplate.query(SELECT_SQL,
+                    new MapSqlParameterSource().addValue("after", lastId).addValue("limit", chunkSize),
+                    (rs, rowNum) -> new LegacyRow(rs.getString("id"), rs.getTimestamp("occurred_at"),
+                            rs.getString("payload"), rs.getString("metadata")));
+            if (rows.isEmpty()) {
+                return -1;
+            }
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, rows.stream()
+                    .map(row -> new MapSqlParameterSource()
+                            .addValue("payloadData", codecs.encode(row.payload()), Types.BLOB)
+                            .addValue("metadataData", codecs.encode(row.metadata()), Types.BLOB)
+                            .addValue("id", row.id())
+                            .addValue("occurredAt", row.occurredAt()))
+                    .toArray(SqlParameterSource[]::new));
+            lastId = rows.get(rows.size() - 1).id();
+            int updated = 0;
+            for (int count : counts) {
+                updated += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+            return updated;
+        });
+        return converted == null ? 0 : converted;
+    }
+}
@@ -0,0 +1,40 @@
+package com.insurance.billing.eventstore;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * UUIDv7-style identifiers: a 48-bit millisecond timestamp followed by a 12-bit sequence
+ * and random bits. IDs generated by one process sort in creation order, as strings too,
+ * so new rows land at the end of the primary key instead of at random positions.
+ */
+public final class TimeOrderedIds {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_SEQUENCE = 0xFFF;
+
+    private static long lastMillis;
+    private static int sequence;
+
+    private TimeOrderedIds() {
+    }
+
+    public static String next() {
+        return nextUuid().toString();
+    }
+
+    static synchronized UUID nextUuid() {
+        long now = System.currentTimeMillis();
+        if (now > lastMillis) {
+            lastMillis = now;
+            // Random start within the lower half leaves room for many IDs in the same millisecond
+            sequence = RANDOM.nextInt(MAX_SEQUENCE / 2);
+        } else if (++sequence > MAX_SEQUENCE) {
+            lastMillis++;
+            sequence = 0;
+        }
+        long mostSignificant = (lastMillis << 16) | 0x7000L | sequence;
+        long leastSignificant = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
@@ -0,0 +1,115 @@
+package com.insurance.billing.eventstore.codec;
+
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Smile compressed with raw deflate primed by a preset dictionary of the keys and values
+ * billing events repeat across documents. Event payloads are small, so the dictionary is
+ * what lets deflate find matches at all; values it cannot shrink below plain Smile are
+ * written as {@link SmilePayloadCodec#FORMAT_ID} instead.
+ * <p>
+ * The dictionary is part of the stored format: changing {@link #DICTIONARY_SAMPLE} requires
+ * a new format id so rows written with the old one still inflate.
+ */
+@Component
+public class DictionarySmilePayloadCodec implements PayloadCodec {
+
+    public static final byte FORMAT_ID = 2;
+
+    static final String DICTIONARY_SAMPLE = "{"
+            + "\"billingId\":\"\",\"policyId\":\"POLICY-\",\"customerId\":\"CUST-\",\"paymentId\":\"PAY-\","
+            + "\"transactionId\":\"TXN-\",\"amount\":0.00,\"amountOverdue\":0.00,\"currency\":\"USD\","
+            + "\"from\":\"PENDING\",\"to\":\"OVERDUE\",\"status\":\"GRACE_PERIOD\",\"previous\":\"DELINQUENT\","
+            + "\"reason\":\"PAID\",\"dueDate\":\"2026-01-01\",\"gracePeriodEnd\":\"2026-01-01\","
+            + "\"paymentDate\":\"2026-01-01T00:00:00\",\"attempt\":1,\"channel\":\"EMAIL\","
+            + "\"source\":\"billing-service\",\"correlationId\":\"\",\"user\":\"system\"}";
+
+    private final SmilePayloadCodec smile;
+    private final byte[] dictionary;
+
+    public DictionarySmilePayloadCodec(SmilePayloadCodec smile) {
+        this.smile = smile;
+        try {
+            this.dictionary = smile.toSmile(DICTIONARY_SAMPLE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "smile-deflate";
+    }
+
+    @Override
+    public byte formatId() {
+        return FORMAT_ID;
+    }
+
+    @Override
+    public byte[] encode(String payload) throws IOException {
+        byte[] body = smile.toSmile(payload);
+        byte[] compressed = deflate(body);
+        if (compressed.length >= body.length) {
+            byte[] data = new byte[body.length + 1];
+            data[0] = SmilePayloadCodec.FORMAT_ID;
+            System.arraycopy(body, 0, data, 1, body.length);
+            return data;
+        }
+        byte[] data = new byte[compressed.length + 1];
+        data[0] = FORMAT_ID;
+        System.arraycopy(compressed, 0, data, 1, compressed.length);
+        return data;
+    }
+
+    @Override
+    public String decode(byte[] data) throws IOException {
+        return smile.fromSmile(inflate(data));
+    }
+
+    private byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setDictionary(dictionary);
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length);
+            byte[] buffer = new byte[Math.max(64, input.length)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] data) throws IOException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(dictionary);
+            inflater.setInput(data, 1, data.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[Math.max(256, data.length * 3)];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated compressed payload");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt compressed payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
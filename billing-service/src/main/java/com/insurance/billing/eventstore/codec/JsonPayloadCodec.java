@@ -0,0 +1,39 @@
+package com.insurance.billing.eventstore.codec;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Stores the payload text as-is in UTF-8. Also the fallback for payloads that are not JSON.
+ */
+@Component
+public class JsonPayloadCodec implements PayloadCodec {
+
+    public static final byte FORMAT_ID = 0;
+
+    @Override
+    public String name() {
+        return "json";
+    }
+
+    @Override
+    public byte formatId() {
+        return FORMAT_ID;
+    }
+
+    @Override
+    public byte[] encode(String payload) {
+        byte[] text = payload.getBytes(StandardCharsets.UTF_8);
+        byte[] data = new byte[text.length + 1];
+        data[0] = FORMAT_ID;
+        System.arraycopy(text, 0, data, 1, text.length);
+        return data;
+    }
+
+    @Override
+    public String decode(byte[] data) {
+        return new String(Arrays.copyOfRange(data, 1, data.length), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,33 @@
+package com.insurance.billing.eventstore.codec;
+
+import java.io.IOException;
+
+/**
+ * Encoding for billing event payload and metadata columns. Every encoded value starts with a
+ * one-byte format id so rows written by different codecs can be decoded side by side.
+ */
+public interface PayloadCodec {
+
+    /**
+     * Name used to select this codec for writes (billing.event-store.payload-codec).
+     */
+    String name();
+
+    /**
+     * Format id written as the first byte of each value this codec produces.
+     */
+    byte formatId();
+
+    /**
+     * Encode a payload, header byte included. The header may name another registered format
+     * when this codec falls back to it.
+     *
+     * @throws IOException if the payload cannot be represented in this encoding
+     */
+    byte[] encode(String payload) throws IOException;
+
+    /**
+     * Decode a value whose header byte is this codec's format id.
+     */
+    String decode(byte[] data) throws IOException;
+}
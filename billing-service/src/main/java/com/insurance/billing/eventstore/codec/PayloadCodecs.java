@@ -0,0 +1,84 @@
+package com.insurance.billing.eventstore.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Registry of payload codecs. Writes use the configured codec; reads dispatch on the format
+ * header, so switching codecs never requires rewriting existing rows.
+ */
+@Slf4j
+@Component
+public class PayloadCodecs {
+
+    private final PayloadCodec[] byFormat = new PayloadCodec[Byte.MAX_VALUE + 1];
+    private final PayloadCodec writeCodec;
+    private final PayloadCodec fallback;
+
+    public PayloadCodecs(List<PayloadCodec> codecs,
+                         @Value("${billing.event-store.payload-codec:smile-deflate}") String writeCodecName) {
+        PayloadCodec selected = null;
+        PayloadCodec text = null;
+        for (PayloadCodec codec : codecs) {
+            if (codec.formatId() < 0 || byFormat[codec.formatId()] != null) {
+                throw new IllegalStateException("Duplicate or invalid payload format id " + codec.formatId()
+                        + " for codec " + codec.name());
+            }
+            byFormat[codec.formatId()] = codec;
+            if (codec.name().equals(writeCodecName)) {
+                selected = codec;
+            }
+            if (codec.formatId() == JsonPayloadCodec.FORMAT_ID) {
+                text = codec;
+            }
+        }
+        if (selected == null) {
+            throw new IllegalStateException("Unknown payload codec: " + writeCodecName);
+        }
+        if (text == null) {
+            throw new IllegalStateException("The json payload codec must be registered as the fallback");
+        }
+        this.writeCodec = selected;
+        this.fallback = text;
+    }
+
+    /**
+     * Encode with the configured codec. Payloads it rejects (free-form text rather than JSON)
+     * are stored as plain text.
+     */
+    public byte[] encode(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return writeCodec.encode(payload);
+        } catch (IOException e) {
+            log.debug("Payload codec {} rejected payload, storing as text: {}", writeCodec.name(), e.getMessage());
+            try {
+                return fallback.encode(payload);
+            } catch (IOException textFailure) {
+                throw new UncheckedIOException(textFailure);
+            }
+        }
+    }
+
+    public String decode(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0 || data[0] < 0 || byFormat[data[0]] == null) {
+            throw new IllegalArgumentException("Unknown payload format "
+                    + (data.length == 0 ? "(empty)" : String.valueOf(data[0])));
+        }
+        try {
+            return byFormat[data[0]].decode(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode " + byFormat[data[0]].name() + " payload", e);
+        }
+    }
+}
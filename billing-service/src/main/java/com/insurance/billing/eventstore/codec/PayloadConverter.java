@@ -0,0 +1,30 @@
+package com.insurance.billing.eventstore.codec;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps billing event payload text onto the encoded BLOB columns. Instantiated through
+ * Hibernate's Spring bean container so it shares the configured {@link PayloadCodecs}.
+ */
+@Component
+@Converter
+public class PayloadConverter implements AttributeConverter<String, byte[]> {
+
+    private final PayloadCodecs codecs;
+
+    public PayloadConverter(PayloadCodecs codecs) {
+        this.codecs = codecs;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(String attribute) {
+        return codecs.encode(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] dbData) {
+        return codecs.decode(dbData);
+    }
+}
@@ -0,0 +1,68 @@
+package com.insurance.billing.eventstore.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Binary JSON (Smile) with shared keys and short string values, so repeated property names
+ * are written once per document. Decodes back to compact JSON text; decimals keep their
+ * scale so amounts read back exactly as written.
+ */
+@Component
+public class SmilePayloadCodec implements PayloadCodec {
+
+    public static final byte FORMAT_ID = 1;
+
+    private final ObjectMapper jsonMapper = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+    private final ObjectMapper smileMapper = new ObjectMapper(SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build())
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+
+    @Override
+    public String name() {
+        return "smile";
+    }
+
+    @Override
+    public byte formatId() {
+        return FORMAT_ID;
+    }
+
+    @Override
+    public byte[] encode(String payload) throws IOException {
+        byte[] body = toSmile(payload);
+        byte[] data = new byte[body.length + 1];
+        data[0] = FORMAT_ID;
+        System.arraycopy(body, 0, data, 1, body.length);
+        return data;
+    }
+
+    @Override
+    public String decode(byte[] data) throws IOException {
+        return fromSmile(Arrays.copyOfRange(data, 1, data.length));
+    }
+
+    byte[] toSmile(String json) throws IOException {
+        JsonNode tree = jsonMapper.readTree(json);
+        if (tree == null || tree.isMissingNode()) {
+            throw new IOException("Payload is not a JSON document");
+        }
+        return smileMapper.writeValueAsBytes(tree);
+    }
+
+    String fromSmile(byte[] smile) throws IOException {
+        return jsonMapper.writeValueAsString(smileMapper.readTree(smile));
+    }
+}
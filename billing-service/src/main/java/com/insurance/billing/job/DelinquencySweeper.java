@@ -0,0 +1,76 @@
+package com.insurance.billing.job;
+
+import com.insurance.billing.event.BillingStatusChangedEvent;
+import com.insurance.billing.repository.BillingStateJdbcRepository;
+import com.insurance.billing.repository.BillingStateJdbcRepository.TransitionedBilling;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Daily job that moves billings through PENDING → OVERDUE → GRACE_PERIOD → DELINQUENT,
+ * one step per billing per sweep date: a billing that became OVERDUE in this sweep enters
+ * its grace period in the next one, and running the sweep again on the same date is a no-op.
+ * Work is done in chunks, each in its own short transaction, so the sweep never holds
+ * locks on more than one chunk and can run on several nodes at once.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "billing.delinquency.sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class DelinquencySweeper {
+
+    private final BillingStateJdbcRepository billingStateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int defaultGraceDays;
+
+    public DelinquencySweeper(BillingStateJdbcRepository billingStateRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${billing.delinquency.sweep.chunk-size:500}") int chunkSize,
+                              @Value("${billing.delinquency.default-grace-days:10}") int defaultGraceDays) {
+        this.billingStateRepository = billingStateRepository;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.defaultGraceDays = defaultGraceDays;
+    }
+
+    @Scheduled(cron = "${billing.delinquency.sweep.cron:0 15 1 * * *}")
+    public void scheduledSweep() {
+        sweep(LocalDate.now());
+    }
+
+    /**
+     * Run every transition to completion for the given date.
+     *
+     * @param today date the due dates and grace period ends are compared against
+     * @return number of billings moved per transition
+     */
+    public Map<DelinquencyTransition, Integer> sweep(LocalDate today) {
+        Map<DelinquencyTransition, Integer> moved = new EnumMap<>(DelinquencyTransition.class);
+        for (DelinquencyTransition transition : DelinquencyTransition.values()) {
+            int total = 0;
+            List<TransitionedBilling> chunk;
+            do {
+                chunk = billingStateRepository.advanceChunk(transition, today, defaultGraceDays, chunkSize);
+                total += chunk.size();
+                if (!chunk.isEmpty()) {
+                    eventPublisher.publishEvent(new BillingStatusChangedEvent(chunk.stream()
+                            .map(TransitionedBilling::policyId)
+                            .collect(Collectors.toSet())));
+                }
+            } while (chunk.size() == chunkSize);
+            moved.put(transition, total);
+            log.info("Delinquency sweep {}: moved {} billings to {}", today, total, transition.getTo());
+        }
+        return moved;
+    }
+}
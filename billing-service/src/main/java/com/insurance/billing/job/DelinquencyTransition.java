@@ -0,0 +1,40 @@
+package com.insurance.billing.job;
+
+import com.insurance.billing.entity.BillingEvent.EventType;
+import com.insurance.shared.enums.BillingStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Billing state transitions applied by the delinquency sweeper, in the order they run.
+ * Each one selects billings in the source statuses whose date column satisfies the condition
+ * against the sweep date (bound as {@code :today}). A billing without a grace period end is
+ * treated as ending the default grace period after its due date, i.e. its due date is
+ * compared with {@code :graceCutoff} (the sweep date minus the default grace days).
+ */
+@Getter
+@RequiredArgsConstructor
+public enum DelinquencyTransition {
+
+    TO_OVERDUE(List.of(BillingStatus.PENDING), BillingStatus.OVERDUE,
+            "due_date < :today", EventType.PAYMENT_DUE),
+
+    TO_GRACE_PERIOD(List.of(BillingStatus.OVERDUE), BillingStatus.GRACE_PERIOD,
+            "(grace_period_end >= :today OR (grace_period_end IS NULL AND due_date >= :graceCutoff))",
+            EventType.GRACE_PERIOD_STARTED),
+
+    TO_DELINQUENT(List.of(BillingStatus.OVERDUE, BillingStatus.GRACE_PERIOD), BillingStatus.DELINQUENT,
+            "(grace_period_end < :today OR (grace_period_end IS NULL AND due_date < :graceCutoff))",
+            EventType.DELINQUENT);
+
+    private final List<BillingStatus> from;
+    private final BillingStatus to;
+    private final String condition;
+    private final EventType eventType;
+
+    public List<String> fromNames() {
+        return from.stream().map(Enum::name).toList();
+    }
+}
@@ -0,0 +1,185 @@
+package com.insurance.billing.job;
+
+import com.insurance.billing.client.PaymentServiceClient;
+import com.insurance.billing.client.PaymentServiceClient.RetryResult;
+import com.insurance.billing.entity.PaymentRetry.RetryStatus;
+import com.insurance.billing.repository.PaymentRetryClaimRepository;
+import com.insurance.billing.repository.PaymentRetryClaimRepository.ClaimedRetry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Claims due payment retries in batches and runs them on a bounded worker pool. Claims are
+ * leases held by this node (see {@link PaymentRetryClaimRepository}), so any number of
+ * billing-service instances can dispatch concurrently without picking up the same retry.
+ * <p>
+ * A node only claims as many retries as it has free workers, so claimed work never waits in
+ * a queue while its lease runs down. A worker that finds too little of its lease left skips
+ * the payment call; the reaper returns such retries, and those of crashed nodes, to
+ * SCHEDULED once their lease expires.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "billing.payment-retry.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentRetryDispatcher {
+
+    private static final int MAX_FAILURE_REASON_LENGTH = 255;
+
+    private final PaymentRetryClaimRepository claimRepository;
+    private final PaymentServiceClient paymentServiceClient;
+    private final String nodeId;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration minRemainingLease;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Semaphore freeWorkers;
+    private final ThreadPoolExecutor workers;
+
+    public PaymentRetryDispatcher(PaymentRetryClaimRepository claimRepository,
+                                  PaymentServiceClient paymentServiceClient,
+                                  @Value("${billing.payment-retry.node-id:}") String nodeId,
+                                  @Value("${billing.payment-retry.workers:8}") int workerCount,
+                                  @Value("${billing.payment-retry.batch-size:50}") int batchSize,
+                                  @Value("${billing.payment-retry.lease:PT5M}") Duration lease,
+                                  @Value("${billing.payment-retry.min-remaining-lease:PT1M}") Duration minRemainingLease,
+                                  @Value("${billing.payment-retry.max-attempts:3}") int maxAttempts,
+                                  @Value("${billing.payment-retry.backoff:PT6H}") Duration backoff) {
+        this.claimRepository = claimRepository;
+        this.paymentServiceClient = paymentServiceClient;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.minRemainingLease = minRemainingLease;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.freeWorkers = new Semaphore(workerCount);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerCount), runnable -> {
+                    Thread thread = new Thread(runnable, "payment-retry-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "${billing.payment-retry.poll-interval:PT10S}")
+    public void scheduledDispatch() {
+        dispatch(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${billing.payment-retry.reap-interval:PT1M}")
+    public void scheduledReap() {
+        int released = claimRepository.releaseExpiredLeases(LocalDateTime.now());
+        if (released > 0) {
+            log.warn("Released {} payment retries with expired leases", released);
+        }
+    }
+
+    /**
+     * Claim as many due retries as there are free workers and hand them to the pool.
+     *
+     * @return number of retries claimed
+     */
+    public synchronized int dispatch(LocalDateTime now) {
+        int capacity = Math.min(batchSize, freeWorkers.availablePermits());
+        if (capacity == 0) {
+            return 0;
+        }
+        List<ClaimedRetry> claimed = claimRepository.claim(nodeId, now, lease, capacity);
+        for (ClaimedRetry retry : claimed) {
+            freeWorkers.acquireUninterruptibly();
+            workers.execute(() -> {
+                try {
+                    process(retry);
+                } catch (RuntimeException e) {
+                    log.error("Payment retry {} failed unexpectedly; its lease will expire: {}",
+                            retry.id(), e.getMessage());
+                } finally {
+                    freeWorkers.release();
+                }
+            });
+        }
+        if (!claimed.isEmpty()) {
+            log.info("Node {} claimed {} payment retries", nodeId, claimed.size());
+        }
+        return claimed.size();
+    }
+
+    private void process(ClaimedRetry retry) {
+        if (LocalDateTime.now().plus(minRemainingLease).isAfter(retry.leaseExpiresAt())) {
+            log.warn("Skipping payment retry {}: lease expires at {}", retry.id(), retry.leaseExpiresAt());
+            return;
+        }
+
+        RetryStatus outcome;
+        String failureReason = null;
+        try {
+            RetryResult result = paymentServiceClient.retryPayment(retry.paymentId(), retry.id());
+            outcome = result.succeeded() ? RetryStatus.SUCCESS : RetryStatus.FAILED;
+            if (!result.succeeded()) {
+                failureReason = result.message();
+            }
+        } catch (RestClientException e) {
+            outcome = RetryStatus.FAILED;
+            failureReason = e.getMessage();
+        }
+
+        LocalDateTime nextAttemptAt = null;
+        if (outcome == RetryStatus.FAILED) {
+            if (retry.retryAttempt() >= maxAttempts) {
+                outcome = RetryStatus.EXHAUSTED;
+            } else {
+                nextAttemptAt = LocalDateTime.now().plus(backoff.multipliedBy(retry.retryAttempt()));
+            }
+        }
+
+        boolean recorded = claimRepository.complete(retry, nodeId, outcome, truncate(failureReason),
+                nextAttemptAt, UUID.randomUUID().toString());
+        if (!recorded) {
+            log.warn("Lease on payment retry {} was lost before outcome {} could be recorded", retry.id(), outcome);
+        }
+    }
+
+    private static String truncate(String reason) {
+        return reason == null || reason.length() <= MAX_FAILURE_REASON_LENGTH
+                ? reason : reason.substring(0, MAX_FAILURE_REASON_LENGTH);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "billing";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
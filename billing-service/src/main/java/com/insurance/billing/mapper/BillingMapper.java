@@ -1,6 +1,7 @@
 package com.insurance.billing.mapper;
 
 import com.insurance.billing.entity.Billing;
+import com.insurance.billing.repository.BillingRepository;
 import com.insurance.shared.dto.BillingDto;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -14,6 +15,8 @@ public interface BillingMapper {
     @Mapping(target = "paymentStatus", source = "paymentStatus")
     BillingDto toDto(Billing billing);
 
+    BillingDto toDto(BillingRepository.BillingView view);
+
     @Mapping(target = "status", source = "status")
     @Mapping(target = "paymentStatus", source = "paymentStatus")
     Billing toEntity(BillingDto dto);
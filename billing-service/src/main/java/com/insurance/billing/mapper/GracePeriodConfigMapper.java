@@ -0,0 +1,14 @@
+package com.insurance.billing.mapper;
+
+import com.insurance.billing.entity.GracePeriodConfig;
+import com.insurance.shared.dto.GracePeriodConfigDto;
+import org.mapstruct.Mapper;
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface GracePeriodConfigMapper {
+
+    GracePeriodConfigDto toDto(GracePeriodConfig config);
+
+    List<GracePeriodConfigDto> toDtoList(List<GracePeriodConfig> configs);
+}
@@ -0,0 +1,56 @@
+package com.insurance.billing.projection;
+
+import com.insurance.billing.entity.Billing;
+import com.insurance.shared.enums.BillingStatus;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * JPA entity listener feeding billing writes into the due date index. Changes are applied
+ * after the surrounding transaction commits so rolled-back writes never reach the index.
+ */
+@Component
+public class BillingDueDateListener {
+
+    private final DueDateIndex dueDateIndex;
+
+    public BillingDueDateListener(DueDateIndex dueDateIndex) {
+        this.dueDateIndex = dueDateIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Billing billing) {
+        String id = billing.getId();
+        LocalDate dueDate = billing.getDueDate();
+        BigDecimal amount = billing.getAmount();
+        BillingStatus status = billing.getStatus();
+        afterCommit(() -> dueDateIndex.update(id, dueDate, amount, status));
+    }
+
+    @PostRemove
+    public void onRemove(Billing billing) {
+        String id = billing.getId();
+        afterCommit(() -> dueDateIndex.remove(id));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,161 @@
+package com.insurance.billing.projection;
+
+import com.insurance.billing.entity.DelinquencyRecord;
+import com.insurance.billing.event.BillingStatusChangedEvent;
+import com.insurance.billing.event.PaymentAppliedEvent;
+import com.insurance.billing.repository.BillingRepository;
+import com.insurance.billing.repository.BillingRepository.OutstandingSummary;
+import com.insurance.billing.repository.DelinquencyRecordRepository;
+import com.insurance.shared.enums.BillingStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the delinquency projection in step with billings and payments. Each event refreshes
+ * only the policies it names, with one grouped query over their outstanding billings.
+ */
+@Slf4j
+@Component
+public class DelinquencyProjector {
+
+    static final Set<BillingStatus> OUTSTANDING = Set.of(
+            BillingStatus.OVERDUE, BillingStatus.GRACE_PERIOD, BillingStatus.DELINQUENT);
+
+    private static final int REBUILD_CHUNK_SIZE = 500;
+
+    private final BillingRepository billingRepository;
+    private final DelinquencyRecordRepository delinquencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStartup;
+
+    public DelinquencyProjector(BillingRepository billingRepository,
+                                DelinquencyRecordRepository delinquencyRecordRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${billing.delinquency.projection.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.billingRepository = billingRepository;
+        this.delinquencyRecordRepository = delinquencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBillingStatusChanged(BillingStatusChangedEvent event) {
+        refresh(event.policyIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPaymentApplied(PaymentAppliedEvent event) {
+        DelinquencyRecord record = delinquencyRecordRepository.findById(event.policyId())
+                .orElseGet(() -> DelinquencyRecord.builder()
+                        .policyId(event.policyId())
+                        .amountOverdue(BigDecimal.ZERO)
+                        .build());
+        if (record.getLastPaymentDate() == null || event.paymentDate().isAfter(record.getLastPaymentDate())) {
+            record.setLastPaymentDate(event.paymentDate());
+        }
+        delinquencyRecordRepository.save(record);
+        refresh(Set.of(event.policyId()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recompute the projection for every policy that currently has outstanding billings,
+     * one transaction per chunk of policies.
+     */
+    public void rebuild() {
+        List<String> policyIds = billingRepository.findPolicyIdsWithStatusIn(OUTSTANDING);
+        for (int from = 0; from < policyIds.size(); from += REBUILD_CHUNK_SIZE) {
+            // refresh() is called on this instance, past the transactional proxy
+            List<String> chunk = policyIds.subList(from, Math.min(from + REBUILD_CHUNK_SIZE, policyIds.size()));
+            transactionTemplate.executeWithoutResult(status -> refresh(chunk));
+        }
+        log.info("Rebuilt delinquency projection for {} policies", policyIds.size());
+    }
+
+    /**
+     * Recompute the rows of the given policies. Policies with nothing outstanding keep their
+     * row (and last payment date) with a zero amount, which excludes them from queries.
+     */
+    @Transactional
+    public void refresh(Collection<String> policyIds) {
+        if (policyIds.isEmpty()) {
+            return;
+        }
+        Map<String, List<OutstandingSummary>> summaries = billingRepository
+                .summarizeOutstanding(policyIds, OUTSTANDING).stream()
+                .collect(Collectors.groupingBy(OutstandingSummary::getPolicyId));
+        Map<String, DelinquencyRecord> records = delinquencyRecordRepository.findByPolicyIdIn(policyIds).stream()
+                .collect(Collectors.toMap(DelinquencyRecord::getPolicyId, Function.identity()));
+
+        for (String policyId : policyIds) {
+            List<OutstandingSummary> outstanding = summaries.get(policyId);
+            DelinquencyRecord record = records.get(policyId);
+            if (outstanding == null) {
+                if (record != null) {
+                    record.setStatus(null);
+                    record.setAmountOverdue(BigDecimal.ZERO);
+                    record.setOldestDueDate(null);
+                    record.setGracePeriodExpiry(null);
+                }
+                continue;
+            }
+            if (record == null) {
+                record = DelinquencyRecord.builder().policyId(policyId).build();
+                records.put(policyId, record);
+            }
+            apply(record, outstanding);
+        }
+        delinquencyRecordRepository.saveAll(records.values());
+    }
+
+    private static void apply(DelinquencyRecord record, List<OutstandingSummary> outstanding) {
+        BigDecimal amount = BigDecimal.ZERO;
+        BillingStatus worst = null;
+        record.setOldestDueDate(null);
+        record.setGracePeriodExpiry(null);
+        for (OutstandingSummary summary : outstanding) {
+            record.setCustomerId(summary.getCustomerId());
+            if (summary.getAmount() != null) {
+                amount = amount.add(summary.getAmount());
+            }
+            // BillingStatus is declared in escalation order, so the highest ordinal is the worst state
+            if (worst == null || summary.getStatus().ordinal() > worst.ordinal()) {
+                worst = summary.getStatus();
+            }
+            if (summary.getOldestDueDate() != null && (record.getOldestDueDate() == null
+                    || summary.getOldestDueDate().isBefore(record.getOldestDueDate()))) {
+                record.setOldestDueDate(summary.getOldestDueDate());
+            }
+            if (summary.getGracePeriodEnd() != null && (record.getGracePeriodExpiry() == null
+                    || summary.getGracePeriodEnd().isBefore(record.getGracePeriodExpiry()))) {
+                record.setGracePeriodExpiry(summary.getGracePeriodEnd());
+            }
+        }
+        record.setStatus(worst);
+        record.setAmountOverdue(amount);
+    }
+}
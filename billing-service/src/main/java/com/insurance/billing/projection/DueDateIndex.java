@@ -0,0 +1,198 @@
+package com.insurance.billing.projection;
+
+import com.insurance.shared.enums.BillingStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory calendar of open billings: one bucket per due date holding the billing IDs,
+ * their amounts and a running total. Range queries sum bucket totals instead of touching
+ * individual billings. The index is kept current from billing writes and is rebuilt from
+ * the database at startup and periodically to repair any drift.
+ */
+@Slf4j
+@Component
+public class DueDateIndex {
+
+    private static final int REBUILD_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Object rebuildLock = new Object();
+
+    private volatile Calendar calendar = new Calendar();
+    // Writes seen while a rebuild is reading the table; replayed onto the new calendar
+    private List<Consumer<Calendar>> rebuildJournal;
+
+    public DueDateIndex(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(REBUILD_FETCH_SIZE);
+    }
+
+    public record BucketSummary(LocalDate dueDate, int count, BigDecimal total) {
+    }
+
+    public record RangeSummary(LocalDate from, LocalDate to, int count, BigDecimal total,
+                               List<BucketSummary> buckets) {
+    }
+
+    /**
+     * Record the current state of a billing. Billings that are paid or have no due date are removed.
+     */
+    public void update(String billingId, LocalDate dueDate, BigDecimal amount, BillingStatus status) {
+        if (dueDate == null || status == BillingStatus.PAID) {
+            apply(target -> target.remove(billingId));
+        } else {
+            BigDecimal value = amount != null ? amount : BigDecimal.ZERO;
+            apply(target -> target.put(billingId, dueDate, value));
+        }
+    }
+
+    public void remove(String billingId) {
+        apply(target -> target.remove(billingId));
+    }
+
+    /**
+     * Sum the buckets with due dates in [from, to], both inclusive.
+     */
+    public RangeSummary summarize(LocalDate from, LocalDate to) {
+        List<BucketSummary> buckets = new ArrayList<>();
+        int count = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<LocalDate, Bucket> entry : calendar.buckets.subMap(from, true, to, true).entrySet()) {
+            BucketSummary bucket = entry.getValue().summary(entry.getKey());
+            if (bucket.count() == 0) {
+                continue;
+            }
+            buckets.add(bucket);
+            count += bucket.count();
+            total = total.add(bucket.total());
+        }
+        return new RangeSummary(from, to, count, total, buckets);
+    }
+
+    /**
+     * Sum all buckets due strictly before the given date.
+     */
+    public RangeSummary summarizeBefore(LocalDate date) {
+        NavigableMap<LocalDate, Bucket> buckets = calendar.buckets;
+        if (buckets.isEmpty() || !buckets.firstKey().isBefore(date)) {
+            return new RangeSummary(null, date, 0, BigDecimal.ZERO, List.of());
+        }
+        return summarize(buckets.firstKey(), date.minusDays(1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${billing.due-index.rebuild-interval:PT1H}",
+            initialDelayString = "${billing.due-index.rebuild-interval:PT1H}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Reload the calendar from the billings table and swap it in.
+     */
+    public synchronized void rebuild() {
+        synchronized (rebuildLock) {
+            rebuildJournal = new ArrayList<>();
+        }
+        Calendar fresh = new Calendar();
+        try {
+            jdbcTemplate.query("SELECT id, due_date, amount FROM billings"
+                            + " WHERE due_date IS NOT NULL AND (status IS NULL OR status <> ?)",
+                    rs -> {
+                        BigDecimal amount = rs.getBigDecimal("amount");
+                        fresh.put(rs.getString("id"), rs.getDate("due_date").toLocalDate(),
+                                amount != null ? amount : BigDecimal.ZERO);
+                    },
+                    BillingStatus.PAID.name());
+        } catch (RuntimeException e) {
+            synchronized (rebuildLock) {
+                rebuildJournal = null;
+            }
+            throw e;
+        }
+        synchronized (rebuildLock) {
+            rebuildJournal.forEach(change -> change.accept(fresh));
+            rebuildJournal = null;
+            calendar = fresh;
+        }
+        log.info("Rebuilt due date index with {} open billings in {} buckets",
+                fresh.locations.size(), fresh.buckets.size());
+    }
+
+    private void apply(Consumer<Calendar> change) {
+        synchronized (rebuildLock) {
+            change.accept(calendar);
+            if (rebuildJournal != null) {
+                rebuildJournal.add(change);
+            }
+        }
+    }
+
+    /**
+     * One due date's open billings and their running total.
+     */
+    static final class Bucket {
+        private final Map<String, BigDecimal> amounts = new HashMap<>();
+        private BigDecimal total = BigDecimal.ZERO;
+
+        synchronized void put(String billingId, BigDecimal amount) {
+            BigDecimal previous = amounts.put(billingId, amount);
+            total = total.add(amount);
+            if (previous != null) {
+                total = total.subtract(previous);
+            }
+        }
+
+        synchronized void remove(String billingId) {
+            BigDecimal previous = amounts.remove(billingId);
+            if (previous != null) {
+                total = total.subtract(previous);
+            }
+        }
+
+        synchronized BucketSummary summary(LocalDate dueDate) {
+            return new BucketSummary(dueDate, amounts.size(), total);
+        }
+    }
+
+    static final class Calendar {
+        private final ConcurrentSkipListMap<LocalDate, Bucket> buckets = new ConcurrentSkipListMap<>();
+        private final ConcurrentHashMap<String, LocalDate> locations = new ConcurrentHashMap<>();
+
+        void put(String billingId, LocalDate dueDate, BigDecimal amount) {
+            LocalDate previous = locations.put(billingId, dueDate);
+            if (previous != null && !previous.equals(dueDate)) {
+                buckets.get(previous).remove(billingId);
+            }
+            buckets.computeIfAbsent(dueDate, date -> new Bucket()).put(billingId, amount);
+        }
+
+        void remove(String billingId) {
+            LocalDate previous = locations.remove(billingId);
+            if (previous != null) {
+                buckets.get(previous).remove(billingId);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.insurance.billing.projection;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.shared.dto.PolicyDto;
+import com.insurance.shared.events.PolicyChangeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Local copy of every policy, materialized from the policy events topic into an embedded
+ * MVStore file (memory-mapped by default). Lookups are a map read plus JSON decoding, so
+ * billing keeps working while policy-service is slow or down.
+ * <p>
+ * The next offset of each topic partition is written with the policies it covers and
+ * committed with them, so after a restart the consumer resumes where the last commit left
+ * off. A commit that lands between a batch's policies and its offsets only means a few
+ * events are applied twice, and applying an event twice changes nothing.
+ * <p>
+ * Each policy is stamped with the time it was last written, and one older than
+ * {@code billing.policy-store.max-age} is reported as not held, so a change lost on the
+ * way (a dropped event, a stalled consumer) outlives the store by at most that long.
+ * Callers refresh such policies from policy-service with {@link #refresh}.
+ * <p>
+ * With {@code billing.policy-store.enabled=false} the store is in-memory and stays empty,
+ * so every lookup falls through to policy-service.
+ */
+@Slf4j
+@Component
+public class LocalPolicyStore {
+
+    static final String POLICIES_MAP = "policies";
+    static final String OFFSETS_MAP = "offsets";
+    static final String WRITTEN_AT_MAP = "written-at";
+
+    private final ObjectMapper objectMapper;
+    private final MVStore store;
+    private final MVMap<String, byte[]> policies;
+    private final MVMap<String, Long> offsets;
+    private final MVMap<String, Long> writtenAt;
+    private final boolean enabled;
+    private final long maxAgeMillis;
+
+    public LocalPolicyStore(ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${billing.policy-store.enabled:true}") boolean enabled,
+                            @Value("${billing.policy-store.path:${java.io.tmpdir}/billing-policy-store-${server.port:8080}.mv.db}") Path path,
+                            @Value("${billing.policy-store.memory-mapped:true}") boolean memoryMapped,
+                            @Value("${billing.policy-store.cache-size-mb:64}") int cacheSizeMb,
+                            @Value("${billing.policy-store.max-age:P1D}") Duration maxAge) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxAgeMillis = maxAge.toMillis();
+        MVStore.Builder builder = new MVStore.Builder()
+                .cacheSize(cacheSizeMb)
+                .compress();
+        if (enabled) {
+            createParentDirectories(path);
+            builder.fileName((memoryMapped ? "nioMapped:" : "") + path.toAbsolutePath());
+        }
+        this.store = builder.open();
+        this.policies = store.openMap(POLICIES_MAP);
+        this.offsets = store.openMap(OFFSETS_MAP);
+        this.writtenAt = store.openMap(WRITTEN_AT_MAP);
+        Gauge.builder("billing.policy-store.size", policies, Map::size)
+                .description("Policies held in the local policy store")
+                .register(meterRegistry);
+        if (enabled) {
+            log.info("Opened local policy store {} with {} policies", path, policies.size());
+        }
+    }
+
+    /**
+     * One record from the policy events topic. {@code event} is null for a tombstone.
+     */
+    public record Change(String topic, int partition, long offset, String policyId, PolicyChangeEvent event) {
+    }
+
+    public Optional<PolicyDto> get(String policyId) {
+        return Optional.ofNullable(isFresh(policyId) ? decode(policies.get(policyId)) : null);
+    }
+
+    /**
+     * The policies held locally; ids that are not held, or held for longer than the
+     * maximum age, are absent from the result.
+     */
+    public Map<String, PolicyDto> getAll(Collection<String> policyIds) {
+        Map<String, PolicyDto> found = new HashMap<>();
+        for (String policyId : policyIds) {
+            PolicyDto policy = isFresh(policyId) ? decode(policies.get(policyId)) : null;
+            if (policy != null) {
+                found.put(policyId, policy);
+            }
+        }
+        return found;
+    }
+
+    public boolean contains(String policyId) {
+        return isFresh(policyId) && policies.containsKey(policyId);
+    }
+
+    public int size() {
+        return policies.size();
+    }
+
+    /**
+     * The offset to resume the partition from, or null if nothing from it has been applied.
+     */
+    public Long nextOffset(String topic, int partition) {
+        return offsets.get(topic + "-" + partition);
+    }
+
+    /**
+     * Apply records in topic order. A change carrying an older policy version than the one
+     * held is skipped, so replays and events from several publishers cannot roll a policy back.
+     */
+    public void apply(List<Change> changes) {
+        for (Change change : changes) {
+            PolicyChangeEvent event = change.event();
+            if (event == null || event.getChangeType() == PolicyChangeEvent.ChangeType.DELETED
+                    || event.getPolicy() == null) {
+                remove(change.policyId());
+            } else {
+                put(change.policyId(), event.getPolicy());
+            }
+            offsets.put(change.topic() + "-" + change.partition(), change.offset() + 1);
+        }
+    }
+
+    /**
+     * Replace a policy with the copy just read from policy-service, or drop it if
+     * policy-service no longer has it. Offsets are untouched, and a copy older than the
+     * one held is ignored. Does nothing when the store is disabled.
+     */
+    public void refresh(String policyId, PolicyDto policy) {
+        if (!enabled) {
+            return;
+        }
+        if (policy == null) {
+            remove(policyId);
+        } else {
+            put(policyId, policy);
+        }
+    }
+
+    private void put(String policyId, PolicyDto policy) {
+        if (!isOlderThanHeld(policyId, policy)) {
+            policies.put(policyId, encode(policy));
+            writtenAt.put(policyId, System.currentTimeMillis());
+        }
+    }
+
+    private void remove(String policyId) {
+        policies.remove(policyId);
+        writtenAt.remove(policyId);
+    }
+
+    private boolean isFresh(String policyId) {
+        Long written = writtenAt.get(policyId);
+        return written != null && System.currentTimeMillis() - written < maxAgeMillis;
+    }
+
+    @PreDestroy
+    public void close() {
+        store.close();
+    }
+
+    private boolean isOlderThanHeld(String policyId, PolicyDto policy) {
+        if (policy.getVersion() == null) {
+            return false;
+        }
+        PolicyDto held = decode(policies.get(policyId));
+        return held != null && held.getVersion() != null && policy.getVersion() < held.getVersion();
+    }
+
+    private byte[] encode(PolicyDto policy) {
+        try {
+            return objectMapper.writeValueAsBytes(policy);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PolicyDto decode(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, PolicyDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void createParentDirectories(Path path) {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.insurance.billing.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,11 +9,20 @@ import org.springframework.stereotype.Repository;
 import com.insurance.billing.entity.Billing;
 import com.insurance.shared.enums.BillingStatus;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BillingRepository extends JpaRepository<Billing, String> {
+    String BILLING_VIEW_SELECT = "SELECT b.id AS id, b.policyId AS policyId, b.customerId AS customerId, "
+            + "b.amount AS amount, b.dueDate AS dueDate, b.status AS status, b.paymentStatus AS paymentStatus, "
+            + "b.billingDate AS billingDate, b.createdAt AS createdAt, b.updatedAt AS updatedAt FROM Billing b ";
+    String KEYSET_ORDER = " ORDER BY b.dueDate DESC, b.id DESC";
+    String AFTER_CURSOR = " AND (b.dueDate < :dueDate OR (b.dueDate = :dueDate AND b.id < :id))";
+
     List<Billing> findByPolicyId(String policyId);
     List<Billing> findByCustomerId(String customerId);
     List<Billing> findByStatus(BillingStatus status);
@@ -30,4 +40,56 @@ public interface BillingRepository extends JpaRepository<Billing, String> {
     
     @Query("SELECT COUNT(b) FROM Billing b WHERE b.customerId = :customerId AND b.status = 'DELINQUENT'")
     Long countDelinquentBillingsByCustomer(@Param("customerId") String customerId);
-}
\ No newline at end of file
+
+    @Query("SELECT b.policyId AS policyId, b.customerId AS customerId, b.status AS status, SUM(b.amount) AS amount, "
+            + "MIN(b.dueDate) AS oldestDueDate, MIN(b.gracePeriodEnd) AS gracePeriodEnd "
+            + "FROM Billing b WHERE b.policyId IN :policyIds AND b.status IN :statuses "
+            + "GROUP BY b.policyId, b.customerId, b.status")
+    List<OutstandingSummary> summarizeOutstanding(@Param("policyIds") Collection<String> policyIds,
+                                                  @Param("statuses") Collection<BillingStatus> statuses);
+
+    @Query("SELECT DISTINCT b.policyId FROM Billing b WHERE b.status IN :statuses")
+    List<String> findPolicyIdsWithStatusIn(@Param("statuses") Collection<BillingStatus> statuses);
+
+    // Keyset-paginated billing views, newest due date first; backed by (customer_id, due_date, id)
+    // and (policy_id, due_date, id)
+    @Query(BILLING_VIEW_SELECT + "WHERE b.customerId = :customerId" + KEYSET_ORDER)
+    List<BillingView> findViewsByCustomerId(@Param("customerId") String customerId, Limit limit);
+
+    @Query(BILLING_VIEW_SELECT + "WHERE b.customerId = :customerId" + AFTER_CURSOR + KEYSET_ORDER)
+    List<BillingView> findViewsByCustomerIdAfter(@Param("customerId") String customerId,
+                                                 @Param("dueDate") LocalDate dueDate,
+                                                 @Param("id") String id,
+                                                 Limit limit);
+
+    @Query(BILLING_VIEW_SELECT + "WHERE b.policyId = :policyId" + KEYSET_ORDER)
+    List<BillingView> findViewsByPolicyId(@Param("policyId") String policyId, Limit limit);
+
+    @Query(BILLING_VIEW_SELECT + "WHERE b.policyId = :policyId" + AFTER_CURSOR + KEYSET_ORDER)
+    List<BillingView> findViewsByPolicyIdAfter(@Param("policyId") String policyId,
+                                               @Param("dueDate") LocalDate dueDate,
+                                               @Param("id") String id,
+                                               Limit limit);
+
+    interface BillingView {
+        String getId();
+        String getPolicyId();
+        String getCustomerId();
+        BigDecimal getAmount();
+        LocalDate getDueDate();
+        BillingStatus getStatus();
+        String getPaymentStatus();
+        LocalDateTime getBillingDate();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface OutstandingSummary {
+        String getPolicyId();
+        String getCustomerId();
+        BillingStatus getStatus();
+        BigDecimal getAmount();
+        LocalDate getOldestDueDate();
+        LocalDate getGracePeriodEnd();
+    }
+}
@@ -0,0 +1,328 @@
+package com.insurance.billing.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.billing.entity.BillingEvent;
+import com.insurance.billing.eventstore.BillingEventStore;
+import com.insurance.billing.job.DelinquencyTransition;
+import com.insurance.shared.enums.BillingStatus;
+import com.insurance.shared.events.PaymentEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based billing status transitions. Each call claims one chunk of matching rows with
+ * {@code FOR UPDATE SKIP LOCKED}, so sweepers on several nodes work on disjoint chunks,
+ * and moves them with a single UPDATE that re-checks the source status. Payment outcomes
+ * are applied the same way, one batched UPDATE per consumed batch of payment events.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class BillingStateJdbcRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final BillingEventStore billingEventStore;
+    private final ObjectMapper objectMapper;
+
+    public record TransitionedBilling(String id, String policyId, String customerId,
+                                      LocalDate dueDate, LocalDate gracePeriodEnd) {
+    }
+
+    /**
+     * Billing change produced by one or more payment events in a batch. {@code status} is
+     * PAID when a payment succeeded and null when only payment_status changed.
+     */
+    public record PaymentOutcome(String billingId, String policyId, BillingStatus status, String paymentStatus,
+                                 int failedAttempts, String paymentId, BigDecimal amount, LocalDate paymentDate) {
+    }
+
+    /**
+     * Apply a batch of payment events, in order, with one batched UPDATE. Events for one
+     * billing are folded into a single row change, and PAID billings are never touched again.
+     * Events without a billing id can't be matched safely (guessing the policy's oldest open
+     * billing could settle the wrong one), so they are parked in unmatched_payment_events for
+     * review instead of being applied.
+     * <p>
+     * Each event's key (see {@link #processedKey}) is recorded in processed_payment_events in
+     * the same transaction, and events whose key is already there are skipped, so a redelivered
+     * event is neither applied nor parked twice. Two appliers racing on the same key fail
+     * one transaction on the primary key, and its batch is redelivered and skipped.
+     *
+     * @return the outcomes that changed a row
+     */
+    @Transactional
+    public List<PaymentOutcome> applyPaymentEvents(List<PaymentEvent> batch) {
+        List<PaymentEvent> events = claimUnprocessed(batch);
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        parkUnmatched(events.stream()
+                .filter(event -> event.getBillingId() == null)
+                .toList());
+
+        Map<String, PaymentOutcome> outcomes = new LinkedHashMap<>();
+        for (PaymentEvent event : events) {
+            String billingId = event.getBillingId();
+            if (billingId == null) {
+                continue;
+            }
+            PaymentOutcome previous = outcomes.get(billingId);
+            if (previous != null && previous.status() == BillingStatus.PAID) {
+                continue;
+            }
+            int failedAttempts = previous != null ? previous.failedAttempts() : 0;
+            LocalDate paymentDate = event.getTimestamp() != null ? event.getTimestamp().toLocalDate() : LocalDate.now();
+            PaymentOutcome outcome = switch (event.getEventType()) {
+                case PAYMENT_SUCCEEDED -> new PaymentOutcome(billingId, event.getPolicyId(), BillingStatus.PAID,
+                        "SUCCESS", failedAttempts, event.getPaymentId(), event.getAmount(), paymentDate);
+                case PAYMENT_FAILED -> new PaymentOutcome(billingId, event.getPolicyId(), null, "FAILED",
+                        failedAttempts + 1, event.getPaymentId(), event.getAmount(), paymentDate);
+                case RETRIES_EXHAUSTED -> new PaymentOutcome(billingId, event.getPolicyId(), null, "RETRIES_EXHAUSTED",
+                        failedAttempts, event.getPaymentId(), event.getAmount(), paymentDate);
+                default -> previous;
+            };
+            if (outcome != null) {
+                outcomes.put(billingId, outcome);
+            }
+        }
+        if (outcomes.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PaymentOutcome> candidates = new ArrayList<>(outcomes.values());
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE billings SET status = COALESCE(:status, status), payment_status = :paymentStatus,"
+                        + " retry_count = COALESCE(retry_count, 0) + :failedAttempts, updated_at = :now"
+                        + " WHERE id = :id AND status <> 'PAID'",
+                candidates.stream()
+                        .map(outcome -> new MapSqlParameterSource()
+                                .addValue("id", outcome.billingId())
+                                .addValue("status", outcome.status() != null ? outcome.status().name() : null)
+                                .addValue("paymentStatus", outcome.paymentStatus())
+                                .addValue("failedAttempts", outcome.failedAttempts())
+                                .addValue("now", Timestamp.valueOf(now)))
+                        .toArray(SqlParameterSource[]::new));
+
+        List<PaymentOutcome> applied = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            // Bulk statements report SUCCESS_NO_INFO, which can't tell a PAID row that was
+            // skipped from one that changed; the datasource URL sets useBulkStmts=false
+            if (updated[i] == Statement.SUCCESS_NO_INFO) {
+                throw new IllegalStateException("The JDBC driver did not report update counts for payment outcomes;"
+                        + " disable bulk statements for updates (MariaDB: useBulkStmts=false)");
+            }
+            if (updated[i] > 0) {
+                applied.add(candidates.get(i));
+            }
+        }
+        billingEventStore.appendAll(applied.stream()
+                .map(outcome -> BillingEvent.builder()
+                        .billingId(outcome.billingId())
+                        .policyId(outcome.policyId())
+                        .eventType(outcome.status() == BillingStatus.PAID
+                                ? BillingEvent.EventType.PAYMENT_SUCCESS : BillingEvent.EventType.PAYMENT_FAILED)
+                        .occurredAt(now)
+                        .payload(toJson(objectMapper.createObjectNode()
+                                .put("paymentId", outcome.paymentId())
+                                .put("paymentStatus", outcome.paymentStatus())))
+                        .build())
+                .toList());
+        return applied;
+    }
+
+    /**
+     * Key an event is deduplicated by: one outcome of each type per payment, or the event id
+     * for events that name no payment. Null if the event carries neither.
+     */
+    static String processedKey(PaymentEvent event) {
+        if (event.getPaymentId() != null) {
+            return event.getEventType() + ":" + event.getPaymentId();
+        }
+        return event.getEventId();
+    }
+
+    // Events of the batch whose key was not processed before, with their keys recorded
+    private List<PaymentEvent> claimUnprocessed(List<PaymentEvent> batch) {
+        Map<String, PaymentEvent> byKey = new LinkedHashMap<>();
+        for (PaymentEvent event : batch) {
+            String key = processedKey(event);
+            if (key == null) {
+                log.warn("Ignoring payment event for policy {} without event or payment id", event.getPolicyId());
+            } else if (byKey.putIfAbsent(key, event) != null) {
+                log.debug("Skipping duplicate payment event {}", key);
+            }
+        }
+        if (byKey.isEmpty()) {
+            return List.of();
+        }
+
+        jdbcTemplate.queryForList(
+                        "SELECT event_key FROM processed_payment_events WHERE event_key IN (:keys)",
+                        new MapSqlParameterSource("keys", byKey.keySet()), String.class)
+                .forEach(key -> {
+                    log.debug("Skipping already applied payment event {}", key);
+                    byKey.remove(key);
+                });
+        if (byKey.isEmpty()) {
+            return List.of();
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO processed_payment_events (event_key, processed_at) VALUES (:key, :now)",
+                byKey.keySet().stream()
+                        .map(key -> new MapSqlParameterSource().addValue("key", key).addValue("now", now))
+                        .toArray(SqlParameterSource[]::new));
+        return new ArrayList<>(byKey.values());
+    }
+
+    /**
+     * Forget processed payment event keys recorded before {@code cutoff}. The cutoff must be
+     * further back than the payment topic's retention, or a replayed event is applied again.
+     *
+     * @return number of keys removed
+     */
+    @Transactional
+    public int purgeProcessedPaymentEvents(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM processed_payment_events WHERE processed_at < :cutoff",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)));
+    }
+
+    // Kept with the event key already claimed, so a redelivery is not parked twice
+    private void parkUnmatched(List<PaymentEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        events.forEach(event -> log.warn("Payment event {} for policy {} names no billing; parked for review",
+                processedKey(event), event.getPolicyId()));
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO unmatched_payment_events (event_key, policy_id, payment_id, event_type, amount,"
+                        + " occurred_at, parked_at) VALUES (:key, :policyId, :paymentId, :eventType, :amount,"
+                        + " :occurredAt, :now)",
+                events.stream()
+                        .map(event -> new MapSqlParameterSource()
+                                .addValue("key", processedKey(event))
+                                .addValue("policyId", event.getPolicyId())
+                                .addValue("paymentId", event.getPaymentId())
+                                .addValue("eventType", event.getEventType().name())
+                                .addValue("amount", event.getAmount())
+                                .addValue("occurredAt", event.getTimestamp() != null
+                                        ? Timestamp.valueOf(event.getTimestamp()) : null)
+                                .addValue("now", now))
+                        .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Advance up to {@code limit} billings through the given transition and record a
+     * billing event for each of them, all in one transaction. Billings already moved on
+     * {@code today} are left for the next day's sweep, so each billing takes at most one
+     * step per sweep date, e.g. PENDING goes to OVERDUE and only later to GRACE_PERIOD.
+     *
+     * @return the billings that were moved, with their grace period end after the move
+     */
+    @Transactional
+    public List<TransitionedBilling> advanceChunk(DelinquencyTransition transition, LocalDate today,
+                                                  int defaultGraceDays, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", transition.fromNames())
+                .addValue("today", Date.valueOf(today))
+                .addValue("graceCutoff", Date.valueOf(today.minusDays(defaultGraceDays)))
+                .addValue("limit", limit);
+        List<TransitionedBilling> chunk = jdbcTemplate.query(
+                "SELECT id, policy_id, customer_id, due_date, grace_period_end FROM billings"
+                        + " WHERE status IN (:from) AND " + transition.getCondition()
+                        + " AND (last_swept_on IS NULL OR last_swept_on < :today)"
+                        + " ORDER BY due_date, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+                params,
+                (rs, rowNum) -> new TransitionedBilling(
+                        rs.getString("id"),
+                        rs.getString("policy_id"),
+                        rs.getString("customer_id"),
+                        toLocalDate(rs.getDate("due_date")),
+                        toLocalDate(rs.getDate("grace_period_end"))));
+        if (chunk.isEmpty()) {
+            return chunk;
+        }
+
+        // Also covers billings that were already past OVERDUE without one before the sweeper ran
+        chunk = assignGracePeriodEnd(chunk, defaultGraceDays);
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(
+                "UPDATE billings SET status = :to, last_swept_on = :today, updated_at = :now"
+                        + " WHERE id IN (:ids) AND status IN (:from)",
+                new MapSqlParameterSource()
+                        .addValue("to", transition.getTo().name())
+                        .addValue("today", Date.valueOf(today))
+                        .addValue("now", Timestamp.valueOf(now))
+                        .addValue("ids", chunk.stream().map(TransitionedBilling::id).toList())
+                        .addValue("from", transition.fromNames()));
+
+        String payload = toJson(objectMapper.createObjectNode()
+                .put("from", String.join(",", transition.fromNames()))
+                .put("to", transition.getTo().name()));
+        billingEventStore.appendAll(chunk.stream()
+                .map(billing -> BillingEvent.builder()
+                        .billingId(billing.id())
+                        .policyId(billing.policyId())
+                        .eventType(transition.getEventType())
+                        .occurredAt(now)
+                        .payload(payload)
+                        .build())
+                .toList());
+        return chunk;
+    }
+
+    // Billings entering OVERDUE without an explicit grace period get the default one from their due date
+    private List<TransitionedBilling> assignGracePeriodEnd(List<TransitionedBilling> chunk, int defaultGraceDays) {
+        SqlParameterSource[] updates = chunk.stream()
+                .filter(billing -> billing.gracePeriodEnd() == null)
+                .map(billing -> new MapSqlParameterSource()
+                        .addValue("id", billing.id())
+                        .addValue("gracePeriodEnd", Date.valueOf(billing.dueDate().plusDays(defaultGraceDays))))
+                .toArray(SqlParameterSource[]::new);
+        if (updates.length == 0) {
+            return chunk;
+        }
+        jdbcTemplate.batchUpdate(
+                "UPDATE billings SET grace_period_end = :gracePeriodEnd WHERE id = :id AND grace_period_end IS NULL",
+                updates);
+        return chunk.stream()
+                .map(billing -> billing.gracePeriodEnd() != null ? billing
+                        : new TransitionedBilling(billing.id(), billing.policyId(), billing.customerId(),
+                                billing.dueDate(), billing.dueDate().plusDays(defaultGraceDays)))
+                .toList();
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.insurance.billing.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.insurance.billing.entity.DelinquencyRecord;
+import com.insurance.shared.enums.BillingStatus;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DelinquencyRecordRepository extends JpaRepository<DelinquencyRecord, String> {
+    Page<DelinquencyRecord> findByAmountOverdueGreaterThan(BigDecimal amount, Pageable pageable);
+    Page<DelinquencyRecord> findByStatusAndAmountOverdueGreaterThan(BillingStatus status, BigDecimal amount, Pageable pageable);
+    List<DelinquencyRecord> findByPolicyIdIn(Collection<String> policyIds);
+}
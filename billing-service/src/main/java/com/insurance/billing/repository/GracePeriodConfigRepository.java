@@ -1,17 +1,30 @@
 package com.insurance.billing.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.insurance.shared.enums.PaymentFrequency;
+import com.insurance.billing.config.HibernateCacheConfig;
 import com.insurance.billing.entity.GracePeriodConfig;
 import com.insurance.shared.enums.CustomerTier;
 import java.util.Optional;
 
 @Repository
 public interface GracePeriodConfigRepository extends JpaRepository<GracePeriodConfig, String> {
+    // Lookups by attribute go through the query cache; results resolve from the entity region
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.GRACE_PERIOD_QUERY_REGION)
+    })
     Optional<GracePeriodConfig> findByPolicyTypeAndPaymentFrequency(String policyType, PaymentFrequency frequency);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.GRACE_PERIOD_QUERY_REGION)
+    })
     Optional<GracePeriodConfig> findByPolicyTypeAndPaymentFrequencyAndCustomerTier(
         String policyType, 
         PaymentFrequency paymentFrequency,
@@ -0,0 +1,99 @@
+package com.insurance.billing.repository;
+
+import com.insurance.billing.entity.Payment;
+import com.insurance.shared.enums.PaymentMethod;
+import com.insurance.shared.enums.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Batched writes for payments submitted in bulk. Ids are assigned by the caller, so going
+ * through JPA would merge (and first select) every row; these are plain JDBC batches.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentJdbcRepository {
+
+    static final String INSERT_SQL = "INSERT INTO payments"
+            + " (id, billing_id, policy_id, customer_id, amount, status, method, attempted_at, created_at, updated_at)"
+            + " VALUES (:id, :billingId, :policyId, :customerId, :amount, :status, :method, :attemptedAt, :now, :now)";
+
+    static final String OUTCOME_SQL = "UPDATE payments SET status = :status, transaction_id = :transactionId,"
+            + " processed_at = :processedAt, failure_reason = :failureReason, updated_at = :now WHERE id = :id";
+
+    static final String PENDING_SQL = "SELECT id, billing_id, policy_id, customer_id, amount, method, attempted_at"
+            + " FROM payments WHERE status = 'PENDING' AND billing_id IN (:billingIds) ORDER BY attempted_at, id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Payments recorded for these billings but never confirmed by payment-service, oldest first.
+     */
+    public List<Payment> findPending(Collection<String> billingIds) {
+        if (billingIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(PENDING_SQL, new MapSqlParameterSource("billingIds", billingIds),
+                (rs, rowNum) -> Payment.builder()
+                        .id(rs.getString("id"))
+                        .billingId(rs.getString("billing_id"))
+                        .policyId(rs.getString("policy_id"))
+                        .customerId(rs.getString("customer_id"))
+                        .amount(rs.getBigDecimal("amount"))
+                        .status(PaymentStatus.PENDING)
+                        .method(PaymentMethod.valueOf(rs.getString("method")))
+                        .attemptedAt(rs.getTimestamp("attempted_at").toLocalDateTime())
+                        .build());
+    }
+
+    @Transactional
+    public void insertAll(Collection<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, payments.stream()
+                .map(payment -> new MapSqlParameterSource()
+                        .addValue("id", payment.getId())
+                        .addValue("billingId", payment.getBillingId())
+                        .addValue("policyId", payment.getPolicyId())
+                        .addValue("customerId", payment.getCustomerId())
+                        .addValue("amount", payment.getAmount())
+                        .addValue("status", payment.getStatus().name())
+                        .addValue("method", payment.getMethod().name())
+                        .addValue("attemptedAt", Timestamp.valueOf(payment.getAttemptedAt()))
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Record what payment-service made of each payment: status, transaction id and, for
+     * failures, the reason.
+     */
+    @Transactional
+    public void recordOutcomes(Collection<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(OUTCOME_SQL, payments.stream()
+                .map(payment -> new MapSqlParameterSource()
+                        .addValue("id", payment.getId())
+                        .addValue("status", payment.getStatus().name())
+                        .addValue("transactionId", payment.getTransactionId())
+                        .addValue("processedAt", payment.getProcessedAt() != null
+                                ? Timestamp.valueOf(payment.getProcessedAt()) : null)
+                        .addValue("failureReason", payment.getFailureReason())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new));
+    }
+}
@@ -0,0 +1,125 @@
+package com.insurance.billing.repository;
+
+import com.insurance.billing.entity.PaymentRetry.RetryStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Lease-based claiming of due payment retries. A claim locks a batch of due SCHEDULED rows
+ * with {@code FOR UPDATE SKIP LOCKED}, so dispatchers on several nodes take disjoint
+ * batches, and moves them to IN_PROGRESS under the claiming node's lease. Completions are
+ * fenced on the lease owner: once a lease has expired and been reaped, the old owner can no
+ * longer record an outcome for that row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentRetryClaimRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public record ClaimedRetry(String id, String paymentId, String billingId, int retryAttempt,
+                               LocalDateTime leaseExpiresAt) {
+    }
+
+    /**
+     * Claim up to {@code limit} due retries for {@code owner}, oldest schedule first.
+     */
+    @Transactional
+    public List<ClaimedRetry> claim(String owner, LocalDateTime now, Duration lease, int limit) {
+        LocalDateTime leaseExpiresAt = now.plus(lease);
+        List<ClaimedRetry> claimed = jdbcTemplate.query(
+                "SELECT id, payment_id, billing_id, retry_attempt FROM payment_retries"
+                        + " WHERE status = :scheduled AND scheduled_at <= :now"
+                        + " ORDER BY scheduled_at, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource()
+                        .addValue("scheduled", RetryStatus.SCHEDULED.name())
+                        .addValue("now", Timestamp.valueOf(now))
+                        .addValue("limit", limit),
+                (rs, rowNum) -> new ClaimedRetry(
+                        rs.getString("id"),
+                        rs.getString("payment_id"),
+                        rs.getString("billing_id"),
+                        rs.getInt("retry_attempt"),
+                        leaseExpiresAt));
+        if (claimed.isEmpty()) {
+            return claimed;
+        }
+        jdbcTemplate.update(
+                "UPDATE payment_retries SET status = :inProgress, lease_owner = :owner,"
+                        + " lease_expires_at = :leaseExpiresAt, attempted_at = :now, updated_at = :now"
+                        + " WHERE id IN (:ids) AND status = :scheduled",
+                new MapSqlParameterSource()
+                        .addValue("inProgress", RetryStatus.IN_PROGRESS.name())
+                        .addValue("owner", owner)
+                        .addValue("leaseExpiresAt", Timestamp.valueOf(leaseExpiresAt))
+                        .addValue("now", Timestamp.valueOf(now))
+                        .addValue("ids", claimed.stream().map(ClaimedRetry::id).toList())
+                        .addValue("scheduled", RetryStatus.SCHEDULED.name()));
+        return claimed;
+    }
+
+    /**
+     * Record the outcome of a claimed retry and, when {@code nextAttemptAt} is given,
+     * schedule the next attempt in the same transaction.
+     *
+     * @return false if {@code owner} no longer holds the lease; nothing is written then
+     */
+    @Transactional
+    public boolean complete(ClaimedRetry retry, String owner, RetryStatus outcome, String failureReason,
+                            LocalDateTime nextAttemptAt, String nextRetryId) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = jdbcTemplate.update(
+                "UPDATE payment_retries SET status = :outcome, failure_reason = :failureReason,"
+                        + " lease_owner = NULL, lease_expires_at = NULL, updated_at = :now"
+                        + " WHERE id = :id AND status = :inProgress AND lease_owner = :owner",
+                new MapSqlParameterSource()
+                        .addValue("outcome", outcome.name())
+                        .addValue("failureReason", failureReason)
+                        .addValue("now", Timestamp.valueOf(now))
+                        .addValue("id", retry.id())
+                        .addValue("inProgress", RetryStatus.IN_PROGRESS.name())
+                        .addValue("owner", owner));
+        if (updated == 0) {
+            return false;
+        }
+        if (nextAttemptAt != null) {
+            jdbcTemplate.update(
+                    "INSERT INTO payment_retries (id, payment_id, billing_id, retry_attempt, scheduled_at, status,"
+                            + " created_at, updated_at)"
+                            + " VALUES (:id, :paymentId, :billingId, :retryAttempt, :scheduledAt, :scheduled, :now, :now)",
+                    new MapSqlParameterSource()
+                            .addValue("id", nextRetryId)
+                            .addValue("paymentId", retry.paymentId())
+                            .addValue("billingId", retry.billingId())
+                            .addValue("retryAttempt", retry.retryAttempt() + 1)
+                            .addValue("scheduledAt", Timestamp.valueOf(nextAttemptAt))
+                            .addValue("scheduled", RetryStatus.SCHEDULED.name())
+                            .addValue("now", Timestamp.valueOf(now)));
+        }
+        return true;
+    }
+
+    /**
+     * Hand retries whose lease expired (owner crashed or stalled) back to SCHEDULED.
+     *
+     * @return number of retries released
+     */
+    @Transactional
+    public int releaseExpiredLeases(LocalDateTime now) {
+        return jdbcTemplate.update(
+                "UPDATE payment_retries SET status = :scheduled, lease_owner = NULL, lease_expires_at = NULL,"
+                        + " updated_at = :now WHERE status = :inProgress AND lease_expires_at < :now",
+                new MapSqlParameterSource()
+                        .addValue("scheduled", RetryStatus.SCHEDULED.name())
+                        .addValue("inProgress", RetryStatus.IN_PROGRESS.name())
+                        .addValue("now", Timestamp.valueOf(now)));
+    }
+}
@@ -17,6 +17,7 @@ public interface PaymentRetryRepository extends JpaRepository<PaymentRetry, Stri
     List<PaymentRetry> findByBillingId(String billingId);
     List<PaymentRetry> findByStatus(RetryStatus status);
     
+    // Read-only view; dispatching claims due retries through PaymentRetryClaimRepository
     @Query("SELECT pr FROM PaymentRetry pr WHERE pr.status = 'SCHEDULED' AND pr.scheduledAt <= :now ORDER BY pr.scheduledAt ASC")
     List<PaymentRetry> findDueRetries(@Param("now") LocalDateTime now);
     
@@ -0,0 +1,101 @@
+package com.insurance.billing.repository;
+
+import com.insurance.shared.synthetic.SyntheticPortfolio.Attempt;
+import com.insurance.shared.synthetic.SyntheticPortfolio.Installment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Batched writes of a synthetic portfolio's billings and their payment attempts, for the
+ * perf profile. Billings go first so every payment's billing exists when it is inserted.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SyntheticDataJdbcRepository {
+
+    static final String INSERT_BILLING_SQL = "INSERT INTO billings"
+            + " (id, policy_id, customer_id, amount, due_date, status, billing_date, payment_status, retry_count,"
+            + " grace_period_end, created_at, updated_at)"
+            + " VALUES (:id, :policyId, :customerId, :amount, :dueDate, :status, :billingDate, :paymentStatus,"
+            + " :retryCount, :gracePeriodEnd, :billingDate, :now)";
+
+    static final String INSERT_PAYMENT_SQL = "INSERT INTO payments"
+            + " (id, billing_id, policy_id, customer_id, amount, status, method, attempted_at, processed_at,"
+            + " transaction_id, failure_reason, created_at, updated_at)"
+            + " VALUES (:id, :billingId, :policyId, :customerId, :amount, :status, :method, :attemptedAt,"
+            + " :attemptedAt, :transactionId, :failureReason, :attemptedAt, :attemptedAt)";
+
+    private static final int ID_LOOKUP_CHUNK = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insertAll(Collection<Installment> installments) {
+        if (installments.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_BILLING_SQL, installments.stream()
+                .map(installment -> new MapSqlParameterSource()
+                        .addValue("id", installment.billingId())
+                        .addValue("policyId", installment.policyId())
+                        .addValue("customerId", installment.customerId())
+                        .addValue("amount", installment.amount())
+                        .addValue("dueDate", Date.valueOf(installment.dueDate()))
+                        .addValue("status", installment.status().name())
+                        // Billings are issued two weeks before they fall due
+                        .addValue("billingDate", Timestamp.valueOf(installment.dueDate().minusDays(14).atStartOfDay()))
+                        .addValue("paymentStatus", installment.paymentStatus().name())
+                        .addValue("retryCount", installment.retryCount())
+                        .addValue("gracePeriodEnd", installment.gracePeriodEnd() != null
+                                ? Date.valueOf(installment.gracePeriodEnd()) : null)
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new));
+
+        List<SqlParameterSource> payments = installments.stream()
+                .flatMap(installment -> installment.attempts().stream()
+                        .map(attempt -> paymentParameters(installment, attempt)))
+                .toList();
+        if (!payments.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PAYMENT_SQL, payments.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    /**
+     * The subset of the given policy ids that already have billings.
+     */
+    public Set<String> findBilledPolicyIds(Collection<String> policyIds) {
+        Set<String> billed = new HashSet<>();
+        List<String> all = List.copyOf(policyIds);
+        for (int from = 0; from < all.size(); from += ID_LOOKUP_CHUNK) {
+            List<String> chunk = all.subList(from, Math.min(from + ID_LOOKUP_CHUNK, all.size()));
+            billed.addAll(jdbcTemplate.queryForList("SELECT DISTINCT policy_id FROM billings WHERE policy_id IN (:ids)",
+                    new MapSqlParameterSource("ids", chunk), String.class));
+        }
+        return billed;
+    }
+
+    private static SqlParameterSource paymentParameters(Installment installment, Attempt attempt) {
+        return new MapSqlParameterSource()
+                .addValue("id", attempt.paymentId())
+                .addValue("billingId", installment.billingId())
+                .addValue("policyId", installment.policyId())
+                .addValue("customerId", installment.customerId())
+                .addValue("amount", installment.amount())
+                .addValue("status", attempt.status().name())
+                .addValue("method", attempt.method().name())
+                .addValue("attemptedAt", Timestamp.valueOf(attempt.attemptedAt()))
+                .addValue("transactionId", attempt.transactionId())
+                .addValue("failureReason", attempt.failureReason());
+    }
+}
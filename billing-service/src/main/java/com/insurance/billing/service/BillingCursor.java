@@ -0,0 +1,36 @@
+package com.insurance.billing.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a billing listing ordered by due date then id, carried between requests as an
+ * opaque URL-safe token.
+ */
+public record BillingCursor(LocalDate dueDate, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((dueDate.toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static BillingCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == value.length() - 1) {
+                throw new IllegalArgumentException("Malformed billing cursor");
+            }
+            return new BillingCursor(LocalDate.parse(value.substring(0, separator)), value.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed billing cursor", e);
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.insurance.billing.service;
 
 import com.insurance.shared.dto.BillingDto;
+import com.insurance.shared.dto.CursorPage;
+import com.insurance.shared.dto.DelinquentPolicyDto;
+import com.insurance.shared.dto.PaymentBatchResultDto;
 import com.insurance.shared.dto.PaymentDto;
 import com.insurance.shared.dto.PaymentRequestDto;
+import com.insurance.shared.enums.BillingStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +39,14 @@ public interface BillingService {
      * @return Map containing due premium information
      */
     Map<String, Object> getDuePremiums();
+
+    /**
+     * Get open premiums due from today through the given number of days ahead,
+     * with per-day totals and the amount already past due
+     * @param days Number of days ahead to include
+     * @return Map containing due premium totals and per-day buckets
+     */
+    Map<String, Object> getDuePremiums(int days);
     
     /**
      * Get premium details for a specific policy
@@ -46,11 +60,21 @@ public interface BillingService {
      * @return List of delinquent policy information
      */
     List<Map<String, Object>> getDelinquentPolicies();
+
+    /**
+     * Get a page of policies with outstanding overdue billings from the delinquency projection
+     * @param status Optional filter on the policy's worst billing status
+     * @param pageable Page request; sortable by daysOverdue, amountOverdue, oldestDueDate,
+     *                 lastPaymentDate, gracePeriodExpiry, policyId and customerId
+     * @return Page of delinquent policies
+     */
+    Page<DelinquentPolicyDto> getDelinquentPolicies(BillingStatus status, Pageable pageable);
     
     /**
      * Update policy billing status based on payment events
      * @param policyId The policy identifier
-     * @param paymentStatus The payment status update
+     * @param paymentStatus The payment status update (SUCCESS, COMPLETED, PAID, FAILED or RETRIES_EXHAUSTED)
+     * @throws IllegalArgumentException if the payment status is not one of those
      */
     void updatePolicyBillingStatus(String policyId, String paymentStatus);
     
@@ -71,5 +95,40 @@ public interface BillingService {
 
     List<BillingDto> getBillingsByCustomer(String customerId);
     List<BillingDto> getBillingsByPolicy(String policyId);
+
+    /**
+     * Get a customer's billings, newest due date first, one keyset page at a time
+     * @param customerId The customer identifier
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param limit Maximum number of billings to return
+     * @return Page of billings with the cursor for the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    CursorPage<BillingDto> getBillingsByCustomer(String customerId, String cursor, int limit);
+
+    /**
+     * Get a policy's billings, newest due date first, one keyset page at a time
+     * @param policyId The policy identifier
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param limit Maximum number of billings to return
+     * @return Page of billings with the cursor for the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    CursorPage<BillingDto> getBillingsByPolicy(String policyId, String cursor, int limit);
+
+    /**
+     * Record a single payment and forward it to payment-service
+     * @param request The payment request
+     * @return The recorded payment
+     * @throws IllegalArgumentException if the request is invalid or its billing cannot take a payment
+     */
     PaymentDto processPayment(PaymentRequestDto request);
+
+    /**
+     * Record and forward a batch of payments. Invalid items are rejected individually;
+     * the rest of the batch is still processed.
+     * @param requests The payment requests
+     * @return Per-item results in request order
+     */
+    PaymentBatchResultDto processPayments(List<PaymentRequestDto> requests);
 }
\ No newline at end of file
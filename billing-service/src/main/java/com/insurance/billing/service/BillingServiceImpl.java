@@ -1,25 +1,39 @@
 package com.insurance.billing.service;
 
-import com.insurance.billing.entity.Billing;
+import com.insurance.billing.entity.DelinquencyRecord;
 import com.insurance.billing.entity.Payment;
 import com.insurance.billing.entity.PaymentRetry;
 import com.insurance.billing.repository.BillingRepository;
+import com.insurance.billing.repository.DelinquencyRecordRepository;
 import com.insurance.billing.repository.PaymentRepository;
 import com.insurance.billing.repository.PaymentRetryRepository;
+import com.insurance.billing.projection.DueDateIndex;
 import com.insurance.shared.client.PolicyClient;
 import com.insurance.shared.dto.BillingDto;
+import com.insurance.shared.dto.CursorPage;
+import com.insurance.shared.dto.DelinquentPolicyDto;
+import com.insurance.shared.dto.PaymentBatchResultDto;
 import com.insurance.shared.dto.PaymentDto;
 import com.insurance.shared.dto.PaymentRequestDto;
 import com.insurance.shared.dto.PolicyDto;
+import com.insurance.shared.enums.BillingStatus;
+import com.insurance.shared.events.PaymentEvent;
 import com.insurance.billing.exception.PolicyNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.insurance.billing.mapper.BillingMapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -31,12 +45,20 @@ import java.util.stream.Collectors;
 @Slf4j
 @RequiredArgsConstructor
 public class BillingServiceImpl implements BillingService {
+    private static final int DEFAULT_DUE_WINDOW_DAYS = 30;
+    private static final Set<String> DELINQUENCY_SORT_PROPERTIES = Set.of(
+        "amountOverdue", "oldestDueDate", "lastPaymentDate", "gracePeriodExpiry", "policyId", "customerId", "status");
+
     private final BillingRepository billingRepository;
     private final GracePeriodService gracePeriodService;
     private final PolicyClient policyClient;
     private final BillingMapper billingMapper;
     private final PaymentRepository paymentRepository;
     private final PaymentRetryRepository paymentRetryRepository;
+    private final DelinquencyRecordRepository delinquencyRecordRepository;
+    private final DueDateIndex dueDateIndex;
+    private final PaymentEventApplier paymentEventApplier;
+    private final PaymentSubmissionService paymentSubmissionService;
     
     @Override
     public Map<String, Object> calculatePremium(String policyId) {
@@ -71,14 +93,25 @@ public class BillingServiceImpl implements BillingService {
     
     @Override
     public Map<String, Object> getDuePremiums() {
-        log.info("Getting due premiums");
+        return getDuePremiums(DEFAULT_DUE_WINDOW_DAYS);
+    }
+
+    @Override
+    public Map<String, Object> getDuePremiums(int days) {
+        log.info("Getting premiums due in the next {} days", days);
+        
+        LocalDate today = LocalDate.now();
+        DueDateIndex.RangeSummary due = dueDateIndex.summarize(today, today.plusDays(days));
+        DueDateIndex.RangeSummary pastDue = dueDateIndex.summarizeBefore(today);
         
-        // TODO: Implement actual due premium retrieval
         Map<String, Object> result = new HashMap<>();
-        result.put("duePremiums", Collections.emptyList());
-        result.put("totalDue", BigDecimal.ZERO);
-        result.put("count", 0);
-        result.put("message", "Due premiums endpoint - implementation pending");
+        result.put("from", due.from());
+        result.put("to", due.to());
+        result.put("duePremiums", due.buckets());
+        result.put("totalDue", due.total());
+        result.put("count", due.count());
+        result.put("pastDueTotal", pastDue.total());
+        result.put("pastDueCount", pastDue.count());
         
         return result;
     }
@@ -102,45 +135,85 @@ public class BillingServiceImpl implements BillingService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getDelinquentPolicies() {
         log.info("Getting delinquent policies");
         
-        // TODO: Implement with repository layer and business logic
-        List<Map<String, Object>> delinquentPolicies = new ArrayList<>();
-        
-        // Mock delinquent policy data
-        Map<String, Object> policy1 = new HashMap<>();
-        policy1.put("policyId", "POLICY-123");
-        policy1.put("customerId", "CUST-001");
-        policy1.put("customerName", "John Doe");
-        policy1.put("daysOverdue", 15);
-        policy1.put("amountOverdue", new BigDecimal("171.00"));
-        policy1.put("lastPaymentDate", "2024-11-15");
-        policy1.put("gracePeriodExpiry", LocalDateTime.now().minusDays(5));
-        delinquentPolicies.add(policy1);
-        
-        Map<String, Object> policy2 = new HashMap<>();
-        policy2.put("policyId", "POLICY-456");
-        policy2.put("customerId", "CUST-002");
-        policy2.put("customerName", "Jane Smith");
-        policy2.put("daysOverdue", 8);
-        policy2.put("amountOverdue", new BigDecimal("89.00"));
-        policy2.put("lastPaymentDate", "2024-11-20");
-        policy2.put("gracePeriodExpiry", LocalDateTime.now().plusDays(2));
-        delinquentPolicies.add(policy2);
-        
-        return delinquentPolicies;
+        return getDelinquentPolicies(null, PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "daysOverdue")))
+            .stream()
+            .map(policy -> {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("policyId", policy.getPolicyId());
+                entry.put("customerId", policy.getCustomerId());
+                entry.put("status", policy.getStatus());
+                entry.put("daysOverdue", policy.getDaysOverdue());
+                entry.put("amountOverdue", policy.getAmountOverdue());
+                entry.put("lastPaymentDate", policy.getLastPaymentDate());
+                entry.put("gracePeriodExpiry", policy.getGracePeriodExpiry());
+                return entry;
+            })
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<DelinquentPolicyDto> getDelinquentPolicies(BillingStatus status, Pageable pageable) {
+        log.info("Getting delinquent policies with status {} and page {}", status, pageable);
+
+        Pageable query = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+            toDelinquencySort(pageable.getSort()));
+        Page<DelinquencyRecord> records = status == null
+            ? delinquencyRecordRepository.findByAmountOverdueGreaterThan(BigDecimal.ZERO, query)
+            : delinquencyRecordRepository.findByStatusAndAmountOverdueGreaterThan(status, BigDecimal.ZERO, query);
+
+        LocalDate today = LocalDate.now();
+        return records.map(record -> DelinquentPolicyDto.builder()
+            .policyId(record.getPolicyId())
+            .customerId(record.getCustomerId())
+            .status(record.getStatus())
+            .daysOverdue(record.getOldestDueDate() != null
+                ? Math.max(0, ChronoUnit.DAYS.between(record.getOldestDueDate(), today))
+                : 0)
+            .amountOverdue(record.getAmountOverdue())
+            .oldestDueDate(record.getOldestDueDate())
+            .lastPaymentDate(record.getLastPaymentDate())
+            .gracePeriodExpiry(record.getGracePeriodExpiry())
+            .build());
+    }
+
+    // daysOverdue is derived at read time, so it sorts as oldestDueDate in the opposite direction
+    private static Sort toDelinquencySort(Sort requested) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : requested) {
+            if ("daysOverdue".equals(order.getProperty())) {
+                orders.add(new Sort.Order(order.isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC, "oldestDueDate"));
+            } else if (DELINQUENCY_SORT_PROPERTIES.contains(order.getProperty())) {
+                orders.add(order);
+            } else {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+        }
+        orders.add(Sort.Order.asc("policyId"));
+        return Sort.by(orders);
     }
     
     @Override
     public void updatePolicyBillingStatus(String policyId, String paymentStatus) {
         log.info("Updating billing status for policy {} to {}", policyId, paymentStatus);
         
-        // TODO: Implement with repository layer and event publishing
-        // This would typically:
-        // 1. Update the policy billing record in database
-        // 2. Publish billing status change event
-        // 3. Trigger any downstream processes (notifications, etc.)
+        // Same path as consumed payment events: applies to the policy's oldest open billing
+        PaymentEvent.PaymentEventType eventType = switch (String.valueOf(paymentStatus).toUpperCase(Locale.ROOT)) {
+            case "SUCCESS", "COMPLETED", "PAID" -> PaymentEvent.PaymentEventType.PAYMENT_SUCCEEDED;
+            case "FAILED" -> PaymentEvent.PaymentEventType.PAYMENT_FAILED;
+            case "RETRIES_EXHAUSTED" -> PaymentEvent.PaymentEventType.RETRIES_EXHAUSTED;
+            default -> throw new IllegalArgumentException("Unsupported payment status: " + paymentStatus);
+        };
+        paymentEventApplier.apply(List.of(PaymentEvent.builder()
+            .eventId(UUID.randomUUID().toString())
+            .policyId(policyId)
+            .eventType(eventType)
+            .timestamp(LocalDateTime.now())
+            .build()));
     }
     
     @Override
@@ -180,42 +253,87 @@ public class BillingServiceImpl implements BillingService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<BillingDto> getBillingsByCustomer(String customerId) {
         log.info("Fetching billings for customer: {}", customerId);
-        return billingRepository.findByCustomerId(customerId)
+        return billingRepository.findViewsByCustomerId(customerId, Limit.unlimited())
             .stream()
-            .map(this::convertToDto)
+            .map(billingMapper::toDto)
             .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BillingDto> getBillingsByPolicy(String policyId) {
         log.info("Fetching billings for policy: {}", policyId);
-        return billingRepository.findByPolicyId(policyId)
+        return billingRepository.findViewsByPolicyId(policyId, Limit.unlimited())
             .stream()
             .map(billingMapper::toDto)
             .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BillingDto> getBillingsByCustomer(String customerId, String cursor, int limit) {
+        log.info("Fetching billings page for customer: {} after {}", customerId, cursor);
+        Limit fetch = Limit.of(limit + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return toCursorPage(billingRepository.findViewsByCustomerId(customerId, fetch), limit);
+        }
+        BillingCursor after = BillingCursor.decode(cursor);
+        return toCursorPage(
+            billingRepository.findViewsByCustomerIdAfter(customerId, after.dueDate(), after.id(), fetch), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BillingDto> getBillingsByPolicy(String policyId, String cursor, int limit) {
+        log.info("Fetching billings page for policy: {} after {}", policyId, cursor);
+        Limit fetch = Limit.of(limit + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return toCursorPage(billingRepository.findViewsByPolicyId(policyId, fetch), limit);
+        }
+        BillingCursor after = BillingCursor.decode(cursor);
+        return toCursorPage(
+            billingRepository.findViewsByPolicyIdAfter(policyId, after.dueDate(), after.id(), fetch), limit);
+    }
+
+    // One extra row is fetched to tell whether another page follows without a count query
+    private CursorPage<BillingDto> toCursorPage(List<BillingRepository.BillingView> rows, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<BillingRepository.BillingView> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            BillingRepository.BillingView last = page.get(page.size() - 1);
+            nextCursor = new BillingCursor(last.getDueDate(), last.getId()).encode();
+        }
+        return CursorPage.<BillingDto>builder()
+            .items(page.stream().map(billingMapper::toDto).collect(Collectors.toList()))
+            .nextCursor(nextCursor)
+            .hasMore(hasMore)
+            .build();
+    }
+
     @Override
     public PaymentDto processPayment(PaymentRequestDto request) {
         log.info("Processing payment request: {}", request);
-        // Implementation details here
-        return PaymentDto.builder().build(); // Placeholder
+        PaymentBatchResultDto.ItemResult result = paymentSubmissionService.submit(List.of(request)).getResults().get(0);
+        if (result.getOutcome() == PaymentBatchResultDto.Outcome.REJECTED) {
+            throw new IllegalArgumentException(result.getMessage());
+        }
+        return PaymentDto.builder()
+            .id(result.getPaymentId())
+            .policyId(request.getPolicyId())
+            .amount(request.getAmount())
+            .status(result.getPaymentStatus())
+            .timestamp(LocalDateTime.now())
+            .paymentMethod(request.getPaymentMethod().name())
+            .build();
     }
-    
-    private BillingDto convertToDto(Billing billing) {
-        BillingDto dto = new BillingDto();
-        dto.setId(billing.getId());
-        dto.setPolicyId(billing.getPolicyId());
-        dto.setCustomerId(billing.getCustomerId());
-        dto.setAmount(billing.getAmount());
-        dto.setStatus(billing.getStatus());
-        dto.setBillingDate(billing.getBillingDate());
-        dto.setDueDate(billing.getDueDate());
-        dto.setPaymentStatus(billing.getPaymentStatus());
-        dto.setCreatedAt(billing.getCreatedAt());
-        dto.setUpdatedAt(billing.getUpdatedAt());
-        return dto;
+
+    @Override
+    public PaymentBatchResultDto processPayments(List<PaymentRequestDto> requests) {
+        log.info("Processing batch of {} payment requests", requests.size());
+        return paymentSubmissionService.submit(requests);
     }
 }
\ No newline at end of file
@@ -1,19 +1,34 @@
 package com.insurance.billing.service;
 
+import org.hibernate.Cache;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import lombok.extern.slf4j.Slf4j;
 import lombok.RequiredArgsConstructor;
 
+import com.insurance.shared.dto.GracePeriodConfigDto;
 import com.insurance.shared.enums.PaymentFrequency;
+import com.insurance.billing.config.HibernateCacheConfig;
 import com.insurance.billing.entity.GracePeriodConfig;
+import com.insurance.billing.mapper.GracePeriodConfigMapper;
 import com.insurance.billing.repository.GracePeriodConfigRepository;
 
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Optional;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class GracePeriodService {
     private final GracePeriodConfigRepository gracePeriodConfigRepository;
+    private final GracePeriodConfigMapper gracePeriodConfigMapper;
+    private final EntityManagerFactory entityManagerFactory;
     
+    // Served from the second-level and query caches after the first lookup per key
+    @Transactional(readOnly = true)
     public int getGracePeriodDays(String policyType, PaymentFrequency frequency) {
         return gracePeriodConfigRepository
             .findByPolicyTypeAndPaymentFrequency(policyType, frequency)
@@ -21,4 +36,60 @@ public class GracePeriodService {
             .map(GracePeriodConfig::getGracePeriodDays)
             .orElse(10); // Hardcoded fallback
     }
-}
\ No newline at end of file
+
+    @Transactional(readOnly = true)
+    public List<GracePeriodConfigDto> getAllConfigs() {
+        return gracePeriodConfigMapper.toDtoList(gracePeriodConfigRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<GracePeriodConfigDto> getConfig(String id) {
+        return gracePeriodConfigRepository.findById(id).map(gracePeriodConfigMapper::toDto);
+    }
+
+    /**
+     * Change the grace period of an existing config. The cached entity and every cached
+     * lookup query are evicted once the change commits, so readers on this node never see
+     * the old value for the rest of the TTL.
+     */
+    @Transactional
+    public Optional<GracePeriodConfigDto> updateGracePeriodDays(String id, int gracePeriodDays) {
+        return gracePeriodConfigRepository.findById(id).map(config -> {
+            log.info("Updating grace period config {}: {} -> {} days", id, config.getGracePeriodDays(), gracePeriodDays);
+            config.setGracePeriodDays(gracePeriodDays);
+            GracePeriodConfig saved = gracePeriodConfigRepository.save(config);
+            afterCommit(() -> evict(id));
+            return gracePeriodConfigMapper.toDto(saved);
+        });
+    }
+
+    public void evict(String id) {
+        Cache cache = hibernateCache();
+        cache.evictEntityData(GracePeriodConfig.class, id);
+        cache.evictQueryRegion(HibernateCacheConfig.GRACE_PERIOD_QUERY_REGION);
+    }
+
+    public void evictAll() {
+        log.info("Evicting all cached grace period configs");
+        Cache cache = hibernateCache();
+        cache.evictEntityData(GracePeriodConfig.class);
+        cache.evictQueryRegion(HibernateCacheConfig.GRACE_PERIOD_QUERY_REGION);
+    }
+
+    private Cache hibernateCache() {
+        return entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
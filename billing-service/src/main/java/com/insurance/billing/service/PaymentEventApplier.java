@@ -0,0 +1,84 @@
+package com.insurance.billing.service;
+
+import com.insurance.billing.event.BillingStatusChangedEvent;
+import com.insurance.billing.event.PaymentAppliedEvent;
+import com.insurance.billing.projection.DueDateIndex;
+import com.insurance.billing.repository.BillingStateJdbcRepository;
+import com.insurance.billing.repository.BillingStateJdbcRepository.PaymentOutcome;
+import com.insurance.shared.enums.BillingStatus;
+import com.insurance.shared.events.PaymentEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies payment outcomes to billings. The row changes commit as one batch; read models
+ * (delinquency projection, due date index) are told afterwards, since the JDBC update
+ * bypasses the JPA listeners that normally feed them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentEventApplier {
+
+    static final Set<PaymentEvent.PaymentEventType> APPLICABLE = Set.of(
+            PaymentEvent.PaymentEventType.PAYMENT_SUCCEEDED,
+            PaymentEvent.PaymentEventType.PAYMENT_FAILED,
+            PaymentEvent.PaymentEventType.RETRIES_EXHAUSTED);
+
+    private final BillingStateJdbcRepository billingStateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DueDateIndex dueDateIndex;
+
+    // Well past the payment topic's retention, so no event can be replayed after its key is purged
+    @Value("${billing.payment-events.processed-retention:P30D}")
+    private Duration processedRetention;
+
+    /**
+     * @return number of billings changed
+     */
+    public int apply(List<PaymentEvent> events) {
+        List<PaymentEvent> applicable = events.stream()
+                .filter(event -> event.getPolicyId() != null && APPLICABLE.contains(event.getEventType()))
+                .toList();
+        if (applicable.isEmpty()) {
+            return 0;
+        }
+        List<PaymentOutcome> applied = billingStateRepository.applyPaymentEvents(applicable);
+        if (applied.isEmpty()) {
+            return 0;
+        }
+
+        List<PaymentOutcome> paid = applied.stream()
+                .filter(outcome -> outcome.status() == BillingStatus.PAID)
+                .toList();
+        paid.forEach(outcome -> dueDateIndex.remove(outcome.billingId()));
+        paid.forEach(outcome -> eventPublisher.publishEvent(new PaymentAppliedEvent(
+                outcome.policyId(), outcome.billingId(), outcome.amount(), outcome.paymentDate())));
+        if (!paid.isEmpty()) {
+            eventPublisher.publishEvent(new BillingStatusChangedEvent(paid.stream()
+                    .map(PaymentOutcome::policyId)
+                    .collect(Collectors.toSet())));
+        }
+        log.debug("Applied {} payment events to {} billings ({} paid)", applicable.size(), applied.size(), paid.size());
+        return applied.size();
+    }
+
+    @Scheduled(fixedDelayString = "${billing.payment-events.processed-purge-interval:PT1H}",
+            initialDelayString = "${billing.payment-events.processed-purge-interval:PT1H}")
+    public void purgeProcessedEvents() {
+        int purged = billingStateRepository.purgeProcessedPaymentEvents(LocalDateTime.now().minus(processedRetention));
+        if (purged > 0) {
+            log.info("Purged {} processed payment event keys older than {}", purged, processedRetention);
+        }
+    }
+}
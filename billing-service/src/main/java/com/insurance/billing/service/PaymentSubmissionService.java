@@ -0,0 +1,243 @@
+package com.insurance.billing.service;
+
+import com.insurance.billing.client.PaymentServiceClient;
+import com.insurance.billing.entity.Billing;
+import com.insurance.billing.entity.Payment;
+import com.insurance.billing.repository.BillingRepository;
+import com.insurance.billing.repository.PaymentJdbcRepository;
+import com.insurance.shared.dto.PaymentBatchResultDto;
+import com.insurance.shared.dto.PaymentBatchResultDto.ItemResult;
+import com.insurance.shared.dto.PaymentBatchResultDto.Outcome;
+import com.insurance.shared.dto.PaymentDto;
+import com.insurance.shared.dto.PaymentRequestDto;
+import com.insurance.shared.enums.BillingStatus;
+import com.insurance.shared.enums.PaymentStatus;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Records and forwards payments submitted in bulk (bank files, lockbox). Each item is
+ * validated on its own and rejected items are reported without affecting the rest; a billing
+ * takes at most one payment per batch. Accepted payments are stored as PENDING with one
+ * batched insert, then sent to payment-service in chunks; a chunk that cannot be forwarded
+ * stays PENDING and is reported as such.
+ * <p>
+ * Each payment is forwarded with its id as idempotency key, and a resubmitted item matching a
+ * billing's PENDING payment (same amount and method) reuses that payment. So resending a file
+ * after a timeout, when payment-service may already have charged the chunk, gets the recorded
+ * outcomes back rather than charging again.
+ * <p>
+ * Billing status is not changed here: payment-service publishes an event per processed
+ * payment, which the payment event consumer applies.
+ */
+@Slf4j
+@Service
+public class PaymentSubmissionService {
+
+    private final BillingRepository billingRepository;
+    private final PaymentJdbcRepository paymentJdbcRepository;
+    private final PaymentServiceClient paymentServiceClient;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public PaymentSubmissionService(BillingRepository billingRepository,
+                                    PaymentJdbcRepository paymentJdbcRepository,
+                                    PaymentServiceClient paymentServiceClient,
+                                    Validator validator,
+                                    @Value("${billing.payments.batch.chunk-size:500}") int chunkSize) {
+        this.billingRepository = billingRepository;
+        this.paymentJdbcRepository = paymentJdbcRepository;
+        this.paymentServiceClient = paymentServiceClient;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    private record Accepted(int index, PaymentRequestDto request, Payment payment) {
+    }
+
+    public PaymentBatchResultDto submit(List<PaymentRequestDto> requests) {
+        ItemResult[] results = new ItemResult[requests.size()];
+        Map<String, Billing> billings = loadBillings(requests);
+
+        Map<String, List<Payment>> pending = paymentJdbcRepository.findPending(billings.keySet()).stream()
+                .collect(Collectors.groupingBy(Payment::getBillingId));
+
+        List<Accepted> accepted = new ArrayList<>();
+        List<Payment> inserts = new ArrayList<>();
+        Map<String, Integer> acceptedBillIds = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < requests.size(); i++) {
+            PaymentRequestDto request = requests.get(i);
+            String problem = validate(request, billings);
+            if (problem == null && acceptedBillIds.containsKey(request.getBillId())) {
+                problem = "Billing " + request.getBillId() + " already has a payment in this batch (item "
+                        + acceptedBillIds.get(request.getBillId()) + ")";
+            }
+            if (problem != null) {
+                results[i] = result(i, request, null, Outcome.REJECTED, problem);
+                continue;
+            }
+            acceptedBillIds.put(request.getBillId(), i);
+            Billing billing = billings.get(request.getBillId());
+            Payment payment = unforwarded(pending.get(billing.getId()), request);
+            if (payment == null) {
+                payment = Payment.builder()
+                        .id(UUID.randomUUID().toString())
+                        .billingId(billing.getId())
+                        .policyId(billing.getPolicyId())
+                        .customerId(billing.getCustomerId())
+                        .amount(request.getAmount())
+                        .status(PaymentStatus.PENDING)
+                        .method(request.getPaymentMethod())
+                        .attemptedAt(now)
+                        .build();
+                inserts.add(payment);
+            }
+            accepted.add(new Accepted(i, request, payment));
+        }
+        paymentJdbcRepository.insertAll(inserts);
+
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            forward(accepted.subList(from, Math.min(from + chunkSize, accepted.size())), results);
+        }
+
+        Map<Outcome, Long> counts = Arrays.stream(results)
+                .collect(Collectors.groupingBy(ItemResult::getOutcome, Collectors.counting()));
+        log.info("Payment batch of {}: {}", requests.size(), counts);
+        return PaymentBatchResultDto.builder()
+                .submitted(requests.size())
+                .processed(counts.getOrDefault(Outcome.PROCESSED, 0L).intValue())
+                .rejected(counts.getOrDefault(Outcome.REJECTED, 0L).intValue())
+                .notForwarded(counts.getOrDefault(Outcome.NOT_FORWARDED, 0L).intValue())
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    private void forward(List<Accepted> chunk, ItemResult[] results) {
+        List<PaymentDto> processed;
+        try {
+            processed = paymentServiceClient.submitPayments(chunk.stream().map(PaymentSubmissionService::keyed).toList());
+        } catch (RestClientException e) {
+            log.warn("Could not forward {} payments to payment-service: {}", chunk.size(), e.getMessage());
+            notForwarded(chunk, results, "payment-service unavailable; payment recorded as PENDING");
+            return;
+        }
+        if (processed == null || processed.size() != chunk.size()) {
+            log.warn("payment-service answered for {} of {} payments", processed == null ? 0 : processed.size(),
+                    chunk.size());
+            notForwarded(chunk, results, "payment-service did not answer for every payment; payment recorded as PENDING");
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < chunk.size(); i++) {
+            Accepted item = chunk.get(i);
+            PaymentDto outcome = processed.get(i);
+            boolean succeeded = outcome.getStatus() == PaymentStatus.COMPLETED || outcome.getStatus() == PaymentStatus.SUCCESS;
+            Payment payment = item.payment();
+            payment.setStatus(succeeded ? PaymentStatus.SUCCESS : PaymentStatus.FAILED);
+            payment.setTransactionId(outcome.getId());
+            payment.setProcessedAt(outcome.getTimestamp() != null ? outcome.getTimestamp() : now);
+            payment.setFailureReason(succeeded ? null : "Declined by payment-service");
+            results[item.index()] = result(item.index(), item.request(), payment, Outcome.PROCESSED,
+                    payment.getFailureReason());
+        }
+        paymentJdbcRepository.recordOutcomes(chunk.stream().map(Accepted::payment).toList());
+    }
+
+    private static void notForwarded(List<Accepted> chunk, ItemResult[] results, String message) {
+        chunk.forEach(item -> results[item.index()] = result(item.index(), item.request(), item.payment(),
+                Outcome.NOT_FORWARDED, message));
+    }
+
+    // The request as sent to payment-service, keyed by billing's payment id
+    private static PaymentRequestDto keyed(Accepted item) {
+        PaymentRequestDto request = item.request();
+        return PaymentRequestDto.builder()
+                .billId(request.getBillId())
+                .policyId(request.getPolicyId())
+                .amount(request.getAmount())
+                .paymentMethod(request.getPaymentMethod())
+                .idempotencyKey(item.payment().getId())
+                .build();
+    }
+
+    // A PENDING payment left by an earlier submission of the same item, if any
+    private static Payment unforwarded(List<Payment> pending, PaymentRequestDto request) {
+        if (pending == null) {
+            return null;
+        }
+        return pending.stream()
+                .filter(payment -> payment.getAmount().compareTo(request.getAmount()) == 0
+                        && payment.getMethod() == request.getPaymentMethod())
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Map<String, Billing> loadBillings(List<PaymentRequestDto> requests) {
+        List<String> billIds = requests.stream()
+                .map(PaymentRequestDto::getBillId)
+                .filter(billId -> billId != null && !billId.isBlank())
+                .distinct()
+                .toList();
+        Map<String, Billing> billings = new HashMap<>();
+        for (int from = 0; from < billIds.size(); from += chunkSize) {
+            billingRepository.findAllById(billIds.subList(from, Math.min(from + chunkSize, billIds.size())))
+                    .forEach(billing -> billings.put(billing.getId(), billing));
+        }
+        return billings;
+    }
+
+    private String validate(PaymentRequestDto request, Map<String, Billing> billings) {
+        if (request == null) {
+            return "Missing payment request";
+        }
+        Set<ConstraintViolation<PaymentRequestDto>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .collect(Collectors.joining("; "));
+        }
+        Billing billing = billings.get(request.getBillId());
+        if (billing == null) {
+            return "Unknown billing " + request.getBillId();
+        }
+        if (!Objects.equals(billing.getPolicyId(), request.getPolicyId())) {
+            return "Billing " + billing.getId() + " does not belong to policy " + request.getPolicyId();
+        }
+        if (billing.getStatus() == BillingStatus.PAID) {
+            return "Billing " + billing.getId() + " is already paid";
+        }
+        return null;
+    }
+
+    private static ItemResult result(int index, PaymentRequestDto request, Payment payment, Outcome outcome,
+                                     String message) {
+        return ItemResult.builder()
+                .index(index)
+                .billId(request != null ? request.getBillId() : null)
+                .paymentId(payment != null ? payment.getId() : null)
+                .transactionId(payment != null ? payment.getTransactionId() : null)
+                .paymentStatus(payment != null ? payment.getStatus() : null)
+                .outcome(outcome)
+                .message(message)
+                .build();
+    }
+}
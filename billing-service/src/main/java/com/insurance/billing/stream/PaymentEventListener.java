@@ -0,0 +1,69 @@
+package com.insurance.billing.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.billing.service.PaymentEventApplier;
+import com.insurance.shared.events.PaymentEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumes payment events in batches and applies them to billings. Payment events are keyed
+ * by policy id, so each policy's events arrive in order on one partition and are applied in
+ * that order. Redelivered events, including those replayed after a restart or a rebalance,
+ * are dropped by the applier against the keys it records with each billing change.
+ */
+@Slf4j
+@Component
+public class PaymentEventListener {
+
+    private final PaymentEventApplier applier;
+    private final ObjectMapper objectMapper;
+
+    public PaymentEventListener(PaymentEventApplier applier, ObjectMapper objectMapper) {
+        this.applier = applier;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(
+            id = "paymentEventApplier",
+            topics = "${payment.events.topic:payment-topic}",
+            groupId = "${billing.payment-events.group-id:billing-payment-events}",
+            containerFactory = "batchListenerFactory",
+            concurrency = "${billing.payment-events.concurrency:3}",
+            autoStartup = "${billing.payment-events.enabled:true}",
+            properties = "max.poll.records=${billing.payment-events.max-batch-size:500}")
+    public void onPaymentEvents(List<ConsumerRecord<String, String>> records) {
+        List<PaymentEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            PaymentEvent event = parse(record);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        // A failure here rethrows so the container redelivers the batch; its keys roll back with it
+        applier.apply(events);
+    }
+
+    private PaymentEvent parse(ConsumerRecord<String, String> record) {
+        if (record.value() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(record.value(), PaymentEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable payment event at {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), e.getOriginalMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.insurance.billing.stream;
+
+import com.insurance.billing.client.CachedPolicyClient;
+import com.insurance.shared.events.PolicyChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops near-cache entries when policy-service publishes a change. Every billing-service
+ * instance uses its own consumer group so that each one sees every invalidation.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PolicyChangeListener {
+
+    private final CachedPolicyClient policyCache;
+
+    @KafkaListener(
+            id = "policyCacheInvalidator",
+            topics = "${policy.events.topic:policy-events}",
+            groupId = "billing-policy-cache-${random.uuid}",
+            autoStartup = "${policy.cache.invalidation.enabled:true}",
+            properties = "auto.offset.reset=latest")
+    public void onPolicyChange(@Header(KafkaHeaders.RECEIVED_KEY) String policyId,
+                               @Payload(required = false) PolicyChangeEvent event) {
+        log.debug("Received policy change for {}: {}", policyId,
+                event != null ? event.getChangeType() : "tombstone");
+        policyCache.invalidate(policyId);
+    }
+}
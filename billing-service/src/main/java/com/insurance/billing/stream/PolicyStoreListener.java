@@ -0,0 +1,84 @@
+package com.insurance.billing.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.billing.client.CachedPolicyClient;
+import com.insurance.billing.projection.LocalPolicyStore;
+import com.insurance.shared.events.PolicyChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds the local policy store from the policy events topic. Every billing-service instance
+ * keeps its own full copy, so each uses its own consumer group and, on assignment, seeks to
+ * the offsets stored with its copy (the beginning of the topic for an empty store) rather
+ * than to offsets committed to Kafka.
+ */
+@Slf4j
+@Component
+public class PolicyStoreListener extends AbstractConsumerSeekAware {
+
+    private final LocalPolicyStore policyStore;
+    private final CachedPolicyClient policyCache;
+    private final ObjectMapper objectMapper;
+
+    public PolicyStoreListener(LocalPolicyStore policyStore, CachedPolicyClient policyCache, ObjectMapper objectMapper) {
+        this.policyStore = policyStore;
+        this.policyCache = policyCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        for (TopicPartition partition : assignments.keySet()) {
+            Long next = policyStore.nextOffset(partition.topic(), partition.partition());
+            if (next == null) {
+                callback.seekToBeginning(List.of(partition));
+            } else {
+                callback.seek(partition.topic(), partition.partition(), next);
+            }
+        }
+        log.info("Policy store resuming {} partitions ({} policies held)", assignments.size(), policyStore.size());
+    }
+
+    @KafkaListener(
+            id = "policyStore",
+            topics = "${policy.events.topic:policy-events}",
+            groupId = "billing-policy-store-${random.uuid}",
+            containerFactory = "batchListenerFactory",
+            autoStartup = "${billing.policy-store.enabled:true}",
+            properties = "max.poll.records=${billing.policy-store.max-batch-size:2000}")
+    public void onPolicyChanges(List<ConsumerRecord<String, String>> records) {
+        List<LocalPolicyStore.Change> changes = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            changes.add(new LocalPolicyStore.Change(record.topic(), record.partition(), record.offset(),
+                    record.key(), parse(record)));
+        }
+        policyStore.apply(changes);
+        // The near cache loads from this store, so drop entries only once the store has the change
+        changes.forEach(change -> policyCache.invalidate(change.policyId()));
+    }
+
+    private PolicyChangeEvent parse(ConsumerRecord<String, String> record) {
+        if (record.value() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(record.value(), PolicyChangeEvent.class);
+        } catch (JsonProcessingException e) {
+            // Unreadable events can't be applied; the policy is dropped so lookups fall back to policy-service
+            log.warn("Dropping unreadable policy change for {} at {}-{}@{}", record.key(), record.topic(),
+                    record.partition(), record.offset());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,3 @@
+CREATE INDEX idx_billings_customer_id_due_date_id ON billings (customer_id, due_date, id);
+
+CREATE INDEX idx_billings_policy_id_due_date_id ON billings (policy_id, due_date, id);
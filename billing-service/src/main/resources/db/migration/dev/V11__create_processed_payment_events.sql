@@ -0,0 +1,8 @@
+CREATE TABLE processed_payment_events
+(
+    event_key    VARCHAR(255) NOT NULL,
+    processed_at TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_processed_payment_events PRIMARY KEY (event_key)
+);
+
+CREATE INDEX idx_processed_payment_events_processed_at ON processed_payment_events (processed_at);
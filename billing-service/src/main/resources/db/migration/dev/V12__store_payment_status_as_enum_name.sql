@@ -0,0 +1,7 @@
+-- Payments are written with PaymentStatus/PaymentMethod names (PENDING, SUCCESS, CREDIT_CARD, ...),
+-- as the MariaDB schema stores them; the original lower-case enums had no PENDING at all.
+ALTER TABLE payments ALTER COLUMN status VARCHAR(50) NOT NULL;
+
+ALTER TABLE payments ALTER COLUMN method VARCHAR(50) NOT NULL;
+
+UPDATE payments SET status = UPPER(status), method = UPPER(method);
@@ -0,0 +1,13 @@
+CREATE TABLE unmatched_payment_events
+(
+    event_key   VARCHAR(255)   NOT NULL,
+    policy_id   VARCHAR(255)   NOT NULL,
+    payment_id  VARCHAR(255),
+    event_type  VARCHAR(50)    NOT NULL,
+    amount      DECIMAL(10, 2),
+    occurred_at TIMESTAMP,
+    parked_at   TIMESTAMP      NOT NULL,
+    CONSTRAINT pk_unmatched_payment_events PRIMARY KEY (event_key)
+);
+
+CREATE INDEX idx_unmatched_payment_events_policy_id ON unmatched_payment_events (policy_id);
@@ -0,0 +1,2 @@
+ALTER TABLE billings
+    ADD last_swept_on date;
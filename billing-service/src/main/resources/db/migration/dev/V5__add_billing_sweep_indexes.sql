@@ -0,0 +1,3 @@
+CREATE INDEX idx_billings_status_due_date ON billings (status, due_date);
+
+CREATE INDEX idx_billings_status_grace_period_end ON billings (status, grace_period_end);
@@ -0,0 +1,15 @@
+CREATE TABLE delinquency_projection
+(
+    policy_id           VARCHAR(255) NOT NULL,
+    customer_id         VARCHAR(255),
+    status              VARCHAR(50),
+    amount_overdue      DECIMAL(10, 2),
+    oldest_due_date     date,
+    last_payment_date   date,
+    grace_period_expiry date,
+    updated_at          TIMESTAMP,
+    CONSTRAINT pk_delinquency_projection PRIMARY KEY (policy_id)
+);
+
+CREATE INDEX idx_delinquency_amount_due_date ON delinquency_projection (amount_overdue, oldest_due_date);
+CREATE INDEX idx_delinquency_status_due_date ON delinquency_projection (status, oldest_due_date);
@@ -0,0 +1,3 @@
+CREATE INDEX idx_billing_events_policy_id_occurred_at ON billing_events (policy_id, occurred_at);
+
+CREATE INDEX idx_billing_events_billing_id_occurred_at ON billing_events (billing_id, occurred_at);
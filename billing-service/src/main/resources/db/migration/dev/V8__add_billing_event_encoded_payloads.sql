@@ -0,0 +1,3 @@
+ALTER TABLE billing_events ADD COLUMN payload_data BLOB;
+
+ALTER TABLE billing_events ADD COLUMN metadata_data BLOB;
@@ -0,0 +1,7 @@
+ALTER TABLE payment_retries ADD COLUMN lease_owner VARCHAR(100);
+
+ALTER TABLE payment_retries ADD COLUMN lease_expires_at TIMESTAMP;
+
+CREATE INDEX idx_payment_retries_status_scheduled_at ON payment_retries (status, scheduled_at);
+
+CREATE INDEX idx_payment_retries_status_lease_expires_at ON payment_retries (status, lease_expires_at);
@@ -0,0 +1,6 @@
+-- V10__add_last_swept_on_to_billings.sql (FOR MARIADB DATABASE)
+
+-- Sweep date of a billing's last delinquency transition, so the sweeper moves each billing
+-- at most one step per day instead of chaining PENDING -> OVERDUE -> GRACE_PERIOD in one run.
+ALTER TABLE billings
+    ADD COLUMN last_swept_on DATE;
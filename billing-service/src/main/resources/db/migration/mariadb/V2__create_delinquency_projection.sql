@@ -0,0 +1,17 @@
+-- V2__create_delinquency_projection.sql (FOR MARIADB DATABASE)
+
+-- Delinquency read model: one row per policy, maintained incrementally by billing-service
+CREATE TABLE delinquency_projection (
+                                        policy_id VARCHAR(255) PRIMARY KEY,
+                                        customer_id VARCHAR(255),
+                                        status VARCHAR(50) COMMENT 'Enum: OVERDUE, GRACE_PERIOD, DELINQUENT',
+                                        amount_overdue DECIMAL(10, 2),
+                                        oldest_due_date DATE,
+                                        last_payment_date DATE,
+                                        grace_period_expiry DATE,
+                                        updated_at DATETIME(6)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Default listing (amount_overdue > 0 ordered by days overdue) and the status filter
+CREATE INDEX idx_delinquency_amount_due_date ON delinquency_projection(amount_overdue, oldest_due_date);
+CREATE INDEX idx_delinquency_status_due_date ON delinquency_projection(status, oldest_due_date);
@@ -0,0 +1,32 @@
+-- V3__partition_billing_events.sql (FOR MARIADB DATABASE)
+
+-- billing_events becomes an append-only, monthly range-partitioned table.
+-- Partitioning requires the partition column in every unique key and does not allow foreign keys.
+ALTER TABLE billing_events DROP FOREIGN KEY fk_billing_events_billing;
+ALTER TABLE billing_events DROP PRIMARY KEY, ADD PRIMARY KEY (id, occurred_at);
+
+-- Event history is always read per policy or per billing ordered by time
+DROP INDEX idx_billing_events_billing_id ON billing_events;
+DROP INDEX idx_billing_events_policy_id ON billing_events;
+CREATE INDEX idx_billing_events_policy_id_occurred_at ON billing_events(policy_id, occurred_at);
+
+-- Monthly partitions; EventPartitionManager splits p_future ahead of time and drops or archives old months
+ALTER TABLE billing_events PARTITION BY RANGE COLUMNS(occurred_at) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION p202701 VALUES LESS THAN ('2027-02-01'),
+    PARTITION p202702 VALUES LESS THAN ('2027-03-01'),
+    PARTITION p202703 VALUES LESS THAN ('2027-04-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
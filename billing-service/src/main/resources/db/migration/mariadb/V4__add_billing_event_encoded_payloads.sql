@@ -0,0 +1,7 @@
+-- V4__add_billing_event_encoded_payloads.sql (FOR MARIADB DATABASE)
+
+-- Encoded payload/metadata (one format byte, then JSON text, Smile, or dictionary-deflated Smile).
+-- New events only fill these; PayloadBackfillJob moves existing rows off the TEXT columns.
+ALTER TABLE billing_events
+    ADD COLUMN payload_data BLOB NULL,
+    ADD COLUMN metadata_data BLOB NULL;
@@ -0,0 +1,10 @@
+-- V5__add_payment_retry_leases.sql (FOR MARIADB DATABASE)
+
+-- Dispatchers claim due retries with FOR UPDATE SKIP LOCKED (MariaDB 10.6+) and hold them
+-- IN_PROGRESS under a lease; expired leases are released back to SCHEDULED.
+ALTER TABLE payment_retries
+    ADD COLUMN lease_owner VARCHAR(100) NULL,
+    ADD COLUMN lease_expires_at DATETIME(6) NULL;
+
+-- Lets the reaper find expired IN_PROGRESS leases without scanning
+CREATE INDEX idx_payment_retries_status_lease_expires_at ON payment_retries(status, lease_expires_at);
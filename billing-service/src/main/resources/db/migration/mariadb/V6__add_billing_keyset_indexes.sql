@@ -0,0 +1,6 @@
+-- V6__add_billing_keyset_indexes.sql (FOR MARIADB DATABASE)
+
+-- Customer and policy billing views page by (due_date, id) within one customer or policy.
+-- These cover the seek and the ORDER BY, so each page reads only its own rows.
+CREATE INDEX idx_billings_customer_id_due_date_id ON billings(customer_id, due_date, id);
+CREATE INDEX idx_billings_policy_id_due_date_id ON billings(policy_id, due_date, id);
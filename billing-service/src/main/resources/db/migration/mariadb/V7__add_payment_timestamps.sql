@@ -0,0 +1,7 @@
+-- V7__add_payment_timestamps.sql (FOR MARIADB DATABASE)
+
+-- The Payment entity and the batch payment insert write created_at/updated_at, which the
+-- dev schema has had from the start.
+ALTER TABLE payments
+    ADD COLUMN created_at DATETIME(6),
+    ADD COLUMN updated_at DATETIME(6);
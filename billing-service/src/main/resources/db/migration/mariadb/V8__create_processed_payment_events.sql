@@ -0,0 +1,9 @@
+-- V8__create_processed_payment_events.sql (FOR MARIADB DATABASE)
+
+-- Keys of applied payment events, written in the same transaction as the billing change, so a
+-- redelivered event is recognised after a restart or consumer rebalance. Purged by age.
+CREATE TABLE processed_payment_events (
+    event_key VARCHAR(255) NOT NULL PRIMARY KEY,
+    processed_at DATETIME(6) NOT NULL,
+    INDEX idx_processed_payment_events_processed_at (processed_at)
+);
@@ -0,0 +1,14 @@
+-- V9__create_unmatched_payment_events.sql (FOR MARIADB DATABASE)
+
+-- Payment events that name no billing. They are not applied, since the billing they pay
+-- can't be told from the policy alone; they wait here for someone to settle them by hand.
+CREATE TABLE unmatched_payment_events (
+    event_key VARCHAR(255) NOT NULL PRIMARY KEY,
+    policy_id VARCHAR(255) NOT NULL,
+    payment_id VARCHAR(255),
+    event_type VARCHAR(50) NOT NULL,
+    amount DECIMAL(10, 2),
+    occurred_at DATETIME(6),
+    parked_at DATETIME(6) NOT NULL,
+    INDEX idx_unmatched_payment_events_policy_id (policy_id)
+);
@@ -0,0 +1,142 @@
+package com.insurance.billing.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.insurance.shared.dto.BillingDto;
+import com.insurance.shared.dto.PaymentDto;
+import com.insurance.shared.dto.PolicyDto;
+import com.insurance.shared.synthetic.SyntheticPortfolio;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bytes per response and serialize/deserialize cost of JSON, Smile and CBOR for lists of
+ * policies, billings and payments drawn from the synthetic portfolio, at the size of a
+ * batch-get page. The mappers are configured like the services' HTTP converters. Not a unit
+ * test; run with {@code mvn -pl billing-service test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.insurance.billing.benchmark.BinaryContentBenchmark}.
+ */
+public class BinaryContentBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int lists = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int listSize = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        SyntheticPortfolio portfolio = new SyntheticPortfolio(42, lists * listSize, LocalDate.of(2026, 1, 1));
+
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        Map<String, ObjectMapper> formats = Map.of(
+                "json", json,
+                "smile", json.copyWith(new SmileFactory()),
+                "cbor", json.copyWith(new CBORFactory()));
+
+        System.out.printf("%d lists of %d items%n", lists, listSize);
+        System.out.printf("%-8s %-6s %12s %14s %14s%n", "type", "format", "bytes/list", "write ns/item", "read ns/item");
+        benchmark("policy", PolicyDto.class, policies(portfolio, lists, listSize), formats);
+        benchmark("billing", BillingDto.class, billings(portfolio, lists, listSize), formats);
+        benchmark("payment", PaymentDto.class, payments(portfolio, lists, listSize), formats);
+    }
+
+    private static <T> void benchmark(String type, Class<T> itemType, List<List<T>> lists,
+                                      Map<String, ObjectMapper> formats) throws Exception {
+        for (String format : List.of("json", "smile", "cbor")) {
+            ObjectMapper mapper = formats.get(format);
+            JavaType listType = mapper.getTypeFactory().constructCollectionType(List.class, itemType);
+            // Warm up the JIT before timing
+            for (int round = 0; round < ROUNDS - 1; round++) {
+                run(mapper, listType, lists);
+            }
+            long[] result = run(mapper, listType, lists);
+            long items = lists.stream().mapToLong(List::size).sum();
+            System.out.printf("%-8s %-6s %12.1f %14d %14d%n", type, format, (double) result[0] / lists.size(),
+                    result[1] / items, result[2] / items);
+        }
+    }
+
+    // Total bytes, write nanos, read nanos
+    private static long[] run(ObjectMapper mapper, JavaType listType, List<? extends List<?>> lists) throws Exception {
+        List<byte[]> encoded = new ArrayList<>(lists.size());
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (List<?> list : lists) {
+            byte[] data = mapper.writeValueAsBytes(list);
+            bytes += data.length;
+            encoded.add(data);
+        }
+        long writeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (byte[] data : encoded) {
+            mapper.readValue(data, listType);
+        }
+        long readNanos = System.nanoTime() - start;
+        return new long[]{bytes, writeNanos, readNanos};
+    }
+
+    private static List<List<PolicyDto>> policies(SyntheticPortfolio portfolio, int lists, int listSize) {
+        List<List<PolicyDto>> result = new ArrayList<>(lists);
+        for (int list = 0; list < lists; list++) {
+            List<PolicyDto> policies = new ArrayList<>(listSize);
+            for (int item = 0; item < listSize; item++) {
+                policies.add(portfolio.policy(list * listSize + item));
+            }
+            result.add(policies);
+        }
+        return result;
+    }
+
+    private static List<List<BillingDto>> billings(SyntheticPortfolio portfolio, int lists, int listSize) {
+        List<BillingDto> all = new ArrayList<>();
+        for (int index = 0; all.size() < lists * listSize; index++) {
+            for (SyntheticPortfolio.Installment installment : portfolio.billingHistory(index)) {
+                all.add(BillingDto.builder()
+                        .id(installment.billingId())
+                        .policyId(installment.policyId())
+                        .customerId(installment.customerId())
+                        .amount(installment.amount())
+                        .dueDate(installment.dueDate())
+                        .status(installment.status())
+                        .paymentStatus(installment.paymentStatus() != null ? installment.paymentStatus().name() : null)
+                        .billingDate(installment.dueDate().atStartOfDay())
+                        .createdAt(installment.dueDate().atStartOfDay())
+                        .updatedAt(installment.dueDate().atTime(12, 0))
+                        .build());
+            }
+        }
+        return partition(all, lists, listSize);
+    }
+
+    private static List<List<PaymentDto>> payments(SyntheticPortfolio portfolio, int lists, int listSize) {
+        List<PaymentDto> all = new ArrayList<>();
+        for (int index = 0; all.size() < lists * listSize; index++) {
+            for (SyntheticPortfolio.Installment installment : portfolio.billingHistory(index)) {
+                for (SyntheticPortfolio.Attempt attempt : installment.attempts()) {
+                    all.add(PaymentDto.builder()
+                            .id(attempt.paymentId())
+                            .policyId(installment.policyId())
+                            .amount(installment.amount())
+                            .status(attempt.status())
+                            .timestamp(attempt.attemptedAt())
+                            .paymentMethod(attempt.method().name())
+                            .build());
+                }
+            }
+        }
+        return partition(all, lists, listSize);
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int lists, int listSize) {
+        List<List<T>> result = new ArrayList<>(lists);
+        for (int list = 0; list < lists; list++) {
+            result.add(items.subList(list * listSize, (list + 1) * listSize));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+package com.insurance.billing.benchmark;
+
+import com.insurance.billing.eventstore.codec.DictionarySmilePayloadCodec;
+import com.insurance.billing.eventstore.codec.JsonPayloadCodec;
+import com.insurance.billing.eventstore.codec.PayloadCodec;
+import com.insurance.billing.eventstore.codec.SmilePayloadCodec;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bytes per event and encode/decode cost of each payload codec over synthetic billing event
+ * payloads. Not a unit test; run with
+ * {@code mvn -pl billing-service test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.insurance.billing.benchmark.PayloadCodecBenchmark}.
+ */
+public class PayloadCodecBenchmark {
+
+    private static final String[] STATUSES = {"PENDING", "OVERDUE", "GRACE_PERIOD", "DELINQUENT", "PAID"};
+
+    public static void main(String[] args) throws Exception {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<String> payloads = payloads(events, new Random(42));
+
+        SmilePayloadCodec smile = new SmilePayloadCodec();
+        List<PayloadCodec> codecs = List.of(new JsonPayloadCodec(), smile, new DictionarySmilePayloadCodec(smile));
+
+        System.out.printf("%d events, %.1f text bytes/event%n", events,
+                payloads.stream().mapToInt(String::length).average().orElse(0));
+        System.out.printf("%-14s %12s %14s %14s%n", "codec", "bytes/event", "encode ns/op", "decode ns/op");
+        for (PayloadCodec codec : codecs) {
+            // Warm up the JIT before timing
+            for (int round = 0; round < 3; round++) {
+                run(codec, payloads);
+            }
+            long[] result = run(codec, payloads);
+            System.out.printf("%-14s %12.1f %14d %14d%n", codec.name(), (double) result[0] / payloads.size(),
+                    result[1] / payloads.size(), result[2] / payloads.size());
+        }
+    }
+
+    // Total bytes, encode nanos, decode nanos
+    private static long[] run(PayloadCodec codec, List<String> payloads) throws Exception {
+        List<byte[]> encoded = new ArrayList<>(payloads.size());
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (String payload : payloads) {
+            byte[] data = codec.encode(payload);
+            bytes += data.length;
+            encoded.add(data);
+        }
+        long encodeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (byte[] data : encoded) {
+            // Rows that fell back to plain Smile are decoded by the Smile codec in production
+            if (data[0] == codec.formatId()) {
+                codec.decode(data);
+            }
+        }
+        long decodeNanos = System.nanoTime() - start;
+        return new long[]{bytes, encodeNanos, decodeNanos};
+    }
+
+    private static List<String> payloads(int count, Random random) {
+        List<String> payloads = new ArrayList<>(count);
+        LocalDate base = LocalDate.of(2026, 1, 1);
+        for (int i = 0; i < count; i++) {
+            int from = random.nextInt(STATUSES.length - 1);
+            BigDecimal amount = BigDecimal.valueOf(50 + random.nextInt(500_000) / 100.0).setScale(2, RoundingMode.HALF_UP);
+            LocalDate dueDate = base.plusDays(random.nextInt(365));
+            payloads.add("{\"from\":\"" + STATUSES[from] + "\",\"to\":\"" + STATUSES[from + 1] + "\","
+                    + "\"policyId\":\"POLICY-" + random.nextInt(1_000_000) + "\","
+                    + "\"customerId\":\"CUST-" + random.nextInt(200_000) + "\","
+                    + "\"dueDate\":\"" + dueDate + "\",\"gracePeriodEnd\":\"" + dueDate.plusDays(10) + "\","
+                    + "\"amount\":" + amount + "}");
+        }
+        return payloads;
+    }
+}
@@ -0,0 +1,91 @@
+package com.insurance.billing.unit.admission;
+
+import com.insurance.billing.admission.AdmissionController;
+import com.insurance.billing.admission.AdmissionController.Decision;
+import com.insurance.billing.admission.AdmissionController.LaneSettings;
+import com.insurance.billing.admission.RequestClass;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private AdmissionController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new AdmissionController(List.of(
+                new LaneSettings(RequestClass.CRITICAL, List.of("POST /api/billing/payments", "GET /api/billing/*/premium"),
+                        4, Duration.ofMillis(10)),
+                new LaneSettings(RequestClass.STANDARD, List.of(), 2, Duration.ZERO),
+                new LaneSettings(RequestClass.BATCH, List.of("/api/billing/due", "/api/billing/customer/**",
+                        "POST /api/billing/payments:batch"), 1, Duration.ZERO)),
+                Duration.ofMillis(100), 2.0, Duration.ofSeconds(1), 0.5, clock::get);
+    }
+
+    private void criticalRequestsTaking(long latencyMillis) throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Decision.ADMITTED, controller.admit(RequestClass.CRITICAL));
+            controller.release(RequestClass.CRITICAL, latencyMillis * MILLIS);
+        }
+        clock.addAndGet(1000 * MILLIS);
+    }
+
+    @Test
+    void shouldClassifyByMethodAndPath() {
+        assertEquals(RequestClass.CRITICAL, controller.classify("POST", "/api/billing/payments"));
+        assertEquals(RequestClass.BATCH, controller.classify("POST", "/api/billing/payments:batch"));
+        assertEquals(RequestClass.CRITICAL, controller.classify("GET", "/api/billing/POLICY-1/premium"));
+        assertEquals(RequestClass.BATCH, controller.classify("GET", "/api/billing/customer/CUST-1/page"));
+        assertEquals(RequestClass.STANDARD, controller.classify("GET", "/api/billing/payments"));
+        assertEquals(RequestClass.STANDARD, controller.classify("POST", "/api/billing/calculate"));
+    }
+
+    @Test
+    void shouldRejectWhenClassIsAtCapacityWithoutAffectingOthers() throws InterruptedException {
+        assertEquals(Decision.ADMITTED, controller.admit(RequestClass.BATCH));
+        assertEquals(Decision.REJECTED, controller.admit(RequestClass.BATCH));
+        assertEquals(Decision.ADMITTED, controller.admit(RequestClass.CRITICAL));
+
+        controller.release(RequestClass.BATCH, 5 * MILLIS);
+
+        assertEquals(Decision.ADMITTED, controller.admit(RequestClass.BATCH));
+        assertEquals(1, controller.lane(RequestClass.BATCH).rejected());
+        assertEquals(1, controller.lane(RequestClass.BATCH).inFlight());
+    }
+
+    @Test
+    void shouldShedLowerClassesWhileCriticalLatencyIsAboveTarget() throws InterruptedException {
+        criticalRequestsTaking(300);
+
+        assertEquals(150 * MILLIS, controller.criticalLatencyNanos(), 1);
+        assertEquals(Decision.SHED, controller.admit(RequestClass.BATCH));
+        assertEquals(Decision.ADMITTED, controller.admit(RequestClass.STANDARD));
+
+        criticalRequestsTaking(500);
+
+        assertEquals(325 * MILLIS, controller.criticalLatencyNanos(), 1);
+        assertEquals(Decision.SHED, controller.admit(RequestClass.STANDARD));
+        assertEquals(Decision.ADMITTED, controller.admit(RequestClass.CRITICAL));
+        assertEquals(1, controller.lane(RequestClass.STANDARD).shed());
+    }
+
+    @Test
+    void shouldStopSheddingOnceCriticalTrafficIsIdle() throws InterruptedException {
+        criticalRequestsTaking(400);
+        assertTrue(controller.isShedding(RequestClass.BATCH));
+
+        clock.addAndGet(2000 * MILLIS);
+
+        assertEquals(50 * MILLIS, controller.criticalLatencyNanos(), 1);
+        assertEquals(Decision.ADMITTED, controller.admit(RequestClass.BATCH));
+    }
+}
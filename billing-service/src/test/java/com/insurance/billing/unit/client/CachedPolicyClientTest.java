@@ -0,0 +1,117 @@
+package com.insurance.billing.unit.client;
+
+import com.insurance.billing.client.CachedPolicyClient;
+import com.insurance.billing.client.PolicyRestClient;
+import com.insurance.shared.dto.PolicyDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class CachedPolicyClientTest {
+
+    @Mock
+    private PolicyRestClient delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachedPolicyClient client;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        client = new CachedPolicyClient(delegate, meterRegistry, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        when(delegate.getPolicy("POLICY-123"))
+                .thenReturn(Optional.of(PolicyDto.builder().id("POLICY-123").build()));
+
+        client.getPolicy("POLICY-123");
+        Optional<PolicyDto> result = client.getPolicy("POLICY-123");
+
+        assertTrue(result.isPresent());
+        verify(delegate, times(1)).getPolicy("POLICY-123");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void shouldReloadAfterInvalidation() {
+        when(delegate.getPolicy("POLICY-123"))
+                .thenReturn(Optional.of(PolicyDto.builder().id("POLICY-123").build()));
+
+        client.getPolicy("POLICY-123");
+        client.invalidate("POLICY-123");
+        client.getPolicy("POLICY-123");
+
+        verify(delegate, times(2)).getPolicy("POLICY-123");
+    }
+
+    @Test
+    void shouldNotCacheMisses() {
+        when(delegate.getPolicy("NONEXISTENT")).thenReturn(Optional.empty());
+
+        assertTrue(client.getPolicy("NONEXISTENT").isEmpty());
+        assertTrue(client.getPolicy("NONEXISTENT").isEmpty());
+
+        verify(delegate, times(2)).getPolicy("NONEXISTENT");
+    }
+
+    @Test
+    void shouldCollapseConcurrentMissesIntoOneCall() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getPolicy("POLICY-123")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(PolicyDto.builder().id("POLICY-123").build());
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Optional<PolicyDto>> first = executor.submit(() -> client.getPolicy("POLICY-123"));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<Optional<PolicyDto>> second = executor.submit(() -> client.getPolicy("POLICY-123"));
+            Future<Optional<PolicyDto>> third = executor.submit(() -> client.getPolicy("POLICY-123"));
+            release.countDown();
+
+            assertTrue(first.get(5, TimeUnit.SECONDS).isPresent());
+            assertTrue(second.get(5, TimeUnit.SECONDS).isPresent());
+            assertTrue(third.get(5, TimeUnit.SECONDS).isPresent());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(delegate, times(1)).getPolicy("POLICY-123");
+    }
+
+    @Test
+    void shouldLoadOnlyMissingPoliciesInBulk() {
+        when(delegate.getPolicy("POLICY-123"))
+                .thenReturn(Optional.of(PolicyDto.builder().id("POLICY-123").build()));
+        when(delegate.getPolicies(anyCollection()))
+                .thenReturn(Map.of("POLICY-456", PolicyDto.builder().id("POLICY-456").build()));
+
+        client.getPolicy("POLICY-123");
+        Map<String, PolicyDto> result = client.getPolicies(List.of("POLICY-123", "POLICY-456", "NONEXISTENT"));
+
+        assertEquals(2, result.size());
+        verify(delegate).getPolicies(argThat(ids -> ids.size() == 2 && !ids.contains("POLICY-123")));
+    }
+}
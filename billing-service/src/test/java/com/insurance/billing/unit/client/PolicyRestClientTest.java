@@ -0,0 +1,163 @@
+package com.insurance.billing.unit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.insurance.billing.client.PolicyRestClient;
+import com.insurance.billing.config.RestTemplateConfig;
+import com.insurance.shared.dto.PolicyDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class PolicyRestClientTest {
+
+    private static final String POLICY_URL = "http://policy-service/api/policies/POLICY-123";
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private MockRestServiceServer server;
+    private PolicyRestClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        client = unbatchedClient(restTemplate);
+    }
+
+    private static PolicyRestClient unbatchedClient(RestTemplate restTemplate) {
+        PolicyRestClient client = new PolicyRestClient(restTemplate);
+        ReflectionTestUtils.setField(client, "policyServiceUrl", "http://policy-service");
+        ReflectionTestUtils.setField(client, "batchGetMaxSize", 500);
+        ReflectionTestUtils.setField(client, "batchingEnabled", false);
+        ReflectionTestUtils.setField(client, "conditionalMaximumSize", 100L);
+        ReflectionTestUtils.setField(client, "conditionalTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.invokeMethod(client, "startBatcher");
+        return client;
+    }
+
+    @Test
+    void shouldReuseCachedCopyWhenNotModified() {
+        server.expect(requestTo(POLICY_URL))
+                .andRespond(withSuccess("{\"id\":\"POLICY-123\",\"gracePeriodDays\":15,\"version\":4}",
+                        MediaType.APPLICATION_JSON));
+        server.expect(requestTo(POLICY_URL))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        client.getPolicy("POLICY-123");
+        Optional<PolicyDto> revalidated = client.getPolicy("POLICY-123");
+
+        assertEquals(15, revalidated.orElseThrow().getGracePeriodDays());
+        server.verify();
+    }
+
+    @Test
+    void shouldPreferBinaryResponsesWithJsonFallback() throws Exception {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(RestTemplateConfig.preferring(SMILE));
+        MockRestServiceServer smileServer = MockRestServiceServer.bindTo(restTemplate).build();
+        byte[] smile = new ObjectMapper(new SmileFactory())
+                .writeValueAsBytes(PolicyDto.builder().id("POLICY-123").gracePeriodDays(15).build());
+        smileServer.expect(requestTo(POLICY_URL))
+                .andExpect(header(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/json;q=0.9"))
+                .andRespond(withSuccess(smile, SMILE));
+
+        assertEquals(15, unbatchedClient(restTemplate).getPolicy("POLICY-123").orElseThrow().getGracePeriodDays());
+        smileServer.verify();
+    }
+
+    @Test
+    void shouldReplaceCachedCopyWhenModified() {
+        server.expect(requestTo(POLICY_URL))
+                .andRespond(withSuccess("{\"id\":\"POLICY-123\",\"gracePeriodDays\":15,\"version\":4}",
+                        MediaType.APPLICATION_JSON));
+        server.expect(requestTo(POLICY_URL))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+                .andRespond(withSuccess("{\"id\":\"POLICY-123\",\"gracePeriodDays\":30,\"version\":5}",
+                        MediaType.APPLICATION_JSON));
+        server.expect(requestTo(POLICY_URL))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"5\""))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        client.getPolicy("POLICY-123");
+
+        assertEquals(30, client.getPolicy("POLICY-123").orElseThrow().getGracePeriodDays());
+        assertTrue(client.getPolicy("POLICY-123").isEmpty());
+        server.verify();
+    }
+
+    @Test
+    void shouldRevalidateKnownVersionsThroughBatchGetWhenBatching() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer batchServer = MockRestServiceServer.bindTo(restTemplate).build();
+        PolicyRestClient batchingClient = new PolicyRestClient(restTemplate);
+        ReflectionTestUtils.setField(batchingClient, "policyServiceUrl", "http://policy-service");
+        ReflectionTestUtils.setField(batchingClient, "batchGetMaxSize", 500);
+        ReflectionTestUtils.setField(batchingClient, "batchingEnabled", true);
+        ReflectionTestUtils.setField(batchingClient, "batchingWindow", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(batchingClient, "batchingMaxSize", 100);
+        ReflectionTestUtils.setField(batchingClient, "batchingDispatchThreads", 1);
+        ReflectionTestUtils.setField(batchingClient, "batchingTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(batchingClient, "conditionalMaximumSize", 100L);
+        ReflectionTestUtils.setField(batchingClient, "conditionalTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.invokeMethod(batchingClient, "startBatcher");
+        batchServer.expect(requestTo("http://policy-service/api/policies/batch-get"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("[{\"id\":\"POLICY-123\",\"gracePeriodDays\":15,\"version\":4}]",
+                        MediaType.APPLICATION_JSON));
+        batchServer.expect(requestTo("http://policy-service/api/policies/batch-get/changed"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().json("{\"POLICY-123\":4}"))
+                .andRespond(withSuccess("{\"changed\":[],\"missing\":[]}", MediaType.APPLICATION_JSON));
+        batchServer.expect(requestTo("http://policy-service/api/policies/batch-get/changed"))
+                .andExpect(content().json("{\"POLICY-123\":4}"))
+                .andRespond(withSuccess("{\"changed\":[],\"missing\":[\"POLICY-123\"]}",
+                        MediaType.APPLICATION_JSON));
+
+        try {
+            batchingClient.getPolicy("POLICY-123");
+            assertEquals(15, batchingClient.getPolicy("POLICY-123").orElseThrow().getGracePeriodDays());
+            assertTrue(batchingClient.getPolicy("POLICY-123").isEmpty());
+        } finally {
+            ReflectionTestUtils.invokeMethod(batchingClient, "stopBatcher");
+        }
+        batchServer.verify();
+    }
+
+    @Test
+    void shouldFetchInFullWhenBatchRevalidationFails() {
+        server.expect(requestTo("http://policy-service/api/policies/batch-get"))
+                .andRespond(withSuccess("[{\"id\":\"POLICY-123\",\"gracePeriodDays\":15,\"version\":4}]",
+                        MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://policy-service/api/policies/batch-get/changed"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+        server.expect(requestTo("http://policy-service/api/policies/batch-get"))
+                .andExpect(content().json("[\"POLICY-123\"]"))
+                .andRespond(withSuccess("[{\"id\":\"POLICY-123\",\"gracePeriodDays\":30,\"version\":5}]",
+                        MediaType.APPLICATION_JSON));
+
+        client.getPolicies(List.of("POLICY-123"));
+
+        assertEquals(30, client.getPolicies(List.of("POLICY-123")).get("POLICY-123").getGracePeriodDays());
+        server.verify();
+    }
+}
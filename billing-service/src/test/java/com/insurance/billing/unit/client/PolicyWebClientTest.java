@@ -0,0 +1,65 @@
+package com.insurance.billing.unit.client;
+
+import com.insurance.billing.client.PolicyWebClient;
+import com.insurance.shared.dto.PolicyDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolicyWebClientTest {
+
+    private static PolicyWebClient clientRespondingWith(HttpStatus status, String body, AtomicInteger calls) {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://policy-service")
+                .exchangeFunction((ClientRequest request) -> {
+                    calls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(status)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(body)
+                            .build());
+                })
+                .build();
+        return new PolicyWebClient(webClient, Duration.ofSeconds(1), 2);
+    }
+
+    @Test
+    void shouldGetPolicy() {
+        PolicyWebClient client = clientRespondingWith(HttpStatus.OK, "{\"id\":\"POLICY-123\"}", new AtomicInteger());
+
+        Optional<PolicyDto> result = client.getPolicy("POLICY-123");
+
+        assertTrue(result.isPresent());
+        assertEquals("POLICY-123", result.get().getId());
+    }
+
+    @Test
+    void shouldReturnEmptyWhenPolicyNotFound() {
+        PolicyWebClient client = clientRespondingWith(HttpStatus.NOT_FOUND, "", new AtomicInteger());
+
+        assertTrue(client.getPolicy("NONEXISTENT").isEmpty());
+    }
+
+    @Test
+    void shouldChunkBulkLookups() {
+        AtomicInteger calls = new AtomicInteger();
+        PolicyWebClient client = clientRespondingWith(HttpStatus.OK, "[{\"id\":\"POLICY-123\"}]", calls);
+
+        Map<String, PolicyDto> result = client.getPolicies(List.of("POLICY-123", "POLICY-456", "POLICY-789"));
+
+        assertEquals(2, calls.get());
+        assertTrue(result.containsKey("POLICY-123"));
+    }
+}
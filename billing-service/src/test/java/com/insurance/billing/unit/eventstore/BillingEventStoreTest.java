@@ -0,0 +1,103 @@
+package com.insurance.billing.unit.eventstore;
+
+import com.insurance.billing.entity.BillingEvent;
+import com.insurance.billing.entity.BillingEvent.EventType;
+import com.insurance.billing.eventstore.BillingEventStore;
+import com.insurance.billing.eventstore.codec.DictionarySmilePayloadCodec;
+import com.insurance.billing.eventstore.codec.JsonPayloadCodec;
+import com.insurance.billing.eventstore.codec.PayloadCodecs;
+import com.insurance.billing.eventstore.codec.SmilePayloadCodec;
+import com.insurance.billing.eventstore.TimeOrderedIds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BillingEventStoreTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private BillingEventStore store;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE billing_events (id VARCHAR(255) PRIMARY KEY, billing_id VARCHAR(255),"
+                + " policy_id VARCHAR(255), event_type VARCHAR(50), occurred_at TIMESTAMP, payload VARCHAR,"
+                + " metadata VARCHAR, payload_data BLOB, metadata_data BLOB)");
+        store = new BillingEventStore(new NamedParameterJdbcTemplate(database),
+                new TransactionTemplate(new DataSourceTransactionManager(database)), codecs(), 50, Duration.ofMillis(5), 1000);
+        store.start();
+    }
+
+    private static PayloadCodecs codecs() {
+        SmilePayloadCodec smile = new SmilePayloadCodec();
+        return new PayloadCodecs(List.of(new JsonPayloadCodec(), smile, new DictionarySmilePayloadCodec(smile)),
+                "smile-deflate");
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        store.stop();
+        database.shutdown();
+    }
+
+    private static BillingEvent event(String billingId) {
+        return BillingEvent.builder()
+                .billingId(billingId)
+                .policyId("POLICY-123")
+                .eventType(EventType.REMINDER_SENT)
+                .build();
+    }
+
+    @Test
+    void shouldGroupQueuedAppendsIntoBatches() throws Exception {
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            writes.add(store.append(event("BILL-" + i)));
+        }
+
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(120, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM billing_events", Integer.class));
+    }
+
+    @Test
+    void shouldAssignTimeOrderedIdsOnAppendAll() {
+        List<BillingEvent> events = List.of(event("BILL-1"), event("BILL-2"), event("BILL-3"));
+
+        store.appendAll(events);
+
+        List<String> ids = jdbcTemplate.queryForList("SELECT id FROM billing_events ORDER BY id", String.class);
+        assertEquals(events.stream().map(BillingEvent::getId).toList(), ids);
+        assertTrue(events.stream().allMatch(stored -> stored.getOccurredAt() != null));
+    }
+
+    @Test
+    void shouldGenerateIncreasingIds() {
+        String previous = TimeOrderedIds.next();
+        for (int i = 0; i < 10_000; i++) {
+            String next = TimeOrderedIds.next();
+            assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+            previous = next;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.insurance.billing.unit.eventstore;
+
+import com.insurance.billing.eventstore.EventPartitionManager;
+import com.insurance.billing.eventstore.EventPartitionManager.ArchiveTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class EventPartitionManagerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    @Test
+    void shouldCreateMissingFuturePartitions() {
+        EventPartitionManager manager = new EventPartitionManager(mock(JdbcTemplate.class), 2, 24, false);
+
+        List<String> plan = manager.plan(Set.of("p202610", "p_future"), TODAY);
+
+        assertEquals(2, plan.size());
+        assertTrue(plan.get(0).contains("PARTITION p202611 VALUES LESS THAN ('2026-12-01')"));
+        assertTrue(plan.get(1).contains("PARTITION p202612 VALUES LESS THAN ('2027-01-01')"));
+    }
+
+    @Test
+    void shouldArchiveThenDropExpiredPartitions() {
+        EventPartitionManager manager = new EventPartitionManager(mock(JdbcTemplate.class), 0, 12, true);
+
+        List<String> plan = manager.plan(Set.of("p202509", "p202510", "p202610", "p_history", "p_future"), TODAY);
+
+        assertEquals(List.of(
+                "CREATE TABLE IF NOT EXISTS billing_events_archive_p202509 LIKE billing_events",
+                "ALTER TABLE billing_events_archive_p202509 REMOVE PARTITIONING",
+                "ALTER TABLE billing_events EXCHANGE PARTITION p202509 WITH TABLE billing_events_archive_p202509",
+                "ALTER TABLE billing_events DROP PARTITION p202509"), plan);
+    }
+
+    @Test
+    void shouldResumeInterruptedArchiving() {
+        EventPartitionManager manager = new EventPartitionManager(mock(JdbcTemplate.class), 0, 12, true);
+        Set<String> existing = Set.of("p202508", "p202509", "p202510", "p202611", "p_future");
+
+        List<String> plan = manager.plan(existing, Map.of(
+                "billing_events_archive_p202508", new ArchiveTable(false, false),
+                "billing_events_archive_p202509", new ArchiveTable(false, true),
+                "billing_events_archive_p202510", new ArchiveTable(true, true)), TODAY.plusMonths(1));
+
+        assertEquals(List.of(
+                "ALTER TABLE billing_events DROP PARTITION p202508",
+                "ALTER TABLE billing_events EXCHANGE PARTITION p202509 WITH TABLE billing_events_archive_p202509",
+                "ALTER TABLE billing_events DROP PARTITION p202509",
+                "ALTER TABLE billing_events_archive_p202510 REMOVE PARTITIONING",
+                "ALTER TABLE billing_events EXCHANGE PARTITION p202510 WITH TABLE billing_events_archive_p202510",
+                "ALTER TABLE billing_events DROP PARTITION p202510"), plan);
+    }
+}
@@ -0,0 +1,109 @@
+package com.insurance.billing.unit.eventstore;
+
+import com.insurance.billing.eventstore.PayloadBackfillJob;
+import com.insurance.billing.eventstore.codec.DictionarySmilePayloadCodec;
+import com.insurance.billing.eventstore.codec.JsonPayloadCodec;
+import com.insurance.billing.eventstore.codec.PayloadCodecs;
+import com.insurance.billing.eventstore.codec.SmilePayloadCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadCodecsTest {
+
+    private static final String PAYLOAD = "{\"from\":\"PENDING\",\"to\":\"OVERDUE\",\"policyId\":\"POLICY-123\","
+            + "\"dueDate\":\"2026-10-01\",\"amount\":150.10}";
+
+    private static PayloadCodecs codecs(String writeCodec) {
+        SmilePayloadCodec smile = new SmilePayloadCodec();
+        return new PayloadCodecs(List.of(new JsonPayloadCodec(), smile, new DictionarySmilePayloadCodec(smile)),
+                writeCodec);
+    }
+
+    @Test
+    void shouldRoundTripThroughEveryCodec() {
+        for (String name : List.of("json", "smile", "smile-deflate")) {
+            PayloadCodecs codecs = codecs(name);
+
+            assertEquals(PAYLOAD, codecs.decode(codecs.encode(PAYLOAD)), name);
+        }
+    }
+
+    @Test
+    void shouldDecodeRowsWrittenWithAnotherCodec() {
+        byte[] written = codecs("smile-deflate").encode(PAYLOAD);
+
+        assertEquals(DictionarySmilePayloadCodec.FORMAT_ID, written[0]);
+        assertEquals(PAYLOAD, codecs("json").decode(written));
+    }
+
+    @Test
+    void shouldShrinkPayloadWithDictionary() {
+        int text = PAYLOAD.getBytes(StandardCharsets.UTF_8).length;
+        int smile = codecs("smile").encode(PAYLOAD).length;
+        int compressed = codecs("smile-deflate").encode(PAYLOAD).length;
+
+        assertTrue(smile < text, "smile " + smile + " vs text " + text);
+        assertTrue(compressed < smile, "smile-deflate " + compressed + " vs smile " + smile);
+    }
+
+    @Test
+    void shouldStoreNonJsonPayloadAsText() {
+        PayloadCodecs codecs = codecs("smile-deflate");
+
+        byte[] written = codecs.encode("manual adjustment by billing ops");
+
+        assertEquals(JsonPayloadCodec.FORMAT_ID, written[0]);
+        assertEquals("manual adjustment by billing ops", codecs.decode(written));
+        assertNull(codecs.encode(null));
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> codecs("json").decode(new byte[]{42, 1, 2}));
+        assertThrows(IllegalStateException.class, () -> codecs("lz4"));
+    }
+
+    @Test
+    void shouldBackfillLegacyTextRows() {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+            jdbcTemplate.execute("CREATE TABLE billing_events (id VARCHAR(255) PRIMARY KEY, occurred_at TIMESTAMP,"
+                    + " payload VARCHAR, metadata VARCHAR, payload_data BLOB, metadata_data BLOB)");
+            for (int i = 0; i < 5; i++) {
+                jdbcTemplate.update("INSERT INTO billing_events (id, occurred_at, payload, metadata)"
+                        + " VALUES (?, CURRENT_TIMESTAMP, ?, NULL)", "E" + i, PAYLOAD);
+            }
+            PayloadCodecs codecs = codecs("smile-deflate");
+            PayloadBackfillJob job = new PayloadBackfillJob(new NamedParameterJdbcTemplate(database),
+                    new TransactionTemplate(new DataSourceTransactionManager(database)), codecs, 2, 10);
+
+            assertEquals(2, job.backfillChunk());
+            job.run();
+
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM billing_events WHERE payload IS NOT NULL", Integer.class));
+            List<byte[]> encoded = jdbcTemplate.query("SELECT payload_data FROM billing_events",
+                    (rs, rowNum) -> rs.getBytes("payload_data"));
+            assertEquals(5, encoded.size());
+            encoded.forEach(data -> assertEquals(PAYLOAD, codecs.decode(data)));
+            assertEquals(-1, job.backfillChunk());
+        } finally {
+            database.shutdown();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.insurance.billing.unit.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.billing.eventstore.BillingEventStore;
+import com.insurance.billing.eventstore.codec.DictionarySmilePayloadCodec;
+import com.insurance.billing.eventstore.codec.JsonPayloadCodec;
+import com.insurance.billing.eventstore.codec.PayloadCodecs;
+import com.insurance.billing.eventstore.codec.SmilePayloadCodec;
+import com.insurance.billing.job.DelinquencySweeper;
+import com.insurance.billing.job.DelinquencyTransition;
+import com.insurance.billing.repository.BillingStateJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DelinquencySweeperTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 15);
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private DelinquencySweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE billings (id VARCHAR(255) PRIMARY KEY, policy_id VARCHAR(255),"
+                + " customer_id VARCHAR(255), due_date DATE, status VARCHAR(50), grace_period_end DATE,"
+                + " last_swept_on DATE, updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE billing_events (id VARCHAR(255) PRIMARY KEY, billing_id VARCHAR(255),"
+                + " policy_id VARCHAR(255), event_type VARCHAR(50), occurred_at TIMESTAMP, payload VARCHAR,"
+                + " metadata VARCHAR, payload_data BLOB, metadata_data BLOB)");
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(database);
+        BillingEventStore eventStore = new BillingEventStore(namedJdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(database)), codecs(), 100, Duration.ofMillis(5), 1000);
+        sweeper = new DelinquencySweeper(
+                new BillingStateJdbcRepository(namedJdbcTemplate, eventStore, new ObjectMapper()), event -> { }, 2, 10);
+    }
+
+    private static PayloadCodecs codecs() {
+        SmilePayloadCodec smile = new SmilePayloadCodec();
+        return new PayloadCodecs(List.of(new JsonPayloadCodec(), smile, new DictionarySmilePayloadCodec(smile)),
+                "smile-deflate");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    private void insertBilling(String id, String status, LocalDate dueDate, LocalDate gracePeriodEnd) {
+        jdbcTemplate.update("INSERT INTO billings (id, policy_id, customer_id, due_date, status, grace_period_end)"
+                        + " VALUES (?, ?, 'CUST-001', ?, ?, ?)",
+                id, "POLICY-" + id, Date.valueOf(dueDate), status,
+                gracePeriodEnd != null ? Date.valueOf(gracePeriodEnd) : null);
+    }
+
+    private String statusOf(String id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM billings WHERE id = ?", String.class, id);
+    }
+
+    @Test
+    void shouldMoveOverdueBillingIntoGracePeriodOnTheNextSweep() {
+        insertBilling("B1", "PENDING", TODAY.minusDays(3), null);
+
+        sweeper.sweep(TODAY);
+        assertEquals("OVERDUE", statusOf("B1"));
+
+        sweeper.sweep(TODAY.plusDays(1));
+        assertEquals("GRACE_PERIOD", statusOf("B1"));
+        assertEquals(TODAY.plusDays(7), jdbcTemplate.queryForObject(
+                "SELECT grace_period_end FROM billings WHERE id = 'B1'", Date.class).toLocalDate());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM billing_events WHERE billing_id = 'B1'", Integer.class));
+    }
+
+    @Test
+    void shouldMarkBillingDelinquentWhenGracePeriodExpired() {
+        insertBilling("B1", "GRACE_PERIOD", TODAY.minusDays(20), TODAY.minusDays(1));
+        insertBilling("B2", "PENDING", TODAY.minusDays(30), null);
+
+        sweeper.sweep(TODAY);
+        assertEquals("DELINQUENT", statusOf("B1"));
+        assertEquals("OVERDUE", statusOf("B2"));
+
+        sweeper.sweep(TODAY.plusDays(1));
+        assertEquals("DELINQUENT", statusOf("B2"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM billing_events WHERE event_type = 'DELINQUENT' AND billing_id = 'B2'",
+                Integer.class));
+    }
+
+    @Test
+    void shouldAdvanceOverdueBillingsWithoutGracePeriodEnd() {
+        insertBilling("B1", "OVERDUE", TODAY.minusDays(3), null);
+        insertBilling("B2", "OVERDUE", TODAY.minusDays(30), null);
+
+        sweeper.sweep(TODAY);
+
+        assertEquals("GRACE_PERIOD", statusOf("B1"));
+        assertEquals("DELINQUENT", statusOf("B2"));
+        assertEquals(TODAY.minusDays(20), jdbcTemplate.queryForObject(
+                "SELECT grace_period_end FROM billings WHERE id = 'B2'", Date.class).toLocalDate());
+        assertEquals("{\"from\":\"OVERDUE,GRACE_PERIOD\",\"to\":\"DELINQUENT\"}", codecs().decode(jdbcTemplate.queryForObject(
+                "SELECT payload_data FROM billing_events WHERE billing_id = 'B2'", byte[].class)));
+    }
+
+    @Test
+    void shouldProcessAllChunksAndLeaveCurrentBillingsAlone() {
+        for (int i = 0; i < 5; i++) {
+            insertBilling("OVERDUE-" + i, "PENDING", TODAY.minusDays(40), null);
+        }
+        insertBilling("CURRENT", "PENDING", TODAY.plusDays(5), null);
+        insertBilling("PAID", "PAID", TODAY.minusDays(40), null);
+
+        Map<DelinquencyTransition, Integer> moved = sweeper.sweep(TODAY);
+        Map<DelinquencyTransition, Integer> nextDay = sweeper.sweep(TODAY.plusDays(1));
+
+        assertEquals(5, moved.get(DelinquencyTransition.TO_OVERDUE));
+        assertEquals(0, moved.get(DelinquencyTransition.TO_DELINQUENT));
+        assertEquals(5, nextDay.get(DelinquencyTransition.TO_DELINQUENT));
+        assertEquals("PENDING", statusOf("CURRENT"));
+        assertEquals("PAID", statusOf("PAID"));
+    }
+
+    @Test
+    void shouldBeIdempotentForTheSameDay() {
+        insertBilling("B1", "PENDING", TODAY.minusDays(3), null);
+
+        sweeper.sweep(TODAY);
+        Map<DelinquencyTransition, Integer> secondRun = sweeper.sweep(TODAY);
+
+        assertEquals("OVERDUE", statusOf("B1"));
+        assertTrue(secondRun.values().stream().allMatch(count -> count == 0));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM billing_events", Integer.class));
+    }
+}
@@ -0,0 +1,152 @@
+package com.insurance.billing.unit.job;
+
+import com.insurance.billing.client.PaymentServiceClient;
+import com.insurance.billing.client.PaymentServiceClient.RetryResult;
+import com.insurance.billing.entity.PaymentRetry.RetryStatus;
+import com.insurance.billing.job.PaymentRetryDispatcher;
+import com.insurance.billing.repository.PaymentRetryClaimRepository;
+import com.insurance.billing.repository.PaymentRetryClaimRepository.ClaimedRetry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PaymentRetryDispatcherTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private PaymentRetryClaimRepository claimRepository;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE payment_retries (id VARCHAR(255) PRIMARY KEY, payment_id VARCHAR(255),"
+                + " billing_id VARCHAR(255), retry_attempt INT, scheduled_at TIMESTAMP, attempted_at TIMESTAMP,"
+                + " status VARCHAR(50), failure_reason VARCHAR(255), created_at TIMESTAMP, updated_at TIMESTAMP,"
+                + " lease_owner VARCHAR(100), lease_expires_at TIMESTAMP)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+        claimRepository = new PaymentRetryClaimRepository(new NamedParameterJdbcTemplate(database));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    private void insertRetry(String id, String paymentId, int attempt, LocalDateTime scheduledAt) {
+        jdbcTemplate.update("INSERT INTO payment_retries (id, payment_id, billing_id, retry_attempt, scheduled_at, status)"
+                + " VALUES (?, ?, 'BILL-1', ?, ?, 'SCHEDULED')", id, paymentId, attempt, Timestamp.valueOf(scheduledAt));
+    }
+
+    private String statusOf(String id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM payment_retries WHERE id = ?", String.class, id);
+    }
+
+    @Test
+    void shouldSkipRetriesLockedByAnotherNode() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            insertRetry("R" + i, "PAY-" + i, 1, NOW.minusMinutes(10 - i));
+        }
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Another node is mid-claim and holds row locks on the two oldest retries
+        CompletableFuture<Void> otherNode = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.queryForList("SELECT id FROM payment_retries WHERE id IN ('R0', 'R1') FOR UPDATE");
+                    locked.countDown();
+                    awaitQuietly(release);
+                }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+        List<ClaimedRetry> claimed = transactionTemplate.execute(status ->
+                claimRepository.claim("node-b", NOW, Duration.ofMinutes(5), 10));
+        release.countDown();
+        otherNode.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("R2", "R3", "R4"), claimed.stream().map(ClaimedRetry::id).toList());
+        assertEquals(List.of("R0", "R1"), claimRepository.claim("node-a", NOW, Duration.ofMinutes(5), 10).stream()
+                .map(ClaimedRetry::id).toList());
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payment_retries WHERE status = 'IN_PROGRESS' AND lease_owner = 'node-b'",
+                Integer.class));
+    }
+
+    @Test
+    void shouldRecordOutcomesAndScheduleNextAttempt() throws Exception {
+        insertRetry("R-OK", "PAY-OK", 1, NOW.minusMinutes(1));
+        insertRetry("R-FAIL", "PAY-FAIL", 1, NOW.minusMinutes(1));
+        insertRetry("R-LAST", "PAY-LAST", 3, NOW.minusMinutes(1));
+        insertRetry("R-LATER", "PAY-LATER", 1, NOW.plusHours(1));
+        PaymentServiceClient paymentServiceClient = mock(PaymentServiceClient.class);
+        when(paymentServiceClient.retryPayment(eq("PAY-OK"), anyString())).thenReturn(new RetryResult(true, "ok"));
+        when(paymentServiceClient.retryPayment(eq("PAY-FAIL"), anyString()))
+                .thenReturn(new RetryResult(false, "Card declined"));
+        when(paymentServiceClient.retryPayment(eq("PAY-LAST"), anyString()))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+        PaymentRetryDispatcher dispatcher = new PaymentRetryDispatcher(claimRepository, paymentServiceClient,
+                "node-a", 4, 10, Duration.ofMinutes(5), Duration.ofMinutes(1), 3, Duration.ofHours(6));
+
+        assertEquals(3, dispatcher.dispatch(NOW));
+        dispatcher.shutdown();
+
+        assertEquals("SUCCESS", statusOf("R-OK"));
+        assertEquals("FAILED", statusOf("R-FAIL"));
+        assertEquals("EXHAUSTED", statusOf("R-LAST"));
+        assertEquals("SCHEDULED", statusOf("R-LATER"));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT retry_attempt FROM payment_retries WHERE payment_id = 'PAY-FAIL' AND status = 'SCHEDULED'",
+                Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payment_retries WHERE lease_owner IS NOT NULL", Integer.class));
+        verify(paymentServiceClient).retryPayment("PAY-OK", "R-OK");
+    }
+
+    @Test
+    void shouldReleaseExpiredLeaseAndFenceOutStaleOwner() {
+        insertRetry("R1", "PAY-1", 1, NOW.minusHours(1));
+        ClaimedRetry stale = claimRepository.claim("node-a", NOW.minusMinutes(10), Duration.ofMinutes(5), 10).get(0);
+
+        assertEquals(1, claimRepository.releaseExpiredLeases(NOW));
+        List<ClaimedRetry> reclaimed = claimRepository.claim("node-b", NOW, Duration.ofMinutes(5), 10);
+
+        assertEquals(List.of("R1"), reclaimed.stream().map(ClaimedRetry::id).toList());
+        assertFalse(claimRepository.complete(stale, "node-a", RetryStatus.SUCCESS, null, null, null));
+        assertTrue(claimRepository.complete(reclaimed.get(0), "node-b", RetryStatus.SUCCESS, null, null, null));
+        assertEquals("SUCCESS", statusOf("R1"));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.insurance.billing.unit.projection;
+
+import com.insurance.billing.entity.DelinquencyRecord;
+import com.insurance.billing.event.PaymentAppliedEvent;
+import com.insurance.billing.projection.DelinquencyProjector;
+import com.insurance.billing.repository.BillingRepository;
+import com.insurance.billing.repository.BillingRepository.OutstandingSummary;
+import com.insurance.billing.repository.DelinquencyRecordRepository;
+import com.insurance.shared.enums.BillingStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class DelinquencyProjectorTest {
+
+    @Mock
+    private BillingRepository billingRepository;
+
+    @Mock
+    private DelinquencyRecordRepository delinquencyRecordRepository;
+
+    private DelinquencyProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        projector = new DelinquencyProjector(billingRepository, delinquencyRecordRepository,
+                mock(PlatformTransactionManager.class), false);
+    }
+
+    private static OutstandingSummary summary(BillingStatus status, String amount, LocalDate dueDate, LocalDate graceEnd) {
+        OutstandingSummary summary = mock(OutstandingSummary.class);
+        when(summary.getPolicyId()).thenReturn("POLICY-123");
+        when(summary.getCustomerId()).thenReturn("CUST-001");
+        when(summary.getStatus()).thenReturn(status);
+        when(summary.getAmount()).thenReturn(new BigDecimal(amount));
+        when(summary.getOldestDueDate()).thenReturn(dueDate);
+        when(summary.getGracePeriodEnd()).thenReturn(graceEnd);
+        return summary;
+    }
+
+    @Test
+    void shouldRebuildEachChunkInItsOwnTransaction() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        projector = new DelinquencyProjector(billingRepository, delinquencyRecordRepository, transactionManager, false);
+        List<String> policyIds = IntStream.range(0, 501).mapToObj(i -> "POLICY-" + i).toList();
+        when(billingRepository.findPolicyIdsWithStatusIn(any())).thenReturn(policyIds);
+
+        projector.rebuild();
+
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private DelinquencyRecord savedRecord() {
+        ArgumentCaptor<Collection<DelinquencyRecord>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(delinquencyRecordRepository).saveAll(captor.capture());
+        return captor.getValue().iterator().next();
+    }
+
+    @Test
+    void shouldAggregateOutstandingBillingsPerPolicy() {
+        LocalDate oldest = LocalDate.of(2024, 5, 1);
+        List<OutstandingSummary> summaries = List.of(
+                summary(BillingStatus.DELINQUENT, "150.00", oldest, oldest.plusDays(10)),
+                summary(BillingStatus.OVERDUE, "21.00", oldest.plusMonths(1), oldest.plusMonths(1).plusDays(10)));
+        when(billingRepository.summarizeOutstanding(anyCollection(), anyCollection())).thenReturn(summaries);
+        when(delinquencyRecordRepository.findByPolicyIdIn(anyCollection())).thenReturn(List.of());
+
+        projector.refresh(Set.of("POLICY-123"));
+
+        DelinquencyRecord record = savedRecord();
+        assertEquals(BillingStatus.DELINQUENT, record.getStatus());
+        assertEquals(new BigDecimal("171.00"), record.getAmountOverdue());
+        assertEquals(oldest, record.getOldestDueDate());
+        assertEquals(oldest.plusDays(10), record.getGracePeriodExpiry());
+    }
+
+    @Test
+    void shouldZeroOutPolicyWithNothingOutstanding() {
+        DelinquencyRecord existing = DelinquencyRecord.builder()
+                .policyId("POLICY-123")
+                .status(BillingStatus.OVERDUE)
+                .amountOverdue(new BigDecimal("89.00"))
+                .lastPaymentDate(LocalDate.of(2024, 4, 1))
+                .build();
+        when(billingRepository.summarizeOutstanding(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(delinquencyRecordRepository.findByPolicyIdIn(anyCollection())).thenReturn(List.of(existing));
+
+        projector.refresh(Set.of("POLICY-123"));
+
+        DelinquencyRecord record = savedRecord();
+        assertEquals(BigDecimal.ZERO, record.getAmountOverdue());
+        assertNull(record.getStatus());
+        assertEquals(LocalDate.of(2024, 4, 1), record.getLastPaymentDate());
+    }
+
+    @Test
+    void shouldRecordLatestPaymentDate() {
+        DelinquencyRecord existing = DelinquencyRecord.builder()
+                .policyId("POLICY-123")
+                .amountOverdue(BigDecimal.ZERO)
+                .lastPaymentDate(LocalDate.of(2024, 6, 1))
+                .build();
+        when(delinquencyRecordRepository.findById("POLICY-123")).thenReturn(Optional.of(existing));
+        when(billingRepository.summarizeOutstanding(anyCollection(), anyCollection())).thenReturn(List.of());
+
+        projector.onPaymentApplied(new PaymentAppliedEvent("POLICY-123", "BILL-1", new BigDecimal("10.00"),
+                LocalDate.of(2024, 5, 1)));
+        projector.onPaymentApplied(new PaymentAppliedEvent("POLICY-123", "BILL-2", new BigDecimal("10.00"),
+                LocalDate.of(2024, 6, 10)));
+
+        assertEquals(LocalDate.of(2024, 6, 10), existing.getLastPaymentDate());
+        verify(delinquencyRecordRepository, times(2)).save(any(DelinquencyRecord.class));
+    }
+}
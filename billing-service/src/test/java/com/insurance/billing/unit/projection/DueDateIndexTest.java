@@ -0,0 +1,98 @@
+package com.insurance.billing.unit.projection;
+
+import com.insurance.billing.projection.DueDateIndex;
+import com.insurance.billing.projection.DueDateIndex.RangeSummary;
+import com.insurance.shared.enums.BillingStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DueDateIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    private EmbeddedDatabase database;
+    private DueDateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        new JdbcTemplate(database).execute("CREATE TABLE billings (id VARCHAR(255) PRIMARY KEY,"
+                + " amount DECIMAL(10, 2), due_date DATE, status VARCHAR(50))");
+        index = new DueDateIndex(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void shouldSumBucketsInRange() {
+        index.update("B1", TODAY, new BigDecimal("100.00"), BillingStatus.PENDING);
+        index.update("B2", TODAY, new BigDecimal("50.00"), BillingStatus.PENDING);
+        index.update("B3", TODAY.plusDays(7), new BigDecimal("25.00"), BillingStatus.PENDING);
+        index.update("B4", TODAY.plusDays(8), new BigDecimal("10.00"), BillingStatus.PENDING);
+
+        RangeSummary summary = index.summarize(TODAY, TODAY.plusDays(7));
+
+        assertEquals(3, summary.count());
+        assertEquals(new BigDecimal("175.00"), summary.total());
+        assertEquals(2, summary.buckets().size());
+        assertEquals(new BigDecimal("150.00"), summary.buckets().get(0).total());
+    }
+
+    @Test
+    void shouldMoveBillingBetweenBucketsAndDropPaidOnes() {
+        index.update("B1", TODAY, new BigDecimal("100.00"), BillingStatus.PENDING);
+        index.update("B2", TODAY, new BigDecimal("40.00"), BillingStatus.PENDING);
+
+        index.update("B1", TODAY.plusDays(3), new BigDecimal("120.00"), BillingStatus.PENDING);
+        index.update("B2", TODAY, new BigDecimal("40.00"), BillingStatus.PAID);
+
+        assertEquals(0, index.summarize(TODAY, TODAY).count());
+        RangeSummary moved = index.summarize(TODAY.plusDays(3), TODAY.plusDays(3));
+        assertEquals(1, moved.count());
+        assertEquals(new BigDecimal("120.00"), moved.total());
+    }
+
+    @Test
+    void shouldSummarizePastDueBillings() {
+        index.update("B1", TODAY.minusDays(10), new BigDecimal("30.00"), BillingStatus.OVERDUE);
+        index.update("B2", TODAY, new BigDecimal("70.00"), BillingStatus.PENDING);
+
+        RangeSummary pastDue = index.summarizeBefore(TODAY);
+
+        assertEquals(1, pastDue.count());
+        assertEquals(new BigDecimal("30.00"), pastDue.total());
+    }
+
+    @Test
+    void shouldRebuildFromOpenBillings() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.update("INSERT INTO billings VALUES ('B1', 100.00, ?, 'PENDING')", Date.valueOf(TODAY));
+        jdbcTemplate.update("INSERT INTO billings VALUES ('B2', 60.00, ?, 'PAID')", Date.valueOf(TODAY));
+        jdbcTemplate.update("INSERT INTO billings VALUES ('B3', 20.00, ?, 'OVERDUE')", Date.valueOf(TODAY.minusDays(5)));
+        index.update("STALE", TODAY, new BigDecimal("999.00"), BillingStatus.PENDING);
+
+        index.rebuild();
+
+        RangeSummary today = index.summarize(TODAY, TODAY);
+        assertEquals(1, today.count());
+        assertEquals(new BigDecimal("100.00"), today.total());
+        assertEquals(new BigDecimal("20.00"), index.summarizeBefore(TODAY).total());
+    }
+}
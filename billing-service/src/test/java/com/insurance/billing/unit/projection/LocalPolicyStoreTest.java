@@ -0,0 +1,129 @@
+package com.insurance.billing.unit.projection;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.insurance.billing.client.LocalPolicyClient;
+import com.insurance.billing.projection.LocalPolicyStore;
+import com.insurance.billing.projection.LocalPolicyStore.Change;
+import com.insurance.shared.client.PolicyClient;
+import com.insurance.shared.dto.PolicyDto;
+import com.insurance.shared.enums.PaymentFrequency;
+import com.insurance.shared.events.PolicyChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LocalPolicyStoreTest {
+
+    private static final String TOPIC = "policy-events";
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private LocalPolicyStore store;
+
+    private LocalPolicyStore open() {
+        return open(Duration.ofDays(1));
+    }
+
+    private LocalPolicyStore open(Duration maxAge) {
+        store = new LocalPolicyStore(objectMapper, new SimpleMeterRegistry(), true,
+                directory.resolve("policies.mv.db"), true, 4, maxAge);
+        return store;
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private static Change upsert(int partition, long offset, String policyId, long version) {
+        PolicyDto policy = PolicyDto.builder()
+                .id(policyId)
+                .policyType("AUTO")
+                .frequency(PaymentFrequency.MONTHLY)
+                .nextDueDate(LocalDate.of(2024, 7, 1))
+                .gracePeriodDays(15)
+                .version(version)
+                .build();
+        return new Change(TOPIC, partition, offset, policyId,
+                PolicyChangeEvent.of(policyId, PolicyChangeEvent.ChangeType.UPDATED, policy));
+    }
+
+    @Test
+    void shouldKeepPoliciesAndOffsetsAcrossRestart() {
+        open().apply(List.of(upsert(0, 10, "POLICY-001", 1), upsert(1, 4, "POLICY-002", 1)));
+        store.close();
+
+        LocalPolicyStore reopened = open();
+
+        assertEquals(15, reopened.get("POLICY-001").orElseThrow().getGracePeriodDays());
+        assertEquals(LocalDate.of(2024, 7, 1), reopened.get("POLICY-002").orElseThrow().getNextDueDate());
+        assertEquals(11L, reopened.nextOffset(TOPIC, 0));
+        assertEquals(5L, reopened.nextOffset(TOPIC, 1));
+        assertNull(reopened.nextOffset(TOPIC, 2));
+    }
+
+    @Test
+    void shouldRemovePolicyOnDeleteOrTombstone() {
+        open().apply(List.of(upsert(0, 0, "POLICY-001", 1), upsert(0, 1, "POLICY-002", 1),
+                new Change(TOPIC, 0, 2, "POLICY-001",
+                        PolicyChangeEvent.of("POLICY-001", PolicyChangeEvent.ChangeType.DELETED, null)),
+                new Change(TOPIC, 0, 3, "POLICY-002", null)));
+
+        assertEquals(0, store.size());
+        assertEquals(4L, store.nextOffset(TOPIC, 0));
+    }
+
+    @Test
+    void shouldNotRollBackToOlderVersion() {
+        open().apply(List.of(upsert(0, 0, "POLICY-001", 3), upsert(0, 1, "POLICY-001", 2)));
+
+        assertEquals(3L, store.get("POLICY-001").orElseThrow().getVersion());
+        assertEquals(2L, store.nextOffset(TOPIC, 0));
+    }
+
+    @Test
+    void shouldAskPolicyServiceOnlyForPoliciesNotHeld() {
+        open().apply(List.of(upsert(0, 0, "POLICY-001", 1)));
+        PolicyClient remote = mock(PolicyClient.class);
+        when(remote.getPolicies(List.of("POLICY-NEW")))
+                .thenReturn(Map.of("POLICY-NEW", PolicyDto.builder().id("POLICY-NEW").build()));
+        when(remote.getPolicy("POLICY-GONE")).thenReturn(Optional.empty());
+        LocalPolicyClient client = new LocalPolicyClient(store, remote);
+
+        assertEquals(2, client.getPolicies(List.of("POLICY-001", "POLICY-NEW")).size());
+        assertTrue(client.getPolicy("POLICY-001").isPresent());
+        assertTrue(client.getPolicy("POLICY-GONE").isEmpty());
+        verify(remote, never()).getPolicy("POLICY-001");
+    }
+
+    @Test
+    void shouldRereadPoliciesHeldPastMaximumAge() {
+        open(Duration.ZERO).apply(List.of(upsert(0, 0, "POLICY-001", 1), upsert(0, 1, "POLICY-GONE", 1)));
+        PolicyClient remote = mock(PolicyClient.class);
+        when(remote.getPolicy("POLICY-001"))
+                .thenReturn(Optional.of(PolicyDto.builder().id("POLICY-001").gracePeriodDays(30).version(2L).build()));
+        when(remote.getPolicy("POLICY-GONE")).thenReturn(Optional.empty());
+        LocalPolicyClient client = new LocalPolicyClient(store, remote);
+
+        assertFalse(store.contains("POLICY-001"));
+        assertEquals(30, client.getPolicy("POLICY-001").orElseThrow().getGracePeriodDays());
+        assertTrue(client.getPolicy("POLICY-GONE").isEmpty());
+
+        assertEquals(1, store.size());
+        assertEquals(2L, store.nextOffset(TOPIC, 0));
+    }
+}
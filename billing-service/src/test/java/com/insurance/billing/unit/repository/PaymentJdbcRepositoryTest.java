@@ -0,0 +1,74 @@
+package com.insurance.billing.unit.repository;
+
+import com.insurance.billing.entity.Payment;
+import com.insurance.billing.repository.PaymentJdbcRepository;
+import com.insurance.shared.enums.PaymentMethod;
+import com.insurance.shared.enums.PaymentStatus;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentJdbcRepositoryTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private PaymentJdbcRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        // The dev schema, as the dev profile migrates it
+        Flyway.configure().dataSource(database).locations("classpath:db/migration/dev").load().migrate();
+        jdbcTemplate = new JdbcTemplate(database);
+        repository = new PaymentJdbcRepository(new NamedParameterJdbcTemplate(database));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    private static Payment payment(String id, PaymentStatus status) {
+        return Payment.builder()
+                .id(id)
+                .billingId("BILL-001")
+                .policyId("POLICY-001")
+                .customerId("CUST-001")
+                .amount(new BigDecimal("100.00"))
+                .status(status)
+                .method(PaymentMethod.CREDIT_CARD)
+                .attemptedAt(LocalDateTime.of(2024, 6, 1, 9, 0))
+                .build();
+    }
+
+    @Test
+    void shouldStoreAcceptedPaymentsAndTheirOutcomes() {
+        Payment accepted = payment("PAY-001", PaymentStatus.PENDING);
+        repository.insertAll(List.of(accepted, payment("PAY-002", PaymentStatus.PENDING)));
+
+        accepted.setStatus(PaymentStatus.SUCCESS);
+        accepted.setTransactionId("TXN-001");
+        accepted.setProcessedAt(LocalDateTime.of(2024, 6, 1, 9, 1));
+        repository.recordOutcomes(List.of(accepted));
+
+        assertEquals(List.of("SUCCESS", "PENDING"), jdbcTemplate.queryForList(
+                "SELECT status FROM payments ORDER BY id", String.class));
+        assertEquals(List.of("PAY-002"), repository.findPending(List.of("BILL-001")).stream()
+                .map(Payment::getId).toList());
+    }
+}
@@ -0,0 +1,89 @@
+package com.insurance.billing.unit.service;
+
+import com.insurance.billing.mapper.BillingMapperImpl;
+import com.insurance.billing.projection.DueDateIndex;
+import com.insurance.billing.repository.BillingRepository;
+import com.insurance.billing.repository.BillingRepository.BillingView;
+import com.insurance.billing.repository.DelinquencyRecordRepository;
+import com.insurance.billing.repository.PaymentRepository;
+import com.insurance.billing.repository.PaymentRetryRepository;
+import com.insurance.billing.service.BillingCursor;
+import com.insurance.billing.service.BillingServiceImpl;
+import com.insurance.billing.service.GracePeriodService;
+import com.insurance.billing.service.PaymentEventApplier;
+import com.insurance.billing.service.PaymentSubmissionService;
+import com.insurance.shared.client.PolicyClient;
+import com.insurance.shared.dto.BillingDto;
+import com.insurance.shared.dto.CursorPage;
+import com.insurance.shared.enums.BillingStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BillingPaginationTest {
+
+    private static final LocalDate DUE = LocalDate.of(2026, 10, 1);
+
+    private BillingRepository billingRepository;
+    private BillingServiceImpl billingService;
+
+    @BeforeEach
+    void setUp() {
+        billingRepository = mock(BillingRepository.class);
+        billingService = new BillingServiceImpl(billingRepository, mock(GracePeriodService.class),
+                mock(PolicyClient.class), new BillingMapperImpl(), mock(PaymentRepository.class),
+                mock(PaymentRetryRepository.class), mock(DelinquencyRecordRepository.class), mock(DueDateIndex.class),
+                mock(PaymentEventApplier.class), mock(PaymentSubmissionService.class));
+    }
+
+    private static BillingView view(String id, LocalDate dueDate) {
+        BillingView view = mock(BillingView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getCustomerId()).thenReturn("CUST-1");
+        when(view.getDueDate()).thenReturn(dueDate);
+        when(view.getAmount()).thenReturn(new BigDecimal("100.00"));
+        when(view.getStatus()).thenReturn(BillingStatus.PENDING);
+        return view;
+    }
+
+    @Test
+    void shouldReturnCursorWhenMoreRowsFollow() {
+        List<BillingView> rows = List.of(view("B3", DUE), view("B2", DUE), view("B1", DUE.minusMonths(1)));
+        when(billingRepository.findViewsByCustomerId("CUST-1", Limit.of(3))).thenReturn(rows);
+
+        CursorPage<BillingDto> page = billingService.getBillingsByCustomer("CUST-1", null, 2);
+
+        assertEquals(List.of("B3", "B2"), page.getItems().stream().map(BillingDto::getId).toList());
+        assertTrue(page.isHasMore());
+        assertEquals(new BillingCursor(DUE, "B2"), BillingCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void shouldSeekPastCursorOnFollowingPage() {
+        String cursor = new BillingCursor(DUE, "B2").encode();
+        List<BillingView> rows = List.of(view("B1", DUE.minusMonths(1)));
+        when(billingRepository.findViewsByCustomerIdAfter("CUST-1", DUE, "B2", Limit.of(3))).thenReturn(rows);
+
+        CursorPage<BillingDto> page = billingService.getBillingsByCustomer("CUST-1", cursor, 2);
+
+        assertEquals(List.of("B1"), page.getItems().stream().map(BillingDto::getId).toList());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> billingService.getBillingsByPolicy("POLICY-1", "not-a-cursor!", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> billingService.getBillingsByPolicy("POLICY-1", "bm8tc2VwYXJhdG9y", 10));
+        verifyNoInteractions(billingRepository);
+    }
+}
@@ -0,0 +1,73 @@
+package com.insurance.billing.unit.service;
+
+import com.insurance.billing.config.HibernateCacheConfig;
+import com.insurance.billing.entity.GracePeriodConfig;
+import com.insurance.billing.mapper.GracePeriodConfigMapper;
+import com.insurance.billing.repository.GracePeriodConfigRepository;
+import com.insurance.billing.service.GracePeriodService;
+import com.insurance.shared.dto.GracePeriodConfigDto;
+import com.insurance.shared.enums.PaymentFrequency;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GracePeriodServiceTest {
+
+    private GracePeriodConfigRepository repository;
+    private GracePeriodConfigMapper mapper;
+    private Cache cache;
+    private GracePeriodService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(GracePeriodConfigRepository.class);
+        mapper = mock(GracePeriodConfigMapper.class);
+        cache = mock(Cache.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(Cache.class)).thenReturn(cache);
+        service = new GracePeriodService(repository, mapper, entityManagerFactory);
+    }
+
+    @Test
+    void shouldFallBackToDefaultPolicyType() {
+        GracePeriodConfig fallback = GracePeriodConfig.builder().id("DEFAULT-MONTHLY").gracePeriodDays(15).build();
+        when(repository.findByPolicyTypeAndPaymentFrequency("AUTO", PaymentFrequency.MONTHLY)).thenReturn(Optional.empty());
+        when(repository.findByPolicyTypeAndPaymentFrequency("DEFAULT", PaymentFrequency.MONTHLY))
+                .thenReturn(Optional.of(fallback));
+
+        assertEquals(15, service.getGracePeriodDays("AUTO", PaymentFrequency.MONTHLY));
+    }
+
+    @Test
+    void shouldEvictEntityAndLookupQueriesOnUpdate() {
+        GracePeriodConfig config = GracePeriodConfig.builder().id("AUTO-MONTHLY").gracePeriodDays(10).build();
+        GracePeriodConfigDto dto = GracePeriodConfigDto.builder().id("AUTO-MONTHLY").gracePeriodDays(20).build();
+        when(repository.findById("AUTO-MONTHLY")).thenReturn(Optional.of(config));
+        when(repository.save(config)).thenReturn(config);
+        when(mapper.toDto(config)).thenReturn(dto);
+
+        Optional<GracePeriodConfigDto> updated = service.updateGracePeriodDays("AUTO-MONTHLY", 20);
+
+        assertEquals(Optional.of(dto), updated);
+        assertEquals(20, config.getGracePeriodDays());
+        verify(cache).evictEntityData(GracePeriodConfig.class, "AUTO-MONTHLY");
+        verify(cache).evictQueryRegion(HibernateCacheConfig.GRACE_PERIOD_QUERY_REGION);
+    }
+
+    @Test
+    void shouldNotTouchCacheWhenConfigIsMissing() {
+        when(repository.findById("MISSING")).thenReturn(Optional.empty());
+
+        assertTrue(service.updateGracePeriodDays("MISSING", 20).isEmpty());
+        verify(repository, never()).save(any());
+        verifyNoInteractions(cache);
+    }
+}
@@ -0,0 +1,159 @@
+package com.insurance.billing.unit.service;
+
+import com.insurance.billing.client.PaymentServiceClient;
+import com.insurance.billing.entity.Billing;
+import com.insurance.billing.entity.Payment;
+import com.insurance.billing.repository.BillingRepository;
+import com.insurance.billing.repository.PaymentJdbcRepository;
+import com.insurance.billing.service.PaymentSubmissionService;
+import com.insurance.shared.dto.PaymentBatchResultDto;
+import com.insurance.shared.dto.PaymentBatchResultDto.Outcome;
+import com.insurance.shared.dto.PaymentDto;
+import com.insurance.shared.dto.PaymentRequestDto;
+import com.insurance.shared.enums.BillingStatus;
+import com.insurance.shared.enums.PaymentMethod;
+import com.insurance.shared.enums.PaymentStatus;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class PaymentSubmissionServiceTest {
+
+    private BillingRepository billingRepository;
+    private PaymentJdbcRepository paymentJdbcRepository;
+    private PaymentServiceClient paymentServiceClient;
+    private PaymentSubmissionService service;
+
+    @BeforeEach
+    void setUp() {
+        billingRepository = mock(BillingRepository.class);
+        paymentJdbcRepository = mock(PaymentJdbcRepository.class);
+        paymentServiceClient = mock(PaymentServiceClient.class);
+        service = new PaymentSubmissionService(billingRepository, paymentJdbcRepository, paymentServiceClient,
+                Validation.buildDefaultValidatorFactory().getValidator(), 2);
+
+        when(billingRepository.findAllById(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0)
+                .stream()
+                .filter(id -> id.startsWith("BILL-"))
+                .map(id -> Billing.builder()
+                        .id(id)
+                        .policyId("POLICY-1")
+                        .customerId("CUST-1")
+                        .status(id.equals("BILL-PAID") ? BillingStatus.PAID : BillingStatus.PENDING)
+                        .build())
+                .toList());
+    }
+
+    private static PaymentRequestDto request(String billId, String amount) {
+        return PaymentRequestDto.builder()
+                .billId(billId)
+                .policyId("POLICY-1")
+                .amount(amount != null ? new BigDecimal(amount) : null)
+                .paymentMethod(PaymentMethod.ACH)
+                .build();
+    }
+
+    private static PaymentDto processed(String transactionId, PaymentStatus status) {
+        return PaymentDto.builder().id(transactionId).status(status).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRejectInvalidItemsAndProcessTheRest() {
+        when(paymentServiceClient.submitPayments(anyList())).thenReturn(List.of(
+                processed("TX-1", PaymentStatus.COMPLETED), processed("TX-2", PaymentStatus.FAILED)));
+
+        PaymentBatchResultDto result = service.submit(List.of(
+                request("BILL-1", "100.00"),
+                request("BILL-2", null),
+                request("UNKNOWN", "10.00"),
+                request("BILL-PAID", "10.00"),
+                request("BILL-3", "50.00")));
+
+        assertEquals(5, result.getSubmitted());
+        assertEquals(2, result.getProcessed());
+        assertEquals(3, result.getRejected());
+        assertEquals(List.of(Outcome.PROCESSED, Outcome.REJECTED, Outcome.REJECTED, Outcome.REJECTED, Outcome.PROCESSED),
+                result.getResults().stream().map(PaymentBatchResultDto.ItemResult::getOutcome).toList());
+        assertEquals("amount must not be null", result.getResults().get(1).getMessage());
+        assertEquals(PaymentStatus.SUCCESS, result.getResults().get(0).getPaymentStatus());
+        assertEquals("TX-2", result.getResults().get(4).getTransactionId());
+        assertEquals(PaymentStatus.FAILED, result.getResults().get(4).getPaymentStatus());
+
+        ArgumentCaptor<Collection<Payment>> inserted = ArgumentCaptor.forClass(Collection.class);
+        verify(paymentJdbcRepository).insertAll(inserted.capture());
+        assertEquals(2, inserted.getValue().size());
+        assertTrue(inserted.getValue().stream().allMatch(payment -> "CUST-1".equals(payment.getCustomerId())));
+        verify(paymentJdbcRepository).recordOutcomes(any());
+    }
+
+    @Test
+    void shouldKeepPaymentsPendingWhenAChunkCannotBeForwarded() {
+        when(paymentServiceClient.submitPayments(anyList()))
+                .thenReturn(List.of(processed("TX-1", PaymentStatus.COMPLETED), processed("TX-2", PaymentStatus.COMPLETED)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        PaymentBatchResultDto result = service.submit(List.of(
+                request("BILL-1", "10.00"), request("BILL-2", "10.00"), request("BILL-3", "10.00")));
+
+        assertEquals(2, result.getProcessed());
+        assertEquals(1, result.getNotForwarded());
+        assertEquals(PaymentStatus.PENDING, result.getResults().get(2).getPaymentStatus());
+        assertNotNull(result.getResults().get(2).getPaymentId());
+        verify(paymentServiceClient, times(2)).submitPayments(anyList());
+        verify(paymentJdbcRepository, times(1)).recordOutcomes(any());
+    }
+
+    @Test
+    void shouldAcceptOnePaymentPerBillingInABatch() {
+        when(paymentServiceClient.submitPayments(anyList())).thenReturn(List.of(processed("TX-1", PaymentStatus.COMPLETED)));
+
+        PaymentBatchResultDto result = service.submit(List.of(request("BILL-1", "10.00"), request("BILL-1", "10.00")));
+
+        assertEquals(1, result.getProcessed());
+        assertEquals(Outcome.REJECTED, result.getResults().get(1).getOutcome());
+        assertEquals("Billing BILL-1 already has a payment in this batch (item 0)", result.getResults().get(1).getMessage());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldResendPendingPaymentUnderItsIdempotencyKey() {
+        when(paymentJdbcRepository.findPending(any())).thenReturn(List.of(Payment.builder()
+                .id("PAY-EARLIER").billingId("BILL-1").amount(new BigDecimal("10.0")).method(PaymentMethod.ACH)
+                .status(PaymentStatus.PENDING).build()));
+        when(paymentServiceClient.submitPayments(anyList())).thenReturn(List.of(
+                processed("TX-1", PaymentStatus.COMPLETED), processed("TX-2", PaymentStatus.COMPLETED)));
+
+        PaymentBatchResultDto result = service.submit(List.of(request("BILL-1", "10.00"), request("BILL-2", "10.00")));
+
+        assertEquals("PAY-EARLIER", result.getResults().get(0).getPaymentId());
+        ArgumentCaptor<Collection<Payment>> inserted = ArgumentCaptor.forClass(Collection.class);
+        verify(paymentJdbcRepository).insertAll(inserted.capture());
+        assertEquals(List.of("BILL-2"), inserted.getValue().stream().map(Payment::getBillingId).toList());
+        ArgumentCaptor<List<PaymentRequestDto>> forwarded = ArgumentCaptor.forClass(List.class);
+        verify(paymentServiceClient).submitPayments(forwarded.capture());
+        assertEquals("PAY-EARLIER", forwarded.getValue().get(0).getIdempotencyKey());
+        assertEquals(result.getResults().get(1).getPaymentId(), forwarded.getValue().get(1).getIdempotencyKey());
+    }
+
+    @Test
+    void shouldNotMatchOutcomesWhenPaymentServiceAnswersForFewerPayments() {
+        when(paymentServiceClient.submitPayments(anyList())).thenReturn(List.of(processed("TX-1", PaymentStatus.COMPLETED)));
+
+        PaymentBatchResultDto result = service.submit(List.of(request("BILL-1", "10.00"), request("BILL-2", "10.00")));
+
+        assertEquals(2, result.getNotForwarded());
+        verify(paymentJdbcRepository, never()).recordOutcomes(any());
+    }
+}
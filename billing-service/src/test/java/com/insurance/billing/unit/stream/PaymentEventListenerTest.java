@@ -0,0 +1,201 @@
+package com.insurance.billing.unit.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.insurance.billing.event.BillingStatusChangedEvent;
+import com.insurance.billing.event.PaymentAppliedEvent;
+import com.insurance.billing.eventstore.BillingEventStore;
+import com.insurance.billing.eventstore.codec.DictionarySmilePayloadCodec;
+import com.insurance.billing.eventstore.codec.JsonPayloadCodec;
+import com.insurance.billing.eventstore.codec.PayloadCodecs;
+import com.insurance.billing.eventstore.codec.SmilePayloadCodec;
+import com.insurance.billing.projection.DueDateIndex;
+import com.insurance.billing.repository.BillingStateJdbcRepository;
+import com.insurance.billing.service.PaymentEventApplier;
+import com.insurance.billing.stream.PaymentEventListener;
+import com.insurance.shared.events.PaymentEvent;
+import com.insurance.shared.events.PaymentEvent.PaymentEventType;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentEventListenerTest {
+
+    private static final LocalDate DUE = LocalDate.of(2024, 6, 1);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final List<Object> published = new ArrayList<>();
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private BillingStateJdbcRepository billingStateRepository;
+    private PaymentEventListener listener;
+    private long offset;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE billings (id VARCHAR(255) PRIMARY KEY, policy_id VARCHAR(255),"
+                + " customer_id VARCHAR(255), amount DECIMAL(10, 2), due_date DATE, status VARCHAR(50),"
+                + " payment_status VARCHAR(50), retry_count INT, grace_period_end DATE, updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE billing_events (id VARCHAR(255) PRIMARY KEY, billing_id VARCHAR(255),"
+                + " policy_id VARCHAR(255), event_type VARCHAR(50), occurred_at TIMESTAMP, payload VARCHAR,"
+                + " metadata VARCHAR, payload_data BLOB, metadata_data BLOB)");
+        jdbcTemplate.execute("CREATE TABLE processed_payment_events (event_key VARCHAR(255) PRIMARY KEY,"
+                + " processed_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE unmatched_payment_events (event_key VARCHAR(255) PRIMARY KEY,"
+                + " policy_id VARCHAR(255), payment_id VARCHAR(255), event_type VARCHAR(50), amount DECIMAL(10, 2),"
+                + " occurred_at TIMESTAMP, parked_at TIMESTAMP NOT NULL)");
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(database);
+        BillingEventStore eventStore = new BillingEventStore(namedJdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(database)), codecs(), 100, Duration.ofMillis(5), 1000);
+        billingStateRepository = new BillingStateJdbcRepository(namedJdbcTemplate, eventStore, new ObjectMapper());
+        listener = newListener();
+    }
+
+    // A fresh listener stands in for a restarted instance or the new owner after a rebalance
+    private PaymentEventListener newListener() {
+        return new PaymentEventListener(
+                new PaymentEventApplier(billingStateRepository, published::add, new DueDateIndex(database)), objectMapper);
+    }
+
+    private static PayloadCodecs codecs() {
+        SmilePayloadCodec smile = new SmilePayloadCodec();
+        return new PayloadCodecs(List.of(new JsonPayloadCodec(), smile, new DictionarySmilePayloadCodec(smile)),
+                "smile-deflate");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    private void insertBilling(String id, String policyId, LocalDate dueDate, String status) {
+        jdbcTemplate.update("INSERT INTO billings (id, policy_id, customer_id, amount, due_date, status, retry_count)"
+                + " VALUES (?, ?, 'CUST-001', 100.00, ?, ?, 0)", id, policyId, Date.valueOf(dueDate), status);
+    }
+
+    private ConsumerRecord<String, String> record(String eventId, String policyId, String billingId,
+                                                  PaymentEventType type) throws Exception {
+        return record(eventId, policyId, billingId, null, type);
+    }
+
+    private ConsumerRecord<String, String> record(String eventId, String policyId, String billingId, String paymentId,
+                                                  PaymentEventType type) throws Exception {
+        PaymentEvent event = PaymentEvent.builder()
+                .eventId(eventId)
+                .policyId(policyId)
+                .billingId(billingId)
+                .paymentId(paymentId)
+                .eventType(type)
+                .timestamp(LocalDateTime.of(2024, 6, 3, 10, 0))
+                .build();
+        return new ConsumerRecord<>("payment-topic", 0, offset++, policyId, objectMapper.writeValueAsString(event));
+    }
+
+    private String column(String column, String id) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM billings WHERE id = ?", String.class, id);
+    }
+
+    @Test
+    void shouldApplyEventsInOrderToTheirBillings() throws Exception {
+        insertBilling("B1", "P1", DUE, "OVERDUE");
+        insertBilling("B2", "P1", DUE.plusMonths(1), "PENDING");
+        insertBilling("B3", "P2", DUE, "PENDING");
+
+        listener.onPaymentEvents(List.of(
+                record("E1", "P1", "B1", PaymentEventType.PAYMENT_FAILED),
+                record("E2", "P1", "B1", PaymentEventType.PAYMENT_SUCCEEDED),
+                record("E3", "P1", "B2", PaymentEventType.PAYMENT_FAILED),
+                record("E4", "P2", "B3", PaymentEventType.RETRIES_EXHAUSTED)));
+
+        assertEquals("PAID", column("status", "B1"));
+        assertEquals("SUCCESS", column("payment_status", "B1"));
+        assertEquals("1", column("retry_count", "B1"));
+        assertEquals("PENDING", column("status", "B2"));
+        assertEquals("FAILED", column("payment_status", "B2"));
+        assertEquals("RETRIES_EXHAUSTED", column("payment_status", "B3"));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM billing_events", Integer.class));
+        assertTrue(published.contains(new PaymentAppliedEvent("P1", "B1", null, LocalDate.of(2024, 6, 3))));
+        assertTrue(published.stream().anyMatch(BillingStatusChangedEvent.class::isInstance));
+    }
+
+    @Test
+    void shouldDropRedeliveredEvents() throws Exception {
+        insertBilling("B1", "P1", DUE, "PENDING");
+        listener.onPaymentEvents(List.of(record("E1", "P1", "B1", PaymentEventType.PAYMENT_FAILED)));
+
+        listener.onPaymentEvents(List.of(
+                record("E1", "P1", "B1", PaymentEventType.PAYMENT_FAILED),
+                record("E2", "P1", "B1", PaymentEventType.PAYMENT_FAILED),
+                record("E2", "P1", "B1", PaymentEventType.PAYMENT_FAILED)));
+
+        assertEquals("2", column("retry_count", "B1"));
+    }
+
+    @Test
+    void shouldParkEventsThatNameNoBillingOnce() throws Exception {
+        insertBilling("B1", "P1", DUE, "OVERDUE");
+        insertBilling("B2", "P1", DUE.plusMonths(1), "PENDING");
+        listener.onPaymentEvents(List.of(record("E1", "P1", null, "PAY-1", PaymentEventType.PAYMENT_SUCCEEDED)));
+
+        newListener().onPaymentEvents(List.of(record("E1", "P1", null, "PAY-1", PaymentEventType.PAYMENT_SUCCEEDED)));
+        // Republished under a new event id, still the same payment
+        newListener().onPaymentEvents(List.of(record("E9", "P1", null, "PAY-1", PaymentEventType.PAYMENT_SUCCEEDED)));
+
+        assertEquals("OVERDUE", column("status", "B1"));
+        assertEquals("PENDING", column("status", "B2"));
+        assertNull(column("payment_status", "B1"));
+        assertEquals(List.of("PAYMENT_SUCCEEDED:PAY-1"), jdbcTemplate.queryForList(
+                "SELECT event_key FROM unmatched_payment_events WHERE policy_id = 'P1'", String.class));
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void shouldApplyEventsAgainOnlyAfterTheirKeysArePurged() throws Exception {
+        insertBilling("B1", "P1", DUE, "PENDING");
+        listener.onPaymentEvents(List.of(record("E1", "P1", "B1", PaymentEventType.PAYMENT_FAILED)));
+
+        assertEquals(0, billingStateRepository.purgeProcessedPaymentEvents(LocalDateTime.now().minusDays(1)));
+        listener.onPaymentEvents(List.of(record("E1", "P1", "B1", PaymentEventType.PAYMENT_FAILED)));
+        assertEquals("1", column("retry_count", "B1"));
+
+        assertEquals(1, billingStateRepository.purgeProcessedPaymentEvents(LocalDateTime.now().plusSeconds(1)));
+        listener.onPaymentEvents(List.of(record("E1", "P1", "B1", PaymentEventType.PAYMENT_FAILED)));
+        assertEquals("2", column("retry_count", "B1"));
+    }
+
+    @Test
+    void shouldNeverReopenPaidBillingsOrStopOnUnreadableRecords() throws Exception {
+        insertBilling("B1", "P1", DUE, "PAID");
+
+        listener.onPaymentEvents(List.of(
+                new ConsumerRecord<>("payment-topic", 0, offset++, "P1", "Payment processed: P1"),
+                record("E1", "P1", "B1", PaymentEventType.PAYMENT_FAILED)));
+
+        assertEquals("PAID", column("status", "B1"));
+        assertNull(column("payment_status", "B1"));
+        assertTrue(published.isEmpty());
+    }
+}
@@ -46,6 +46,16 @@ public class PaymentController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Process a batch of payments; results are returned in request order.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<PaymentDto>> processPayments(@RequestBody List<PaymentRequestDto> paymentRequests) {
+        log.info("Processing batch of {} payment requests", paymentRequests.size());
+
+        return ResponseEntity.ok(paymentService.processPayments(paymentRequests));
+    }
+
     @GetMapping("/history")
     public ResponseEntity<List<Map<String, Object>>> getPaymentHistory(
             @RequestParam(required = false) String policyId,
@@ -79,10 +89,12 @@ public class PaymentController {
     }
 
     @PostMapping("/{paymentId}/retry")
-    public ResponseEntity<Map<String, Object>> retryPayment(@PathVariable String paymentId) {
+    public ResponseEntity<Map<String, Object>> retryPayment(@PathVariable String paymentId,
+                                                            @RequestHeader(value = "Idempotency-Key", required = false)
+                                                            String idempotencyKey) {
         log.info("Retrying payment for ID: {}", paymentId);
 
-        Map<String, Object> retryResult = paymentService.retryPayment(paymentId);
+        Map<String, Object> retryResult = paymentService.retryPayment(paymentId, idempotencyKey);
 
         if (retryResult.containsKey("error")) {
             return ResponseEntity.notFound().build();
@@ -33,4 +33,8 @@ public class PaymentEntity {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private PaymentMethod paymentMethod;
+
+    // Caller's key for the charge, unique when present; see PaymentService#processPayments
+    @Column(unique = true)
+    private String idempotencyKey;
 }
\ No newline at end of file
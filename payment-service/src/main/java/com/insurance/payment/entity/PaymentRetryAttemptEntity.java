@@ -0,0 +1,35 @@
+package com.insurance.payment.entity;
+
+import com.insurance.shared.enums.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of one retry of a payment, keyed by the caller's idempotency key so a repeated
+ * request for the same attempt is answered from here instead of charging again.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "payment_retry_attempts")
+public class PaymentRetryAttemptEntity {
+    @Id
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String paymentId;
+
+    private int retryAttempt;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+
+    private String message;
+
+    private LocalDateTime attemptedAt;
+}
@@ -2,10 +2,16 @@ package com.insurance.payment.repository;
 
 import com.insurance.payment.entity.PaymentEntity;
 import com.insurance.shared.enums.PaymentStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<PaymentEntity, String> {
@@ -13,4 +19,11 @@ public interface PaymentRepository extends JpaRepository<PaymentEntity, String>
     List<PaymentEntity> findByPolicyId(String policyId);
 
     List<PaymentEntity> findByStatus(PaymentStatus status);
+
+    List<PaymentEntity> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+
+    // Serializes retries of one payment, so two requests cannot both charge it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PaymentEntity p WHERE p.id = :id")
+    Optional<PaymentEntity> findByIdForUpdate(@Param("id") String id);
 }
\ No newline at end of file
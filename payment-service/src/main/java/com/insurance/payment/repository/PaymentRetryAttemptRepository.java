@@ -0,0 +1,11 @@
+package com.insurance.payment.repository;
+
+import com.insurance.payment.entity.PaymentRetryAttemptEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PaymentRetryAttemptRepository extends JpaRepository<PaymentRetryAttemptEntity, String> {
+
+    long countByPaymentId(String paymentId);
+}
@@ -20,13 +20,25 @@ public interface PaymentService {
      * @return Map containing payment result
      */
     PaymentDto processPayment(PaymentRequestDto paymentRequest);
+
+    /**
+     * Process several payments with one batched insert. A request whose idempotency key
+     * was charged before is answered with that payment rather than charged again, so a
+     * caller can resend a batch whose response it never received. Two batches racing with
+     * the same key fail on the key's unique constraint instead of both charging.
+     * @param paymentRequests The payment requests
+     * @return Processed payments, in request order
+     */
+    List<PaymentDto> processPayments(List<PaymentRequestDto> paymentRequests);
     
     /**
-     * Retry a failed payment transaction
-     * @param transactionId The transaction identifier
-     * @return Map containing retry result
+     * Retry a failed payment. A repeated call with the same idempotency key returns the
+     * outcome recorded for it instead of attempting the payment again.
+     * @param paymentId The payment identifier
+     * @param idempotencyKey Identifies the retry attempt; may be null
+     * @return Map containing retry result, or an "error" entry if the payment does not exist
      */
-    Map<String, Object> retryPayment(String transactionId);
+    Map<String, Object> retryPayment(String paymentId, String idempotencyKey);
     
     /**
      * Get payment history for a specific policy
@@ -3,6 +3,7 @@ package com.insurance.payment.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.insurance.shared.dto.PaymentDto;
 import com.insurance.shared.dto.PaymentRequestDto;
 import java.math.BigDecimal;
@@ -10,8 +11,11 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 import com.insurance.payment.entity.PaymentEntity;
+import com.insurance.payment.entity.PaymentRetryAttemptEntity;
 import com.insurance.payment.repository.PaymentRepository;
+import com.insurance.payment.repository.PaymentRetryAttemptRepository;
 import com.insurance.shared.enums.PaymentStatus;
+import com.insurance.shared.events.PaymentEvent;
 import com.insurance.payment.mapper.PaymentMapper;
 import com.insurance.payment.stream.PaymentProducer;
 
@@ -26,11 +30,14 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentRepository paymentRepository;
     private final PaymentMapper paymentMapper;
     private final PaymentProducer paymentProducer;
+    private final PaymentRetryAttemptRepository retryAttemptRepository;
 
-    public PaymentServiceImpl(PaymentRepository paymentRepository, PaymentMapper paymentMapper, PaymentProducer paymentProducer) {
+    public PaymentServiceImpl(PaymentRepository paymentRepository, PaymentMapper paymentMapper, PaymentProducer paymentProducer,
+                              PaymentRetryAttemptRepository retryAttemptRepository) {
         this.paymentRepository = paymentRepository;
         this.paymentMapper = paymentMapper;
         this.paymentProducer = paymentProducer;
+        this.retryAttemptRepository = retryAttemptRepository;
     }
 
     // Simulated in-memory storage for demonstration
@@ -50,62 +57,148 @@ public class PaymentServiceImpl implements PaymentService {
                 paymentRequest.getAmount(),
                 isSuccessful ? PaymentStatus.COMPLETED : PaymentStatus.FAILED,
                 LocalDateTime.now(),
-                paymentRequest.getPaymentMethod()
+                paymentRequest.getPaymentMethod(),
+                null
         );
 
         paymentRepository.save(paymentEntity);
 
         // Send a message to Kafka
-        paymentProducer.sendPaymentEvent("Payment processed: " + paymentRequest.getPolicyId());
+        paymentProducer.sendPaymentEvent(toEvent(paymentEntity, paymentRequest));
 
         return paymentMapper.toDto(paymentEntity);
     }
 
     @Override
-    public Map<String, Object> retryPayment(String transactionId) {
-        log.info("Retrying payment for transaction ID: {}", transactionId);
+    @Transactional
+    public List<PaymentDto> processPayments(List<PaymentRequestDto> paymentRequests) {
+        log.info("Processing batch of {} payments", paymentRequests.size());
+
+        // Payments already charged under a request's idempotency key are answered as recorded
+        Set<String> keys = paymentRequests.stream()
+                .map(PaymentRequestDto::getIdempotencyKey)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, PaymentEntity> charged = new HashMap<>();
+        if (!keys.isEmpty()) {
+            paymentRepository.findByIdempotencyKeyIn(keys)
+                    .forEach(payment -> charged.put(payment.getIdempotencyKey(), payment));
+        }
 
-        Map<String, Object> transaction = transactions.get(transactionId);
-        if (transaction == null) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("error", "Transaction not found");
-            error.put("transactionId", transactionId);
-            return error;
+        // Ids are left to the generator so saveAll persists (batched by hibernate.jdbc.batch_size)
+        // instead of merging, which would select every row first
+        List<PaymentEntity> results = new ArrayList<>(paymentRequests.size());
+        List<PaymentEntity> entities = new ArrayList<>(paymentRequests.size());
+        List<PaymentRequestDto> newRequests = new ArrayList<>(paymentRequests.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (PaymentRequestDto paymentRequest : paymentRequests) {
+            String key = paymentRequest.getIdempotencyKey();
+            PaymentEntity recorded = key != null ? charged.get(key) : null;
+            if (recorded != null) {
+                log.info("Replaying recorded payment {} for idempotency key {}", recorded.getId(), key);
+                results.add(recorded);
+                continue;
+            }
+            boolean isSuccessful = random.nextDouble() > 0.3;
+            PaymentEntity payment = new PaymentEntity(
+                    null,
+                    paymentRequest.getPolicyId(),
+                    paymentRequest.getAmount(),
+                    isSuccessful ? PaymentStatus.COMPLETED : PaymentStatus.FAILED,
+                    now,
+                    paymentRequest.getPaymentMethod(),
+                    key
+            );
+            if (key != null) {
+                charged.put(key, payment);
+            }
+            results.add(payment);
+            entities.add(payment);
+            newRequests.add(paymentRequest);
+        }
+        List<PaymentEntity> saved = paymentRepository.saveAll(entities);
+
+        for (int i = 0; i < saved.size(); i++) {
+            paymentProducer.sendPaymentEvent(toEvent(saved.get(i), newRequests.get(i)));
         }
+        return results.stream().map(paymentMapper::toDto).collect(Collectors.toList());
+    }
 
-        int currentAttempt = (Integer) transaction.get("retryAttempt");
-        int nextAttempt = currentAttempt + 1;
+    private static PaymentEvent toEvent(PaymentEntity payment, PaymentRequestDto paymentRequest) {
+        return PaymentEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .policyId(payment.getPolicyId())
+                .billingId(paymentRequest.getBillId())
+                .paymentId(payment.getId())
+                .eventType(payment.getStatus() == PaymentStatus.COMPLETED ? PaymentEvent.PaymentEventType.PAYMENT_SUCCEEDED
+                        : PaymentEvent.PaymentEventType.PAYMENT_FAILED)
+                .amount(payment.getAmount())
+                .paymentMethod(payment.getPaymentMethod() != null ? payment.getPaymentMethod().name() : null)
+                .timestamp(payment.getTimestamp())
+                .build();
+    }
 
-        // Simulate retry with increasing success rate
-        boolean isSuccessful = random.nextDouble() > (0.5 - (nextAttempt * 0.1));
+    @Override
+    @Transactional
+    public Map<String, Object> retryPayment(String paymentId, String idempotencyKey) {
+        log.info("Retrying payment {} with idempotency key {}", paymentId, idempotencyKey);
 
-        transaction.put("retryAttempt", nextAttempt);
-        transaction.put("attemptedAt", LocalDateTime.now());
+        Optional<PaymentEntity> found = paymentRepository.findByIdForUpdate(paymentId);
+        if (found.isEmpty()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Transaction not found");
+            error.put("transactionId", paymentId);
+            return error;
+        }
+        PaymentEntity payment = found.get();
+
+        // Looked up under the payment's row lock, so a concurrent duplicate waits for the first
+        // request to record its outcome and then replays it
+        if (idempotencyKey != null) {
+            Optional<PaymentRetryAttemptEntity> recorded = retryAttemptRepository.findById(idempotencyKey);
+            if (recorded.isPresent()) {
+                log.info("Replaying recorded outcome of retry {} for payment {}", idempotencyKey, paymentId);
+                return toRetryResult(recorded.get());
+            }
+        }
 
-        if (isSuccessful) {
-            transaction.put("status", "COMPLETED");
-            transaction.put("completedAt", LocalDateTime.now());
-            transaction.put("message", "Payment completed on retry " + nextAttempt);
+        int nextAttempt = (int) retryAttemptRepository.countByPaymentId(paymentId) + 1;
+        LocalDateTime now = LocalDateTime.now();
+        String message;
+        if (payment.getStatus() == PaymentStatus.COMPLETED) {
+            message = "Payment already completed";
         } else {
-            transaction.put("status", "FAILED");
-            transaction.put("failureReason", "Payment gateway timeout");
-            transaction.put("message", "Payment failed on retry " + nextAttempt);
-            if (nextAttempt < 5) { // Max 5 retries
-                transaction.put("nextRetryAt", calculateNextRetryTime(nextAttempt + 1));
+            // Simulate retry with increasing success rate
+            boolean isSuccessful = random.nextDouble() > (0.5 - (nextAttempt * 0.1));
+            payment.setStatus(isSuccessful ? PaymentStatus.COMPLETED : PaymentStatus.FAILED);
+            payment.setTimestamp(now);
+            paymentRepository.save(payment);
+            if (isSuccessful) {
+                message = "Payment completed on retry " + nextAttempt;
+            } else if (nextAttempt < 5) { // Max 5 retries
+                message = "Payment failed on retry " + nextAttempt;
             } else {
-                transaction.put("message", "Payment failed - maximum retries exceeded");
+                message = "Payment failed - maximum retries exceeded";
             }
         }
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("transactionId", transactionId);
-        result.put("retryAttempt", nextAttempt);
-        result.put("status", transaction.get("status"));
-        result.put("message", transaction.get("message"));
-        if (transaction.containsKey("nextRetryAt")) {
-            result.put("nextRetryAt", transaction.get("nextRetryAt"));
+        PaymentRetryAttemptEntity attempt = retryAttemptRepository.save(new PaymentRetryAttemptEntity(
+                idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString(),
+                paymentId, nextAttempt, payment.getStatus(), message, now));
+
+        Map<String, Object> result = toRetryResult(attempt);
+        if (payment.getStatus() == PaymentStatus.FAILED && nextAttempt < 5) {
+            result.put("nextRetryAt", calculateNextRetryTime(nextAttempt + 1));
         }
+        return result;
+    }
 
+    private static Map<String, Object> toRetryResult(PaymentRetryAttemptEntity attempt) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("transactionId", attempt.getPaymentId());
+        result.put("retryAttempt", attempt.getRetryAttempt());
+        result.put("status", attempt.getStatus().name());
+        result.put("message", attempt.getMessage());
         return result;
     }
 
@@ -311,6 +404,7 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PaymentDto> getPaymentsByPolicy(String policyId) {
         return paymentRepository.findByPolicyId(policyId).stream()
                 .map(paymentMapper::toDto)
@@ -319,6 +413,7 @@ public class PaymentServiceImpl implements PaymentService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<PaymentDto> getPaymentById(String paymentId) {
         return paymentRepository.findById(paymentId)
                 .map(paymentMapper::toDto);
@@ -345,6 +440,7 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PaymentDto> getPaymentHistory(String policyId, String status, int limit, int offset) {
         return paymentRepository.findByPolicyId(policyId).stream()
                 .filter(payment -> status == null || payment.getStatus().name().equals(status))
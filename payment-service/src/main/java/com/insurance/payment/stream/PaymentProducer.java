@@ -1,6 +1,9 @@
 package com.insurance.payment.stream;
 
+import com.insurance.shared.events.PaymentEvent;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -12,7 +15,13 @@ public class PaymentProducer {
         this.streamBridge = streamBridge;
     }
 
-    public void sendPaymentEvent(Object paymentEvent) {
-        streamBridge.send("payment-out", paymentEvent);
+    /**
+     * Publish keyed by policy id, so all events of a policy land on one partition and
+     * consumers see them in order.
+     */
+    public void sendPaymentEvent(PaymentEvent paymentEvent) {
+        streamBridge.send("payment-out", MessageBuilder.withPayload(paymentEvent)
+                .setHeader(KafkaHeaders.KEY, paymentEvent.getPolicyId())
+                .build());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+CREATE TABLE payment_retry_attempts
+(
+    idempotency_key VARCHAR(255) NOT NULL,
+    payment_id      VARCHAR(255) NOT NULL,
+    retry_attempt   INT          NOT NULL,
+    status          VARCHAR(32),
+    message         VARCHAR(255),
+    attempted_at    TIMESTAMP,
+    CONSTRAINT pk_payment_retry_attempts PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_payment_retry_attempts_payment ON payment_retry_attempts (payment_id);
@@ -0,0 +1,3 @@
+ALTER TABLE payment_entity ADD COLUMN idempotency_key VARCHAR(255);
+
+CREATE UNIQUE INDEX uk_payment_entity_idempotency_key ON payment_entity (idempotency_key);
@@ -0,0 +1,64 @@
+package com.insurance.payment.unit.service;
+
+import com.insurance.payment.entity.PaymentEntity;
+import com.insurance.payment.mapper.PaymentMapper;
+import com.insurance.payment.repository.PaymentRepository;
+import com.insurance.payment.repository.PaymentRetryAttemptRepository;
+import com.insurance.payment.service.PaymentServiceImpl;
+import com.insurance.payment.stream.PaymentProducer;
+import com.insurance.shared.dto.PaymentDto;
+import com.insurance.shared.dto.PaymentRequestDto;
+import com.insurance.shared.enums.PaymentMethod;
+import com.insurance.shared.enums.PaymentStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class PaymentBatchTest {
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final PaymentMapper paymentMapper = mock(PaymentMapper.class);
+    private final PaymentProducer paymentProducer = mock(PaymentProducer.class);
+    private final PaymentServiceImpl paymentService = new PaymentServiceImpl(paymentRepository, paymentMapper,
+            paymentProducer, mock(PaymentRetryAttemptRepository.class));
+
+    private static PaymentRequestDto request(String billId, String idempotencyKey) {
+        return PaymentRequestDto.builder()
+                .billId(billId)
+                .policyId("POLICY-1")
+                .amount(new BigDecimal("100.00"))
+                .paymentMethod(PaymentMethod.ACH)
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+
+    @Test
+    void shouldAnswerRepeatedKeysWithRecordedPaymentInsteadOfCharging() {
+        PaymentEntity recorded = new PaymentEntity("PAY-1", "POLICY-1", new BigDecimal("100.00"),
+                PaymentStatus.COMPLETED, LocalDateTime.now().minusMinutes(5), PaymentMethod.ACH, "KEY-1");
+        when(paymentRepository.findByIdempotencyKeyIn(any())).thenReturn(List.of(recorded));
+        when(paymentRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentMapper.toDto(any())).thenAnswer(invocation -> PaymentDto.builder()
+                .id(invocation.<PaymentEntity>getArgument(0).getId())
+                .policyId(invocation.<PaymentEntity>getArgument(0).getIdempotencyKey())
+                .build());
+
+        List<PaymentDto> results = paymentService.processPayments(List.of(
+                request("BILL-1", "KEY-1"), request("BILL-2", "KEY-2"), request("BILL-2", "KEY-2")));
+
+        assertEquals(3, results.size());
+        assertEquals("PAY-1", results.get(0).getId());
+        // Both requests under KEY-2 answer with the one new payment
+        assertEquals("KEY-2", results.get(1).getPolicyId());
+        assertEquals("KEY-2", results.get(2).getPolicyId());
+        verify(paymentRepository).saveAll(argThat(entities -> ((List<?>) entities).size() == 1));
+        verify(paymentProducer, times(1)).sendPaymentEvent(any());
+    }
+}
@@ -0,0 +1,85 @@
+package com.insurance.payment.unit.service;
+
+import com.insurance.payment.entity.PaymentEntity;
+import com.insurance.payment.entity.PaymentRetryAttemptEntity;
+import com.insurance.payment.mapper.PaymentMapper;
+import com.insurance.payment.repository.PaymentRepository;
+import com.insurance.payment.repository.PaymentRetryAttemptRepository;
+import com.insurance.payment.service.PaymentServiceImpl;
+import com.insurance.payment.stream.PaymentProducer;
+import com.insurance.shared.enums.PaymentMethod;
+import com.insurance.shared.enums.PaymentStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PaymentRetryTest {
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final PaymentRetryAttemptRepository retryAttemptRepository = mock(PaymentRetryAttemptRepository.class);
+    private final PaymentServiceImpl paymentService = new PaymentServiceImpl(paymentRepository,
+            mock(PaymentMapper.class), mock(PaymentProducer.class), retryAttemptRepository);
+
+    private static PaymentEntity payment(PaymentStatus status) {
+        return new PaymentEntity("PAY-1", "POLICY-1", new BigDecimal("100.00"), status,
+                LocalDateTime.now().minusDays(1), PaymentMethod.CREDIT_CARD, null);
+    }
+
+    @Test
+    void shouldRetryStoredPaymentAndRecordOutcomeUnderKey() {
+        PaymentEntity payment = payment(PaymentStatus.FAILED);
+        when(paymentRepository.findByIdForUpdate("PAY-1")).thenReturn(Optional.of(payment));
+        when(retryAttemptRepository.findById("R-1")).thenReturn(Optional.empty());
+        when(retryAttemptRepository.countByPaymentId("PAY-1")).thenReturn(1L);
+        when(retryAttemptRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Map<String, Object> result = paymentService.retryPayment("PAY-1", "R-1");
+
+        assertEquals(2, result.get("retryAttempt"));
+        assertEquals(payment.getStatus().name(), result.get("status"));
+        verify(paymentRepository).save(payment);
+        verify(retryAttemptRepository).save(argThat(attempt -> "R-1".equals(attempt.getIdempotencyKey())
+                && "PAY-1".equals(attempt.getPaymentId()) && attempt.getStatus() == payment.getStatus()));
+    }
+
+    @Test
+    void shouldReplayRecordedOutcomeForRepeatedKey() {
+        when(paymentRepository.findByIdForUpdate("PAY-1")).thenReturn(Optional.of(payment(PaymentStatus.COMPLETED)));
+        when(retryAttemptRepository.findById("R-1")).thenReturn(Optional.of(new PaymentRetryAttemptEntity(
+                "R-1", "PAY-1", 2, PaymentStatus.COMPLETED, "Payment completed on retry 2", LocalDateTime.now())));
+
+        Map<String, Object> result = paymentService.retryPayment("PAY-1", "R-1");
+
+        assertEquals("COMPLETED", result.get("status"));
+        assertEquals("Payment completed on retry 2", result.get("message"));
+        verify(paymentRepository, never()).save(any());
+        verify(retryAttemptRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldNotChargeCompletedPaymentAgain() {
+        when(paymentRepository.findByIdForUpdate("PAY-1")).thenReturn(Optional.of(payment(PaymentStatus.COMPLETED)));
+        when(retryAttemptRepository.findById("R-2")).thenReturn(Optional.empty());
+        when(retryAttemptRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Map<String, Object> result = paymentService.retryPayment("PAY-1", "R-2");
+
+        assertEquals("COMPLETED", result.get("status"));
+        verify(paymentRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldReportUnknownPayment() {
+        when(paymentRepository.findByIdForUpdate("PAY-404")).thenReturn(Optional.empty());
+
+        assertTrue(paymentService.retryPayment("PAY-404", "R-1").containsKey("error"));
+        verifyNoInteractions(retryAttemptRepository);
+    }
+}
@@ -0,0 +1,16 @@
+package com.insurance.policy.bulkimport;
+
+/**
+ * How far an import has got: the number of data rows whose outcome has been committed, and
+ * the running accepted and rejected counts over those rows.
+ */
+public record ImportCheckpoint(String importId, long rowsCommitted, long accepted, long rejected) {
+
+    public static ImportCheckpoint start(String importId) {
+        return new ImportCheckpoint(importId, 0, 0, 0);
+    }
+
+    ImportCheckpoint advance(long rowsCommitted, int accepted, int rejected) {
+        return new ImportCheckpoint(importId, rowsCommitted, this.accepted + accepted, this.rejected + rejected);
+    }
+}
@@ -0,0 +1,27 @@
+package com.insurance.policy.bulkimport;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Accepted bulk import file formats. Both are read one line per policy: CSV with a header
+ * line naming the PolicyDto fields in any order, or NDJSON with one PolicyDto per line.
+ */
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    /**
+     * @throws IllegalArgumentException if the media type is not an accepted import format
+     */
+    public static ImportFormat of(MediaType contentType) {
+        if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+            return NDJSON;
+        }
+        if (contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))) {
+            return CSV;
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + contentType);
+    }
+}
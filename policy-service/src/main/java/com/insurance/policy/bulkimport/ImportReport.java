@@ -0,0 +1,16 @@
+package com.insurance.policy.bulkimport;
+
+/**
+ * Outcome of a bulk import request. Counts cover the whole import, including chunks
+ * committed by earlier, interrupted requests with the same importId.
+ *
+ * @param resumedAfterRow data rows skipped because an earlier request had committed them
+ * @param errorFile       file holding one NDJSON line per rejected row
+ */
+public record ImportReport(String importId,
+                           long resumedAfterRow,
+                           long rowsRead,
+                           long accepted,
+                           long rejected,
+                           String errorFile) {
+}
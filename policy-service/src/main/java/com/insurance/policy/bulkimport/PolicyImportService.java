@@ -0,0 +1,252 @@
+package com.insurance.policy.bulkimport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.insurance.policy.repository.PolicyJdbcRepository;
+import com.insurance.shared.dto.PolicyDto;
+import com.insurance.shared.events.PolicyChangeEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Imports policy files of any size. The file is read one line at a time and handled in
+ * chunks: the rows of a chunk are parsed and validated in parallel, then the valid ones are
+ * inserted with one JDBC batch in the same transaction that advances the import's
+ * checkpoint. Rejected rows are appended to a side file with their errors.
+ * <p>
+ * Posting the same file again under the same importId skips the rows the checkpoint says
+ * are committed, so an interrupted import resumes after its last committed chunk. Rejected
+ * rows of a chunk are written after it commits; a crash in between can repeat them in the
+ * error file, but never repeats an insert. Each chunk advances the checkpoint only from
+ * the position this run last saw, so if the same import runs on another instance at the
+ * same time, whichever run falls behind stops at its next chunk.
+ */
+@Slf4j
+@Service
+public class PolicyImportService {
+
+    static final Set<String> CSV_COLUMNS = Set.of("id", "policyNumber", "customerId", "policyType", "status",
+            "effectiveDate", "expirationDate", "premiumAmount", "frequency", "nextDueDate", "gracePeriodDays");
+
+    private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final PolicyJdbcRepository policyJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final ForkJoinPool validationPool;
+    private final int chunkSize;
+    private final Path errorDirectory;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public PolicyImportService(PolicyJdbcRepository policyJdbcRepository,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               @Value("${policy.import.chunk-size:5000}") int chunkSize,
+                               @Value("${policy.import.parallelism:0}") int parallelism,
+                               @Value("${policy.import.error-dir:${java.io.tmpdir}/policy-imports}") Path errorDirectory) {
+        this.policyJdbcRepository = policyJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .build();
+        this.validationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+        this.errorDirectory = errorDirectory;
+    }
+
+    private record RawRow(long row, String line) {
+    }
+
+    private record ParsedRow(long row, PolicyDto policy, List<String> errors) {
+    }
+
+    /**
+     * One line of the error file.
+     */
+    record RowError(long row, String policyId, List<String> errors) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validationPool.shutdown();
+    }
+
+    /**
+     * Import every policy in the file, or the rest of it if this importId was interrupted.
+     *
+     * @throws IllegalArgumentException if the importId or the CSV header is invalid
+     * @throws IllegalStateException    if an import with this importId is already running, on this
+     *                                  or another instance
+     */
+    public ImportReport importPolicies(String importId, InputStream input, ImportFormat format) throws IOException {
+        if (!IMPORT_ID.matcher(importId).matches()) {
+            throw new IllegalArgumentException("importId must be 1-64 letters, digits, '.', '_' or '-'");
+        }
+        if (!running.add(importId)) {
+            throw new IllegalStateException("Import " + importId + " is already running");
+        }
+        try {
+            return runImport(importId, input, format);
+        } finally {
+            running.remove(importId);
+        }
+    }
+
+    private ImportReport runImport(String importId, InputStream input, ImportFormat format) throws IOException {
+        ImportCheckpoint checkpoint = policyJdbcRepository.findCheckpoint(importId)
+                .orElse(ImportCheckpoint.start(importId));
+        long resumedAfter = checkpoint.rowsCommitted();
+        Files.createDirectories(errorDirectory);
+        Path errorFile = errorDirectory.resolve(importId + ".errors.ndjson");
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+             BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            ObjectReader rowReader = format == ImportFormat.CSV
+                    ? csvReader(reader.readLine())
+                    : objectMapper.readerFor(PolicyDto.class);
+            List<RawRow> chunk = new ArrayList<>(chunkSize);
+            long row = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                row++;
+                if (row <= resumedAfter || line.isBlank()) {
+                    continue;
+                }
+                chunk.add(new RawRow(row, line));
+                if (chunk.size() >= chunkSize) {
+                    checkpoint = commitChunk(checkpoint, chunk, row, rowReader, errors);
+                    chunk.clear();
+                }
+            }
+            if (row > checkpoint.rowsCommitted()) {
+                checkpoint = commitChunk(checkpoint, chunk, row, rowReader, errors);
+            }
+            log.info("Import {} read {} rows: {} accepted, {} rejected in total", importId, row,
+                    checkpoint.accepted(), checkpoint.rejected());
+            return new ImportReport(importId, resumedAfter, row, checkpoint.accepted(), checkpoint.rejected(),
+                    errorFile.toString());
+        }
+    }
+
+    private ImportCheckpoint commitChunk(ImportCheckpoint checkpoint, List<RawRow> chunk, long lastRow,
+                                         ObjectReader rowReader, BufferedWriter errors) throws IOException {
+        List<ParsedRow> parsed = validationPool.submit(() -> chunk.parallelStream()
+                        .map(raw -> parse(raw, rowReader))
+                        .toList())
+                .join();
+
+        // Ids already stored, or repeated in the file, are rejected rather than failing the batch
+        Set<String> existing = policyJdbcRepository.findExistingIds(parsed.stream()
+                .filter(candidate -> candidate.errors().isEmpty())
+                .map(candidate -> candidate.policy().getId())
+                .collect(Collectors.toSet()));
+        Set<String> seen = new HashSet<>();
+        List<PolicyDto> accepted = new ArrayList<>();
+        List<RowError> rejected = new ArrayList<>();
+        for (ParsedRow candidate : parsed) {
+            String id = candidate.policy() != null ? candidate.policy().getId() : null;
+            if (!candidate.errors().isEmpty()) {
+                rejected.add(new RowError(candidate.row(), id, candidate.errors()));
+            } else if (existing.contains(id) || !seen.add(id)) {
+                rejected.add(new RowError(candidate.row(), id, List.of("id: policy " + id + " already exists")));
+            } else {
+                accepted.add(candidate.policy());
+            }
+        }
+
+        ImportCheckpoint next = checkpoint.advance(lastRow, accepted.size(), rejected.size());
+        // The checkpoint goes first: its row lock keeps a concurrent run of this import on
+        // another instance from inserting the same rows
+        transactionTemplate.executeWithoutResult(status -> {
+            policyJdbcRepository.saveCheckpoint(next, checkpoint.rowsCommitted());
+            policyJdbcRepository.insertAll(accepted);
+            accepted.forEach(policy -> eventPublisher.publishEvent(
+                    PolicyChangeEvent.of(policy.getId(), PolicyChangeEvent.ChangeType.CREATED, policy)));
+        });
+        for (RowError error : rejected) {
+            errors.write(objectMapper.writeValueAsString(error));
+            errors.newLine();
+        }
+        errors.flush();
+        return next;
+    }
+
+    private ParsedRow parse(RawRow raw, ObjectReader rowReader) {
+        PolicyDto policy;
+        try {
+            policy = rowReader.readValue(raw.line());
+        } catch (JsonProcessingException e) {
+            return new ParsedRow(raw.row(), null, List.of("Unreadable row: " + e.getOriginalMessage()));
+        }
+        // An NDJSON line holding the literal null
+        if (policy == null) {
+            return new ParsedRow(raw.row(), null, List.of("Unreadable row: not a policy object"));
+        }
+        List<String> errors = new ArrayList<>();
+        if (policy.getId() == null || policy.getId().isBlank()) {
+            errors.add("id: must not be blank");
+        }
+        validator.validate(policy).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .forEach(errors::add);
+        return new ParsedRow(raw.row(), policy, errors);
+    }
+
+    private ObjectReader csvReader(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV import has no header line");
+        }
+        CsvSchema.Builder schema = CsvSchema.builder();
+        for (String column : header.replace("\uFEFF", "").split(",")) {
+            String name = column.trim();
+            if (!CSV_COLUMNS.contains(name)) {
+                throw new IllegalArgumentException("Unknown CSV column: " + name);
+            }
+            schema.addColumn(name);
+        }
+        return csvMapper.readerFor(PolicyDto.class).with(schema.build());
+    }
+}
@@ -0,0 +1,26 @@
+package com.insurance.policy.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    /**
+     * Compacted, so the topic keeps the latest event per policy and a consumer reading it
+     * from the beginning ends up with the current state of every policy.
+     */
+    @Bean
+    public NewTopic policyEventsTopic(@Value("${policy.events.topic:policy-events}") String topic,
+                                      @Value("${policy.events.partitions:6}") int partitions,
+                                      @Value("${policy.events.replicas:1}") int replicas) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .build();
+    }
+}
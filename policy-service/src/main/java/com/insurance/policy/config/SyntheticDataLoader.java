@@ -0,0 +1,79 @@
+package com.insurance.policy.config;
+
+import com.insurance.policy.repository.PolicyJdbcRepository;
+import com.insurance.shared.dto.PolicyDto;
+import com.insurance.shared.synthetic.SyntheticPortfolio;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a synthetic portfolio of {@code synthetic.policies} policies for performance work,
+ * in place of {@link TestDataSeeder}. Policies already present are skipped, so an
+ * interrupted load can simply be restarted. billing-service's perf profile loads the
+ * matching billings and payments from the same seed and as-of date.
+ */
+@Slf4j
+@Component
+@Profile("perf")
+public class SyntheticDataLoader implements CommandLineRunner {
+
+    private final PolicyJdbcRepository policyJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int policies;
+    private final long seed;
+    private final String asOf;
+    private final int batchSize;
+
+    public SyntheticDataLoader(PolicyJdbcRepository policyJdbcRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${synthetic.policies:100000}") int policies,
+                               @Value("${synthetic.seed:42}") long seed,
+                               @Value("${synthetic.as-of:}") String asOf,
+                               @Value("${synthetic.batch-size:5000}") int batchSize) {
+        this.policyJdbcRepository = policyJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.policies = policies;
+        this.seed = seed;
+        this.asOf = asOf;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(String... args) {
+        LocalDate day = asOf.isBlank() ? LocalDate.now() : LocalDate.parse(asOf);
+        SyntheticPortfolio portfolio = new SyntheticPortfolio(seed, policies, day);
+        long started = System.nanoTime();
+        int inserted = 0;
+        for (int from = 0; from < policies; from += batchSize) {
+            List<PolicyDto> batch = new ArrayList<>(batchSize);
+            for (int index = from; index < Math.min(from + batchSize, policies); index++) {
+                batch.add(portfolio.policy(index));
+            }
+            inserted += transactionTemplate.execute(status -> insertMissing(batch));
+        }
+        log.info("Synthetic portfolio (seed {}, as of {}): {} of {} policies inserted in {} ms",
+                seed, day, inserted, policies, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private int insertMissing(List<PolicyDto> batch) {
+        Set<String> existing = policyJdbcRepository.findExistingIds(batch.stream()
+                .map(PolicyDto::getId)
+                .collect(Collectors.toSet()));
+        List<PolicyDto> missing = batch.stream()
+                .filter(policy -> !existing.contains(policy.getId()))
+                .toList();
+        policyJdbcRepository.insertAll(missing);
+        return missing.size();
+    }
+}
@@ -5,6 +5,7 @@ import com.insurance.policy.repository.PolicyRepository;
 import com.insurance.shared.enums.PaymentFrequency;
 import com.insurance.shared.enums.PolicyStatus;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Component
+@Profile("!perf")
 public class TestDataSeeder implements CommandLineRunner {
 
     private final PolicyRepository policyRepository;
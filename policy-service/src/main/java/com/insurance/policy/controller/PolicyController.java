@@ -1,22 +1,63 @@
 package com.insurance.policy.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.insurance.policy.bulkimport.ImportFormat;
+import com.insurance.policy.bulkimport.ImportReport;
+import com.insurance.policy.bulkimport.PolicyImportService;
+import com.insurance.policy.search.PolicySearchCriteria;
+import com.insurance.policy.search.PolicySearchResult;
+import com.insurance.policy.service.PolicyFilter;
 import com.insurance.policy.service.PolicyService;
+import com.insurance.policy.stream.PolicyEventPublisher;
+import com.insurance.shared.dto.ChangedPoliciesDto;
+import com.insurance.shared.dto.CursorPage;
 import com.insurance.shared.dto.PolicyDto;
 import com.insurance.shared.dto.PremiumScheduleDto;
+import com.insurance.shared.enums.PaymentFrequency;
+import com.insurance.shared.enums.PolicyStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/policies")
 public class PolicyController {
 
+    public static final int MAX_BATCH_GET_SIZE = 1000;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
     private final PolicyService policyService;
+    private final PolicyImportService policyImportService;
+    private final PolicyEventPublisher policyEventPublisher;
+    private final ObjectMapper objectMapper;
 
-    public PolicyController(PolicyService policyService) {
+    public PolicyController(PolicyService policyService, PolicyImportService policyImportService,
+                            PolicyEventPublisher policyEventPublisher, ObjectMapper objectMapper) {
         this.policyService = policyService;
+        this.policyImportService = policyImportService;
+        this.policyEventPublisher = policyEventPublisher;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/hello")
@@ -29,16 +70,156 @@ public class PolicyController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * The policy, tagged with a strong ETag derived from its version. A request whose
+     * If-None-Match still matches is answered 304 from the version alone.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<PolicyDto> getPolicyById(@PathVariable String id) {
+    public ResponseEntity<PolicyDto> getPolicyById(@PathVariable String id,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                   String ifNoneMatch) {
+        ResponseEntity<PolicyDto> notModified = checkNotModified(id, ifNoneMatch);
+        if (notModified != null) {
+            return notModified;
+        }
         return policyService.getPolicyById(id)
-                .map(ResponseEntity::ok)
+                .map(policy -> tagged(policy, policy.getVersion()))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Whether the policy exists, for callers that only need to validate a reference.
+     */
+    @GetMapping("/{id}/exists")
+    public ResponseEntity<Boolean> policyExists(@PathVariable String id) {
+        return ResponseEntity.ok(policyService.policyExists(id));
+    }
+
+    @PostMapping("/batch-get")
+    public ResponseEntity<List<PolicyDto>> getPoliciesByIds(@RequestBody List<String> ids) {
+        if (ids.size() > MAX_BATCH_GET_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(policyService.getPoliciesByIds(new LinkedHashSet<>(ids)));
+    }
+
+    /**
+     * Batched revalidation: takes the version held of each policy and returns only the
+     * policies that changed since, plus the ids that no longer exist.
+     */
+    @PostMapping("/batch-get/changed")
+    public ResponseEntity<ChangedPoliciesDto> getChangedPolicies(@RequestBody Map<String, Long> knownVersions) {
+        if (knownVersions.size() > MAX_BATCH_GET_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(policyService.getChangedPolicies(knownVersions));
+    }
+
+    /**
+     * Every policy matching the filters, as one JSON array. The array is written as rows are
+     * read rather than collected first, so memory use does not depend on the number of policies.
+     */
     @GetMapping
-    public ResponseEntity<List<PolicyDto>> getAllPolicies() {
-        return ResponseEntity.ok(policyService.getAllPolicies());
+    public ResponseEntity<StreamingResponseBody> listPolicies(
+            @RequestParam(required = false) PolicyStatus status,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo) {
+        PolicyFilter filter = new PolicyFilter(status, type, dueFrom, dueTo);
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = streamingGenerator(outputStream);
+            generator.writeStartArray();
+            writePolicies(filter, generator, false);
+            generator.writeEndArray();
+            generator.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Cursor-paginated listing; pass nextCursor back as cursor for the following page.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<PolicyDto>> listPoliciesPage(
+            @RequestParam(required = false) PolicyStatus status,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(policyService.listPolicies(new PolicyFilter(status, type, dueFrom, dueTo), cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * The same listing as one NDJSON stream (one policy per line) for bulk consumers.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPolicies(
+            @RequestParam(required = false) PolicyStatus status,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo) {
+        PolicyFilter filter = new PolicyFilter(status, type, dueFrom, dueTo);
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = streamingGenerator(outputStream);
+            writePolicies(filter, generator, true);
+            generator.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private JsonGenerator streamingGenerator(OutputStream outputStream) throws IOException {
+        return objectMapper.getFactory().createGenerator(new BufferedOutputStream(outputStream, STREAM_BUFFER_SIZE));
+    }
+
+    private void writePolicies(PolicyFilter filter, JsonGenerator generator, boolean newlineDelimited) {
+        // Flushing is left to the buffer, not done per policy
+        ObjectWriter writer = objectMapper.writerFor(PolicyDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        policyService.streamPolicies(filter, policy -> {
+            try {
+                writer.writeValue(generator, policy);
+                if (newlineDelimited) {
+                    generator.writeRaw('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Find policies by any combination of attributes, answered from the in-memory search index.
+     * Paged like the listing: pass nextCursor back as cursor for the following page.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<PolicySearchResult> searchPolicies(
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) PolicyStatus status,
+            @RequestParam(required = false) PaymentFrequency frequency,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        PolicySearchCriteria criteria = new PolicySearchCriteria(customerId, type, status, frequency, dueFrom, dueTo);
+        try {
+            return ResponseEntity.ok(policyService.searchPolicies(criteria, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
     }
 
     @PostMapping
@@ -46,16 +227,104 @@ public class PolicyController {
         return ResponseEntity.ok(policyService.createPolicy(policyDto));
     }
 
+    /**
+     * Import a CSV or NDJSON file of policies, streamed from the request body. Post the same
+     * file with the same importId to resume an import that was interrupted.
+     */
+    @PostMapping(value = "/import", consumes = {ImportFormat.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportReport> importPolicies(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                       @RequestParam(required = false) String importId,
+                                                       InputStream body) throws IOException {
+        String id = importId != null ? importId : UUID.randomUUID().toString();
+        try {
+            return ResponseEntity.ok(policyImportService.importPolicies(id, body, ImportFormat.of(contentType)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Republish every policy to the policy events topic, e.g. to seed a new consumer.
+     */
+    @PostMapping("/events/replay")
+    public ResponseEntity<Map<String, Long>> replayPolicyEvents() {
+        try {
+            return ResponseEntity.ok(Map.of("published", policyEventPublisher.replayAll()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<PolicyDto> updatePolicy(@PathVariable String id, @RequestBody PolicyDto policyDto) {
+        return policyService.updatePolicy(id, policyDto)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deletePolicy(@PathVariable String id) {
+        return policyService.deletePolicy(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
     @GetMapping("/customer/{customerId}")
     public ResponseEntity<List<PolicyDto>> getPoliciesForCustomer(@PathVariable String customerId) {
         List<PolicyDto> policies = policyService.getPoliciesForCustomer(customerId);
         return ResponseEntity.ok(policies);
     }
 
+    /**
+     * The installment schedule, which is a function of the policy version alone, so it is
+     * tagged and revalidated like the policy itself.
+     */
     @GetMapping("/{id}/premium-schedule")
-    public ResponseEntity<PremiumScheduleDto> getPremiumScheduleForPolicy(@PathVariable String id) {
+    public ResponseEntity<PremiumScheduleDto> getPremiumScheduleForPolicy(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ResponseEntity<PremiumScheduleDto> notModified = checkNotModified(id, ifNoneMatch);
+        if (notModified != null) {
+            return notModified;
+        }
         return policyService.getPremiumScheduleForPolicy(id)
-                .map(ResponseEntity::ok)
+                .map(schedule -> tagged(schedule, schedule.getVersion()))
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * 304 (or 404) when If-None-Match can be answered from the policy version, else null.
+     */
+    private <T> ResponseEntity<T> checkNotModified(String id, String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        Optional<Long> version = policyService.getPolicyVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String current = versionTag(version.get());
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses the weak comparison
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+        return null;
+    }
+
+    private static <T> ResponseEntity<T> tagged(T body, Long version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (version != null) {
+            response.eTag(versionTag(version));
+        }
+        return response.body(body);
+    }
+
+    private static String versionTag(long version) {
+        return "\"" + version + "\"";
+    }
 }
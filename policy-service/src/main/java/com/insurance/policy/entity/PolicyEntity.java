@@ -58,9 +58,13 @@ public class PolicyEntity {
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
-    @Column(updatable = false)
+    @Column
     private LocalDateTime updatedAt;
 
+    // Bumped on every update; also identifies derived data such as installment schedules
+    @Version
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
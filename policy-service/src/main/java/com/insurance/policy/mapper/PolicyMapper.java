@@ -4,16 +4,32 @@ import com.insurance.policy.entity.PolicyEntity;
 import com.insurance.shared.dto.PolicyDto;
 import com.insurance.shared.dto.PremiumScheduleDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 @Mapper(componentModel = "spring")
 public interface PolicyMapper {
 
     // Map PolicyEntity to PolicyDto
+    @Mapping(source = "paymentFrequency", target = "frequency")
     PolicyDto toDto(PolicyEntity policyEntity);
 
     // Map PolicyDto to PolicyEntity
+    @Mapping(source = "frequency", target = "paymentFrequency")
+    @Mapping(target = "version", ignore = true)
     PolicyEntity toEntity(PolicyDto policyDto);
 
-    // Map PolicyEntity to PremiumScheduleDto
+    // Copy the editable fields of a PolicyDto onto an existing PolicyEntity
+    @Mapping(source = "frequency", target = "paymentFrequency")
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void updateEntity(PolicyDto policyDto, @MappingTarget PolicyEntity policyEntity);
+
+    // Map PolicyEntity to PremiumScheduleDto; the installment schedule is generated separately
+    @Mapping(source = "id", target = "policyId")
+    @Mapping(source = "paymentFrequency", target = "billingFrequency")
+    @Mapping(target = "schedule", ignore = true)
     PremiumScheduleDto toPremiumScheduleDto(PolicyEntity policyEntity);
-}
\ No newline at end of file
+}
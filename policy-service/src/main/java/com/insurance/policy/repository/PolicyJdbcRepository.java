@@ -0,0 +1,123 @@
+package com.insurance.policy.repository;
+
+import com.insurance.policy.bulkimport.ImportCheckpoint;
+import com.insurance.shared.dto.PolicyDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Batched writes for bulk policy imports. Ids come from the import file, so going through
+ * JPA would merge (and first select) every row; these are plain JDBC batches, which the
+ * MariaDB driver sends as bulk statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PolicyJdbcRepository {
+
+    static final String INSERT_SQL = "INSERT INTO policies"
+            + " (id, policy_number, customer_id, policy_type, status, effective_date, expiration_date,"
+            + " premium_amount, payment_frequency, grace_period_days, next_due_date, created_at, updated_at, version)"
+            + " VALUES (:id, :policyNumber, :customerId, :policyType, :status, :effectiveDate, :expirationDate,"
+            + " :premiumAmount, :paymentFrequency, :gracePeriodDays, :nextDueDate, :now, :now, 0)";
+
+    static final String UPDATE_CHECKPOINT_SQL = "UPDATE policy_import_checkpoints SET rows_committed = :rowsCommitted,"
+            + " accepted = :accepted, rejected = :rejected, updated_at = :now"
+            + " WHERE import_id = :importId AND rows_committed = :expectedRowsCommitted";
+
+    static final String INSERT_CHECKPOINT_SQL = "INSERT INTO policy_import_checkpoints"
+            + " (import_id, rows_committed, accepted, rejected, updated_at)"
+            + " VALUES (:importId, :rowsCommitted, :accepted, :rejected, :now)";
+
+    private static final int ID_LOOKUP_CHUNK = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insertAll(Collection<PolicyDto> policies) {
+        if (policies.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, policies.stream()
+                .map(policy -> new MapSqlParameterSource()
+                        .addValue("id", policy.getId())
+                        .addValue("policyNumber", policy.getPolicyNumber())
+                        .addValue("customerId", policy.getCustomerId())
+                        .addValue("policyType", policy.getPolicyType())
+                        .addValue("status", policy.getStatus().name())
+                        .addValue("effectiveDate", Timestamp.valueOf(policy.getEffectiveDate().atStartOfDay()))
+                        .addValue("expirationDate", Timestamp.valueOf(policy.getExpirationDate().atStartOfDay()))
+                        .addValue("premiumAmount", policy.getPremiumAmount())
+                        .addValue("paymentFrequency", policy.getFrequency().name())
+                        .addValue("gracePeriodDays", policy.getGracePeriodDays())
+                        .addValue("nextDueDate", policy.getNextDueDate())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * The subset of the given ids that already exist.
+     */
+    public Set<String> findExistingIds(Collection<String> ids) {
+        Set<String> existing = new HashSet<>();
+        List<String> all = List.copyOf(ids);
+        for (int from = 0; from < all.size(); from += ID_LOOKUP_CHUNK) {
+            List<String> chunk = all.subList(from, Math.min(from + ID_LOOKUP_CHUNK, all.size()));
+            existing.addAll(jdbcTemplate.queryForList("SELECT id FROM policies WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", chunk), String.class));
+        }
+        return existing;
+    }
+
+    public Optional<ImportCheckpoint> findCheckpoint(String importId) {
+        return jdbcTemplate.query("SELECT import_id, rows_committed, accepted, rejected"
+                                + " FROM policy_import_checkpoints WHERE import_id = :importId",
+                        new MapSqlParameterSource("importId", importId),
+                        (rs, rowNum) -> new ImportCheckpoint(rs.getString("import_id"),
+                                rs.getLong("rows_committed"), rs.getLong("accepted"), rs.getLong("rejected")))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Move the checkpoint on from {@code expectedRowsCommitted}, the position this import
+     * last read or saved. The update locks the checkpoint row until the transaction ends, so
+     * an import of the same importId running on another instance waits here and then fails.
+     *
+     * @throws IllegalStateException if the checkpoint is no longer at expectedRowsCommitted,
+     *                               i.e. another run of this import has committed rows since
+     */
+    public void saveCheckpoint(ImportCheckpoint checkpoint, long expectedRowsCommitted) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("importId", checkpoint.importId())
+                .addValue("rowsCommitted", checkpoint.rowsCommitted())
+                .addValue("accepted", checkpoint.accepted())
+                .addValue("rejected", checkpoint.rejected())
+                .addValue("expectedRowsCommitted", expectedRowsCommitted)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        if (jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, parameters) == 1) {
+            return;
+        }
+        if (expectedRowsCommitted == 0) {
+            try {
+                jdbcTemplate.update(INSERT_CHECKPOINT_SQL, parameters);
+                return;
+            } catch (DuplicateKeyException e) {
+                // Another run started this import first; fall through
+            }
+        }
+        throw new IllegalStateException("Import " + checkpoint.importId()
+                + " was advanced past row " + expectedRowsCommitted + " by another run");
+    }
+}
@@ -1,12 +1,71 @@
 package com.insurance.policy.repository;
 
 import com.insurance.policy.entity.PolicyEntity;
-import org.springframework.data.repository.CrudRepository;
+import com.insurance.shared.enums.PolicyStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PolicyRepository extends CrudRepository<PolicyEntity, String> {
+public interface PolicyRepository extends JpaRepository<PolicyEntity, String> {
+
+    // Every filter is optional; the listing is ordered by id so pages can seek past the last one
+    String FILTERED = "SELECT p FROM PolicyEntity p WHERE (:status IS NULL OR p.status = :status)"
+            + " AND (:policyType IS NULL OR p.policyType = :policyType)"
+            + " AND (:dueFrom IS NULL OR p.nextDueDate >= :dueFrom)"
+            + " AND (:dueTo IS NULL OR p.nextDueDate <= :dueTo)";
+
     List<PolicyEntity> findByCustomerId(String customerId);
-}
\ No newline at end of file
+
+    List<PolicyEntity> findByIdIn(Collection<String> ids);
+
+    // Enough to answer a conditional GET without loading the policy
+    @Query("SELECT p.version FROM PolicyEntity p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") String id);
+
+    // id and version of each policy that exists, for revalidating copies held by a client
+    @Query("SELECT p.id, p.version FROM PolicyEntity p WHERE p.id IN :ids")
+    List<Object[]> findVersionsByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query(FILTERED + " AND (:afterId IS NULL OR p.id > :afterId) ORDER BY p.id")
+    List<PolicyEntity> findPage(@Param("status") PolicyStatus status,
+                                @Param("policyType") String policyType,
+                                @Param("dueFrom") LocalDate dueFrom,
+                                @Param("dueTo") LocalDate dueTo,
+                                @Param("afterId") String afterId,
+                                Limit limit);
+
+    /**
+     * All matching policies, fetched from the database in chunks as the stream is consumed.
+     * Must be consumed and closed inside a transaction; callers detach entities they are done
+     * with so the persistence context does not grow with the result.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(FILTERED + " ORDER BY p.id")
+    Stream<PolicyEntity> streamAll(@Param("status") PolicyStatus status,
+                                   @Param("policyType") String policyType,
+                                   @Param("dueFrom") LocalDate dueFrom,
+                                   @Param("dueTo") LocalDate dueTo);
+
+    /**
+     * Every policy id, fetched in chunks as the stream is consumed; must be consumed and
+     * closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT p.id FROM PolicyEntity p")
+    Stream<String> streamAllIds();
+}
@@ -0,0 +1,70 @@
+package com.insurance.policy.schedule;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.insurance.policy.entity.PolicyEntity;
+import com.insurance.shared.dto.PremiumScheduleDto.PaymentDto;
+import com.insurance.shared.events.PolicyChangeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Installment schedules generated on first request and kept per policy version. A cached
+ * schedule is only returned while the policy still has the version it was generated from,
+ * so updates made through other instances are never served stale; local changes also drop
+ * the entry as soon as they commit.
+ */
+@Component
+public class InstallmentScheduleCache {
+
+    static final String CACHE_NAME = "policy.installment-schedules";
+
+    private final InstallmentScheduleGenerator generator;
+    private final Cache<String, VersionedSchedule> cache;
+
+    public InstallmentScheduleCache(InstallmentScheduleGenerator generator,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${policy.schedule-cache.maximum-size:100000}") long maximumSize,
+                                    @Value("${policy.schedule-cache.expire-after-access:1h}") Duration expireAfterAccess) {
+        this.generator = generator;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    private record VersionedSchedule(Long version, List<PaymentDto> installments) {
+    }
+
+    public List<PaymentDto> scheduleFor(PolicyEntity policy) {
+        VersionedSchedule cached = cache.getIfPresent(policy.getId());
+        if (cached != null && Objects.equals(cached.version(), policy.getVersion())) {
+            return cached.installments();
+        }
+        List<PaymentDto> installments = List.copyOf(generator.generate(
+                toDate(policy.getEffectiveDate()), toDate(policy.getExpirationDate()),
+                policy.getPaymentFrequency(), policy.getPremiumAmount(), policy.getNextDueDate()));
+        cache.put(policy.getId(), new VersionedSchedule(policy.getVersion(), installments));
+        return installments;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPolicyChange(PolicyChangeEvent event) {
+        cache.invalidate(event.getPolicyId());
+    }
+
+    private static LocalDate toDate(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toLocalDate() : null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.insurance.policy.schedule;
+
+import com.insurance.shared.dto.PremiumScheduleDto.PaymentDto;
+import com.insurance.shared.enums.PaymentFrequency;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Derives the installments of a policy term: one installment of the premium amount every
+ * billing period, from the effective date up to (not including) the expiration date.
+ * <p>
+ * Due dates are computed from the effective date rather than from the previous installment,
+ * so a term starting on the 31st comes back to the 31st after short months.
+ */
+@Component
+public class InstallmentScheduleGenerator {
+
+    static final String PAID = "PAID";
+    static final String DUE = "DUE";
+    static final String SCHEDULED = "SCHEDULED";
+
+    /**
+     * @param nextDueDate the policy's next due date; installments before it are settled
+     */
+    public List<PaymentDto> generate(LocalDate effectiveDate, LocalDate expirationDate,
+                                     PaymentFrequency frequency, BigDecimal premiumAmount,
+                                     LocalDate nextDueDate) {
+        if (effectiveDate == null || expirationDate == null || frequency == null) {
+            return List.of();
+        }
+        int monthsPerPeriod = monthsPerPeriod(frequency);
+        List<PaymentDto> installments = new ArrayList<>();
+        for (int period = 0; ; period++) {
+            LocalDate dueDate = effectiveDate.plusMonths((long) period * monthsPerPeriod);
+            if (!dueDate.isBefore(expirationDate)) {
+                break;
+            }
+            installments.add(PaymentDto.builder()
+                    .dueDate(dueDate)
+                    .amount(premiumAmount)
+                    .status(status(dueDate, nextDueDate))
+                    .build());
+        }
+        return installments;
+    }
+
+    private static String status(LocalDate dueDate, LocalDate nextDueDate) {
+        if (nextDueDate == null || dueDate.isAfter(nextDueDate)) {
+            return SCHEDULED;
+        }
+        return dueDate.isBefore(nextDueDate) ? PAID : DUE;
+    }
+
+    static int monthsPerPeriod(PaymentFrequency frequency) {
+        return switch (frequency) {
+            case MONTHLY -> 1;
+            case QUARTERLY -> 3;
+            case SEMI_ANNUAL -> 6;
+            case ANNUAL -> 12;
+        };
+    }
+}
@@ -0,0 +1,240 @@
+package com.insurance.policy.search;
+
+import com.insurance.policy.repository.PolicyRepository;
+import com.insurance.shared.events.PolicyChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over every policy id, so an existence check for an id that was never created
+ * is answered without a database round trip. Ids of policies created through this instance
+ * are added before the creating transaction commits, and a rolled back id only costs a
+ * wasted primary-key probe. Ids created on other instances are added as their events arrive
+ * from the policy events topic (see {@code PolicyIdFilterListener}). Deleted ids stay in the
+ * filter until the next rebuild, for the same cost.
+ * <p>
+ * A negative is only as complete as the events read so far, so callers take it as final only
+ * while {@link #isAuthoritative()}: the listener has reported every partition read to its end
+ * within {@code policy.exists-filter.caught-up-timeout}. While the consumer lags, cannot reach
+ * the broker or has not started, negatives are confirmed with the database. With
+ * {@code policy.exists-filter.follow-events=false} the instance is taken to be the only one
+ * creating policies, and negatives are final once the filter is built.
+ * <p>
+ * The filter is sized from the policy count at startup and rebuilt periodically, which
+ * resizes it as the portfolio grows and picks up any policy whose event was missed.
+ * Until the first build finishes every id is reported as possibly present.
+ */
+@Slf4j
+@Component
+public class PolicyIdFilter {
+
+    private final PolicyRepository policyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long minimumCapacity;
+    private final double falsePositiveRate;
+    private final boolean followEvents;
+    private final long caughtUpTimeoutMillis;
+    private final Object rebuildLock = new Object();
+
+    private volatile Bits bits;
+    private volatile long caughtUpAt;
+    // Ids created while a rebuild is reading the table; added to the new filter before the swap
+    private List<String> rebuildJournal;
+
+    public PolicyIdFilter(PolicyRepository policyRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${policy.exists-filter.minimum-capacity:100000}") long minimumCapacity,
+                          @Value("${policy.exists-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                          @Value("${policy.exists-filter.follow-events:true}") boolean followEvents,
+                          @Value("${policy.exists-filter.caught-up-timeout:PT5S}") Duration caughtUpTimeout) {
+        this.policyRepository = policyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.minimumCapacity = minimumCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.followEvents = followEvents;
+        this.caughtUpTimeoutMillis = caughtUpTimeout.toMillis();
+    }
+
+    public boolean isReady() {
+        return bits != null;
+    }
+
+    /**
+     * Whether {@link #mightContain} returning false can be taken as final.
+     */
+    public boolean isAuthoritative() {
+        return bits != null
+                && (!followEvents || System.currentTimeMillis() - caughtUpAt < caughtUpTimeoutMillis);
+    }
+
+    /**
+     * Called by the events listener when it has read every assigned partition to its end.
+     */
+    public void markCaughtUp() {
+        caughtUpAt = System.currentTimeMillis();
+    }
+
+    /**
+     * False only if the policy certainly does not exist.
+     */
+    public boolean mightContain(String policyId) {
+        Bits current = bits;
+        return current == null || current.mightContain(policyId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPolicyChange(PolicyChangeEvent event) {
+        if (event.getChangeType() == PolicyChangeEvent.ChangeType.CREATED) {
+            add(event.getPolicyId());
+        }
+    }
+
+    public void add(String policyId) {
+        synchronized (rebuildLock) {
+            Bits current = bits;
+            if (current != null) {
+                current.add(policyId);
+            }
+            if (rebuildJournal != null) {
+                rebuildJournal.add(policyId);
+            }
+        }
+    }
+
+    // A failed load leaves every id possibly present, so checks fall back to the database
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuildQuietly();
+    }
+
+    @Scheduled(fixedDelayString = "${policy.exists-filter.rebuild-interval:PT15M}",
+            initialDelayString = "${policy.exists-filter.rebuild-interval:PT15M}")
+    public void scheduledRebuild() {
+        rebuildQuietly();
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild policy id filter: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Load every policy id into a filter sized for twice the current count and swap it in.
+     */
+    public synchronized void rebuild() {
+        synchronized (rebuildLock) {
+            rebuildJournal = new ArrayList<>();
+        }
+        Bits fresh;
+        try {
+            fresh = transactionTemplate.execute(status -> {
+                Bits loading = Bits.forCapacity(Math.max(minimumCapacity, 2 * policyRepository.count()),
+                        falsePositiveRate);
+                try (Stream<String> ids = policyRepository.streamAllIds()) {
+                    ids.forEach(loading::add);
+                }
+                return loading;
+            });
+        } catch (RuntimeException e) {
+            synchronized (rebuildLock) {
+                rebuildJournal = null;
+            }
+            throw e;
+        }
+        synchronized (rebuildLock) {
+            rebuildJournal.forEach(fresh::add);
+            rebuildJournal = null;
+            bits = fresh;
+        }
+        log.info("Rebuilt policy id filter: {} bits, {} hash functions", fresh.size(), fresh.hashCount);
+    }
+
+    /**
+     * The bit array, set and read without locking. Each id sets {@code hashCount} bits
+     * derived from two 64-bit hashes of it (h1 + i * h2).
+     */
+    static final class Bits {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        private Bits(long bitCount, int hashCount) {
+            this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) >>> 6));
+            this.bitCount = (long) words.length() << 6;
+            this.hashCount = hashCount;
+        }
+
+        static Bits forCapacity(long capacity, double falsePositiveRate) {
+            long expected = Math.max(1, capacity);
+            long bitCount = Math.max(64, (long) Math.ceil(-expected * Math.log(falsePositiveRate)
+                    / (Math.log(2) * Math.log(2))));
+            int hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+            return new Bits(bitCount, hashCount);
+        }
+
+        long size() {
+            return bitCount;
+        }
+
+        void add(String id) {
+            long hash = fnv1a(id);
+            long h1 = mix(hash);
+            long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word = words.get(index);
+                while ((word & mask) == 0 && !words.weakCompareAndSetVolatile(index, word, word | mask)) {
+                    word = words.get(index);
+                }
+            }
+        }
+
+        boolean mightContain(String id) {
+            long hash = fnv1a(id);
+            long h1 = mix(hash);
+            long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long fnv1a(String id) {
+            long hash = 0xCBF29CE484222325L;
+            for (int i = 0; i < id.length(); i++) {
+                hash = (hash ^ id.charAt(i)) * 0x100000001B3L;
+            }
+            return hash;
+        }
+
+        // Finalizer from SplitMix64, so ids differing only in their last digits spread out
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
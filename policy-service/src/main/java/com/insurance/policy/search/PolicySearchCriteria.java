@@ -0,0 +1,32 @@
+package com.insurance.policy.search;
+
+import com.insurance.shared.dto.PolicyDto;
+import com.insurance.shared.enums.PaymentFrequency;
+import com.insurance.shared.enums.PolicyStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Attributes a policy search must match; null fields are not constrained. The due date
+ * range is inclusive at both ends.
+ */
+public record PolicySearchCriteria(String customerId,
+                                   String policyType,
+                                   PolicyStatus status,
+                                   PaymentFrequency frequency,
+                                   LocalDate dueFrom,
+                                   LocalDate dueTo) {
+
+    /**
+     * Check a loaded policy against the criteria, to drop index hits that went stale.
+     */
+    public boolean matches(PolicyDto policy) {
+        LocalDate due = policy.getNextDueDate();
+        return (customerId == null || customerId.equals(policy.getCustomerId()))
+                && (policyType == null || policyType.equals(policy.getPolicyType()))
+                && (status == null || status == policy.getStatus())
+                && (frequency == null || frequency == policy.getFrequency())
+                && (dueFrom == null || (due != null && !due.isBefore(dueFrom)))
+                && (dueTo == null || (due != null && !due.isAfter(dueTo)));
+    }
+}
@@ -0,0 +1,371 @@
+package com.insurance.policy.search;
+
+import com.insurance.policy.entity.PolicyEntity;
+import com.insurance.policy.mapper.PolicyMapper;
+import com.insurance.policy.repository.PolicyRepository;
+import com.insurance.shared.dto.PolicyDto;
+import com.insurance.shared.enums.PaymentFrequency;
+import com.insurance.shared.enums.PolicyStatus;
+import com.insurance.shared.events.PolicyChangeEvent;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory secondary index over the searchable policy attributes. Every policy gets a
+ * dense ordinal; status, frequency and policy type keep one bitmap of ordinals per value,
+ * customers keep a small ordinal set each, and next due dates live in one sorted set of
+ * (date, ordinal) keys. A search intersects the bitmaps of the given criteria, so it never
+ * touches the policies table.
+ * <p>
+ * The index follows committed policy changes and is rebuilt from the database at startup
+ * and periodically, which also picks up changes made by other instances.
+ */
+@Slf4j
+@Component
+public class PolicySearchIndex {
+
+    private final PolicyRepository policyRepository;
+    private final PolicyMapper policyMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Object rebuildLock = new Object();
+
+    private volatile Postings postings = new Postings();
+    private volatile boolean ready;
+    // Changes seen while a rebuild is reading the table; replayed onto the new postings
+    private List<Consumer<Postings>> rebuildJournal;
+
+    public PolicySearchIndex(PolicyRepository policyRepository,
+                             PolicyMapper policyMapper,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager) {
+        this.policyRepository = policyRepository;
+        this.policyMapper = policyMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Ids of the first matching policies after the requested id, in id order, the number of
+     * matches overall, and whether more matches follow these ids.
+     */
+    public record Hits(int total, List<String> ids, boolean hasMore) {
+    }
+
+    /**
+     * Whether the initial load has finished; searches are refused until then.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPolicyChange(PolicyChangeEvent event) {
+        if (event.getChangeType() == PolicyChangeEvent.ChangeType.DELETED || event.getPolicy() == null) {
+            remove(event.getPolicyId());
+        } else {
+            put(event.getPolicy());
+        }
+    }
+
+    public void put(PolicyDto policy) {
+        Entry entry = Entry.of(policy);
+        apply(target -> target.put(entry));
+    }
+
+    public void remove(String policyId) {
+        apply(target -> target.remove(policyId));
+    }
+
+    /**
+     * @param afterId only ids greater than this are returned, or null for the first page
+     * @throws IllegalStateException if the index has not finished loading
+     */
+    public Hits search(PolicySearchCriteria criteria, String afterId, int limit) {
+        if (!ready) {
+            throw new IllegalStateException("Policy search index is still loading");
+        }
+        return postings.search(criteria, afterId, limit);
+    }
+
+    public int size() {
+        return postings.size();
+    }
+
+    // A failed load leaves search unavailable rather than stopping the service
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuildQuietly();
+    }
+
+    @Scheduled(fixedDelayString = "${policy.search.rebuild-interval:PT15M}",
+            initialDelayString = "${policy.search.rebuild-interval:PT15M}")
+    public void scheduledRebuild() {
+        rebuildQuietly();
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild policy search index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reload every policy from the database into fresh postings and swap them in.
+     */
+    public synchronized void rebuild() {
+        synchronized (rebuildLock) {
+            rebuildJournal = new ArrayList<>();
+        }
+        Postings fresh = new Postings();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<PolicyEntity> policies = policyRepository.streamAll(null, null, null, null)) {
+                    policies.forEach(policy -> {
+                        fresh.put(Entry.of(policyMapper.toDto(policy)));
+                        entityManager.detach(policy);
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (rebuildLock) {
+                rebuildJournal = null;
+            }
+            throw e;
+        }
+        synchronized (rebuildLock) {
+            rebuildJournal.forEach(change -> change.accept(fresh));
+            rebuildJournal = null;
+            postings = fresh;
+            ready = true;
+        }
+        log.info("Rebuilt policy search index with {} policies", fresh.size());
+    }
+
+    private void apply(Consumer<Postings> change) {
+        synchronized (rebuildLock) {
+            change.accept(postings);
+            if (rebuildJournal != null) {
+                rebuildJournal.add(change);
+            }
+        }
+    }
+
+    /**
+     * The indexed attributes of one policy, kept so that an update can unindex the old values.
+     */
+    record Entry(String id, String customerId, String policyType, PolicyStatus status,
+                 PaymentFrequency frequency, LocalDate nextDueDate) {
+
+        static Entry of(PolicyDto policy) {
+            return new Entry(policy.getId(), policy.getCustomerId(), policy.getPolicyType(),
+                    policy.getStatus(), policy.getFrequency(), policy.getNextDueDate());
+        }
+    }
+
+    static final class Postings {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<Entry> entries = new ArrayList<>();
+        private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+        private final BitSet live = new BitSet();
+        private final Map<PolicyStatus, BitSet> byStatus = new EnumMap<>(PolicyStatus.class);
+        private final Map<PaymentFrequency, BitSet> byFrequency = new EnumMap<>(PaymentFrequency.class);
+        private final Map<String, BitSet> byType = new HashMap<>();
+        // Customers hold a handful of policies each, so a bitmap per customer would be mostly empty
+        private final Map<String, Set<Integer>> byCustomer = new HashMap<>();
+        private final NavigableSet<Long> byDueDate = new TreeSet<>();
+
+        void put(Entry entry) {
+            lock.writeLock().lock();
+            try {
+                Integer ordinal = ordinals.get(entry.id());
+                if (ordinal != null) {
+                    unindex(ordinal, entries.get(ordinal));
+                } else {
+                    ordinal = allocate();
+                    ordinals.put(entry.id(), ordinal);
+                }
+                entries.set(ordinal, entry);
+                index(ordinal, entry);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(String policyId) {
+            lock.writeLock().lock();
+            try {
+                Integer ordinal = ordinals.remove(policyId);
+                if (ordinal != null) {
+                    unindex(ordinal, entries.get(ordinal));
+                    entries.set(ordinal, null);
+                    freeOrdinals.push(ordinal);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return ordinals.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Hits search(PolicySearchCriteria criteria, String afterId, int limit) {
+            lock.readLock().lock();
+            try {
+                BitSet matches = (BitSet) live.clone();
+                if (criteria.customerId() != null) {
+                    BitSet customer = new BitSet();
+                    byCustomer.getOrDefault(criteria.customerId(), Set.of()).forEach(customer::set);
+                    matches.and(customer);
+                }
+                if (criteria.policyType() != null) {
+                    intersect(matches, byType.get(criteria.policyType()));
+                }
+                if (criteria.status() != null) {
+                    intersect(matches, byStatus.get(criteria.status()));
+                }
+                if (criteria.frequency() != null) {
+                    intersect(matches, byFrequency.get(criteria.frequency()));
+                }
+                if (criteria.dueFrom() != null || criteria.dueTo() != null) {
+                    long from = criteria.dueFrom() != null ? dueKey(criteria.dueFrom(), 0) : Long.MIN_VALUE;
+                    long to = criteria.dueTo() != null ? dueKey(criteria.dueTo(), Integer.MAX_VALUE) : Long.MAX_VALUE;
+                    BitSet due = new BitSet();
+                    for (long key : byDueDate.subSet(from, true, to, true)) {
+                        due.set((int) key);
+                    }
+                    matches.and(due);
+                }
+                return firstIds(matches, afterId, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Keeps only the smallest ids after afterId in a bounded heap instead of sorting every match
+        private Hits firstIds(BitSet matches, String afterId, int limit) {
+            PriorityQueue<String> smallest = new PriorityQueue<>(Comparator.reverseOrder());
+            int remaining = 0;
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                String id = entries.get(ordinal).id();
+                if (afterId != null && id.compareTo(afterId) <= 0) {
+                    continue;
+                }
+                remaining++;
+                smallest.add(id);
+                if (smallest.size() > limit) {
+                    smallest.poll();
+                }
+            }
+            List<String> ids = new ArrayList<>(smallest);
+            ids.sort(Comparator.naturalOrder());
+            return new Hits(matches.cardinality(), ids, remaining > limit);
+        }
+
+        private int allocate() {
+            Integer free = freeOrdinals.poll();
+            if (free != null) {
+                return free;
+            }
+            entries.add(null);
+            return entries.size() - 1;
+        }
+
+        private void index(int ordinal, Entry entry) {
+            live.set(ordinal);
+            if (entry.status() != null) {
+                byStatus.computeIfAbsent(entry.status(), key -> new BitSet()).set(ordinal);
+            }
+            if (entry.frequency() != null) {
+                byFrequency.computeIfAbsent(entry.frequency(), key -> new BitSet()).set(ordinal);
+            }
+            if (entry.policyType() != null) {
+                byType.computeIfAbsent(entry.policyType(), key -> new BitSet()).set(ordinal);
+            }
+            if (entry.customerId() != null) {
+                byCustomer.computeIfAbsent(entry.customerId(), key -> new HashSet<>()).add(ordinal);
+            }
+            if (entry.nextDueDate() != null) {
+                byDueDate.add(dueKey(entry.nextDueDate(), ordinal));
+            }
+        }
+
+        private void unindex(int ordinal, Entry entry) {
+            live.clear(ordinal);
+            clear(byStatus, entry.status(), ordinal);
+            clear(byFrequency, entry.frequency(), ordinal);
+            clear(byType, entry.policyType(), ordinal);
+            if (entry.customerId() != null) {
+                Set<Integer> customer = byCustomer.get(entry.customerId());
+                if (customer != null && customer.remove(ordinal) && customer.isEmpty()) {
+                    byCustomer.remove(entry.customerId());
+                }
+            }
+            if (entry.nextDueDate() != null) {
+                byDueDate.remove(dueKey(entry.nextDueDate(), ordinal));
+            }
+        }
+
+        private static <K> void clear(Map<K, BitSet> bitmaps, K value, int ordinal) {
+            if (value == null) {
+                return;
+            }
+            BitSet bitmap = bitmaps.get(value);
+            if (bitmap != null) {
+                bitmap.clear(ordinal);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(value);
+                }
+            }
+        }
+
+        private static void intersect(BitSet matches, BitSet bitmap) {
+            if (bitmap == null) {
+                matches.clear();
+            } else {
+                matches.and(bitmap);
+            }
+        }
+
+        // Orders by date first, then ordinal, so a date range is one contiguous subset
+        private static long dueKey(LocalDate date, int ordinal) {
+            return (date.toEpochDay() << 32) | ordinal;
+        }
+    }
+}
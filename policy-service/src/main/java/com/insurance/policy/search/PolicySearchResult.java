@@ -0,0 +1,12 @@
+package com.insurance.policy.search;
+
+import com.insurance.shared.dto.PolicyDto;
+
+import java.util.List;
+
+/**
+ * One page of a search, in id order, and how many policies matched in total. Pass
+ * {@code nextCursor} back to fetch the following page; it is null on the last page.
+ */
+public record PolicySearchResult(int total, List<PolicyDto> policies, String nextCursor, boolean hasMore) {
+}
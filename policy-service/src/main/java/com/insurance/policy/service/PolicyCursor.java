@@ -0,0 +1,26 @@
+package com.insurance.policy.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a policy listing ordered by id, carried between requests as an opaque URL-safe
+ * token.
+ */
+public record PolicyCursor(String id) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static PolicyCursor decode(String token) {
+        String id = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        if (id.isBlank()) {
+            throw new IllegalArgumentException("Malformed policy cursor");
+        }
+        return new PolicyCursor(id);
+    }
+}
@@ -0,0 +1,14 @@
+package com.insurance.policy.service;
+
+import com.insurance.shared.enums.PolicyStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Optional criteria for policy listings; null fields do not filter. The next due date bounds
+ * are inclusive.
+ */
+public record PolicyFilter(PolicyStatus status, String policyType, LocalDate dueFrom, LocalDate dueTo) {
+
+    public static final PolicyFilter NONE = new PolicyFilter(null, null, null, null);
+}
@@ -1,19 +1,71 @@
 package com.insurance.policy.service;
 
+import com.insurance.policy.search.PolicySearchCriteria;
+import com.insurance.policy.search.PolicySearchResult;
+import com.insurance.shared.dto.ChangedPoliciesDto;
+import com.insurance.shared.dto.CursorPage;
 import com.insurance.shared.dto.PolicyDto;
 import com.insurance.shared.dto.PremiumScheduleDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PolicyService {
     Optional<PolicyDto> getPolicyById(String id);
 
-    List<PolicyDto> getAllPolicies();
+    /**
+     * The policy's current version, without loading the policy; empty if it does not exist.
+     */
+    Optional<Long> getPolicyVersion(String id);
+
+    /**
+     * Whether the policy exists; ids the policy id filter rules out are answered without a query.
+     */
+    boolean policyExists(String id);
+
+    List<PolicyDto> getPoliciesByIds(Collection<String> ids);
+
+    /**
+     * Compare the versions a caller holds against the current ones. Only policies whose
+     * version changed are loaded; ids that no longer exist are listed as missing.
+     */
+    ChangedPoliciesDto getChangedPolicies(Map<String, Long> knownVersions);
+
+    /**
+     * One page of policies matching the filter, ordered by id.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    CursorPage<PolicyDto> listPolicies(PolicyFilter filter, String cursor, int limit);
+
+    /**
+     * Pass every policy matching the filter to the consumer, in id order, without holding
+     * them all in memory.
+     */
+    void streamPolicies(PolicyFilter filter, Consumer<PolicyDto> consumer);
+
+    /**
+     * One page of policies matching every given criterion, ordered by id, answered from the
+     * in-memory search index.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     * @throws IllegalStateException    if the search index has not finished loading
+     */
+    PolicySearchResult searchPolicies(PolicySearchCriteria criteria, String cursor, int limit);
 
     PolicyDto createPolicy(PolicyDto policyDto);
 
-    void deletePolicy(String id);
+    Optional<PolicyDto> updatePolicy(String id, PolicyDto policyDto);
+
+    /**
+     * @return false if there was no policy with this id
+     */
+    boolean deletePolicy(String id);
 
     List<PolicyDto> getPoliciesForCustomer(String customerId);
 
@@ -3,14 +3,34 @@ package com.insurance.policy.service;
 import com.insurance.policy.entity.PolicyEntity;
 import com.insurance.policy.mapper.PolicyMapper;
 import com.insurance.policy.repository.PolicyRepository;
+import com.insurance.policy.schedule.InstallmentScheduleCache;
+import com.insurance.policy.search.PolicyIdFilter;
+import com.insurance.policy.search.PolicySearchCriteria;
+import com.insurance.policy.search.PolicySearchIndex;
+import com.insurance.policy.search.PolicySearchResult;
+import com.insurance.shared.dto.ChangedPoliciesDto;
+import com.insurance.shared.dto.CursorPage;
 import com.insurance.shared.dto.PolicyDto;
 import com.insurance.shared.dto.PremiumScheduleDto;
+import com.insurance.shared.events.PolicyChangeEvent;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 @Service
@@ -19,6 +39,11 @@ public class PolicyServiceImpl implements PolicyService {
 
     private final PolicyRepository policyRepository;
     private final PolicyMapper policyMapper;
+    private final EntityManager entityManager;
+    private final PolicySearchIndex searchIndex;
+    private final PolicyIdFilter idFilter;
+    private final InstallmentScheduleCache scheduleCache;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Override
@@ -27,22 +52,127 @@ public class PolicyServiceImpl implements PolicyService {
     }
 
     @Override
-    public List<PolicyDto> getAllPolicies() {
-        return StreamSupport.stream(policyRepository.findAll().spliterator(), false)
+    public Optional<Long> getPolicyVersion(String id) {
+        return policyRepository.findVersionById(id);
+    }
+
+    @Override
+    public boolean policyExists(String id) {
+        if (!idFilter.mightContain(id) && idFilter.isAuthoritative()) {
+            return false;
+        }
+        return policyRepository.existsById(id);
+    }
+
+    @Override
+    public List<PolicyDto> getPoliciesByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return policyRepository.findByIdIn(ids).stream()
                 .map(policyMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public ChangedPoliciesDto getChangedPolicies(Map<String, Long> knownVersions) {
+        if (knownVersions.isEmpty()) {
+            return ChangedPoliciesDto.builder().changed(List.of()).missing(List.of()).build();
+        }
+        Map<String, Long> current = new HashMap<>();
+        for (Object[] row : policyRepository.findVersionsByIdIn(knownVersions.keySet())) {
+            current.put((String) row[0], (Long) row[1]);
+        }
+        Set<String> changedIds = knownVersions.entrySet().stream()
+                .filter(known -> current.containsKey(known.getKey())
+                        && !Objects.equals(current.get(known.getKey()), known.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        List<PolicyDto> changed = getPoliciesByIds(changedIds);
+        Set<String> loaded = changed.stream().map(PolicyDto::getId).collect(Collectors.toSet());
+        // A changed policy deleted before it was loaded counts as missing
+        List<String> missing = knownVersions.keySet().stream()
+                .filter(id -> !current.containsKey(id) || changedIds.contains(id) && !loaded.contains(id))
+                .collect(Collectors.toList());
+        return ChangedPoliciesDto.builder().changed(changed).missing(missing).build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PolicyDto> listPolicies(PolicyFilter filter, String cursor, int limit) {
+        String afterId = cursor != null ? PolicyCursor.decode(cursor).id() : null;
+        // One extra row tells whether another page follows
+        List<PolicyEntity> rows = policyRepository.findPage(filter.status(), filter.policyType(),
+                filter.dueFrom(), filter.dueTo(), afterId, Limit.of(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<PolicyEntity> page = hasMore ? rows.subList(0, limit) : rows;
+        return CursorPage.<PolicyDto>builder()
+                .items(page.stream().map(policyMapper::toDto).collect(Collectors.toList()))
+                .nextCursor(hasMore ? new PolicyCursor(page.get(page.size() - 1).getId()).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamPolicies(PolicyFilter filter, Consumer<PolicyDto> consumer) {
+        try (Stream<PolicyEntity> policies = policyRepository.streamAll(
+                filter.status(), filter.policyType(), filter.dueFrom(), filter.dueTo())) {
+            policies.forEach(policy -> {
+                consumer.accept(policyMapper.toDto(policy));
+                entityManager.detach(policy);
+            });
+        }
+    }
+
+    @Override
+    public PolicySearchResult searchPolicies(PolicySearchCriteria criteria, String cursor, int limit) {
+        String afterId = cursor != null ? PolicyCursor.decode(cursor).id() : null;
+        PolicySearchIndex.Hits hits = searchIndex.search(criteria, afterId, limit);
+        Map<String, PolicyDto> loaded = getPoliciesByIds(hits.ids()).stream()
+                .collect(Collectors.toMap(PolicyDto::getId, Function.identity()));
+        // Rows are re-checked in case the index has not yet seen a change made elsewhere
+        List<PolicyDto> policies = hits.ids().stream()
+                .map(loaded::get)
+                .filter(policy -> policy != null && criteria.matches(policy))
+                .collect(Collectors.toList());
+        // The cursor follows the index hits, so a dropped stale hit does not end the paging early
+        String nextCursor = hits.hasMore() ? new PolicyCursor(hits.ids().get(hits.ids().size() - 1)).encode() : null;
+        return new PolicySearchResult(hits.total(), policies, nextCursor, hits.hasMore());
+    }
+
+    @Override
+    @Transactional
     public PolicyDto createPolicy(PolicyDto policyDto) {
         PolicyEntity entity = policyMapper.toEntity(policyDto);
         PolicyEntity savedEntity = policyRepository.save(entity);
-        return policyMapper.toDto(savedEntity);
+        PolicyDto created = policyMapper.toDto(savedEntity);
+        publishChange(created.getId(), PolicyChangeEvent.ChangeType.CREATED, created);
+        return created;
+    }
+
+    @Override
+    @Transactional
+    public Optional<PolicyDto> updatePolicy(String id, PolicyDto policyDto) {
+        return policyRepository.findById(id).map(entity -> {
+            policyMapper.updateEntity(policyDto, entity);
+            // Flushed so the published event carries the incremented version
+            PolicyDto updated = policyMapper.toDto(policyRepository.saveAndFlush(entity));
+            publishChange(id, PolicyChangeEvent.ChangeType.UPDATED, updated);
+            return updated;
+        });
     }
 
     @Override
-    public void deletePolicy(String id) {
+    @Transactional
+    public boolean deletePolicy(String id) {
+        if (!policyRepository.existsById(id)) {
+            return false;
+        }
         policyRepository.deleteById(id);
+        publishChange(id, PolicyChangeEvent.ChangeType.DELETED, null);
+        return true;
     }
 
     @Override
@@ -54,7 +184,15 @@ public class PolicyServiceImpl implements PolicyService {
 
     @Override
     public Optional<PremiumScheduleDto> getPremiumScheduleForPolicy(String id) {
-        return policyRepository.findById(id)
-                .map(policyMapper::toPremiumScheduleDto); // Ensure this method is called
+        return policyRepository.findById(id).map(policy -> {
+            PremiumScheduleDto premiumSchedule = policyMapper.toPremiumScheduleDto(policy);
+            premiumSchedule.setSchedule(scheduleCache.scheduleFor(policy));
+            return premiumSchedule;
+        });
+    }
+
+    // Listeners that must only see committed changes use @TransactionalEventListener
+    private void publishChange(String policyId, PolicyChangeEvent.ChangeType changeType, PolicyDto policy) {
+        eventPublisher.publishEvent(PolicyChangeEvent.of(policyId, changeType, policy));
     }
 }
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.insurance.policy.stream;
+
+import com.insurance.policy.entity.PolicyEntity;
+import com.insurance.policy.mapper.PolicyMapper;
+import com.insurance.policy.repository.PolicyRepository;
+import com.insurance.shared.events.PolicyChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Publishes every committed policy change to the log-compacted policy events topic, keyed
+ * by policyId, so consumers can keep local copies without calling the policy API. A
+ * deleted policy is published as a DELETED event followed by a tombstone, which lets
+ * compaction drop the key once consumers have seen it.
+ * <p>
+ * Events for one policy land on one partition in commit order per instance; consumers
+ * that need a strict order across instances compare the policy's version.
+ * {@link #replayAll()} publishes a SNAPSHOT of every policy, for seeding a new consumer or
+ * repairing a topic; with {@code policy.events.bootstrap=true} it runs on startup.
+ * <p>
+ * Changes are sent on the committing thread. When the producer refuses a send (typically
+ * because the broker cannot be reached), publishing is suspended for
+ * {@code policy.events.retry-after} so requests don't each wait out the producer's
+ * timeout. Changes made meanwhile, and sends that fail asynchronously, are dropped and
+ * counted in {@code policy.events.dropped}; {@code policy.events.unpublished} holds the
+ * drops since the last replay. While it is non-zero a replay is attempted every
+ * {@code policy.events.retry-after} once publishing has resumed, so the topic converges
+ * without an operator calling the replay endpoint.
+ */
+@Slf4j
+@Component
+public class PolicyEventPublisher {
+
+    private final KafkaTemplate<String, PolicyChangeEvent> kafkaTemplate;
+    private final PolicyRepository policyRepository;
+    private final PolicyMapper policyMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final String topic;
+    private final boolean enabled;
+    private final boolean bootstrap;
+    private final Duration retryAfter;
+    private final Counter droppedCounter;
+    // Changes dropped since the last completed replay
+    private final AtomicLong unpublished = new AtomicLong();
+    private volatile long suspendedUntil;
+
+    public PolicyEventPublisher(KafkaTemplate<String, PolicyChangeEvent> kafkaTemplate,
+                                PolicyRepository policyRepository,
+                                PolicyMapper policyMapper,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${policy.events.topic:policy-events}") String topic,
+                                @Value("${policy.events.enabled:true}") boolean enabled,
+                                @Value("${policy.events.bootstrap:false}") boolean bootstrap,
+                                @Value("${policy.events.retry-after:PT30S}") Duration retryAfter) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.policyRepository = policyRepository;
+        this.policyMapper = policyMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.topic = topic;
+        this.enabled = enabled;
+        this.bootstrap = bootstrap;
+        this.retryAfter = retryAfter;
+        this.droppedCounter = Counter.builder("policy.events.dropped")
+                .description("Policy changes that could not be published")
+                .register(meterRegistry);
+        Gauge.builder("policy.events.unpublished", unpublished, AtomicLong::get)
+                .description("Policy changes dropped since the last replay")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPolicyChange(PolicyChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        send(event.getPolicyId(), event);
+        if (event.getChangeType() == PolicyChangeEvent.ChangeType.DELETED) {
+            send(event.getPolicyId(), null);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        if (!enabled || !bootstrap) {
+            return;
+        }
+        try {
+            replayAll();
+        } catch (RuntimeException e) {
+            log.error("Failed to replay policies to {}: {}", topic, e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${policy.events.retry-after:PT30S}",
+            initialDelayString = "${policy.events.retry-after:PT30S}")
+    public void replayDropped() {
+        if (!enabled || unpublished.get() == 0 || System.currentTimeMillis() < suspendedUntil) {
+            return;
+        }
+        log.warn("{} policy changes were not published to {}; replaying", unpublished.get(), topic);
+        try {
+            replayAll();
+        } catch (RuntimeException e) {
+            suspendedUntil = System.currentTimeMillis() + retryAfter.toMillis();
+            log.error("Failed to replay policies to {}: {}", topic, e.getMessage());
+        }
+    }
+
+    /**
+     * Publish the current state of every policy as a SNAPSHOT event. Stops at the first
+     * send the producer refuses, e.g. when the broker cannot be reached. A completed replay
+     * covers every change dropped before it started.
+     *
+     * @return the number of policies published
+     * @throws IllegalStateException if publishing is disabled or the producer refused a send
+     */
+    public long replayAll() {
+        if (!enabled) {
+            throw new IllegalStateException("Policy event publishing is disabled");
+        }
+        long droppedBefore = unpublished.get();
+        AtomicLong published = new AtomicLong();
+        try {
+            streamSnapshots(published);
+        } catch (KafkaException e) {
+            throw new IllegalStateException("Replay stopped after " + published.get() + " policies", e);
+        }
+        suspendedUntil = 0;
+        kafkaTemplate.flush();
+        unpublished.addAndGet(-droppedBefore);
+        log.info("Replayed {} policies to {}", published.get(), topic);
+        return published.get();
+    }
+
+    private void streamSnapshots(AtomicLong published) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<PolicyEntity> policies = policyRepository.streamAll(null, null, null, null)) {
+                policies.forEach(policy -> {
+                    kafkaTemplate.send(topic, policy.getId(), PolicyChangeEvent.of(policy.getId(),
+                                    PolicyChangeEvent.ChangeType.SNAPSHOT, policyMapper.toDto(policy)))
+                            .whenComplete((result, failure) -> {
+                                if (failure != null) {
+                                    drop(policy.getId(), failure);
+                                }
+                            });
+                    entityManager.detach(policy);
+                    published.incrementAndGet();
+                });
+            }
+        });
+    }
+
+    // Runs after the commit, so a broker failure is logged rather than failing the request
+    private void send(String policyId, PolicyChangeEvent event) {
+        if (System.currentTimeMillis() < suspendedUntil) {
+            droppedCounter.increment();
+            unpublished.incrementAndGet();
+            return;
+        }
+        try {
+            kafkaTemplate.send(topic, policyId, event).whenComplete((result, failure) -> {
+                if (failure != null) {
+                    drop(policyId, failure);
+                }
+            });
+        } catch (RuntimeException e) {
+            suspendedUntil = System.currentTimeMillis() + retryAfter.toMillis();
+            drop(policyId, e);
+        }
+    }
+
+    private void drop(String policyId, Throwable failure) {
+        droppedCounter.increment();
+        unpublished.incrementAndGet();
+        log.error("Failed to publish policy change for {} to {}: {}", policyId, topic, failure.getMessage());
+    }
+}
@@ -0,0 +1,77 @@
+package com.insurance.policy.stream;
+
+import com.insurance.policy.search.PolicyIdFilter;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * Adds the ids of policies changed on any instance, as published to the policy events
+ * topic, to this instance's policy id filter. Every instance needs every id, so each uses
+ * its own consumer group and reads only events published after it starts; the startup
+ * rebuild covers the rest.
+ * <p>
+ * Any event but a tombstone adds its key: an id seen in an UPDATED or DELETED event may be
+ * one created elsewhere before this instance started reading, and adding a deleted id
+ * only costs a false positive.
+ * <p>
+ * After each batch, and on each idle event ({@code spring.kafka.listener.idle-event-interval}),
+ * the filter is told when every assigned partition has been read to its end, which is what
+ * lets it answer negatives without the database.
+ */
+@Component
+public class PolicyIdFilterListener {
+
+    static final String LISTENER_ID = "policyIdFilter";
+
+    private final PolicyIdFilter policyIdFilter;
+
+    public PolicyIdFilterListener(PolicyIdFilter policyIdFilter) {
+        this.policyIdFilter = policyIdFilter;
+    }
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = "${policy.events.topic:policy-events}",
+            groupId = "policy-id-filter-${random.uuid}",
+            autoStartup = "${policy.exists-filter.follow-events:true}",
+            batch = "true",
+            properties = "auto.offset.reset=latest")
+    public void onPolicyChanges(List<ConsumerRecord<String, String>> records, Consumer<?, ?> consumer) {
+        for (ConsumerRecord<String, String> record : records) {
+            if (record.key() != null && record.value() != null) {
+                policyIdFilter.add(record.key());
+            }
+        }
+        reportIfCaughtUp(consumer);
+    }
+
+    // Published on the consumer thread, so the consumer may be used here
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        reportIfCaughtUp(event.getConsumer());
+    }
+
+    private void reportIfCaughtUp(Consumer<?, ?> consumer) {
+        Set<TopicPartition> assignment = consumer.assignment();
+        if (assignment.isEmpty()) {
+            return;
+        }
+        for (TopicPartition partition : assignment) {
+            // Empty while the end offset is unknown, e.g. before the first fetch
+            OptionalLong lag = consumer.currentLag(partition);
+            if (lag.isEmpty() || lag.getAsLong() > 0) {
+                return;
+            }
+        }
+        policyIdFilter.markCaughtUp();
+    }
+}
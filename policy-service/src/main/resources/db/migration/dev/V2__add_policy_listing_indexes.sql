@@ -0,0 +1,5 @@
+-- Policy listings filter on status, type or next due date and page through results by id.
+-- Each index serves one filter and keeps the matching rows in id order for the seek.
+CREATE INDEX idx_policies_status_id ON policies (status, id);
+CREATE INDEX idx_policies_policy_type_id ON policies (policy_type, id);
+CREATE INDEX idx_policies_next_due_date_id ON policies (next_due_date, id);
@@ -0,0 +1,2 @@
+-- Optimistic locking version, incremented on every policy update.
+ALTER TABLE policies ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
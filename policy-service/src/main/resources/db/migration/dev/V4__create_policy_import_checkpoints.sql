@@ -0,0 +1,11 @@
+-- Progress of each bulk policy import, updated in the same transaction as every chunk of
+-- inserted policies so an interrupted import can resume after the last committed row.
+CREATE TABLE policy_import_checkpoints
+(
+    import_id      VARCHAR(64) NOT NULL,
+    rows_committed BIGINT      NOT NULL,
+    accepted       BIGINT      NOT NULL,
+    rejected       BIGINT      NOT NULL,
+    updated_at     TIMESTAMP   NOT NULL,
+    CONSTRAINT pk_policy_import_checkpoints PRIMARY KEY (import_id)
+);
@@ -0,0 +1,186 @@
+package com.insurance.policy.unit.bulkimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.insurance.policy.bulkimport.ImportCheckpoint;
+import com.insurance.policy.bulkimport.ImportFormat;
+import com.insurance.policy.bulkimport.ImportReport;
+import com.insurance.policy.bulkimport.PolicyImportService;
+import com.insurance.policy.repository.PolicyJdbcRepository;
+import com.insurance.shared.events.PolicyChangeEvent;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PolicyImportServiceTest {
+
+    private static final String HEADER = "id,policyNumber,customerId,policyType,status,effectiveDate,"
+            + "expirationDate,premiumAmount,frequency,nextDueDate,gracePeriodDays";
+
+    @TempDir
+    Path errorDirectory;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private PolicyJdbcRepository policyJdbcRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private PolicyImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE policies (id VARCHAR(255) PRIMARY KEY, policy_number VARCHAR(255),"
+                + " customer_id VARCHAR(255), policy_type VARCHAR(255), status VARCHAR(50), effective_date TIMESTAMP,"
+                + " expiration_date TIMESTAMP, premium_amount DECIMAL(10, 2), payment_frequency VARCHAR(50),"
+                + " grace_period_days INT, next_due_date DATE, created_at TIMESTAMP, updated_at TIMESTAMP,"
+                + " version BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE policy_import_checkpoints (import_id VARCHAR(64) PRIMARY KEY,"
+                + " rows_committed BIGINT, accepted BIGINT, rejected BIGINT, updated_at TIMESTAMP)");
+        policyJdbcRepository = new PolicyJdbcRepository(new NamedParameterJdbcTemplate(database));
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        importService = new PolicyImportService(policyJdbcRepository, new DataSourceTransactionManager(database),
+                eventPublisher, Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().registerModule(new JavaTimeModule()), 2, 2, errorDirectory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+        database.shutdown();
+    }
+
+    private static String csvRow(String id, String premium) {
+        return id + ",PN-" + id + ",CUST-1,AUTO,ACTIVE,2024-01-01,2099-01-01," + premium + ",MONTHLY,2024-02-01,30";
+    }
+
+    private static InputStream file(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldInsertValidRowsAndReportRejectedOnes() throws IOException {
+        jdbcTemplate.update("INSERT INTO policies (id) VALUES ('P-EXISTING')");
+
+        ImportReport report = importService.importPolicies("import-1", file(HEADER,
+                csvRow("P-1", "100.00"),
+                csvRow("P-2", "-5.00"),
+                csvRow("P-3", "120.00"),
+                "",
+                csvRow("P-1", "100.00"),
+                csvRow("P-EXISTING", "90.00"),
+                "P-4,not,enough"), ImportFormat.CSV);
+
+        assertEquals(7, report.rowsRead());
+        assertEquals(2, report.accepted());
+        assertEquals(4, report.rejected());
+        assertEquals(List.of("P-1", "P-3", "P-EXISTING"),
+                jdbcTemplate.queryForList("SELECT id FROM policies ORDER BY id", String.class));
+        assertEquals("MONTHLY", jdbcTemplate.queryForObject(
+                "SELECT payment_frequency FROM policies WHERE id = 'P-3'", String.class));
+        List<String> errors = Files.readAllLines(Path.of(report.errorFile()));
+        assertEquals(4, errors.size());
+        assertTrue(errors.get(0).contains("\"row\":2") && errors.get(0).contains("premiumAmount"));
+        assertTrue(errors.get(1).contains("\"row\":5") && errors.get(1).contains("already exists"));
+        verify(eventPublisher, times(2)).publishEvent(any(PolicyChangeEvent.class));
+    }
+
+    @Test
+    void shouldResumeAfterLastCommittedRow() throws IOException {
+        policyJdbcRepository.saveCheckpoint(new ImportCheckpoint("import-2", 2, 2, 0), 0);
+
+        ImportReport report = importService.importPolicies("import-2", file(HEADER,
+                csvRow("P-1", "100.00"),
+                csvRow("P-2", "100.00"),
+                csvRow("P-3", "100.00")), ImportFormat.CSV);
+
+        assertEquals(2, report.resumedAfterRow());
+        assertEquals(3, report.accepted());
+        assertEquals(List.of("P-3"), jdbcTemplate.queryForList("SELECT id FROM policies", String.class));
+        assertEquals(3L, policyJdbcRepository.findCheckpoint("import-2").orElseThrow().rowsCommitted());
+    }
+
+    @Test
+    void shouldStopWhenAnotherRunAdvancedTheCheckpoint() throws IOException {
+        PolicyJdbcRepository repository = spy(policyJdbcRepository);
+        // Stands in for the same import running on another instance, which commits rows 3-4
+        // after this run has committed rows 1-2
+        doCallRealMethod()
+                .doAnswer(invocation -> {
+                    jdbcTemplate.update("UPDATE policy_import_checkpoints SET rows_committed = 4"
+                            + " WHERE import_id = 'import-5'");
+                    return invocation.callRealMethod();
+                })
+                .when(repository).findExistingIds(any());
+        PolicyImportService service = new PolicyImportService(repository, new DataSourceTransactionManager(database),
+                eventPublisher, Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().registerModule(new JavaTimeModule()), 2, 2, errorDirectory);
+
+        try {
+            assertThrows(IllegalStateException.class, () -> service.importPolicies("import-5", file(HEADER,
+                    csvRow("P-1", "100.00"),
+                    csvRow("P-2", "100.00"),
+                    csvRow("P-3", "100.00"),
+                    csvRow("P-4", "100.00")), ImportFormat.CSV));
+        } finally {
+            service.shutdown();
+        }
+
+        assertEquals(List.of("P-1", "P-2"),
+                jdbcTemplate.queryForList("SELECT id FROM policies ORDER BY id", String.class));
+        assertEquals(4L, policyJdbcRepository.findCheckpoint("import-5").orElseThrow().rowsCommitted());
+    }
+
+    @Test
+    void shouldRejectCheckpointStartedByAnotherRun() {
+        policyJdbcRepository.saveCheckpoint(new ImportCheckpoint("import-6", 2, 2, 0), 0);
+
+        assertThrows(IllegalStateException.class,
+                () -> policyJdbcRepository.saveCheckpoint(new ImportCheckpoint("import-6", 2, 1, 1), 0));
+        assertEquals(2L, policyJdbcRepository.findCheckpoint("import-6").orElseThrow().accepted());
+    }
+
+    @Test
+    void shouldImportNdjson() throws IOException {
+        ImportReport report = importService.importPolicies("import-3", file(
+                "{\"id\":\"P-1\",\"policyNumber\":\"PN-1\",\"customerId\":\"CUST-1\",\"policyType\":\"LIFE\","
+                        + "\"status\":\"ACTIVE\",\"effectiveDate\":\"2024-01-01\",\"expirationDate\":\"2099-01-01\","
+                        + "\"premiumAmount\":50.00,\"frequency\":\"ANNUAL\",\"nextDueDate\":\"2025-01-01\","
+                        + "\"gracePeriodDays\":30}",
+                "{not json",
+                "null"), ImportFormat.NDJSON);
+
+        assertEquals(1, report.accepted());
+        assertEquals(2, report.rejected());
+    }
+
+    @Test
+    void shouldRejectUnknownCsvColumn() {
+        assertThrows(IllegalArgumentException.class, () -> importService.importPolicies("import-4",
+                file("id,colour", "P-1,red"), ImportFormat.CSV));
+    }
+}
@@ -1,36 +1,60 @@
 package com.insurance.policy.unit.controller;
 
+import com.insurance.shared.dto.ChangedPoliciesDto;
+import com.insurance.shared.dto.CursorPage;
 import com.insurance.shared.dto.PolicyDto;
 import com.insurance.shared.dto.PremiumScheduleDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.insurance.shared.web.BinaryContentAutoConfiguration;
 import com.insurance.policy.controller.PolicyController;
+import com.insurance.policy.bulkimport.PolicyImportService;
+import com.insurance.policy.search.PolicySearchCriteria;
+import com.insurance.policy.search.PolicySearchResult;
+import com.insurance.policy.service.PolicyFilter;
 import com.insurance.policy.service.PolicyService;
+import com.insurance.policy.stream.PolicyEventPublisher;
 import com.insurance.shared.enums.PaymentFrequency;
 import com.insurance.shared.enums.PolicyStatus;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.core.env.Environment;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.security.test.context.support.WithMockUser;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebMvcTest(
     value = PolicyController.class,
     excludeAutoConfiguration = SecurityAutoConfiguration.class
 )
+@ImportAutoConfiguration(BinaryContentAutoConfiguration.class)
 @ActiveProfiles("test")
 @WithMockUser
 class PolicyControllerTest {
@@ -47,6 +71,12 @@ class PolicyControllerTest {
     @MockBean
     private PolicyService policyService;
 
+    @MockBean
+    private PolicyImportService policyImportService;
+
+    @MockBean
+    private PolicyEventPublisher policyEventPublisher;
+
     @Test
     void shouldGetPolicyById() throws Exception {
         PolicyDto mockPolicy = PolicyDto.builder()
@@ -73,6 +103,48 @@ class PolicyControllerTest {
                 .andExpect(jsonPath("$.gracePeriodDays").value(10));
     }
 
+    @Test
+    void shouldAnswerInSmileWhenAsked() throws Exception {
+        when(policyService.getPolicyById("POLICY-123")).thenReturn(Optional.of(PolicyDto.builder()
+                .id("POLICY-123")
+                .nextDueDate(LocalDate.of(2024, 7, 1))
+                .build()));
+
+        byte[] body = mockMvc.perform(get("/api/policies/POLICY-123")
+                        .accept(MediaType.valueOf("application/x-jackson-smile"), MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        PolicyDto policy = objectMapper.copyWith(new SmileFactory()).readValue(body, PolicyDto.class);
+        assertEquals(LocalDate.of(2024, 7, 1), policy.getNextDueDate());
+    }
+
+    @Test
+    void shouldTagPolicyWithItsVersion() throws Exception {
+        when(policyService.getPolicyById("POLICY-123"))
+                .thenReturn(Optional.of(PolicyDto.builder().id("POLICY-123").version(7L).build()));
+
+        mockMvc.perform(get("/api/policies/POLICY-123"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"7\""));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWithoutLoadingPolicy() throws Exception {
+        when(policyService.getPolicyVersion("POLICY-123")).thenReturn(Optional.of(7L));
+
+        mockMvc.perform(get("/api/policies/POLICY-123").header("If-None-Match", "\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"7\""))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/policies/POLICY-123/premium-schedule").header("If-None-Match", "W/\"6\", \"7\""))
+                .andExpect(status().isNotModified());
+
+        verify(policyService, never()).getPolicyById(any());
+        verify(policyService, never()).getPremiumScheduleForPolicy(any());
+    }
+
     @Test
     void shouldReturn404WhenPolicyNotFound() throws Exception {
         // Test with non-existent policy ID
@@ -198,6 +270,76 @@ class PolicyControllerTest {
                 .andExpect(jsonPath("$.status").value("UP"));
     }
 
+    @Test
+    void shouldListPoliciesAsJsonArray() throws Exception {
+        PolicyFilter filter = new PolicyFilter(PolicyStatus.ACTIVE, null, null, null);
+        doAnswer(invocation -> {
+            Consumer<PolicyDto> consumer = invocation.getArgument(1);
+            consumer.accept(PolicyDto.builder().id("POLICY-001").build());
+            consumer.accept(PolicyDto.builder().id("POLICY-002").build());
+            return null;
+        }).when(policyService).streamPolicies(eq(filter), any());
+
+        MvcResult started = mockMvc.perform(get("/api/policies").param("status", "ACTIVE"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value("POLICY-001"))
+                .andExpect(jsonPath("$[1].id").value("POLICY-002"));
+    }
+
+    @Test
+    void shouldListPoliciesPage() throws Exception {
+        PolicyDto policy = PolicyDto.builder().id("POLICY-001").build();
+        PolicyFilter filter = new PolicyFilter(PolicyStatus.ACTIVE, null, null, null);
+        when(policyService.listPolicies(filter, null, 50))
+                .thenReturn(new CursorPage<>(List.of(policy), "next", true));
+
+        mockMvc.perform(get("/api/policies/page").param("status", "ACTIVE").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value("POLICY-001"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void shouldRejectOutOfRangePageLimit() throws Exception {
+        mockMvc.perform(get("/api/policies/page").param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldSearchPolicies() throws Exception {
+        PolicyDto policy = PolicyDto.builder().id("POLICY-001").build();
+        PolicySearchCriteria criteria = new PolicySearchCriteria("CUST-001", null, PolicyStatus.ACTIVE,
+                PaymentFrequency.MONTHLY, null, LocalDate.of(2024, 6, 30));
+        when(policyService.searchPolicies(criteria, "UE9MSUNZLTAwMA", 100))
+                .thenReturn(new PolicySearchResult(1, List.of(policy), null, false));
+
+        mockMvc.perform(get("/api/policies/search")
+                        .param("customerId", "CUST-001")
+                        .param("status", "ACTIVE")
+                        .param("frequency", "MONTHLY")
+                        .param("dueTo", "2024-06-30")
+                        .param("cursor", "UE9MSUNZLTAwMA"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.policies[0].id").value("POLICY-001"));
+    }
+
+    @Test
+    void shouldReturn503WhileSearchIndexIsLoading() throws Exception {
+        when(policyService.searchPolicies(any(), any(), anyInt()))
+                .thenThrow(new IllegalStateException("loading"));
+
+        mockMvc.perform(get("/api/policies/search").param("type", "AUTO"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
     @Test
     void shouldReturn404ForPremiumScheduleWhenPolicyNotFound() throws Exception {
         mockMvc.perform(get("/api/policies/NONEXISTENT/premium-schedule"))
@@ -231,5 +373,45 @@ class PolicyControllerTest {
                 .andExpect(jsonPath("$.status").value("ACTIVE"));
     }
 
-   
+    @Test
+    void shouldGetPoliciesByIds() throws Exception {
+        when(policyService.getPoliciesByIds(any())).thenReturn(List.of(
+                PolicyDto.builder().id("POLICY-123").customerId("CUST-001").build(),
+                PolicyDto.builder().id("POLICY-456").customerId("CUST-001").build()));
+
+        mockMvc.perform(post("/api/policies/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of("POLICY-123", "POLICY-456", "POLICY-123"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value("POLICY-123"))
+                .andExpect(jsonPath("$[1].id").value("POLICY-456"));
+    }
+
+    @Test
+    void shouldReturnOnlyChangedPoliciesOnBatchRevalidation() throws Exception {
+        when(policyService.getChangedPolicies(Map.of("POLICY-123", 4L, "POLICY-456", 2L)))
+                .thenReturn(ChangedPoliciesDto.builder()
+                        .changed(List.of(PolicyDto.builder().id("POLICY-123").version(5L).build()))
+                        .missing(List.of("POLICY-456"))
+                        .build());
+
+        mockMvc.perform(post("/api/policies/batch-get/changed")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"POLICY-123\":4,\"POLICY-456\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[0].id").value("POLICY-123"))
+                .andExpect(jsonPath("$.changed[0].version").value(5))
+                .andExpect(jsonPath("$.missing[0]").value("POLICY-456"));
+    }
+
+    @Test
+    void shouldRejectOversizedBatchGet() throws Exception {
+        List<String> ids = Collections.nCopies(PolicyController.MAX_BATCH_GET_SIZE + 1, "POLICY-123");
+
+        mockMvc.perform(post("/api/policies/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isBadRequest());
+    }
 }
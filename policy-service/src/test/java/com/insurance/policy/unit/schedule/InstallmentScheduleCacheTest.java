@@ -0,0 +1,88 @@
+package com.insurance.policy.unit.schedule;
+
+import com.insurance.policy.entity.PolicyEntity;
+import com.insurance.policy.schedule.InstallmentScheduleCache;
+import com.insurance.policy.schedule.InstallmentScheduleGenerator;
+import com.insurance.shared.dto.PremiumScheduleDto.PaymentDto;
+import com.insurance.shared.enums.PaymentFrequency;
+import com.insurance.shared.events.PolicyChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InstallmentScheduleCacheTest {
+
+    private InstallmentScheduleGenerator generator;
+    private InstallmentScheduleCache cache;
+    private PolicyEntity policy;
+
+    @BeforeEach
+    void setUp() {
+        generator = spy(new InstallmentScheduleGenerator());
+        cache = new InstallmentScheduleCache(generator, new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+        policy = PolicyEntity.builder()
+                .id("POLICY-001")
+                .effectiveDate(LocalDateTime.of(2024, 1, 31, 0, 0))
+                .expirationDate(LocalDateTime.of(2025, 1, 31, 0, 0))
+                .paymentFrequency(PaymentFrequency.MONTHLY)
+                .premiumAmount(new BigDecimal("100.00"))
+                .nextDueDate(LocalDate.of(2024, 3, 31))
+                .version(0L)
+                .build();
+    }
+
+    @Test
+    void shouldAnchorDueDatesOnEffectiveDate() {
+        List<PaymentDto> schedule = cache.scheduleFor(policy);
+
+        assertEquals(12, schedule.size());
+        assertEquals(LocalDate.of(2024, 2, 29), schedule.get(1).getDueDate());
+        assertEquals(LocalDate.of(2024, 3, 31), schedule.get(2).getDueDate());
+        assertEquals(List.of("PAID", "PAID", "DUE", "SCHEDULED"),
+                schedule.subList(0, 4).stream().map(PaymentDto::getStatus).toList());
+        assertTrue(schedule.stream().allMatch(installment -> installment.getAmount().equals(new BigDecimal("100.00"))));
+    }
+
+    @Test
+    void shouldGenerateOnePaymentPerPeriodWithinTerm() {
+        List<PaymentDto> schedule = new InstallmentScheduleGenerator().generate(LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 7, 1), PaymentFrequency.QUARTERLY, new BigDecimal("750.00"), null);
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 1)),
+                schedule.stream().map(PaymentDto::getDueDate).toList());
+    }
+
+    @Test
+    void shouldReuseScheduleUntilVersionChanges() {
+        List<PaymentDto> first = cache.scheduleFor(policy);
+        List<PaymentDto> second = cache.scheduleFor(policy);
+        policy.setVersion(1L);
+        policy.setNextDueDate(LocalDate.of(2024, 4, 30));
+        List<PaymentDto> third = cache.scheduleFor(policy);
+
+        assertSame(first, second);
+        assertEquals("PAID", third.get(2).getStatus());
+        verify(generator, times(2)).generate(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldRegenerateAfterPolicyChangeEvent() {
+        cache.scheduleFor(policy);
+        cache.onPolicyChange(PolicyChangeEvent.builder()
+                .policyId("POLICY-001")
+                .changeType(PolicyChangeEvent.ChangeType.UPDATED)
+                .build());
+        cache.scheduleFor(policy);
+
+        verify(generator, times(2)).generate(any(), any(), any(), any(), any());
+    }
+}
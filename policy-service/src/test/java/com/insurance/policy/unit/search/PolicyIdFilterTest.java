@@ -0,0 +1,83 @@
+package com.insurance.policy.unit.search;
+
+import com.insurance.policy.repository.PolicyRepository;
+import com.insurance.policy.search.PolicyIdFilter;
+import com.insurance.shared.events.PolicyChangeEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PolicyIdFilterTest {
+
+    private static final int POLICIES = 50_000;
+
+    private final PolicyRepository policyRepository = mock(PolicyRepository.class);
+
+    private PolicyIdFilter filter() {
+        return filter(false);
+    }
+
+    private PolicyIdFilter filter(boolean followEvents) {
+        return new PolicyIdFilter(policyRepository, mock(PlatformTransactionManager.class), 1_000, 0.01,
+                followEvents, Duration.ofMinutes(1));
+    }
+
+    private static String policyId(int index) {
+        return String.format("POL-%08d", index);
+    }
+
+    @Test
+    void shouldHoldEveryLoadedIdAndRuleOutMostOthers() {
+        when(policyRepository.count()).thenReturn((long) POLICIES);
+        when(policyRepository.streamAllIds()).thenReturn(IntStream.range(0, POLICIES).mapToObj(PolicyIdFilterTest::policyId));
+        PolicyIdFilter filter = filter();
+        filter.rebuild();
+
+        assertTrue(IntStream.range(0, POLICIES).allMatch(index -> filter.mightContain(policyId(index))));
+        long falsePositives = IntStream.range(POLICIES, 2 * POLICIES)
+                .filter(index -> filter.mightContain(policyId(index)))
+                .count();
+        // Sized for twice the count, so well under the configured 1%
+        assertTrue(falsePositives < POLICIES / 100, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void shouldAddCreatedPolicies() {
+        when(policyRepository.streamAllIds()).thenReturn(Stream.of("POLICY-001"));
+        PolicyIdFilter filter = filter();
+        filter.rebuild();
+
+        assertFalse(filter.mightContain("POLICY-002"));
+        filter.onPolicyChange(PolicyChangeEvent.of("POLICY-002", PolicyChangeEvent.ChangeType.CREATED, null));
+
+        assertTrue(filter.mightContain("POLICY-001"));
+        assertTrue(filter.mightContain("POLICY-002"));
+    }
+
+    @Test
+    void shouldReportEveryIdPossiblyPresentUntilBuilt() {
+        PolicyIdFilter filter = filter();
+
+        assertFalse(filter.isReady());
+        assertFalse(filter.isAuthoritative());
+        assertTrue(filter.mightContain("ANY"));
+    }
+
+    @Test
+    void shouldTrustNegativesOnlyOnceEventsAreCaughtUp() {
+        when(policyRepository.streamAllIds()).thenReturn(Stream.of("POLICY-001"));
+        PolicyIdFilter filter = filter(true);
+        filter.rebuild();
+
+        assertFalse(filter.isAuthoritative());
+        filter.markCaughtUp();
+        assertTrue(filter.isAuthoritative());
+    }
+}
@@ -0,0 +1,113 @@
+package com.insurance.policy.unit.search;
+
+import com.insurance.policy.mapper.PolicyMapper;
+import com.insurance.policy.repository.PolicyRepository;
+import com.insurance.policy.search.PolicySearchCriteria;
+import com.insurance.policy.search.PolicySearchIndex;
+import com.insurance.policy.search.PolicySearchIndex.Hits;
+import com.insurance.shared.dto.PolicyDto;
+import com.insurance.shared.enums.PaymentFrequency;
+import com.insurance.shared.enums.PolicyStatus;
+import com.insurance.shared.events.PolicyChangeEvent;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PolicySearchIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    private PolicySearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        PolicyRepository policyRepository = mock(PolicyRepository.class);
+        when(policyRepository.streamAll(null, null, null, null)).thenReturn(Stream.empty());
+        index = new PolicySearchIndex(policyRepository, mock(PolicyMapper.class),
+                mock(EntityManager.class), mock(PlatformTransactionManager.class));
+        index.rebuild();
+
+        index.put(policy("POLICY-001", "CUST-001", "AUTO", PolicyStatus.ACTIVE, PaymentFrequency.MONTHLY, TODAY));
+        index.put(policy("POLICY-002", "CUST-001", "LIFE", PolicyStatus.ACTIVE, PaymentFrequency.ANNUAL, TODAY.plusDays(10)));
+        index.put(policy("POLICY-003", "CUST-002", "AUTO", PolicyStatus.ACTIVE, PaymentFrequency.MONTHLY, TODAY.plusDays(5)));
+        index.put(policy("POLICY-004", "CUST-003", "AUTO", PolicyStatus.OVERDUE, PaymentFrequency.MONTHLY, TODAY.plusDays(5)));
+    }
+
+    private static PolicyDto policy(String id, String customerId, String type, PolicyStatus status,
+                                    PaymentFrequency frequency, LocalDate nextDueDate) {
+        return PolicyDto.builder()
+                .id(id)
+                .customerId(customerId)
+                .policyType(type)
+                .status(status)
+                .frequency(frequency)
+                .nextDueDate(nextDueDate)
+                .build();
+    }
+
+    @Test
+    void shouldIntersectAttributeBitmapsAndDueDateRange() {
+        Hits hits = index.search(new PolicySearchCriteria(null, "AUTO", PolicyStatus.ACTIVE,
+                PaymentFrequency.MONTHLY, TODAY.plusDays(1), TODAY.plusDays(7)), null, 10);
+
+        assertEquals(1, hits.total());
+        assertEquals(List.of("POLICY-003"), hits.ids());
+    }
+
+    @Test
+    void shouldReturnFirstIdsInOrderUpToLimit() {
+        Hits hits = index.search(new PolicySearchCriteria(null, "AUTO", null, null, null, null), null, 2);
+
+        assertEquals(3, hits.total());
+        assertEquals(List.of("POLICY-001", "POLICY-003"), hits.ids());
+        assertTrue(hits.hasMore());
+    }
+
+    @Test
+    void shouldContinueAfterGivenId() {
+        PolicySearchCriteria auto = new PolicySearchCriteria(null, "AUTO", null, null, null, null);
+
+        Hits next = index.search(auto, "POLICY-003", 2);
+
+        assertEquals(3, next.total());
+        assertEquals(List.of("POLICY-004"), next.ids());
+        assertFalse(next.hasMore());
+    }
+
+    @Test
+    void shouldReindexUpdatedPolicyAndDropDeletedOne() {
+        index.onPolicyChange(PolicyChangeEvent.builder()
+                .policyId("POLICY-001")
+                .changeType(PolicyChangeEvent.ChangeType.UPDATED)
+                .policy(policy("POLICY-001", "CUST-001", "AUTO", PolicyStatus.OVERDUE, PaymentFrequency.MONTHLY, TODAY))
+                .build());
+        index.onPolicyChange(PolicyChangeEvent.builder()
+                .policyId("POLICY-004")
+                .changeType(PolicyChangeEvent.ChangeType.DELETED)
+                .build());
+
+        Hits overdue = index.search(new PolicySearchCriteria(null, null, PolicyStatus.OVERDUE, null, null, null), null, 10);
+        Hits customer = index.search(new PolicySearchCriteria("CUST-001", null, PolicyStatus.ACTIVE, null, null, null), null, 10);
+
+        assertEquals(List.of("POLICY-001"), overdue.ids());
+        assertEquals(List.of("POLICY-002"), customer.ids());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void shouldMatchNothingForUnknownValue() {
+        Hits hits = index.search(new PolicySearchCriteria("CUST-999", null, null, null, null, null), null, 10);
+
+        assertEquals(0, hits.total());
+        assertTrue(hits.ids().isEmpty());
+    }
+}
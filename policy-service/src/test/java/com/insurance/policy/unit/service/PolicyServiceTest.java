@@ -1,23 +1,40 @@
 package com.insurance.policy.unit.service;
 
+import com.insurance.policy.schedule.InstallmentScheduleCache;
+import com.insurance.policy.search.PolicyIdFilter;
+import com.insurance.policy.search.PolicySearchCriteria;
+import com.insurance.policy.search.PolicySearchIndex;
+import com.insurance.policy.search.PolicySearchResult;
+import com.insurance.policy.service.PolicyCursor;
+import com.insurance.policy.service.PolicyFilter;
 import com.insurance.policy.service.PolicyServiceImpl;
 import com.insurance.policy.repository.PolicyRepository;
 import com.insurance.policy.mapper.PolicyMapper;
+import com.insurance.shared.dto.ChangedPoliciesDto;
+import com.insurance.shared.dto.CursorPage;
 import com.insurance.shared.dto.PolicyDto;
 import com.insurance.shared.enums.PaymentFrequency;
 import com.insurance.shared.enums.PolicyStatus;
+import com.insurance.shared.events.PolicyChangeEvent;
 import com.insurance.shared.dto.PremiumScheduleDto;
 import com.insurance.policy.entity.PolicyEntity;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +47,21 @@ class PolicyServiceTest {
     @Mock
     private PolicyMapper policyMapper;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PolicySearchIndex searchIndex;
+
+    @Mock
+    private PolicyIdFilter idFilter;
+
+    @Mock
+    private InstallmentScheduleCache scheduleCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PolicyServiceImpl policyService; // Use the concrete implementation
 
@@ -56,27 +88,108 @@ class PolicyServiceTest {
     }
 
     @Test
-    void shouldGetAllPolicies() {
+    void shouldProbeDatabaseOnlyForIdsTheFilterMightHold() {
+        when(idFilter.mightContain("POLICY-123")).thenReturn(true);
+        when(idFilter.isAuthoritative()).thenReturn(true);
+        when(policyRepository.existsById("POLICY-123")).thenReturn(true);
+
+        assertTrue(policyService.policyExists("POLICY-123"));
+        assertFalse(policyService.policyExists("NONEXISTENT"));
+        verify(policyRepository, never()).existsById("NONEXISTENT");
+    }
+
+    @Test
+    void shouldConfirmNegativesWithDatabaseWhileFilterIsBehind() {
+        when(idFilter.isAuthoritative()).thenReturn(false);
+        when(policyRepository.existsById("POLICY-ELSEWHERE")).thenReturn(true);
+
+        assertTrue(policyService.policyExists("POLICY-ELSEWHERE"));
+    }
+
+    @Test
+    void shouldListPoliciesPageWithCursor() {
         PolicyEntity mockEntity1 = new PolicyEntity();
         mockEntity1.setId("POLICY-001");
         PolicyEntity mockEntity2 = new PolicyEntity();
         mockEntity2.setId("POLICY-002");
-
-        when(policyRepository.findAll()).thenReturn(List.of(mockEntity1, mockEntity2));
-
+        PolicyEntity mockEntity3 = new PolicyEntity();
+        mockEntity3.setId("POLICY-003");
+        PolicyFilter filter = new PolicyFilter(PolicyStatus.ACTIVE, "AUTO", null, LocalDate.of(2024, 6, 30));
+
+        when(policyRepository.findPage(PolicyStatus.ACTIVE, "AUTO", null, LocalDate.of(2024, 6, 30), null, Limit.of(3)))
+                .thenReturn(List.of(mockEntity1, mockEntity2, mockEntity3));
+        when(policyRepository.findPage(PolicyStatus.ACTIVE, "AUTO", null, LocalDate.of(2024, 6, 30), "POLICY-002", Limit.of(3)))
+                .thenReturn(List.of(mockEntity3));
         PolicyDto mockDto1 = PolicyDto.builder().id("POLICY-001").build();
         PolicyDto mockDto2 = PolicyDto.builder().id("POLICY-002").build();
+        PolicyDto mockDto3 = PolicyDto.builder().id("POLICY-003").build();
         when(policyMapper.toDto(mockEntity1)).thenReturn(mockDto1);
         when(policyMapper.toDto(mockEntity2)).thenReturn(mockDto2);
+        when(policyMapper.toDto(mockEntity3)).thenReturn(mockDto3);
 
-        List<PolicyDto> result = policyService.getAllPolicies();
+        CursorPage<PolicyDto> first = policyService.listPolicies(filter, null, 2);
+        CursorPage<PolicyDto> second = policyService.listPolicies(filter, first.getNextCursor(), 2);
 
-        assertEquals(2, result.size());
+        assertEquals(List.of(mockDto1, mockDto2), first.getItems());
+        assertTrue(first.isHasMore());
+        assertEquals(List.of(mockDto3), second.getItems());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> policyService.listPolicies(PolicyFilter.NONE, "%%%", 10));
+    }
+
+    @Test
+    void shouldStreamPoliciesAndDetachThem() {
+        PolicyEntity mockEntity = new PolicyEntity();
+        mockEntity.setId("POLICY-001");
+        PolicyDto mockDto = PolicyDto.builder().id("POLICY-001").build();
+        when(policyRepository.streamAll(null, null, null, null)).thenReturn(Stream.of(mockEntity));
+        when(policyMapper.toDto(mockEntity)).thenReturn(mockDto);
+
+        List<PolicyDto> streamed = new ArrayList<>();
+        policyService.streamPolicies(PolicyFilter.NONE, streamed::add);
+
+        assertEquals(List.of(mockDto), streamed);
+        verify(entityManager).detach(mockEntity);
+    }
+
+    @Test
+    void shouldGetPoliciesByIds() {
+        PolicyEntity mockEntity = new PolicyEntity();
+        mockEntity.setId("POLICY-001");
+        when(policyRepository.findByIdIn(Set.of("POLICY-001", "POLICY-404"))).thenReturn(List.of(mockEntity));
+        when(policyMapper.toDto(mockEntity)).thenReturn(PolicyDto.builder().id("POLICY-001").build());
+
+        List<PolicyDto> result = policyService.getPoliciesByIds(Set.of("POLICY-001", "POLICY-404"));
+
+        assertEquals(1, result.size());
         assertEquals("POLICY-001", result.get(0).getId());
-        assertEquals("POLICY-002", result.get(1).getId());
-        verify(policyRepository).findAll();
-        verify(policyMapper).toDto(mockEntity1);
-        verify(policyMapper).toDto(mockEntity2);
+    }
+
+    @Test
+    void shouldReturnOnlyChangedAndMissingPolicies() {
+        PolicyEntity changedEntity = new PolicyEntity();
+        changedEntity.setId("POLICY-002");
+        when(policyRepository.findVersionsByIdIn(Set.of("POLICY-001", "POLICY-002", "POLICY-404")))
+                .thenReturn(List.of(new Object[]{"POLICY-001", 3L}, new Object[]{"POLICY-002", 6L}));
+        when(policyRepository.findByIdIn(Set.of("POLICY-002"))).thenReturn(List.of(changedEntity));
+        when(policyMapper.toDto(changedEntity)).thenReturn(PolicyDto.builder().id("POLICY-002").version(6L).build());
+
+        ChangedPoliciesDto result = policyService.getChangedPolicies(
+                Map.of("POLICY-001", 3L, "POLICY-002", 5L, "POLICY-404", 1L));
+
+        assertEquals(List.of("POLICY-002"), result.getChanged().stream().map(PolicyDto::getId).toList());
+        assertEquals(List.of("POLICY-404"), result.getMissing());
+    }
+
+    @Test
+    void shouldSkipRepositoryForEmptyIdList() {
+        assertTrue(policyService.getPoliciesByIds(List.of()).isEmpty());
+        verifyNoInteractions(policyRepository);
     }
 
     @Test
@@ -103,11 +216,38 @@ class PolicyServiceTest {
     void shouldDeletePolicy() {
         String policyId = "POLICY-123";
 
+        when(policyRepository.existsById(policyId)).thenReturn(true);
         doNothing().when(policyRepository).deleteById(policyId);
 
-        policyService.deletePolicy(policyId);
+        assertTrue(policyService.deletePolicy(policyId));
 
         verify(policyRepository).deleteById(policyId);
+        verify(eventPublisher).publishEvent(argThat((PolicyChangeEvent event) ->
+                event.getChangeType() == PolicyChangeEvent.ChangeType.DELETED && event.getPolicy() == null));
+    }
+
+    @Test
+    void shouldDropStaleSearchHits() {
+        PolicySearchCriteria criteria = new PolicySearchCriteria(null, "AUTO", PolicyStatus.ACTIVE, null, null, null);
+        when(searchIndex.search(criteria, "POLICY-000", 2))
+                .thenReturn(new PolicySearchIndex.Hits(3, List.of("POLICY-001", "POLICY-002"), true));
+        PolicyEntity mockEntity1 = new PolicyEntity();
+        mockEntity1.setId("POLICY-001");
+        PolicyEntity mockEntity2 = new PolicyEntity();
+        mockEntity2.setId("POLICY-002");
+        when(policyRepository.findByIdIn(List.of("POLICY-001", "POLICY-002")))
+                .thenReturn(List.of(mockEntity2, mockEntity1));
+        PolicyDto active = PolicyDto.builder().id("POLICY-001").policyType("AUTO").status(PolicyStatus.ACTIVE).build();
+        PolicyDto cancelled = PolicyDto.builder().id("POLICY-002").policyType("AUTO").status(PolicyStatus.CANCELLED).build();
+        when(policyMapper.toDto(mockEntity1)).thenReturn(active);
+        when(policyMapper.toDto(mockEntity2)).thenReturn(cancelled);
+
+        PolicySearchResult result = policyService.searchPolicies(criteria, new PolicyCursor("POLICY-000").encode(), 2);
+
+        assertEquals(3, result.total());
+        assertEquals(List.of(active), result.policies());
+        // Continues after the last index hit, even though that policy was dropped
+        assertEquals("POLICY-002", PolicyCursor.decode(result.nextCursor()).id());
     }
 
     @Test
@@ -164,11 +304,17 @@ class PolicyServiceTest {
                 .build();
 
         when(policyMapper.toPremiumScheduleDto(mockEntity)).thenReturn(mockSchedule);
+        List<PremiumScheduleDto.PaymentDto> installments = List.of(PremiumScheduleDto.PaymentDto.builder()
+                .dueDate(LocalDate.now().plusDays(10))
+                .amount(new BigDecimal("200.00"))
+                .build());
+        when(scheduleCache.scheduleFor(mockEntity)).thenReturn(installments);
 
         Optional<PremiumScheduleDto> result = policyService.getPremiumScheduleForPolicy(policyId);
 
         assertTrue(result.isPresent());
         assertEquals(policyId, result.get().getPolicyId());
+        assertEquals(installments, result.get().getSchedule());
         verify(policyRepository).findById(policyId);
         verify(policyMapper).toPremiumScheduleDto(mockEntity); // Ensure this is verified
     }
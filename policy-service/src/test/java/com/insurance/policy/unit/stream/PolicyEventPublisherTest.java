@@ -0,0 +1,138 @@
+package com.insurance.policy.unit.stream;
+
+import com.insurance.policy.entity.PolicyEntity;
+import com.insurance.policy.mapper.PolicyMapper;
+import com.insurance.policy.repository.PolicyRepository;
+import com.insurance.policy.stream.PolicyEventPublisher;
+import com.insurance.shared.dto.PolicyDto;
+import com.insurance.shared.events.PolicyChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class PolicyEventPublisherTest {
+
+    private KafkaTemplate<String, PolicyChangeEvent> kafkaTemplate;
+    private PolicyRepository policyRepository;
+    private PolicyMapper policyMapper;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+        policyRepository = mock(PolicyRepository.class);
+        policyMapper = mock(PolicyMapper.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private PolicyEventPublisher publisher(boolean enabled) {
+        return new PolicyEventPublisher(kafkaTemplate, policyRepository, policyMapper, mock(EntityManager.class),
+                transactionManager, meterRegistry, "policy-events", enabled, false, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldPublishChangeKeyedByPolicyId() {
+        PolicyChangeEvent event = PolicyChangeEvent.of("POLICY-001", PolicyChangeEvent.ChangeType.UPDATED,
+                PolicyDto.builder().id("POLICY-001").version(3L).build());
+
+        publisher(true).onPolicyChange(event);
+
+        verify(kafkaTemplate).send("policy-events", "POLICY-001", event);
+        verifyNoMoreInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void shouldFollowDeletedEventWithTombstone() {
+        PolicyChangeEvent event = PolicyChangeEvent.of("POLICY-001", PolicyChangeEvent.ChangeType.DELETED, null);
+
+        publisher(true).onPolicyChange(event);
+
+        var inOrder = inOrder(kafkaTemplate);
+        inOrder.verify(kafkaTemplate).send("policy-events", "POLICY-001", event);
+        inOrder.verify(kafkaTemplate).send(eq("policy-events"), eq("POLICY-001"), isNull());
+    }
+
+    @Test
+    void shouldReplayEveryPolicyAsSnapshot() {
+        PolicyEntity first = PolicyEntity.builder().id("POLICY-001").build();
+        PolicyEntity second = PolicyEntity.builder().id("POLICY-002").build();
+        when(policyRepository.streamAll(null, null, null, null)).thenReturn(Stream.of(first, second));
+        when(policyMapper.toDto(any())).thenAnswer(invocation ->
+                PolicyDto.builder().id(invocation.<PolicyEntity>getArgument(0).getId()).build());
+
+        assertEquals(2, publisher(true).replayAll());
+
+        ArgumentCaptor<PolicyChangeEvent> events = ArgumentCaptor.forClass(PolicyChangeEvent.class);
+        verify(kafkaTemplate, times(2)).send(eq("policy-events"), anyString(), events.capture());
+        assertEquals(List.of("POLICY-001", "POLICY-002"),
+                events.getAllValues().stream().map(event -> event.getPolicy().getId()).toList());
+        assertTrue(events.getAllValues().stream()
+                .allMatch(event -> event.getChangeType() == PolicyChangeEvent.ChangeType.SNAPSHOT));
+        verify(kafkaTemplate).flush();
+    }
+
+    @Test
+    void shouldSuspendPublishingAfterRefusedSend() {
+        PolicyEventPublisher publisher = publisher(true);
+        when(kafkaTemplate.send(anyString(), eq("POLICY-001"), any())).thenThrow(new KafkaException("Send failed"));
+
+        publisher.onPolicyChange(PolicyChangeEvent.of("POLICY-001", PolicyChangeEvent.ChangeType.UPDATED, null));
+        publisher.onPolicyChange(PolicyChangeEvent.of("POLICY-002", PolicyChangeEvent.ChangeType.UPDATED, null));
+
+        verify(kafkaTemplate, never()).send(anyString(), eq("POLICY-002"), any());
+    }
+
+    @Test
+    void shouldReplayOnceChangesWereDropped() {
+        PolicyEventPublisher publisher = publisher(true);
+        when(kafkaTemplate.send(anyString(), eq("POLICY-001"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("Broker unavailable")));
+        when(policyRepository.streamAll(null, null, null, null)).thenReturn(Stream.empty());
+
+        publisher.replayDropped();
+        verify(policyRepository, never()).streamAll(any(), any(), any(), any());
+
+        publisher.onPolicyChange(PolicyChangeEvent.of("POLICY-001", PolicyChangeEvent.ChangeType.UPDATED, null));
+        assertEquals(1.0, meterRegistry.get("policy.events.dropped").counter().count());
+        assertEquals(1.0, meterRegistry.get("policy.events.unpublished").gauge().value());
+
+        publisher.replayDropped();
+
+        verify(policyRepository).streamAll(null, null, null, null);
+        assertEquals(0.0, meterRegistry.get("policy.events.unpublished").gauge().value());
+        assertEquals(1.0, meterRegistry.get("policy.events.dropped").counter().count());
+    }
+
+    @Test
+    void shouldPublishNothingWhenDisabled() {
+        PolicyEventPublisher publisher = publisher(false);
+
+        publisher.onPolicyChange(PolicyChangeEvent.of("POLICY-001", PolicyChangeEvent.ChangeType.CREATED, null));
+
+        assertThrows(IllegalStateException.class, publisher::replayAll);
+        verifyNoInteractions(kafkaTemplate);
+    }
+}
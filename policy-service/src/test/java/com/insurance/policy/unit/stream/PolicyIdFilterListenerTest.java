@@ -0,0 +1,50 @@
+package com.insurance.policy.unit.stream;
+
+import com.insurance.policy.search.PolicyIdFilter;
+import com.insurance.policy.stream.PolicyIdFilterListener;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+
+class PolicyIdFilterListenerTest {
+
+    private static final TopicPartition FIRST = new TopicPartition("policy-events", 0);
+    private static final TopicPartition SECOND = new TopicPartition("policy-events", 1);
+
+    private final PolicyIdFilter filter = mock(PolicyIdFilter.class);
+    private final Consumer<?, ?> consumer = mock(Consumer.class);
+
+    @Test
+    void shouldAddIdsFromOtherInstancesButNotTombstones() {
+        new PolicyIdFilterListener(filter).onPolicyChanges(List.of(
+                new ConsumerRecord<>("policy-events", 0, 0, "POLICY-001", "{\"changeType\":\"CREATED\"}"),
+                new ConsumerRecord<>("policy-events", 1, 0, "POLICY-002", "{\"changeType\":\"SNAPSHOT\"}"),
+                new ConsumerRecord<>("policy-events", 1, 1, "POLICY-003", null)), consumer);
+
+        verify(filter).add("POLICY-001");
+        verify(filter).add("POLICY-002");
+        verifyNoMoreInteractions(filter);
+    }
+
+    @Test
+    void shouldReportCaughtUpOnlyWhenEveryPartitionIsReadToItsEnd() {
+        PolicyIdFilterListener listener = new PolicyIdFilterListener(filter);
+        when(consumer.assignment()).thenReturn(Set.of(FIRST, SECOND));
+        when(consumer.currentLag(FIRST)).thenReturn(OptionalLong.of(0));
+        when(consumer.currentLag(SECOND)).thenReturn(OptionalLong.of(3), OptionalLong.empty(), OptionalLong.of(0));
+
+        listener.onPolicyChanges(List.of(), consumer);
+        listener.onPolicyChanges(List.of(), consumer);
+        verify(filter, never()).markCaughtUp();
+
+        listener.onPolicyChanges(List.of(), consumer);
+        verify(filter).markCaughtUp();
+    }
+}
@@ -1,9 +1,17 @@
 package com.insurance.shared.client;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import com.insurance.shared.dto.PolicyDto;
 
 public interface PolicyClient {
     Optional<PolicyDto> getPolicy(String policyId);
     boolean existsById(String policyId);
-}
\ No newline at end of file
+
+    /**
+     * Look up several policies in as few round trips as possible.
+     * Ids that do not resolve to a policy are absent from the result.
+     */
+    Map<String, PolicyDto> getPolicies(Collection<String> policyIds);
+}
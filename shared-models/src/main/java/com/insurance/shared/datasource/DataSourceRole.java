@@ -0,0 +1,5 @@
+package com.insurance.shared.datasource;
+
+public enum DataSourceRole {
+    PRIMARY, REPLICA
+}
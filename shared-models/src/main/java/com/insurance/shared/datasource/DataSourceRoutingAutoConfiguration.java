@@ -0,0 +1,91 @@
+package com.insurance.shared.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Primary/replica datasource pair behind a read/write router: read-only transactions use the
+ * replica while its lag is within bounds, everything else uses the primary. Both pools are
+ * separate Hikari beans, so each reports its own hikaricp.* metrics under its pool name.
+ * Applies to every service on the classpath that sets {@code datasource.routing.enabled}.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass(HikariDataSource.class)
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceRoutingAutoConfiguration {
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(applicationName + "-primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.routing.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(applicationName + "-replica");
+        // Reads only; a replica that cannot be reached at startup must not stop the service
+        dataSource.setReadOnly(true);
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${datasource.routing.lag-query:}") String lagQuery,
+                                               @Value("${datasource.routing.lag-column:Seconds_Behind_Master}") String lagColumn,
+                                               @Value("${datasource.routing.max-lag:5s}") Duration maxLag,
+                                               @Value("${datasource.routing.check-interval:5s}") Duration checkInterval) {
+        return new ReplicaLagMonitor(replica, lagQuery, lagColumn, maxLag, checkInterval);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        return ReadWriteRoutingDataSource.wrap(primary, replica, replicaLagMonitor);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class ReplicaLagMetricsConfiguration {
+
+        @Bean
+        public MeterBinder replicaLagMetrics(ReplicaLagMonitor replicaLagMonitor) {
+            return registry -> {
+                Gauge.builder("datasource.replica.lag", replicaLagMonitor, ReplicaLagMonitor::getLagSeconds)
+                        .description("Replication lag seen at the last check, -1 when unknown")
+                        .baseUnit("seconds")
+                        .register(registry);
+                Gauge.builder("datasource.replica.usable", replicaLagMonitor,
+                                monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                        .description("1 while read-only transactions are routed to the replica")
+                        .register(registry);
+            };
+        }
+    }
+}
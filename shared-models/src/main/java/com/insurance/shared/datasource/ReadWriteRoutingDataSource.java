@@ -0,0 +1,46 @@
+package com.insurance.shared.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica while it is usable, and
+ * everything else (writes, non-transactional access, replica lagging or down) to the primary.
+ * <p>
+ * The read-only flag is only known once the transaction has begun, so the router must sit
+ * behind a {@link LazyConnectionDataSourceProxy}; {@link #wrap} builds that pair.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor replicaMonitor;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor replicaMonitor) {
+        this.replicaMonitor = replicaMonitor;
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Router behind a lazy connection proxy, ready to expose as the application DataSource.
+     */
+    public static DataSource wrap(DataSource primary, DataSource replica, ReplicaLagMonitor replicaMonitor) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, replicaMonitor));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRole();
+    }
+
+    public DataSourceRole currentRole() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaMonitor.isReplicaUsable()) {
+            return DataSourceRole.REPLICA;
+        }
+        return DataSourceRole.PRIMARY;
+    }
+}
@@ -0,0 +1,114 @@
+package com.insurance.shared.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the replica's replication lag and decides whether reads may go there. The replica is
+ * considered unusable when it cannot be reached, reports no lag (replication stopped), or
+ * lags more than the allowed maximum; reads then fall back to the primary until a later
+ * check succeeds.
+ * <p>
+ * The lag query must return the lag in seconds in the configured column, e.g.
+ * {@code SHOW SLAVE STATUS} / {@code Seconds_Behind_Master} on MariaDB, or a heartbeat-table
+ * query. With no query configured only connectivity is checked.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+
+    private volatile boolean replicaUsable;
+    private volatile long lagSeconds = -1;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, String lagColumn, Duration maxLag,
+                             Duration checkInterval) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * Run a first check now, then keep checking in the background.
+     */
+    public synchronized void start() {
+        check();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, checkInterval.toMillis(), checkInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * Lag seen at the last successful check, or -1 when unknown.
+     */
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    public void check() {
+        boolean usable;
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                lagSeconds = 0;
+                usable = connection.isValid((int) Math.max(1, checkInterval.toSeconds()));
+            } else {
+                Long lag = queryLag(connection);
+                lagSeconds = lag != null ? lag : -1;
+                usable = lag != null && lag <= maxLag.toSeconds();
+            }
+        } catch (SQLException | RuntimeException e) {
+            lagSeconds = -1;
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Replica check failed, routing reads to primary: {}", e.getMessage());
+            }
+        }
+        if (usable != replicaUsable) {
+            log.info("Replica {} (lag {}s, max {}s)", usable ? "usable, routing read-only transactions to it"
+                    : "unusable, routing reads to primary", lagSeconds, maxLag.toSeconds());
+        }
+        replicaUsable = usable;
+    }
+
+    private Long queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return null;
+            }
+            long lag = rs.getLong(lagColumn);
+            return rs.wasNull() ? null : lag;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.insurance.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Answer to a batched revalidation: the policies whose version differs from the one the
+ * caller holds, and the ids that no longer exist. Ids in neither list are unchanged.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangedPoliciesDto {
+    private List<PolicyDto> changed;
+    private List<String> missing;
+}
@@ -0,0 +1,24 @@
+package com.insurance.shared.dto;
+
+import com.insurance.shared.enums.BillingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DelinquentPolicyDto {
+    private String policyId;
+    private String customerId;
+    private BillingStatus status;
+    private long daysOverdue;
+    private BigDecimal amountOverdue;
+    private LocalDate oldestDueDate;
+    private LocalDate lastPaymentDate;
+    private LocalDate gracePeriodExpiry;
+}
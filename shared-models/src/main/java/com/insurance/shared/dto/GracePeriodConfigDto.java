@@ -0,0 +1,29 @@
+package com.insurance.shared.dto;
+
+import com.insurance.shared.enums.CustomerTier;
+import com.insurance.shared.enums.PaymentFrequency;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GracePeriodConfigDto {
+    private String id;
+    private String policyType;
+    private PaymentFrequency paymentFrequency;
+    private CustomerTier customerTier;
+
+    @NotNull
+    @Min(0)
+    private Integer gracePeriodDays;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,46 @@
+package com.insurance.shared.dto;
+
+import com.insurance.shared.enums.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Per-item outcome of a batch payment submission, in request order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBatchResultDto {
+    private int submitted;
+    private int processed;
+    private int rejected;
+    private int notForwarded;
+    private List<ItemResult> results;
+
+    public enum Outcome {
+        /** Recorded and processed by payment-service; see paymentStatus */
+        PROCESSED,
+        /** Failed validation; nothing was recorded */
+        REJECTED,
+        /** Recorded as PENDING, but payment-service could not be reached */
+        NOT_FORWARDED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private String billId;
+        private String paymentId;
+        private String transactionId;
+        private Outcome outcome;
+        private PaymentStatus paymentStatus;
+        private String message;
+    }
+}
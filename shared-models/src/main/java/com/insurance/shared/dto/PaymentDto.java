@@ -1,14 +1,18 @@
 package com.insurance.shared.dto;
 
 import com.insurance.shared.enums.PaymentStatus;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class PaymentDto {
     private String id;
     private String policyId;
@@ -1,6 +1,9 @@
 package com.insurance.shared.dto;
 
 import com.insurance.shared.enums.PaymentMethod;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,8 +16,15 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 public class PaymentRequestDto {
+    @NotBlank
     private String billId; // Unique identifier for the bill
+    @NotBlank
     private String policyId; // Unique identifier for the policy
+    @NotNull
+    @Positive
     private BigDecimal amount; // Payment amount
+    @NotNull
     private PaymentMethod paymentMethod; // Payment method
+    // Optional; a repeated request with the same key gets the first outcome instead of a new charge
+    private String idempotencyKey;
 }
@@ -51,6 +51,9 @@ public class PolicyDto {
     @PositiveOrZero(message = "Grace period days must be zero or positive")
     private Integer gracePeriodDays;
 
+    // Optimistic locking version of the policy; ignored on create and update requests
+    private Long version;
+
 
     // Add this field for the premium schedule
     private PremiumScheduleDto premiumSchedule;
@@ -29,6 +29,8 @@ public class PremiumScheduleDto {
     private BigDecimal lateFee;
     private BigDecimal totalAmountDue;
     private List<PaymentDto> schedule;
+    // Version of the policy the schedule was generated from
+    private Long version;
 
     @Data
     @Builder
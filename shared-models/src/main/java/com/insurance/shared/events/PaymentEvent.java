@@ -16,6 +16,8 @@ public class PaymentEvent {
 
     private String eventId;
     private String policyId;
+    // Billing the payment settles; when absent, consumers apply it to the policy's oldest open billing
+    private String billingId;
     private String paymentId;
     private PaymentEventType eventType;
     private BigDecimal amount;
@@ -0,0 +1,45 @@
+package com.insurance.shared.events;
+
+import com.insurance.shared.dto.PolicyDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Change notification for a single policy, keyed by policyId on the policy events topic.
+ * DELETED events carry no policy body and are followed by a tombstone; SNAPSHOT events
+ * republish a policy's current state when policy-service replays the topic.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PolicyChangeEvent {
+
+    private String eventId;
+    private String policyId;
+    private ChangeType changeType;
+    private LocalDateTime occurredAt;
+    private PolicyDto policy;
+
+    public static PolicyChangeEvent of(String policyId, ChangeType changeType, PolicyDto policy) {
+        return PolicyChangeEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .policyId(policyId)
+                .changeType(changeType)
+                .occurredAt(LocalDateTime.now())
+                .policy(policy)
+                .build();
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        SNAPSHOT
+    }
+}
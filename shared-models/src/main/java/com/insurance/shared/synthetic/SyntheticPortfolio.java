@@ -0,0 +1,224 @@
+package com.insurance.shared.synthetic;
+
+import com.insurance.shared.dto.PolicyDto;
+import com.insurance.shared.enums.BillingStatus;
+import com.insurance.shared.enums.PaymentFrequency;
+import com.insurance.shared.enums.PaymentMethod;
+import com.insurance.shared.enums.PaymentStatus;
+import com.insurance.shared.enums.PolicyStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic portfolio following docs/architecture/system-assumptions.md:
+ * an 80/15/5 monthly/quarterly/annual mix, 6-24 month terms, due dates clustered on the
+ * 1st and 15th, grace periods averaging 15 days, and payments that succeed 85% of the
+ * time on the first attempt, 60% of the rest on the second and 20% on the third.
+ * <p>
+ * Every policy is derived from the seed and its index alone, so policy-service and
+ * billing-service load the same portfolio independently, and any slice of it can be
+ * generated without the rest.
+ */
+public class SyntheticPortfolio {
+
+    public static final String POLICY_ID_PREFIX = "SYN-POL-";
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long HISTORY_STREAM = 0x5DEECE66DL;
+
+    // Relative weights; the 1st and 15th carry 2.5x the volume of any other day
+    private static final double PEAK_DAY_WEIGHT = 2.5;
+    private static final int LAST_BILLING_DAY = 28;
+    private static final int[] RETRY_DAY_OFFSETS = {0, 1, 3};
+    private static final double[] ATTEMPT_SUCCESS_RATES = {0.85, 0.60, 0.20};
+
+    private final long seed;
+    private final int customers;
+    private final LocalDate asOf;
+
+    /**
+     * @param seed     the same seed always produces the same portfolio
+     * @param policies portfolio size, used to spread policies over roughly 2/3 as many customers
+     * @param asOf     the day the portfolio is generated for; installments due up to it have a
+     *                 payment history, the next one is pending
+     */
+    public SyntheticPortfolio(long seed, int policies, LocalDate asOf) {
+        this.seed = seed;
+        this.customers = Math.max(1, policies * 2 / 3);
+        this.asOf = asOf;
+    }
+
+    public record Installment(String billingId, String policyId, String customerId, BigDecimal amount,
+                              LocalDate dueDate, BillingStatus status, PaymentStatus paymentStatus,
+                              int retryCount, LocalDate gracePeriodEnd, List<Attempt> attempts) {
+    }
+
+    public record Attempt(String paymentId, PaymentMethod method, PaymentStatus status,
+                          LocalDateTime attemptedAt, String transactionId, String failureReason) {
+    }
+
+    public static String policyId(int index) {
+        return POLICY_ID_PREFIX + String.format("%08d", index);
+    }
+
+    public PolicyDto policy(int index) {
+        SplittableRandom random = random(index, 0);
+        PaymentFrequency frequency = frequency(random);
+        String policyType = policyType(random);
+        int periodMonths = periodMonths(frequency);
+        int termMonths = roundUp(6 + random.nextInt(19), periodMonths);
+        int dueDay = dueDay(random);
+        int gracePeriodDays = gracePeriodDays(random);
+        BigDecimal premium = premium(random, policyType, periodMonths);
+
+        // -1 starts next month (PENDING); every other policy is still in force on the as-of day
+        int monthsInForce = random.nextInt(termMonths + 1) - 1;
+        LocalDate effectiveDate = asOf.withDayOfMonth(1).minusMonths(monthsInForce).withDayOfMonth(dueDay);
+        LocalDate expirationDate = effectiveDate.plusMonths(termMonths);
+
+        LocalDate nextDueDate = effectiveDate;
+        while (!nextDueDate.isAfter(asOf) && nextDueDate.isBefore(expirationDate)) {
+            nextDueDate = nextDueDate.plusMonths(periodMonths);
+        }
+
+        return PolicyDto.builder()
+                .id(policyId(index))
+                .policyNumber("SPN-" + String.format("%08d", index))
+                .customerId("SYN-CUST-" + String.format("%08d", random.nextInt(customers)))
+                .policyType(policyType)
+                .status(effectiveDate.isAfter(asOf) ? PolicyStatus.PENDING : PolicyStatus.ACTIVE)
+                .effectiveDate(effectiveDate)
+                .expirationDate(expirationDate)
+                .premiumAmount(premium)
+                .frequency(frequency)
+                .nextDueDate(nextDueDate.isBefore(expirationDate) ? nextDueDate : null)
+                .gracePeriodDays(gracePeriodDays)
+                .build();
+    }
+
+    /**
+     * Billings of the policy at this index: one per installment due on or before the as-of
+     * day, with its payment attempts, plus the next upcoming installment as PENDING.
+     */
+    public List<Installment> billingHistory(int index) {
+        PolicyDto policy = policy(index);
+        SplittableRandom random = random(index, HISTORY_STREAM);
+        PaymentMethod method = paymentMethod(random);
+        int periodMonths = periodMonths(policy.getFrequency());
+
+        List<Installment> installments = new ArrayList<>();
+        for (int period = 0; ; period++) {
+            LocalDate dueDate = policy.getEffectiveDate().plusMonths((long) period * periodMonths);
+            if (!dueDate.isBefore(policy.getExpirationDate())) {
+                break;
+            }
+            String billingId = "SYN-BILL-" + String.format("%08d-%03d", index, period);
+            if (dueDate.isAfter(asOf)) {
+                installments.add(new Installment(billingId, policy.getId(), policy.getCustomerId(),
+                        policy.getPremiumAmount(), dueDate, BillingStatus.PENDING, PaymentStatus.PENDING,
+                        0, null, List.of()));
+                break;
+            }
+            installments.add(settle(billingId, policy, dueDate, method, random));
+        }
+        return installments;
+    }
+
+    private Installment settle(String billingId, PolicyDto policy, LocalDate dueDate, PaymentMethod method,
+                               SplittableRandom random) {
+        LocalDate gracePeriodEnd = dueDate.plusDays(policy.getGracePeriodDays());
+        List<Attempt> attempts = new ArrayList<>();
+        for (int attempt = 0; attempt < RETRY_DAY_OFFSETS.length; attempt++) {
+            LocalDate attemptDate = dueDate.plusDays(RETRY_DAY_OFFSETS[attempt]);
+            if (attemptDate.isAfter(asOf)) {
+                break;
+            }
+            LocalDateTime attemptedAt = attemptDate.atTime(LocalTime.ofSecondOfDay(random.nextInt(86_400)));
+            String paymentId = billingId.replace("SYN-BILL-", "SYN-PAY-") + "-" + (attempt + 1);
+            if (random.nextDouble() < ATTEMPT_SUCCESS_RATES[attempt]) {
+                attempts.add(new Attempt(paymentId, method, PaymentStatus.SUCCESS, attemptedAt,
+                        "TXN-" + paymentId, null));
+                return new Installment(billingId, policy.getId(), policy.getCustomerId(), policy.getPremiumAmount(),
+                        dueDate, BillingStatus.PAID, PaymentStatus.SUCCESS, attempt, null, attempts);
+            }
+            attempts.add(new Attempt(paymentId, method, PaymentStatus.FAILED, attemptedAt, null,
+                    random.nextInt(4) == 0 ? "Card declined" : "Insufficient funds"));
+        }
+        // Every attempt so far failed; retries and collections run inside the grace period
+        BillingStatus status = gracePeriodEnd.isBefore(asOf) ? BillingStatus.DELINQUENT : BillingStatus.GRACE_PERIOD;
+        return new Installment(billingId, policy.getId(), policy.getCustomerId(), policy.getPremiumAmount(),
+                dueDate, status, PaymentStatus.FAILED, attempts.size(), gracePeriodEnd, attempts);
+    }
+
+    private SplittableRandom random(int index, long stream) {
+        return new SplittableRandom((seed * GOLDEN_GAMMA + index) ^ stream);
+    }
+
+    private static PaymentFrequency frequency(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        return roll < 80 ? PaymentFrequency.MONTHLY : roll < 95 ? PaymentFrequency.QUARTERLY : PaymentFrequency.ANNUAL;
+    }
+
+    private static String policyType(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        return roll < 50 ? "AUTO" : roll < 85 ? "HOME" : "LIFE";
+    }
+
+    private static int dueDay(SplittableRandom random) {
+        double ordinaryDays = LAST_BILLING_DAY - 2;
+        double roll = random.nextDouble() * (ordinaryDays + 2 * PEAK_DAY_WEIGHT);
+        if (roll < PEAK_DAY_WEIGHT) {
+            return 1;
+        }
+        if (roll < 2 * PEAK_DAY_WEIGHT) {
+            return 15;
+        }
+        // Ordinary days are 2-14 and 16-28
+        int day = 2 + (int) (roll - 2 * PEAK_DAY_WEIGHT);
+        return day >= 15 ? day + 1 : day;
+    }
+
+    private static int gracePeriodDays(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        return roll < 30 ? 7 : roll < 85 ? 15 : 30;
+    }
+
+    private static PaymentMethod paymentMethod(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 60) {
+            return roll < 40 ? PaymentMethod.ACH : PaymentMethod.BANK_TRANSFER;
+        }
+        if (roll < 90) {
+            return roll < 82 ? PaymentMethod.CREDIT_CARD : PaymentMethod.DEBIT_CARD;
+        }
+        return roll < 96 ? PaymentMethod.PAYPAL : PaymentMethod.STRIPE;
+    }
+
+    private static BigDecimal premium(SplittableRandom random, String policyType, int periodMonths) {
+        int monthlyCents = switch (policyType) {
+            case "AUTO" -> 8_000 + random.nextInt(14_000);
+            case "HOME" -> 6_000 + random.nextInt(12_000);
+            default -> 3_000 + random.nextInt(12_000);
+        };
+        return BigDecimal.valueOf((long) monthlyCents * periodMonths, 2);
+    }
+
+    private static int periodMonths(PaymentFrequency frequency) {
+        return switch (frequency) {
+            case MONTHLY -> 1;
+            case QUARTERLY -> 3;
+            case SEMI_ANNUAL -> 6;
+            case ANNUAL -> 12;
+        };
+    }
+
+    private static int roundUp(int months, int periodMonths) {
+        return ((months + periodMonths - 1) / periodMonths) * periodMonths;
+    }
+}
@@ -0,0 +1,39 @@
+package com.insurance.shared.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Smile and CBOR representations for callers that ask for them in their Accept header,
+ * written by copies of the application ObjectMapper so they carry the same modules and
+ * settings as JSON. They take the place of Spring's default binary converters, which come
+ * after the JSON converter, so browsers and clients that accept any type still get JSON.
+ * Applies to every service that has spring-web and both Jackson binary formats on the classpath.
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class, before = HttpMessageConvertersAutoConfiguration.class)
+@ConditionalOnClass({MappingJackson2SmileHttpMessageConverter.class, SmileFactory.class, CBORFactory.class})
+@ConditionalOnBean(ObjectMapper.class)
+public class BinaryContentAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+    }
+}
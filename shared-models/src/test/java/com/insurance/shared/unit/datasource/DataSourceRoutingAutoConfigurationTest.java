@@ -0,0 +1,48 @@
+package com.insurance.shared.unit.datasource;
+
+import com.insurance.shared.datasource.DataSourceRoutingAutoConfiguration;
+import com.insurance.shared.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourceRoutingAutoConfigurationTest {
+
+    // A running application converts "5s" property values to Duration the same way
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withConfiguration(AutoConfigurations.of(DataSourceRoutingAutoConfiguration.class,
+                    DataSourceAutoConfiguration.class))
+            .withPropertyValues(
+                    "spring.application.name=test-service",
+                    "spring.datasource.url=jdbc:h2:mem:primary",
+                    "datasource.routing.replica.jdbc-url=jdbc:h2:mem:replica");
+
+    @Test
+    void shouldRouteThroughPrimaryAndReplicaPoolsWhenEnabled() {
+        contextRunner.withPropertyValues("datasource.routing.enabled=true").run(context -> {
+            assertEquals(3, context.getBeansOfType(DataSource.class).size());
+            assertFalse(context.getBean(DataSource.class) instanceof HikariDataSource);
+            assertEquals("test-service-replica",
+                    context.getBean("replicaDataSource", HikariDataSource.class).getPoolName());
+            assertTrue(context.containsBean("replicaLagMetrics"));
+        });
+    }
+
+    @Test
+    void shouldLeaveSingleDataSourceWhenDisabled() {
+        contextRunner.run(context -> {
+            assertFalse(context.containsBean("replicaDataSource"));
+            assertTrue(context.getBeansOfType(ReplicaLagMonitor.class).isEmpty());
+            assertInstanceOf(HikariDataSource.class, context.getBean(DataSource.class));
+        });
+    }
+}
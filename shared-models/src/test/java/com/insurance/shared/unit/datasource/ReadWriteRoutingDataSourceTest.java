@@ -0,0 +1,97 @@
+package com.insurance.shared.unit.datasource;
+
+import com.insurance.shared.datasource.ReadWriteRoutingDataSource;
+import com.insurance.shared.datasource.ReplicaLagMonitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        jdbcTemplate.execute("CREATE TABLE heartbeat (lag_seconds INT)");
+        jdbcTemplate.update("INSERT INTO heartbeat VALUES (0)");
+        return database;
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        monitor = new ReplicaLagMonitor(replica, "SELECT lag_seconds FROM heartbeat", "lag_seconds",
+                Duration.ofSeconds(5), Duration.ofMinutes(1));
+        monitor.check();
+        DataSource routing = ReadWriteRoutingDataSource.wrap(primary, replica, monitor);
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    private String node(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        assertEquals("replica", node(readOnly));
+        assertEquals("primary", node(readWrite));
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhileReplicaLags() {
+        new JdbcTemplate(replica).update("UPDATE heartbeat SET lag_seconds = 30");
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals(30, monitor.getLagSeconds());
+        assertEquals("primary", node(readOnly));
+
+        new JdbcTemplate(replica).update("UPDATE heartbeat SET lag_seconds = 1");
+        monitor.check();
+
+        assertEquals("replica", node(readOnly));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaIsDown() {
+        replica.shutdown();
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals("primary", node(readOnly));
+    }
+}
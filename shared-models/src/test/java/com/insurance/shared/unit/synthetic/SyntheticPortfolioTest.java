@@ -0,0 +1,98 @@
+package com.insurance.shared.unit.synthetic;
+
+import com.insurance.shared.dto.PolicyDto;
+import com.insurance.shared.enums.BillingStatus;
+import com.insurance.shared.enums.PaymentFrequency;
+import com.insurance.shared.enums.PaymentStatus;
+import com.insurance.shared.synthetic.SyntheticPortfolio;
+import com.insurance.shared.synthetic.SyntheticPortfolio.Installment;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticPortfolioTest {
+
+    private static final int SIZE = 20_000;
+    private static final LocalDate AS_OF = LocalDate.of(2024, 6, 10);
+
+    private final SyntheticPortfolio portfolio = new SyntheticPortfolio(42, SIZE, AS_OF);
+
+    private List<PolicyDto> policies() {
+        return IntStream.range(0, SIZE).mapToObj(portfolio::policy).toList();
+    }
+
+    private static <T> double share(List<PolicyDto> policies, Function<PolicyDto, T> attribute, T value) {
+        return policies.stream().filter(policy -> value.equals(attribute.apply(policy))).count() / (double) policies.size();
+    }
+
+    @Test
+    void shouldRegenerateTheSamePortfolioFromTheSameSeed() {
+        SyntheticPortfolio again = new SyntheticPortfolio(42, SIZE, AS_OF);
+        SyntheticPortfolio other = new SyntheticPortfolio(43, SIZE, AS_OF);
+
+        assertEquals(portfolio.policy(1234), again.policy(1234));
+        assertEquals(portfolio.billingHistory(1234), again.billingHistory(1234));
+        assertEquals("SYN-POL-00001234", portfolio.policy(1234).getId());
+        assertNotEquals(portfolio.policy(1234), other.policy(1234));
+    }
+
+    @Test
+    void shouldFollowDocumentedPortfolioMix() {
+        List<PolicyDto> policies = policies();
+
+        assertEquals(0.80, share(policies, PolicyDto::getFrequency, PaymentFrequency.MONTHLY), 0.02);
+        assertEquals(0.15, share(policies, PolicyDto::getFrequency, PaymentFrequency.QUARTERLY), 0.02);
+        assertEquals(0.05, share(policies, PolicyDto::getFrequency, PaymentFrequency.ANNUAL), 0.01);
+        assertEquals(15.0, policies.stream().mapToInt(PolicyDto::getGracePeriodDays).average().orElseThrow(), 0.5);
+
+        Map<Integer, Long> byDueDay = policies.stream()
+                .collect(Collectors.groupingBy(policy -> policy.getEffectiveDate().getDayOfMonth(), Collectors.counting()));
+        double ordinaryDay = byDueDay.get(10) + byDueDay.get(20);
+        assertTrue(byDueDay.get(1) > ordinaryDay && byDueDay.get(15) > ordinaryDay,
+                "1st and 15th should carry 2-3x an ordinary day: " + byDueDay);
+        assertTrue(byDueDay.keySet().stream().allMatch(day -> day <= 28));
+    }
+
+    @Test
+    void shouldSettleInstallmentsUpToAsOfDate() {
+        List<Installment> installments = IntStream.range(0, 2_000)
+                .mapToObj(portfolio::billingHistory)
+                .flatMap(List::stream)
+                .toList();
+        List<Installment> settled = installments.stream()
+                .filter(installment -> !installment.dueDate().isAfter(AS_OF.minusDays(3)))
+                .toList();
+        double firstAttemptSuccess = settled.stream()
+                .filter(installment -> installment.attempts().get(0).status() == PaymentStatus.SUCCESS)
+                .count() / (double) settled.size();
+
+        assertEquals(0.85, firstAttemptSuccess, 0.03);
+        assertTrue(installments.stream()
+                .filter(installment -> installment.dueDate().isAfter(AS_OF))
+                .allMatch(installment -> installment.status() == BillingStatus.PENDING && installment.attempts().isEmpty()));
+        assertTrue(settled.stream()
+                .filter(installment -> installment.status() == BillingStatus.DELINQUENT)
+                .allMatch(installment -> installment.attempts().size() == 3 && installment.gracePeriodEnd().isBefore(AS_OF)));
+    }
+
+    @Test
+    void shouldBillEachPolicyUpToItsNextDueDate() {
+        for (int index = 0; index < 500; index++) {
+            PolicyDto policy = portfolio.policy(index);
+            List<Installment> history = portfolio.billingHistory(index);
+
+            if (policy.getNextDueDate() == null) {
+                assertTrue(history.stream().noneMatch(installment -> installment.dueDate().isAfter(AS_OF)));
+            } else {
+                assertEquals(policy.getNextDueDate(), history.get(history.size() - 1).dueDate());
+            }
+        }
+    }
+}
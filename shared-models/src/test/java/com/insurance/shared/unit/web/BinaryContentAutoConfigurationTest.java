@@ -0,0 +1,35 @@
+package com.insurance.shared.unit.web;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.insurance.shared.web.BinaryContentAutoConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryContentAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class,
+                    BinaryContentAutoConfiguration.class));
+
+    @Test
+    void shouldWriteBinaryFormatsWithApplicationMapperSettings() {
+        contextRunner.run(context -> {
+            var smile = context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+            var cbor = context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+
+            assertInstanceOf(SmileFactory.class, smile.getFactory());
+            assertInstanceOf(CBORFactory.class, cbor.getFactory());
+            // Spring Boot's mapper writes dates as ISO strings; the copies must too
+            assertFalse(smile.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+            assertFalse(cbor.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        });
+    }
+}